@@ -331,9 +331,14 @@ CREATE TABLE ez_admin_sys_operation_log (
     execute_time BIGINT,
     status SMALLINT DEFAULT 1,
     error_msg TEXT,
-    create_time TIMESTAMP,
-    CONSTRAINT pk_ez_admin_sys_operation_log PRIMARY KEY (log_id)
-);
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_ez_admin_sys_operation_log PRIMARY KEY (log_id, create_time)
+) PARTITION BY RANGE (create_time);
+
+-- 按 create_time 范围分区：按月（或按天）的分区由应用启动时及每日定时任务自动预建，
+-- 命名为 ez_admin_sys_operation_log_pYYYYMM（按天为 pYYYYMMDD）；过期日志按整个分区 DETACH + DROP 清理
+-- 默认分区兜底接收没有对应分区的数据，正常情况下应为空
+CREATE TABLE ez_admin_sys_operation_log_default PARTITION OF ez_admin_sys_operation_log DEFAULT;
 
 COMMENT ON TABLE ez_admin_sys_operation_log IS '操作日志表';
 COMMENT ON COLUMN ez_admin_sys_operation_log.log_id IS '日志ID';
@@ -353,9 +358,18 @@ COMMENT ON COLUMN ez_admin_sys_operation_log.create_time IS '创建时间';
 
 -- 为日志表创建索引以提升查询性能
 CREATE INDEX idx_operation_log_user_id ON ez_admin_sys_operation_log(user_id);
-CREATE INDEX idx_operation_log_create_time ON ez_admin_sys_operation_log(create_time);
+CREATE INDEX idx_operation_log_create_time ON ez_admin_sys_operation_log(create_time, log_id);
 CREATE INDEX idx_operation_log_module ON ez_admin_sys_operation_log(module);
 
+-- 模糊搜索（LIKE '%关键词%'）使用 pg_trgm 三元组 GIN 索引，B-tree 索引无法用于前后模糊匹配
+-- 关键词至少 3 个字符时才能有效利用索引；数据库需为 UTF-8 编码，中文才能参与三元组切分
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_operation_log_module_trgm ON ez_admin_sys_operation_log USING gin (module gin_trgm_ops);
+CREATE INDEX idx_operation_log_operation_trgm ON ez_admin_sys_operation_log USING gin (operation gin_trgm_ops);
+CREATE INDEX idx_operation_log_username_trgm ON ez_admin_sys_operation_log USING gin (username gin_trgm_ops);
+CREATE INDEX idx_operation_log_description_trgm ON ez_admin_sys_operation_log USING gin (description gin_trgm_ops);
+CREATE INDEX idx_operation_log_request_url_trgm ON ez_admin_sys_operation_log USING gin (request_url gin_trgm_ops);
+
 -- ============================================================================
 -- 11. 系统配置表
 -- ============================================================================
@@ -394,6 +408,62 @@ COMMENT ON COLUMN ez_admin_sys_config.is_deleted IS '是否删除【0 正常 1 
 -- 为配置表创建索引以提升查询性能
 CREATE UNIQUE INDEX idx_config_key ON ez_admin_sys_config(config_key) WHERE is_deleted = 0;
 
+-- ============================================================================
+-- 12. 操作日志统计表（按分钟汇总）
+-- ============================================================================
+DROP TABLE IF EXISTS ez_admin_sys_operation_log_stat CASCADE;
+
+CREATE TABLE ez_admin_sys_operation_log_stat (
+    stat_id BIGINT NOT NULL,
+    stat_time TIMESTAMP NOT NULL,
+    module VARCHAR(50),
+    operation VARCHAR(50),
+    user_id BIGINT,
+    username VARCHAR(30),
+    request_count BIGINT NOT NULL DEFAULT 0,
+    error_count BIGINT NOT NULL DEFAULT 0,
+    total_time BIGINT NOT NULL DEFAULT 0,
+    max_time BIGINT NOT NULL DEFAULT 0,
+    latency_histogram BYTEA,
+    CONSTRAINT pk_ez_admin_sys_operation_log_stat PRIMARY KEY (stat_id)
+);
+
+-- 由应用在内存中按分钟汇总后定期写入，不读取日志原表；多实例部署或分钟边界时同一维度可能有多行，查询时合并
+COMMENT ON TABLE ez_admin_sys_operation_log_stat IS '操作日志统计表（按分钟汇总）';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.stat_id IS '统计ID';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.stat_time IS '统计分钟（整分钟起始时间）';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.module IS '模块名称';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.operation IS '操作类型';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.user_id IS '操作用户ID';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.username IS '操作用户名';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.request_count IS '请求次数';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.error_count IS '失败次数';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.total_time IS '总执行时长（毫秒）';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.max_time IS '最大执行时长（毫秒）';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.latency_histogram IS '执行时长分布（HdrHistogram 压缩编码，毫秒）';
+
+CREATE INDEX idx_operation_log_stat_time ON ez_admin_sys_operation_log_stat(stat_time);
+
+-- ============================================================================
+-- 13. 部门闭包表
+-- ============================================================================
+DROP TABLE IF EXISTS ez_admin_sys_dept_closure CASCADE;
+
+CREATE TABLE ez_admin_sys_dept_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INTEGER NOT NULL,
+    CONSTRAINT pk_ez_admin_sys_dept_closure PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+-- 由 DeptService 在部门新增、移动、删除时同步维护；「本部门及以下」数据权限按 ancestor_id 关联查询
+COMMENT ON TABLE ez_admin_sys_dept_closure IS '部门闭包表';
+COMMENT ON COLUMN ez_admin_sys_dept_closure.ancestor_id IS '祖先部门ID';
+COMMENT ON COLUMN ez_admin_sys_dept_closure.descendant_id IS '后代部门ID（含自身）';
+COMMENT ON COLUMN ez_admin_sys_dept_closure.depth IS '层级距离（自身为 0）';
+
+CREATE INDEX idx_dept_closure_descendant ON ez_admin_sys_dept_closure(descendant_id);
+
 -- ============================================================================
 -- 为菜单表的 API 路由字段创建索引
 -- ============================================================================
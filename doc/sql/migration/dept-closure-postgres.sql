@@ -0,0 +1,46 @@
+-- ============================================================================
+-- 新增部门闭包表（PostgreSQL 15+）
+--
+-- 已有库执行本脚本即可，新库直接使用 ez-admin-schema-v2-postgres.sql
+-- 脚本按 parent_id 从现有部门回填闭包关系，可重复执行（先清空再回填）
+-- 部门数据被手工修改导致闭包表不一致时，也可再次执行本脚本修复
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS ez_admin_sys_dept_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INTEGER NOT NULL,
+    CONSTRAINT pk_ez_admin_sys_dept_closure PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+COMMENT ON TABLE ez_admin_sys_dept_closure IS '部门闭包表';
+COMMENT ON COLUMN ez_admin_sys_dept_closure.ancestor_id IS '祖先部门ID';
+COMMENT ON COLUMN ez_admin_sys_dept_closure.descendant_id IS '后代部门ID（含自身）';
+COMMENT ON COLUMN ez_admin_sys_dept_closure.depth IS '层级距离（自身为 0）';
+
+CREATE INDEX IF NOT EXISTS idx_dept_closure_descendant ON ez_admin_sys_dept_closure(descendant_id);
+
+BEGIN;
+
+DELETE FROM ez_admin_sys_dept_closure;
+
+-- 从每个未删除的部门出发沿 parent_id 向上走，得到 (祖先, 后代, 距离)；UNION 去重防止数据成环时无限递归
+INSERT INTO ez_admin_sys_dept_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT dept_id, dept_id, 0
+    FROM ez_admin_sys_dept
+    WHERE is_deleted = 0
+    UNION
+    SELECT d.parent_id, p.descendant_id, p.depth + 1
+    FROM paths p
+    JOIN ez_admin_sys_dept d ON d.dept_id = p.ancestor_id AND d.is_deleted = 0
+    JOIN ez_admin_sys_dept a ON a.dept_id = d.parent_id AND a.is_deleted = 0
+    WHERE p.depth < 64
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM paths
+GROUP BY ancestor_id, descendant_id;
+
+COMMIT;
+
+ANALYZE ez_admin_sys_dept_closure;
@@ -0,0 +1,77 @@
+-- ============================================================================
+-- 操作日志表改为按 create_time 范围分区（PostgreSQL 15+）
+--
+-- 适用于已按旧版结构建表、已有数据的库，新库直接使用 ez-admin-schema-v2-postgres.sql 即可
+--
+-- 步骤：
+--   1. 旧表改名为 ez_admin_sys_operation_log_legacy
+--   2. 新建分区主表和默认分区
+--   3. 旧表整体作为一个分区挂到主表，范围为 (MINVALUE, 下月 1 日)，不搬迁数据；
+--      上界取下月 1 日而不是本月 1 日，因为线上库中本月已有日志，CHECK 约束会失败导致整个迁移回滚；
+--      先加 CHECK 约束，ATTACH 时可跳过全表校验扫描
+--   4. 下月及之后的分区由应用启动时自动创建（也可手动执行末尾的示例语句）
+--      本月（按天分区时为本月剩余各天）的分区与 legacy 分区范围重叠，应用创建时会失败并记录一条
+--      "创建操作日志分区失败" 警告，属于预期行为：本月写入的日志仍落在 legacy 分区中
+--
+-- 旧数据全部超出保留期后，清理接口会把 legacy 分区整体删除
+-- 执行前请先停止应用写入，并备份数据
+-- ============================================================================
+
+BEGIN;
+
+-- 1. 旧表改名
+ALTER TABLE ez_admin_sys_operation_log RENAME TO ez_admin_sys_operation_log_legacy;
+ALTER TABLE ez_admin_sys_operation_log_legacy RENAME CONSTRAINT pk_ez_admin_sys_operation_log TO pk_ez_admin_sys_operation_log_legacy;
+ALTER INDEX idx_operation_log_user_id RENAME TO idx_operation_log_legacy_user_id;
+ALTER INDEX idx_operation_log_create_time RENAME TO idx_operation_log_legacy_create_time;
+ALTER INDEX idx_operation_log_module RENAME TO idx_operation_log_legacy_module;
+
+-- 2. 新建分区主表
+CREATE TABLE ez_admin_sys_operation_log (
+    log_id BIGINT NOT NULL,
+    module VARCHAR(50),
+    operation VARCHAR(50),
+    description VARCHAR(255),
+    user_id BIGINT,
+    username VARCHAR(30),
+    request_method VARCHAR(10),
+    request_url VARCHAR(500),
+    request_ip VARCHAR(128),
+    request_params TEXT,
+    execute_time BIGINT,
+    status SMALLINT DEFAULT 1,
+    error_msg TEXT,
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_ez_admin_sys_operation_log PRIMARY KEY (log_id, create_time)
+) PARTITION BY RANGE (create_time);
+
+CREATE TABLE ez_admin_sys_operation_log_default PARTITION OF ez_admin_sys_operation_log DEFAULT;
+
+COMMENT ON TABLE ez_admin_sys_operation_log IS '操作日志表';
+
+CREATE INDEX idx_operation_log_user_id ON ez_admin_sys_operation_log(user_id);
+CREATE INDEX idx_operation_log_create_time ON ez_admin_sys_operation_log(create_time, log_id);
+CREATE INDEX idx_operation_log_module ON ez_admin_sys_operation_log(module);
+
+-- 3. 旧表作为历史分区挂载（主键需包含分区键）
+UPDATE ez_admin_sys_operation_log_legacy SET create_time = '1970-01-01' WHERE create_time IS NULL;
+ALTER TABLE ez_admin_sys_operation_log_legacy ALTER COLUMN create_time SET NOT NULL;
+ALTER TABLE ez_admin_sys_operation_log_legacy ALTER COLUMN create_time SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE ez_admin_sys_operation_log_legacy DROP CONSTRAINT pk_ez_admin_sys_operation_log_legacy;
+ALTER TABLE ez_admin_sys_operation_log_legacy ADD CONSTRAINT pk_ez_admin_sys_operation_log_legacy PRIMARY KEY (log_id, create_time);
+
+DO $$
+DECLARE
+    -- 本月已有数据，上界必须不早于下月 1 日
+    upper_bound TIMESTAMP := (date_trunc('month', now()) + INTERVAL '1 month')::TIMESTAMP;
+BEGIN
+    EXECUTE format('ALTER TABLE ez_admin_sys_operation_log_legacy ADD CONSTRAINT ck_operation_log_legacy_range CHECK (create_time < %L)', upper_bound);
+    EXECUTE format('ALTER TABLE ez_admin_sys_operation_log ATTACH PARTITION ez_admin_sys_operation_log_legacy FOR VALUES FROM (MINVALUE) TO (%L)', upper_bound);
+    ALTER TABLE ez_admin_sys_operation_log_legacy DROP CONSTRAINT ck_operation_log_legacy_range;
+END $$;
+
+COMMIT;
+
+-- 4. （可选）手动预建下月分区，示例（本月已由 legacy 分区覆盖，不能再建）：
+-- CREATE TABLE IF NOT EXISTS ez_admin_sys_operation_log_p202611 PARTITION OF ez_admin_sys_operation_log
+--     FOR VALUES FROM ('2026-11-01 00:00:00') TO ('2026-12-01 00:00:00');
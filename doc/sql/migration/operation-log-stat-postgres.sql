@@ -0,0 +1,27 @@
+-- ============================================================================
+-- 新增操作日志统计表（PostgreSQL 15+）
+--
+-- 已有库执行本脚本即可，新库直接使用 ez-admin-schema-v2-postgres.sql
+-- 统计数据由应用按分钟汇总写入，只包含建表之后的请求，不会回填历史日志
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS ez_admin_sys_operation_log_stat (
+    stat_id BIGINT NOT NULL,
+    stat_time TIMESTAMP NOT NULL,
+    module VARCHAR(50),
+    operation VARCHAR(50),
+    user_id BIGINT,
+    username VARCHAR(30),
+    request_count BIGINT NOT NULL DEFAULT 0,
+    error_count BIGINT NOT NULL DEFAULT 0,
+    total_time BIGINT NOT NULL DEFAULT 0,
+    max_time BIGINT NOT NULL DEFAULT 0,
+    latency_histogram BYTEA,
+    CONSTRAINT pk_ez_admin_sys_operation_log_stat PRIMARY KEY (stat_id)
+);
+
+COMMENT ON TABLE ez_admin_sys_operation_log_stat IS '操作日志统计表（按分钟汇总）';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.stat_time IS '统计分钟（整分钟起始时间）';
+COMMENT ON COLUMN ez_admin_sys_operation_log_stat.latency_histogram IS '执行时长分布（HdrHistogram 压缩编码，毫秒）';
+
+CREATE INDEX IF NOT EXISTS idx_operation_log_stat_time ON ez_admin_sys_operation_log_stat(stat_time);
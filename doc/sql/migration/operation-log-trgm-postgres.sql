@@ -0,0 +1,30 @@
+-- ============================================================================
+-- 操作日志模糊搜索索引（pg_trgm 三元组 GIN 索引，PostgreSQL 15+）
+--
+-- 操作日志查询的 module / operation / username / keyword（description、request_url）条件
+-- 均为 LIKE '%关键词%'，B-tree 索引无法使用，只能全表扫描；三元组 GIN 索引可直接支持此类条件，
+-- 多列 OR 条件由规划器合并为 BitmapOr，无需修改 SQL
+--
+-- 说明：
+--   - 如需同时执行 operation-log-partition-postgres.sql，请先完成分区迁移再执行本脚本
+--   - 关键词不足 3 个字符时无法提取三元组，规划器会退回顺序扫描（建议配合时间范围查询）
+--   - 数据库需为 UTF-8 编码且 LC_CTYPE 不是 C，中文字符才会参与三元组切分
+--   - 分区表上建索引会自动在所有分区（含之后新建的分区）上创建；
+--     建索引期间会阻塞写入，日志量大时请在低峰期执行（写入器队列可短时缓冲）
+--   - GIN 索引会增加写入开销，fastupdate（默认开启）会先写入待处理列表再批量合并
+-- ============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_operation_log_module_trgm ON ez_admin_sys_operation_log USING gin (module gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_operation_log_operation_trgm ON ez_admin_sys_operation_log USING gin (operation gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_operation_log_username_trgm ON ez_admin_sys_operation_log USING gin (username gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_operation_log_description_trgm ON ez_admin_sys_operation_log USING gin (description gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_operation_log_request_url_trgm ON ez_admin_sys_operation_log USING gin (request_url gin_trgm_ops);
+
+ANALYZE ez_admin_sys_operation_log;
+
+-- 验证：执行计划中应出现 Bitmap Index Scan on idx_operation_log_*_trgm
+-- EXPLAIN ANALYZE
+-- SELECT COUNT(*) FROM ez_admin_sys_operation_log
+-- WHERE description LIKE '%重置密码%' OR request_url LIKE '%/user/reset%';
@@ -0,0 +1,327 @@
+package com.ez.admin.benchmark;
+
+import cn.dev33.satoken.SaManager;
+import cn.dev33.satoken.config.SaTokenConfig;
+import cn.dev33.satoken.context.SaHolder;
+import cn.dev33.satoken.context.mock.SaRequestForMock;
+import cn.dev33.satoken.context.mock.SaTokenContextMockUtil;
+import cn.dev33.satoken.exception.NotPermissionException;
+import cn.dev33.satoken.stp.StpUtil;
+import ch.qos.logback.classic.LoggerContext;
+import com.ez.admin.common.framework.datascope.DataScopeContext;
+import com.ez.admin.common.framework.datascope.DataScopeInfo;
+import com.ez.admin.common.framework.datascope.DataScopeInterceptor;
+import com.ez.admin.common.framework.datascope.DataScopeSessionCache;
+import com.ez.admin.common.framework.permission.EzStpLogic;
+import com.ez.admin.common.framework.permission.PermissionCodeRegistry;
+import com.ez.admin.common.framework.permission.SaTokenPermissionImpl;
+import com.ez.admin.common.infrastructure.cache.AdminCache;
+import com.ez.admin.common.infrastructure.cache.PermissionCacheMetrics;
+import com.ez.admin.common.infrastructure.cache.codec.CacheCodecRegistry;
+import com.ez.admin.dto.menu.vo.MenuPermissionVO;
+import com.ez.admin.modules.system.mapper.SysRoleMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求鉴权热路径基准测试
+ * <p>
+ * 在进程内组装真实的 {@link AdminCache}、{@link SaTokenPermissionImpl}、{@link EzStpLogic} 与
+ * {@link DataScopeInterceptor}，Redis 由 {@link InMemoryRedisCache} 代替（保留序列化开销、去掉网络开销），
+ * 数据库由 {@link SysRoleMapper} 桩实现代替。覆盖每个请求都会经过的步骤：
+ * <ul>
+ *   <li>{@code routeLookup}：SaTokenMvcConfig 中的路由权限码匹配</li>
+ *   <li>{@code getRoleList} / {@code getPermissionList}：Sa-Token 回调 StpInterface 获取角色、权限</li>
+ *   <li>{@code checkPermission}：获取权限快照并按 Sa-Token 策略判断是否拥有权限</li>
+ *   <li>{@code getMenuByRoleLabels}：按角色批量读取菜单权限（MGET + 解码）</li>
+ *   <li>{@code dataScopePreHandle}：恢复数据权限上下文（sessionCacheSeconds=0 时每次读取 Sa-Token Session，否则命中本地快照）</li>
+ *   <li>{@code authorizeRequest}：以上步骤串联的完整请求鉴权（含 Sa-Token 模拟上下文开销），登录ID只解析一次并共享给数据权限拦截器</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 运行（-prof gc 输出 gc.alloc.rate / gc.alloc.rate.norm）：
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="AuthorizationHotPathBenchmark -prof gc"
+ * </p>
+ * <p>
+ * 参数可通过 -p 覆盖，例如 -p routeCount=5000 -p rolesPerUser=6 -p permsPerRole=200
+ * </p>
+ * <p>
+ * 注意：Sa-Token 使用内存 SaTokenDao，Session 读取不含 Redis 往返与反序列化，
+ * 线上 sa-token-redis-template 下本地快照节省的开销远大于此处结果
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationHotPathBenchmark {
+
+    private static final int REQUEST_SAMPLES = 1024;
+    private static final int ROUTES_PER_RESOURCE = 5;
+    private static final int RESOURCES_PER_MODULE = 4;
+    private static final long USER_ID = 1_700_000_000_000_000L;
+
+    /**
+     * 路由规则数量
+     */
+    @Param({"500", "5000"})
+    private int routeCount;
+
+    /**
+     * 每个用户的角色数
+     */
+    @Param({"1", "6"})
+    private int rolesPerUser;
+
+    /**
+     * 每个角色的权限数
+     */
+    @Param({"50", "200"})
+    private int permsPerRole;
+
+    /**
+     * 数据权限 Session 本地快照有效期（秒），0 为每次读取 Session
+     */
+    @Param({"0", "30"})
+    private long sessionCacheSeconds;
+
+    private AdminCache adminCache;
+    private SaTokenPermissionImpl permissionImpl;
+    private DataScopeInterceptor dataScopeInterceptor;
+    private List<String> roleLabels;
+    private Map<String, String> tokenHeader;
+
+    private String[] methods;
+    private String[] paths;
+    private String[] perms;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 关闭 DEBUG 日志，避免输出主导耗时
+        ((LoggerContext) LoggerFactory.getILoggerFactory())
+                .getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        // 1. 生成路由规则：每个资源 5 条路由，其中 2 条带路径变量
+        Map<String, String> routePermMap = new LinkedHashMap<>(routeCount * 2);
+        List<String[]> routes = new ArrayList<>(routeCount);
+        int modules = Math.max(1, routeCount / (ROUTES_PER_RESOURCE * RESOURCES_PER_MODULE));
+        for (int m = 0; m < modules; m++) {
+            for (int r = 0; r < RESOURCES_PER_MODULE; r++) {
+                String base = "/api/m" + m + "/r" + r;
+                String perm = "m" + m + ":r" + r;
+                addRoute(routePermMap, routes, "GET", base + "/list", base + "/list", perm + ":list");
+                addRoute(routePermMap, routes, "POST", base, base, perm + ":create");
+                addRoute(routePermMap, routes, "PUT", base, base, perm + ":update");
+                addRoute(routePermMap, routes, "DELETE", base + "/{id}", base + "/1024", perm + ":delete");
+                addRoute(routePermMap, routes, "GET", base + "/{id}/detail", base + "/2048/detail", perm + ":query");
+            }
+        }
+
+        // 2. 生成角色：角色 i 拥有从第 i * permsPerRole 条路由开始的连续 permsPerRole 个权限码（循环取）
+        roleLabels = new ArrayList<>(rolesPerUser);
+        Map<String, List<MenuPermissionVO>> roleMenus = new HashMap<>(rolesPerUser * 2);
+        List<String[]> grantedRoutes = new ArrayList<>();
+        Set<String> granted = new HashSet<>();
+        long menuId = 2_000_000_000_000_000L;
+        for (int i = 0; i < rolesPerUser; i++) {
+            String roleLabel = "ROLE_" + i;
+            roleLabels.add(roleLabel);
+            List<MenuPermissionVO> menus = new ArrayList<>(permsPerRole);
+            for (int p = 0; p < permsPerRole; p++) {
+                String[] route = routes.get((i * permsPerRole + p) % routes.size());
+                menus.add(MenuPermissionVO.builder()
+                        .menuId(menuId++)
+                        .menuPerm(route[2])
+                        .menuType(3)
+                        .roleId(1_900_000_000_000_000L + i)
+                        .roleLabel(roleLabel)
+                        .build());
+                if (granted.add(route[2])) {
+                    grantedRoutes.add(route);
+                }
+            }
+            roleMenus.put(roleLabel, menus);
+        }
+
+        // 3. 组装缓存与权限组件，预热 Redis 替身与本地快照
+        InMemoryRedisCache redisCache = new InMemoryRedisCache();
+        CacheCodecRegistry codecRegistry = new CacheCodecRegistry(List.of(
+                CacheCodecRegistry.NAMESPACE_USER_ROLES,
+                CacheCodecRegistry.NAMESPACE_ROLE_MENUS,
+                CacheCodecRegistry.NAMESPACE_ROUTE_MAP));
+        adminCache = new AdminCache(redisCache, roleMapperStub(roleMenus),
+                new PermissionCacheMetrics(new SimpleMeterRegistry()), codecRegistry, new PermissionCodeRegistry());
+        adminCache.refreshRoutePermissionCache(routePermMap);
+        adminCache.cacheUserRoles(USER_ID, roleLabels);
+        roleMenus.forEach(adminCache::cacheRoleMenuPermissions);
+        permissionImpl = new SaTokenPermissionImpl(adminCache);
+        // 只读取 Session，不会触发按数据库重新计算
+        DataScopeSessionCache dataScopeSessionCache = new DataScopeSessionCache(redisCache, null, sessionCacheSeconds, 10_000);
+        dataScopeInterceptor = new DataScopeInterceptor(dataScopeSessionCache);
+
+        // 4. Sa-Token：内存 SaTokenDao + 生产同款 StpLogic，登录后把数据权限写入 Session
+        SaTokenConfig config = new SaTokenConfig();
+        config.setJwtSecretKey("ez-admin-benchmark-jwt-secret-key");
+        config.setIsPrint(false);
+        config.setIsLog(false);
+        config.setIsReadCookie(false);
+        SaManager.setConfig(config);
+        SaManager.setStpInterface(permissionImpl);
+        StpUtil.setStpLogic(new EzStpLogic());
+        String token = SaTokenContextMockUtil.setMockContext(() -> {
+            StpUtil.login(USER_ID);
+            dataScopeSessionCache.store(StpUtil.getSession(), DataScopeInfo.builder()
+                    .dataScope(4)
+                    .userId(USER_ID)
+                    .deptId(1_800_000_000_000_000L)
+                    .ancestors("/1/100/10001/")
+                    .customDeptIds(List.of(1_800_000_000_000_001L, 1_800_000_000_000_002L))
+                    .build());
+            return StpUtil.getTokenValue();
+        });
+        tokenHeader = Map.of(config.getTokenName(), token);
+
+        // 5. 请求样本：只取用户拥有权限的路由，避免 NotPermissionException 主导耗时
+        Random random = new Random(42);
+        methods = new String[REQUEST_SAMPLES];
+        paths = new String[REQUEST_SAMPLES];
+        perms = new String[REQUEST_SAMPLES];
+        for (int i = 0; i < REQUEST_SAMPLES; i++) {
+            String[] route = grantedRoutes.get(random.nextInt(grantedRoutes.size()));
+            methods[i] = route[0];
+            paths[i] = route[1];
+            perms[i] = route[2];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SaTokenContextMockUtil.setMockContext(() -> StpUtil.logout(USER_ID));
+    }
+
+    @Benchmark
+    public String routeLookup() {
+        int i = next();
+        return adminCache.getRoutePermissionMatcher().match(methods[i], paths[i]);
+    }
+
+    @Benchmark
+    public List<String> getRoleList() {
+        return permissionImpl.getRoleList(USER_ID, StpUtil.TYPE);
+    }
+
+    @Benchmark
+    public List<String> getPermissionList() {
+        return permissionImpl.getPermissionList(USER_ID, StpUtil.TYPE);
+    }
+
+    @Benchmark
+    public boolean checkPermission() {
+        List<String> permissionList = permissionImpl.getPermissionList(USER_ID, StpUtil.TYPE);
+        return StpUtil.getStpLogic().hasElement(permissionList, perms[next()]);
+    }
+
+    @Benchmark
+    public List<MenuPermissionVO> getMenuByRoleLabels() {
+        return adminCache.getMenuByRoleLabels(roleLabels);
+    }
+
+    @Benchmark
+    public DataScopeInfo dataScopePreHandle() {
+        return SaTokenContextMockUtil.setMockContext(() -> {
+            bindRequest(0);
+            dataScopeInterceptor.preHandle(null, null, null);
+            DataScopeInfo info = DataScopeContext.getDataScopeInfo();
+            dataScopeInterceptor.afterCompletion(null, null, null, null);
+            return info;
+        });
+    }
+
+    @Benchmark
+    public DataScopeInfo authorizeRequest() {
+        int i = next();
+        return SaTokenContextMockUtil.setMockContext(() -> {
+            bindRequest(i);
+            String requiredPerm = adminCache.getRoutePermissionMatcher().match(methods[i], paths[i]);
+            Object loginId = StpUtil.getLoginId();
+            DataScopeInterceptor.rememberLogin(loginId);
+            if (requiredPerm != null && !requiredPerm.isEmpty() && !StpUtil.hasPermission(loginId, requiredPerm)) {
+                throw new NotPermissionException(requiredPerm, StpUtil.getLoginType());
+            }
+            dataScopeInterceptor.preHandle(null, null, null);
+            DataScopeInfo info = DataScopeContext.getDataScopeInfo();
+            dataScopeInterceptor.afterCompletion(null, null, null, null);
+            return info;
+        });
+    }
+
+    /**
+     * 直接在 IDE 中运行（自动附加 GC 分析器）
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorizationHotPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) & (REQUEST_SAMPLES - 1);
+        return i;
+    }
+
+    private void bindRequest(int i) {
+        SaRequestForMock request = (SaRequestForMock) SaHolder.getRequest();
+        request.headerMap = tokenHeader;
+        request.method = methods[i];
+        request.requestPath = paths[i];
+    }
+
+    private static void addRoute(Map<String, String> routePermMap, List<String[]> routes,
+                                 String method, String pattern, String samplePath, String perm) {
+        routePermMap.put(method + ":" + pattern, perm);
+        routes.add(new String[]{method, samplePath, perm});
+    }
+
+    /**
+     * 角色 Mapper 桩：只实现 AdminCache 回源会用到的查询
+     */
+    private SysRoleMapper roleMapperStub(Map<String, List<MenuPermissionVO>> roleMenus) {
+        return (SysRoleMapper) Proxy.newProxyInstance(
+                SysRoleMapper.class.getClassLoader(),
+                new Class<?>[]{SysRoleMapper.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "selectRoleLabelsByUserId" -> new ArrayList<>(roleLabels);
+                    case "selectMenuPermissionsByRoleLabel" ->
+                            new ArrayList<>(roleMenus.getOrDefault((String) args[0], List.of()));
+                    case "selectMenuPermissionsByRoleLabels" -> {
+                        List<MenuPermissionVO> result = new ArrayList<>();
+                        for (Object roleLabel : (Collection<?>) args[0]) {
+                            result.addAll(roleMenus.getOrDefault((String) roleLabel, List.of()));
+                        }
+                        yield result;
+                    }
+                    case "toString" -> "SysRoleMapperStub";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,116 @@
+package com.ez.admin.benchmark;
+
+import com.ez.admin.common.framework.datascope.DataScopeInfo;
+import com.ez.admin.common.infrastructure.cache.codec.DataScopeInfoCodec;
+import com.ez.admin.common.infrastructure.cache.codec.MenuPermissionListCodec;
+import com.ez.admin.common.infrastructure.cache.codec.StringListCodec;
+import com.ez.admin.common.infrastructure.redis.codec.CacheCodecs;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import com.ez.admin.dto.menu.vo.MenuPermissionVO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存值编解码基准测试
+ * <p>
+ * 对比当前 RedisTemplate 使用的 JSON 序列化（GenericJacksonJsonRedisSerializer + 默认类型信息）
+ * 与紧凑二进制编码的编码、解码耗时；负载字节数在 Setup 阶段输出
+ * </p>
+ * <p>
+ * 运行：mvn -Pbenchmark compile exec:exec -Djmh.args="CacheValueCodecBenchmark -prof gc"
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheValueCodecBenchmark {
+
+    /**
+     * 负载类型：role_menus（一个角色 200 个菜单权限）、user_roles（6 个角色标识）、data_scope（自定义 20 个部门）
+     */
+    @Param({"role_menus", "user_roles", "data_scope"})
+    private String payload;
+
+    private GenericJacksonJsonRedisSerializer jsonSerializer;
+    private CacheValueCodec<?> compactCodec;
+    private Object value;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonSerializer = GenericJacksonJsonRedisSerializer.builder()
+                .enableUnsafeDefaultTyping()
+                .build();
+
+        switch (payload) {
+            case "role_menus" -> {
+                List<MenuPermissionVO> menus = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    menus.add(MenuPermissionVO.builder()
+                            .menuId(2_000_000_000_000_000L + i)
+                            .menuPerm("system:module" + (i / 10) + ":action" + (i % 10))
+                            .menuType(i % 3 + 1)
+                            .roleId(1_900_000_000_000_000L)
+                            .roleLabel("DEPT_MANAGER")
+                            .build());
+                }
+                value = menus;
+                compactCodec = MenuPermissionListCodec.INSTANCE;
+            }
+            case "user_roles" -> {
+                value = new ArrayList<>(List.of("SUPER_ADMIN", "DEPT_MANAGER", "AUDITOR", "FINANCE", "HR", "OPS"));
+                compactCodec = StringListCodec.INSTANCE;
+            }
+            default -> {
+                List<Long> customDeptIds = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    customDeptIds.add(1_800_000_000_000_000L + i);
+                }
+                value = DataScopeInfo.builder()
+                        .dataScope(4)
+                        .userId(1_700_000_000_000_000L)
+                        .deptId(1_800_000_000_000_000L)
+                        .ancestors("/1/100/10001/")
+                        .customDeptIds(customDeptIds)
+                        .build();
+                compactCodec = DataScopeInfoCodec.INSTANCE;
+            }
+        }
+
+        jsonBytes = jsonSerializer.serialize(value);
+        compactBytes = CacheCodecs.encode(compactCodec, value);
+        System.out.printf("%n[%s] payload bytes: json=%d, compact=%d (%.1f%%)%n",
+                payload, jsonBytes.length, compactBytes.length, 100.0 * compactBytes.length / jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object jsonDecode() {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] compactEncode() {
+        return CacheCodecs.encode(compactCodec, value);
+    }
+
+    @Benchmark
+    public Object compactDecode() {
+        return CacheCodecs.decode(compactCodec, compactBytes);
+    }
+}
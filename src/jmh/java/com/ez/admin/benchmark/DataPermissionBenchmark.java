@@ -0,0 +1,247 @@
+package com.ez.admin.benchmark;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.ez.admin.common.framework.datascope.DataScopeContext;
+import com.ez.admin.common.framework.datascope.DataScopeCreatorCache;
+import com.ez.admin.common.framework.datascope.DataScopeInfo;
+import com.ez.admin.common.framework.datascope.DataScopeSqlInterceptor;
+import com.ez.admin.common.framework.datascope.DataScopeTableRegistry;
+import com.ez.admin.common.framework.datascope.UserDataPermissionHandler;
+import com.ez.admin.modules.system.mapper.SysUserMapper;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Table;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static com.ez.admin.common.core.constant.SystemConstants.*;
+
+/**
+ * 数据权限 SQL 改写基准测试
+ * <p>
+ * 对比 {@link UserDataPermissionHandler} 的三种工作方式：
+ * <ul>
+ *   <li>expressionCacheSize=0, creatorSetMaxSize=0：每次查询重新拼接并解析子查询条件（最初的行为）</li>
+ *   <li>expressionCacheSize=1024, creatorSetMaxSize=0：缓存已解析的子查询条件</li>
+ *   <li>expressionCacheSize=1024, creatorSetMaxSize=1000：缓存可见创建人集合，以 {@code created_by = ANY(?)} 数组参数绑定</li>
+ * </ul>
+ * 测量项：
+ * <ul>
+ *   <li>{@code getSqlSegment}：只调用处理器生成条件表达式</li>
+ *   <li>{@code rewriteSelect} / {@code rewriteCount}：经 {@link DataScopeSqlInterceptor#beforeQuery} 改写一条分页查询 / COUNT 查询
+ *       并绑定参数，即每条被拦截的 SQL 实际多出的开销（含语句本身的解析与输出）</li>
+ *   <li>{@code rewriteUnprotected}：拦截一条不涉及 {@code @DataScope} 表的查询（按表名索引直接跳过，不解析）</li>
+ * </ul>
+ * 每次调用轮换 {@code users} 个不同用户的数据权限上下文，模拟多个用户交替查询；
+ * 可见创建人由 {@link SysUserMapper} 桩实现返回（每个部门 {@code creatorsPerDept} 人），不访问数据库
+ * </p>
+ * <p>
+ * 运行（-prof gc 输出 gc.alloc.rate.norm）：
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="DataPermissionBenchmark -prof gc"
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataPermissionBenchmark {
+
+    private static final String TABLE_NAME = "ez_admin_test_order";
+    private static final String STATEMENT_ID = "com.ez.admin.modules.test.mapper.TestOrderMapper.selectPage";
+    private static final String SELECT_SQL = "SELECT order_id, order_no, amount, status, created_by, create_time FROM "
+            + TABLE_NAME + " WHERE status = ? AND create_time >= ? ORDER BY create_time DESC LIMIT ? OFFSET ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) AS total FROM " + TABLE_NAME
+            + " WHERE status = ? AND create_time >= ?";
+    private static final String UNPROTECTED_SQL = "SELECT user_id, username, nickname, dept_id FROM ez_admin_sys_user"
+            + " WHERE status = ? AND dept_id = ? ORDER BY create_time DESC LIMIT ? OFFSET ?";
+
+    /**
+     * 已解析条件表达式的缓存条数，0 为每次解析
+     */
+    @Param({"0", "1024"})
+    private int expressionCacheSize;
+
+    /**
+     * 可见创建人集合上限，0 为始终使用子查询
+     */
+    @Param({"0", "1000"})
+    private int creatorSetMaxSize;
+
+    /**
+     * 数据权限范围：1 仅本人 / 3 本部门及以下 / 4 自定义
+     */
+    @Param({"1", "3", "4"})
+    private int dataScope;
+
+    /**
+     * 轮换的用户数
+     */
+    @Param({"64"})
+    private int users;
+
+    /**
+     * 每个部门（子树）的可见创建人数
+     */
+    @Param({"50"})
+    private int creatorsPerDept;
+
+    private UserDataPermissionHandler handler;
+    private DataScopeSqlInterceptor interceptor;
+    private Configuration configuration;
+    private MappedStatement selectStatement;
+    private MappedStatement countStatement;
+    private MappedStatement unprotectedStatement;
+    private List<ParameterMapping> selectMappings;
+    private List<ParameterMapping> countMappings;
+    private Table table;
+    private Expression where;
+    private DataScopeInfo[] infos;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 关闭 DEBUG 日志，避免输出主导耗时
+        ((LoggerContext) LoggerFactory.getILoggerFactory())
+                .getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        DataScopeCreatorCache creatorCache = new DataScopeCreatorCache(stubUserMapper(), null, creatorSetMaxSize, 10_000);
+        DataScopeTableRegistry tableRegistry = new DataScopeTableRegistry(DataScopeTableRegistry.scan("com.ez.admin"));
+        handler = new UserDataPermissionHandler(tableRegistry, creatorCache, expressionCacheSize);
+        interceptor = new DataScopeSqlInterceptor(handler);
+        table = new Table(TABLE_NAME);
+        where = CCJSqlParserUtil.parseCondExpression("status = ? AND create_time >= ?");
+
+        configuration = new Configuration();
+        selectMappings = parameterMappings(4);
+        countMappings = parameterMappings(2);
+        selectStatement = mappedStatement(STATEMENT_ID, SELECT_SQL, selectMappings);
+        countStatement = mappedStatement(STATEMENT_ID + "_mpCount", COUNT_SQL, countMappings);
+        unprotectedStatement = mappedStatement("com.ez.admin.modules.system.mapper.SysUserMapper.selectPage",
+                UNPROTECTED_SQL, selectMappings);
+
+        infos = new DataScopeInfo[users];
+        for (int i = 0; i < users; i++) {
+            long deptId = 100 + i % 8;
+            infos[i] = DataScopeInfo.builder()
+                    .dataScope(dataScope)
+                    .userId(1_700_000_000_000_000L + i)
+                    .deptId(deptId)
+                    .ancestors("/0/1/" + (10 + i % 4) + "/")
+                    .customDeptIds(dataScope == DATA_SCOPE_CUSTOM ? List.of(deptId, deptId + 1, deptId + 2) : null)
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataScopeContext.clear();
+    }
+
+    /**
+     * 切换到下一个用户的数据权限上下文（由登录拦截器在请求开始时设置）
+     */
+    private void nextUser() {
+        DataScopeContext.setDataScopeInfo(infos[index]);
+        index = (index + 1) % infos.length;
+    }
+
+    @Benchmark
+    public Expression getSqlSegment() {
+        nextUser();
+        return handler.getSqlSegment(table, where, STATEMENT_ID);
+    }
+
+    @Benchmark
+    public BoundSql rewriteSelect() throws SQLException {
+        nextUser();
+        return rewrite(selectStatement, SELECT_SQL, selectMappings);
+    }
+
+    @Benchmark
+    public BoundSql rewriteCount() throws SQLException {
+        nextUser();
+        return rewrite(countStatement, COUNT_SQL, countMappings);
+    }
+
+    @Benchmark
+    public BoundSql rewriteUnprotected() throws SQLException {
+        nextUser();
+        return rewrite(unprotectedStatement, UNPROTECTED_SQL, selectMappings);
+    }
+
+    private BoundSql rewrite(MappedStatement ms, String sql, List<ParameterMapping> mappings) throws SQLException {
+        BoundSql boundSql = new BoundSql(configuration, sql, new ArrayList<>(mappings), null);
+        interceptor.beforeQuery(null, ms, null, RowBounds.DEFAULT, null, boundSql);
+        return boundSql;
+    }
+
+    private List<ParameterMapping> parameterMappings(int count) {
+        List<ParameterMapping> mappings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mappings.add(new ParameterMapping.Builder(configuration, "param" + i, Object.class).build());
+        }
+        return mappings;
+    }
+
+    private MappedStatement mappedStatement(String id, String sql, List<ParameterMapping> mappings) {
+        return new MappedStatement.Builder(configuration, id,
+                new StaticSqlSource(configuration, sql, mappings), SqlCommandType.SELECT).build();
+    }
+
+    /**
+     * 可见创建人查询桩：每个部门（或部门子树）返回 creatorsPerDept 个用户ID
+     */
+    private SysUserMapper stubUserMapper() {
+        return (SysUserMapper) Proxy.newProxyInstance(
+                SysUserMapper.class.getClassLoader(),
+                new Class<?>[]{SysUserMapper.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "selectUserIdsInDeptTree" -> creators((Long) args[0], (Integer) args[1]);
+                    case "selectUserIdsByDeptIds" -> {
+                        List<Long> result = new ArrayList<>();
+                        for (Object deptId : (Iterable<?>) args[0]) {
+                            result.addAll(creators((Long) deptId, (Integer) args[1]));
+                        }
+                        yield result.stream().limit((Integer) args[1]).toList();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private List<Long> creators(long deptId, int limit) {
+        return LongStream.range(0, Math.min(creatorsPerDept, limit))
+                .mapToObj(i -> 1_700_000_000_000_000L + deptId * 1_000 + i)
+                .toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataPermissionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
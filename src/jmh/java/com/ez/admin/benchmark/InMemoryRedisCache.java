@@ -0,0 +1,196 @@
+package com.ez.admin.benchmark;
+
+import com.ez.admin.common.infrastructure.redis.RedisCache;
+import com.ez.admin.common.infrastructure.redis.codec.CacheCodecs;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准测试用的内存版 RedisCache
+ * <p>
+ * 值按与生产一致的方式序列化为字节（JSON 或紧凑编码）后存入内存，读取时再反序列化，
+ * 从而保留编解码开销、去掉网络开销；TTL、发布订阅被忽略
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public class InMemoryRedisCache extends RedisCache {
+
+    private final GenericJacksonJsonRedisSerializer jsonSerializer = GenericJacksonJsonRedisSerializer.builder()
+            .enableUnsafeDefaultTyping()
+            .build();
+
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, byte[]>> hashes = new ConcurrentHashMap<>();
+
+    public InMemoryRedisCache() {
+        super(new RedisTemplate<>());
+    }
+
+    // =============================  基本操作  =============================
+
+    @Override
+    public void set(String key, Object value) {
+        values.put(key, encode(value, null));
+    }
+
+    @Override
+    public void set(String key, Object value, long timeout, TimeUnit timeUnit) {
+        set(key, value);
+    }
+
+    @Override
+    public void set(String key, Object value, long seconds) {
+        set(key, value);
+    }
+
+    @Override
+    public Object get(String key) {
+        return decode(values.get(key), null);
+    }
+
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        return getAll(keys, null);
+    }
+
+    @Override
+    public void setAll(Map<String, Object> map, long seconds) {
+        setAll(map, seconds, null);
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        return values.remove(key) != null | hashes.remove(key) != null;
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        long count = 0;
+        for (String key : keys) {
+            if (delete(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return values.containsKey(key) || hashes.containsKey(key);
+    }
+
+    @Override
+    public Long increment(String key) {
+        byte[] updated = values.compute(key, (k, old) -> {
+            long current = old == null ? 0 : ((Number) jsonSerializer.deserialize(old)).longValue();
+            return jsonSerializer.serialize(current + 1);
+        });
+        return ((Number) jsonSerializer.deserialize(updated)).longValue();
+    }
+
+    // =============================  紧凑编码  =============================
+
+    @Override
+    public Object get(String key, CacheValueCodec<?> codec) {
+        return decode(values.get(key), codec);
+    }
+
+    @Override
+    public void set(String key, Object value, long seconds, CacheValueCodec<?> codec) {
+        values.put(key, encode(value, codec));
+    }
+
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys, CacheValueCodec<?> codec) {
+        Map<String, Object> result = new LinkedHashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            Object value = decode(values.get(key), codec);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void setAll(Map<String, Object> map, long seconds, CacheValueCodec<?> codec) {
+        map.forEach((key, value) -> values.put(key, encode(value, codec)));
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map, CacheValueCodec<?> codec) {
+        Map<String, byte[]> hash = hashes.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        map.forEach((hashKey, value) -> hash.put(hashKey, encode(value, codec)));
+    }
+
+    @Override
+    public Map<String, Object> hGetAll(String key, CacheValueCodec<?> codec) {
+        Map<String, byte[]> hash = hashes.getOrDefault(key, Map.of());
+        Map<String, Object> result = new HashMap<>(hash.size() * 2);
+        hash.forEach((hashKey, value) -> result.put(hashKey, decode(value, codec)));
+        return result;
+    }
+
+    // =============================  Hash 操作  =============================
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        hSetAll(key, map, null);
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        return new HashMap<>(hGetAll(key, null));
+    }
+
+    // =============================  其他操作  =============================
+
+    @Override
+    public boolean tryLock(String key, String token, long leaseMillis) {
+        return values.putIfAbsent(key, encode(token, null)) == null;
+    }
+
+    @Override
+    public boolean unlock(String key, String token) {
+        return values.remove(key) != null;
+    }
+
+    @Override
+    public void publish(String channel, Object message) {
+        // 单进程基准测试无需广播
+    }
+
+    @Override
+    public long unlinkByPattern(String pattern, int maxKeys) {
+        return 0;
+    }
+
+    @Override
+    public Collection<String> keys(String pattern) {
+        return Collections.emptySet();
+    }
+
+    private byte[] encode(Object value, CacheValueCodec<?> codec) {
+        if (codec != null && codec.supports(value)) {
+            return CacheCodecs.encode(codec, value);
+        }
+        return jsonSerializer.serialize(value);
+    }
+
+    private Object decode(byte[] bytes, CacheValueCodec<?> codec) {
+        if (bytes == null) {
+            return null;
+        }
+        if (codec != null && CacheCodecs.isCompact(bytes)) {
+            return CacheCodecs.decode(codec, bytes);
+        }
+        return jsonSerializer.deserialize(bytes);
+    }
+}
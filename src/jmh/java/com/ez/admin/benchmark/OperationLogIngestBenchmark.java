@@ -0,0 +1,187 @@
+package com.ez.admin.benchmark;
+
+import com.ez.admin.common.framework.oplog.OperationLogSink;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import org.openjdk.jmh.annotations.*;
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 操作日志批量写入基准测试（需要 PostgreSQL）
+ * <p>
+ * 对比逐行 INSERT、JDBC Batch（reWriteBatchedInserts）与 {@link OperationLogSink} 的 COPY 写入，
+ * 每次调用写入 {@code rows} 行，吞吐量以 {@code rows} 辅助计数器（行/秒）为准。
+ * 写入目标为与操作日志表结构、索引一致的独立表 {@code bench_operation_log}，每次调用前清空
+ * </p>
+ * <p>
+ * 连接参数通过环境变量指定（请使用独立的测试库）：
+ * EZ_BENCH_DB_URL（默认 jdbc:postgresql://localhost:5432/ez-admin-bench?reWriteBatchedInserts=true）、
+ * EZ_BENCH_DB_USER（默认 postgres）、EZ_BENCH_DB_PASSWORD（默认 postgres）
+ * </p>
+ * <p>
+ * 运行：mvn -Pbenchmark compile exec:exec -Djmh.args="OperationLogIngestBenchmark"
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class OperationLogIngestBenchmark {
+
+    private static final String TABLE_NAME = "bench_operation_log";
+
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE_NAME
+            + " (log_id, module, operation, description, user_id, username, request_method, request_url,"
+            + " request_ip, request_params, execute_time, status, error_msg, create_time)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * JDBC Batch 每批提交的行数
+     */
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private Connection connection;
+    private List<SysOperationLog> logs;
+
+    /**
+     * 按行计数的吞吐量（行/秒）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("EZ_BENCH_DB_URL", "jdbc:postgresql://localhost:5432/ez-admin-bench?reWriteBatchedInserts=true"),
+                env("EZ_BENCH_DB_USER", "postgres"),
+                env("EZ_BENCH_DB_PASSWORD", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE_NAME);
+            statement.execute("CREATE TABLE " + TABLE_NAME + " ("
+                    + "log_id BIGINT NOT NULL PRIMARY KEY, module VARCHAR(50), operation VARCHAR(50),"
+                    + " description VARCHAR(255), user_id BIGINT, username VARCHAR(30), request_method VARCHAR(10),"
+                    + " request_url VARCHAR(500), request_ip VARCHAR(128), request_params TEXT, execute_time BIGINT,"
+                    + " status SMALLINT DEFAULT 1, error_msg TEXT, create_time TIMESTAMP)");
+            statement.execute("CREATE INDEX ON " + TABLE_NAME + " (user_id)");
+            statement.execute("CREATE INDEX ON " + TABLE_NAME + " (create_time)");
+            statement.execute("CREATE INDEX ON " + TABLE_NAME + " (module)");
+        }
+
+        logs = new ArrayList<>(rows);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            SysOperationLog log = new SysOperationLog();
+            log.setLogId(1_900_000_000_000_000_000L + i);
+            log.setModule("用户管理");
+            log.setOperation(i % 10 == 0 ? "DELETE" : "UPDATE");
+            log.setDescription("修改用户信息");
+            log.setUserId(1_700_000_000_000_000L + i % 100);
+            log.setUsername("user" + i % 100);
+            log.setRequestMethod("PUT");
+            log.setRequestUrl("/api/system/user/" + (1_000_000 + i));
+            log.setRequestIp("10.0." + (i % 256) + "." + (i % 100));
+            log.setRequestParams("[{\"userId\":" + (1_000_000 + i) + ",\"nickname\":\"测试\\\"用户\",\"status\":1}]");
+            log.setExecuteTime((long) (i % 500));
+            log.setStatus(i % 50 == 0 ? 0 : 1);
+            log.setErrorMsg(i % 50 == 0 ? "用户不存在" : null);
+            log.setCreateTime(now.plusNanos(i * 1000L));
+            logs.add(log);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE " + TABLE_NAME);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE_NAME);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void singleInsert(RowCounter counter) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (SysOperationLog log : logs) {
+                bind(statement, log);
+                statement.executeUpdate();
+            }
+        }
+        counter.rows += rows;
+    }
+
+    @Benchmark
+    public void jdbcBatch(RowCounter counter) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            int pending = 0;
+            for (SysOperationLog log : logs) {
+                bind(statement, log);
+                statement.addBatch();
+                if (++pending == JDBC_BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+        counter.rows += rows;
+    }
+
+    @Benchmark
+    public long copy(RowCounter counter) throws Exception {
+        long copied = OperationLogSink.copyIn(connection.unwrap(PGConnection.class), TABLE_NAME, logs);
+        counter.rows += rows;
+        return copied;
+    }
+
+    private static void bind(PreparedStatement statement, SysOperationLog log) throws SQLException {
+        statement.setLong(1, log.getLogId());
+        statement.setString(2, log.getModule());
+        statement.setString(3, log.getOperation());
+        statement.setString(4, log.getDescription());
+        statement.setObject(5, log.getUserId(), Types.BIGINT);
+        statement.setString(6, log.getUsername());
+        statement.setString(7, log.getRequestMethod());
+        statement.setString(8, log.getRequestUrl());
+        statement.setString(9, log.getRequestIp());
+        statement.setString(10, log.getRequestParams());
+        statement.setObject(11, log.getExecuteTime(), Types.BIGINT);
+        statement.setObject(12, log.getStatus(), Types.SMALLINT);
+        statement.setString(13, log.getErrorMsg());
+        statement.setTimestamp(14, Timestamp.valueOf(log.getCreateTime()));
+    }
+
+    private static String env(String name, String defaultValue) {
+        return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+    }
+}
@@ -0,0 +1,191 @@
+package com.ez.admin.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 操作日志模糊搜索基准测试（需要 PostgreSQL 并安装 pg_trgm 扩展）
+ * <p>
+ * 在 {@code rows} 行（默认 1000 万）的日志表上，对比仅有 B-tree 索引（{@code index=btree}，即顺序扫描）
+ * 与增加 pg_trgm GIN 索引（{@code index=trgm}）时，操作日志查询接口实际执行的 LIKE '%关键词%' 语句耗时：
+ * <ul>
+ *   <li>keywordCount / keywordPage：keyword 条件（description OR request_url）的 COUNT 与首页查询</li>
+ *   <li>usernamePage：username 条件的首页查询</li>
+ * </ul>
+ * 语句均使用参数绑定，与 MyBatis-Plus 生成的 SQL 一致
+ * </p>
+ * <p>
+ * 测试表 {@code bench_operation_log_search} 首次运行时用 generate_series 生成（约数分钟），
+ * 行数不变时后续运行直接复用，不再删除；不需要时请手动 DROP。
+ * 连接参数同 {@link OperationLogIngestBenchmark}：EZ_BENCH_DB_URL、EZ_BENCH_DB_USER、EZ_BENCH_DB_PASSWORD
+ * </p>
+ * <p>
+ * 运行：mvn -Pbenchmark compile exec:exec -Djmh.args="OperationLogSearchBenchmark"
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class OperationLogSearchBenchmark {
+
+    private static final String TABLE_NAME = "bench_operation_log_search";
+
+    private static final String[] TRGM_COLUMNS = {"module", "operation", "username", "description", "request_url"};
+
+    private static final String KEYWORD_WHERE = " WHERE (description LIKE ? OR request_url LIKE ?)";
+
+    private static final String PAGE_SUFFIX = " ORDER BY create_time DESC LIMIT 10";
+
+    private static final String SELECT_COLUMNS = "SELECT log_id, module, operation, description, username,"
+            + " request_method, request_url, status, create_time FROM " + TABLE_NAME;
+
+    @Param({"10000000"})
+    private long rows;
+
+    @Param({"btree", "trgm"})
+    private String index;
+
+    /**
+     * 搜索关键词：description 中的随机片段（命中极少）
+     */
+    @Param({"7f3a9c"})
+    private String keyword;
+
+    /**
+     * 用户名关键词（命中约万分之五）
+     */
+    @Param({"user1234"})
+    private String username;
+
+    private Connection connection;
+    private PreparedStatement keywordCount;
+    private PreparedStatement keywordPage;
+    private PreparedStatement usernamePage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("EZ_BENCH_DB_URL", "jdbc:postgresql://localhost:5432/ez-admin-bench"),
+                env("EZ_BENCH_DB_USER", "postgres"),
+                env("EZ_BENCH_DB_PASSWORD", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            if (existingRows(statement) != rows) {
+                populate(statement);
+            }
+            for (String column : TRGM_COLUMNS) {
+                statement.execute("DROP INDEX IF EXISTS " + trgmIndexName(column));
+                if ("trgm".equals(index)) {
+                    statement.execute("CREATE INDEX " + trgmIndexName(column) + " ON " + TABLE_NAME
+                            + " USING gin (" + column + " gin_trgm_ops)");
+                }
+            }
+            statement.execute("VACUUM ANALYZE " + TABLE_NAME);
+        }
+
+        String pattern = "%" + keyword + "%";
+        keywordCount = connection.prepareStatement("SELECT COUNT(*) FROM " + TABLE_NAME + KEYWORD_WHERE);
+        keywordCount.setString(1, pattern);
+        keywordCount.setString(2, pattern);
+        keywordPage = connection.prepareStatement(SELECT_COLUMNS + KEYWORD_WHERE + PAGE_SUFFIX);
+        keywordPage.setString(1, pattern);
+        keywordPage.setString(2, pattern);
+        usernamePage = connection.prepareStatement(SELECT_COLUMNS + " WHERE username LIKE ?" + PAGE_SUFFIX);
+        usernamePage.setString(1, "%" + username + "%");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long keywordCount() throws SQLException {
+        try (ResultSet resultSet = keywordCount.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public int keywordPage() throws SQLException {
+        return drain(keywordPage);
+    }
+
+    @Benchmark
+    public int usernamePage() throws SQLException {
+        return drain(usernamePage);
+    }
+
+    private static int drain(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long existingRows(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT to_regclass('" + TABLE_NAME + "') IS NOT NULL")) {
+            resultSet.next();
+            if (!resultSet.getBoolean(1)) {
+                return -1;
+            }
+        }
+        try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE_NAME)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * 生成测试数据：模块、操作类型取值较少，用户名 2 万个，描述和 URL 含随机片段
+     */
+    private void populate(Statement statement) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS " + TABLE_NAME);
+        statement.execute("CREATE TABLE " + TABLE_NAME + " ("
+                + "log_id BIGINT NOT NULL PRIMARY KEY, module VARCHAR(50), operation VARCHAR(50),"
+                + " description VARCHAR(255), user_id BIGINT, username VARCHAR(30), request_method VARCHAR(10),"
+                + " request_url VARCHAR(500), request_ip VARCHAR(128), request_params TEXT, execute_time BIGINT,"
+                + " status SMALLINT DEFAULT 1, error_msg TEXT, create_time TIMESTAMP NOT NULL)");
+        statement.execute("INSERT INTO " + TABLE_NAME + " (log_id, module, operation, description, user_id,"
+                + " username, request_method, request_url, request_ip, execute_time, status, create_time)"
+                + " SELECT i,"
+                + " (ARRAY['用户管理','角色管理','菜单管理','部门管理','字典管理','操作日志','登录日志','系统配置'])[i % 8 + 1],"
+                + " (ARRAY['CREATE','UPDATE','DELETE','QUERY','EXPORT','IMPORT'])[i % 6 + 1],"
+                + " '修改用户信息 ' || substr(md5(i::text), 1, 12),"
+                + " i % 20000, 'user' || (i % 20000),"
+                + " (ARRAY['GET','POST','PUT','DELETE'])[i % 4 + 1],"
+                + " '/system/user/' || substr(md5((i * 31)::text), 1, 10),"
+                + " '10.0.' || (i % 256) || '.' || (i % 100), i % 500, CASE WHEN i % 50 = 0 THEN 0 ELSE 1 END,"
+                + " TIMESTAMP '2026-01-01' + i * INTERVAL '1 second'"
+                + " FROM generate_series(1, " + rows + ") AS i");
+        statement.execute("CREATE INDEX ON " + TABLE_NAME + " (user_id)");
+        statement.execute("CREATE INDEX ON " + TABLE_NAME + " (create_time, log_id)");
+        statement.execute("CREATE INDEX ON " + TABLE_NAME + " (module)");
+    }
+
+    private static String trgmIndexName(String column) {
+        return TABLE_NAME + "_" + column + "_trgm";
+    }
+
+    private static String env(String name, String defaultValue) {
+        return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+    }
+}
@@ -4,6 +4,7 @@ import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * EZ Admin 应用程序入口类
@@ -12,6 +13,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
  */
 @MapperScan("com.ez.admin.modules.**.mapper")
 @EnableAsync
+@EnableScheduling
 @SpringBootApplication(scanBasePackages = "com.ez.admin")
 public class EzAdminApplication {
 
@@ -5,16 +5,28 @@ import com.ez.admin.common.model.model.PageQuery;
 import com.ez.admin.common.model.model.PageVO;
 import com.ez.admin.common.model.model.R;
 import com.ez.admin.dto.log.req.OperationLogQueryReq;
+import com.ez.admin.dto.log.req.OperationLogStatQueryReq;
 import com.ez.admin.dto.log.vo.OperationLogListVO;
+import com.ez.admin.dto.log.vo.OperationLogStatVO;
+import com.ez.admin.service.log.OperationLogExporter;
 import com.ez.admin.service.log.OperationLogService;
+import com.ez.admin.service.log.OperationLogStatService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
 /**
  * 操作日志控制器
  * <p>
@@ -32,6 +44,7 @@ import org.springframework.web.bind.annotation.*;
 public class OperationLogController {
 
     private final OperationLogService operationLogService;
+    private final OperationLogStatService operationLogStatService;
 
     @PostMapping("/page")
     @Operation(summary = "分页查询操作日志", description = "分页查询操作日志列表，支持多条件筛选")
@@ -41,12 +54,52 @@ public class OperationLogController {
     }
 
     @PostMapping("/query")
-    @Operation(summary = "条件查询操作日志", description = "支持多条件筛选的操作日志分页查询")
+    @Operation(summary = "条件查询操作日志", description = "支持多条件筛选的操作日志分页查询；cursorMode=true 时使用游标分页，返回 nextCursor 且不统计总数")
     public R<PageVO<OperationLogListVO>> queryPage(@Valid @RequestBody OperationLogQueryReq request) {
         PageVO<OperationLogListVO> page = operationLogService.getOperationLogPage(request);
         return R.success(page);
     }
 
+    @PostMapping("/archive/query")
+    @Operation(summary = "查询归档操作日志", description = "检索已从数据库归档到本地段文件的历史日志，筛选条件同条件查询，按时间倒序分页且不统计总数")
+    public R<PageVO<OperationLogListVO>> queryArchive(@Valid @RequestBody OperationLogQueryReq request) {
+        return R.success(operationLogService.getArchivedLogPage(request));
+    }
+
+    @PostMapping("/stats")
+    @Operation(summary = "操作日志统计", description = "按模块、接口（模块+操作类型）或用户统计请求次数、失败次数及执行时长分位数，数据来自分钟级统计表，不扫描日志原表")
+    public R<List<OperationLogStatVO>> stats(@Valid @RequestBody OperationLogStatQueryReq request) {
+        return R.success(operationLogStatService.getStats(request));
+    }
+
+    @PostMapping("/export")
+    @OperationLog(module = "操作日志", operation = "导出", description = "导出操作日志")
+    @Operation(summary = "导出操作日志", description = "按条件流式导出操作日志（忽略分页参数），支持 csv / ndjson 格式及 gzip 压缩")
+    public void export(
+            @Valid @RequestBody OperationLogQueryReq request,
+            @Parameter(description = "导出格式：csv / ndjson")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "是否 gzip 压缩")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        OperationLogExporter.Format exportFormat = OperationLogExporter.Format.of(format);
+        String fileName = "operation-log-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        try {
+            operationLogService.exportLogs(request, exportFormat, gzip, response.getOutputStream());
+        } catch (RuntimeException | IOException e) {
+            // 尚未写出数据时清除导出响应头，交由全局异常处理返回 JSON 错误；已写出部分数据时只能中断下载
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
     @DeleteMapping("/clean/{days}")
     @OperationLog(module = "操作日志", operation = "清理", description = "清理历史操作日志")
     @Operation(summary = "清理历史日志", description = "清理指定天数之前的操作日志")
@@ -1,9 +1,12 @@
 package com.ez.admin.common.framework.aspect;
 
 import cn.dev33.satoken.stp.StpUtil;
+import com.ez.admin.common.framework.oplog.OperationLogParamsSerializer;
+import com.ez.admin.common.framework.oplog.OperationLogStatsCollector;
+import com.ez.admin.common.framework.oplog.OperationLogThrottle;
+import com.ez.admin.common.framework.oplog.OperationLogWriter;
 import com.ez.admin.common.model.annotation.OperationLog;
 import com.ez.admin.modules.system.entity.SysOperationLog;
-import com.ez.admin.modules.system.mapper.SysOperationLogMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,14 +15,11 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
-import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * 操作日志 AOP 切面
@@ -35,6 +35,16 @@ import java.util.concurrent.CompletableFuture;
  *   <li>执行信息（执行时长、状态、错误信息）</li>
  * </ul>
  * </p>
+ * <p>
+ * 日志交给 {@link OperationLogWriter} 入队后立即返回，由后台线程批量写入数据库，请求线程不执行 INSERT
+ * </p>
+ * <p>
+ * 请求参数由 {@link OperationLogParamsSerializer} 按长度上限序列化（超限即停止），
+ * 可通过注解跳过或脱敏指定参数，lazyParams = true 时改由后台线程序列化
+ * </p>
+ * <p>
+ * 高频接口可在注解上配置成功日志采样和按用户限流（{@link OperationLogThrottle}），失败日志始终记录
+ * </p>
  *
  * @author ez-admin
  * @since 2026-01-26
@@ -45,8 +55,10 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class OperationLogAspect {
 
-    private final SysOperationLogMapper operationLogMapper;
-    private final ObjectMapper objectMapper;
+    private final OperationLogWriter operationLogWriter;
+    private final OperationLogParamsSerializer paramsSerializer;
+    private final OperationLogStatsCollector statsCollector;
+    private final OperationLogThrottle operationLogThrottle;
 
     /**
      * 定义切点：拦截所有标注了 @OperationLog 注解的方法
@@ -103,24 +115,14 @@ public class OperationLogAspect {
             log.warn("获取当前登录用户信息失败：{}", e.getMessage());
         }
 
-        // 记录请求参数
-        try {
-            Object[] args = joinPoint.getArgs();
-            if (args != null && args.length > 0) {
-                // 过滤掉 HttpServletRequest 和 HttpServletResponse 对象
-                Object[] filteredArgs = filterArgs(args);
-                if (filteredArgs.length > 0) {
-                    String params = objectMapper.writeValueAsString(filteredArgs);
-                    // 限制参数长度，避免过长
-                    if (params.length() > 2000) {
-                        params = params.substring(0, 2000) + "...";
-                    }
-                    logEntity.setRequestParams(params);
-                }
+        // 记录请求参数（跳过请求/响应对象、上传文件及注解排除的参数，超过长度上限即停止序列化）
+        Object[] params = paramsSerializer.capture(annotation, signature.getParameterNames(), joinPoint.getArgs());
+        if (params.length > 0) {
+            if (annotation.lazyParams()) {
+                logEntity.setDeferredRequestParams(() -> paramsSerializer.serialize(params));
+            } else {
+                logEntity.setRequestParams(paramsSerializer.serialize(params));
             }
-        } catch (Exception e) {
-            log.warn("序列化请求参数失败：{}", e.getMessage());
-            logEntity.setRequestParams("参数序列化失败");
         }
 
         // 执行目标方法
@@ -143,40 +145,22 @@ public class OperationLogAspect {
             logEntity.setExecuteTime(executeTime);
             logEntity.setCreateTime(LocalDateTime.now());
 
-            // 异步保存日志（避免影响业务性能）
-            saveLogAsync(logEntity);
-        }
-
-        return result;
-    }
+            // 日志记录失败不能影响业务结果，也不能覆盖业务方法抛出的异常
+            try {
+                // 累加分钟级统计（在入队之前，被丢弃的日志同样计入）
+                statsCollector.record(logEntity);
 
-    /**
-     * 异步保存操作日志
-     *
-     * @param logEntity 日志实体
-     */
-    @Async
-    public void saveLogAsync(SysOperationLog logEntity) {
-        try {
-            operationLogMapper.insert(logEntity);
-            log.debug("操作日志保存成功：{} - {}", logEntity.getModule(), logEntity.getDescription());
-        } catch (Exception e) {
-            log.error("保存操作日志失败：{} - {} - {}", logEntity.getModule(), logEntity.getDescription(), e.getMessage());
+                // 按注解的采样/限流策略决定是否记录（失败日志始终记录），入队后由后台线程批量写入
+                if (operationLogThrottle.tryAcquire(signature.getMethod(), annotation, logEntity)) {
+                    operationLogWriter.submit(logEntity);
+                }
+            } catch (Exception e) {
+                log.warn("记录操作日志失败：{} {}，原因：{}",
+                        logEntity.getRequestMethod(), logEntity.getRequestUrl(), e.getMessage());
+            }
         }
-    }
 
-    /**
-     * 过滤请求参数，排除不需要序列化的对象
-     *
-     * @param args 原始参数数组
-     * @return 过滤后的参数数组
-     */
-    private Object[] filterArgs(Object[] args) {
-        return java.util.Arrays.stream(args)
-                .filter(arg -> !(arg instanceof HttpServletRequest)
-                        && !(arg instanceof jakarta.servlet.http.HttpServletResponse)
-                        && !(arg instanceof org.springframework.web.multipart.MultipartFile))
-                .toArray();
+        return result;
     }
 
     /**
@@ -0,0 +1,170 @@
+package com.ez.admin.common.framework.datascope;
+
+import com.ez.admin.common.infrastructure.cache.AdminCache;
+import com.ez.admin.common.infrastructure.redis.RedisCache;
+import com.ez.admin.modules.system.mapper.SysUserMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.ez.admin.common.core.constant.SystemConstants.*;
+
+/**
+ * 数据权限可见创建人缓存
+ * <p>
+ * 为「本部门」「本部门及以下」「自定义」三种数据权限预先算出可见的创建人ID集合，
+ * 由 {@link UserDataPermissionHandler} 以一个数组参数 {@code created_by = ANY(?::bigint[])} 绑定，
+ * 代替每条查询都要执行的 ez_admin_sys_user 子查询；集合超过 creator-set-max-size 时不缓存集合，退回子查询
+ * </p>
+ * <p>
+ * 缓存键只包含集合的决定因素（权限范围 + 部门ID / 自定义部门ID列表），不含用户ID，同部门的用户共享一份。
+ * 角色的自定义部门变更后，用户的 {@link DataScopeInfo} 中部门列表随之变化，自然命中新的键；
+ * 用户调整部门、新增用户、部门移动或删除会改变「部门 -> 用户」的对应关系，需要调用 {@link #invalidateAll()}，
+ * 清空本地缓存并通过 {@link AdminCache#CACHE_INVALIDATE_CHANNEL} 通知其他节点；在事务中调用时于提交后执行，
+ * 避免并发请求在提交前按旧的部门成员重新加载并缓存到过期。另有 10 分钟兜底过期
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class DataScopeCreatorCache {
+
+    /**
+     * 失效消息（与权限缓存共用广播频道）
+     */
+    public static final String INVALIDATE_MESSAGE = "ds_creator:*";
+
+    /**
+     * 兜底过期时间，防止广播消息丢失导致长期使用旧集合
+     */
+    private static final Duration CREATOR_SET_TTL = Duration.ofMinutes(10);
+
+    /**
+     * 超过上限、退回子查询的标记
+     */
+    private static final Long[] TOO_MANY = new Long[0];
+
+    private final SysUserMapper userMapper;
+    private final RedisCache redisCache;
+    private final int maxSize;
+
+    /**
+     * 可见创建人集合：权限范围 + 部门 -> 升序用户ID数组（共享，不可修改）
+     */
+    private final Cache<CreatorKey, Long[]> creatorSets;
+
+    /**
+     * SysUserMapper 延迟注入：本组件被数据权限处理器引用，而处理器参与构建 MyBatis 拦截器
+     */
+    public DataScopeCreatorCache(@Lazy SysUserMapper userMapper,
+                                 RedisCache redisCache,
+                                 @Value("${ez.admin.data-scope.creator-set-max-size:1000}") int maxSize,
+                                 @Value("${ez.admin.data-scope.creator-cache-size:10000}") int cacheSize) {
+        this.userMapper = userMapper;
+        this.redisCache = redisCache;
+        this.maxSize = maxSize;
+        this.creatorSets = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(CREATOR_SET_TTL)
+                .build();
+    }
+
+    /**
+     * 获取当前数据权限可见的创建人ID
+     *
+     * @param info 数据权限信息
+     * @return 升序用户ID数组（不可修改）；不适用（仅本人、全部、缺少部门）或超过上限时返回 null，调用方应退回子查询
+     */
+    public Long[] getVisibleCreators(DataScopeInfo info) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        CreatorKey key = CreatorKey.of(info);
+        if (key == null) {
+            return null;
+        }
+        try {
+            Long[] creators = creatorSets.get(key, this::load);
+            return creators == TOO_MANY ? null : creators;
+        } catch (Exception e) {
+            log.warn("查询数据权限可见创建人失败，退回子查询：{}，原因：{}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 清空本节点缓存并通知其他节点（在事务中调用时推迟到提交后执行）
+     */
+    public void invalidateAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidateAll();
+                }
+            });
+        } else {
+            doInvalidateAll();
+        }
+    }
+
+    private void doInvalidateAll() {
+        evictLocal();
+        redisCache.publish(AdminCache.CACHE_INVALIDATE_CHANNEL, INVALIDATE_MESSAGE);
+    }
+
+    /**
+     * 清空本节点缓存（收到其他节点的失效消息时调用）
+     */
+    public void evictLocal() {
+        creatorSets.invalidateAll();
+    }
+
+    /**
+     * 查询可见创建人，多取一条用于判断是否超过上限
+     */
+    private Long[] load(CreatorKey key) {
+        List<Long> userIds = key.dataScope() == DATA_SCOPE_DEPT_AND_CHILD
+                ? userMapper.selectUserIdsInDeptTree(key.deptIds().getFirst(), maxSize + 1)
+                : userMapper.selectUserIdsByDeptIds(key.deptIds(), maxSize + 1);
+        if (userIds.size() > maxSize) {
+            log.debug("数据权限可见创建人超过 {} 个，退回子查询：{}", maxSize, key);
+            return TOO_MANY;
+        }
+        return userIds.toArray(Long[]::new);
+    }
+
+    /**
+     * 缓存键
+     *
+     * @param dataScope 数据权限范围
+     * @param deptIds   本部门、本部门及以下为当前部门；自定义为部门ID列表
+     */
+    private record CreatorKey(int dataScope, List<Long> deptIds) {
+
+        static CreatorKey of(DataScopeInfo info) {
+            Integer dataScope = info.getDataScope();
+            if (dataScope == null) {
+                return null;
+            }
+            return switch (dataScope) {
+                case DATA_SCOPE_DEPT, DATA_SCOPE_DEPT_AND_CHILD ->
+                        info.getDeptId() == null ? null : new CreatorKey(dataScope, List.of(info.getDeptId()));
+                case DATA_SCOPE_CUSTOM -> info.getCustomDeptIds() == null || info.getCustomDeptIds().isEmpty()
+                        ? null
+                        : new CreatorKey(dataScope, info.getCustomDeptIds().stream().sorted().distinct().toList());
+                default -> null;
+            };
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.ez.admin.common.framework.datascope;
 
+import cn.dev33.satoken.context.SaHolder;
 import cn.dev33.satoken.stp.StpUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -13,29 +15,52 @@ import org.springframework.web.servlet.HandlerInterceptor;
  * 在每个请求开始时从 Sa-Token Session 中恢复数据权限上下文
  * 在请求结束时清理数据权限上下文，避免 ThreadLocal 内存泄漏
  * </p>
+ * <p>
+ * 登录ID由 Sa-Token 拦截器校验登录时通过 {@link #rememberLogin(Object)} 存入请求域，本拦截器直接复用，
+ * 不再重复查询登录状态；数据权限信息经 {@link DataScopeSessionCache} 按 token 读取本地快照
+ * </p>
  *
  * @author ez-admin
  * @since 2026-01-28
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class DataScopeInterceptor implements HandlerInterceptor {
 
-    private static final String DATA_SCOPE_SESSION_KEY = "dataScopeInfo";
+    /**
+     * 请求域中已校验的登录ID
+     */
+    private static final String LOGIN_ID_ATTRIBUTE = DataScopeInterceptor.class.getName() + ".loginId";
+
+    private final DataScopeSessionCache dataScopeSessionCache;
+
+    /**
+     * 记录本次请求已校验的登录ID（由 Sa-Token 拦截器在登录校验通过后调用）
+     *
+     * @param loginId 登录ID
+     */
+    public static void rememberLogin(Object loginId) {
+        SaHolder.getStorage().set(LOGIN_ID_ATTRIBUTE, loginId);
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        // 检查用户是否登录
-        if (StpUtil.isLogin()) {
-            // 从 Sa-Token Session 中获取数据权限信息
-            DataScopeInfo dataScopeInfo = (DataScopeInfo) StpUtil.getSession().get(DATA_SCOPE_SESSION_KEY);
+        // 复用 Sa-Token 拦截器校验过的登录ID，未经过校验时再查询登录状态
+        Object loginId = SaHolder.getStorage().get(LOGIN_ID_ATTRIBUTE);
+        if (loginId == null) {
+            loginId = StpUtil.getLoginIdDefaultNull();
+        }
+        if (loginId != null) {
+            // 从本地快照（未命中时为 Sa-Token Session）中获取数据权限信息
+            DataScopeInfo dataScopeInfo = dataScopeSessionCache.get(StpUtil.getTokenValue(), loginId);
 
             if (dataScopeInfo != null) {
                 // 设置到 ThreadLocal 中，供数据权限拦截器使用
                 DataScopeContext.setDataScopeInfo(dataScopeInfo);
-                log.debug("数据权限上下文已从 Session 恢复：{}", dataScopeInfo);
+                log.debug("数据权限上下文已恢复：{}", dataScopeInfo);
             } else {
-                log.warn("用户 {} 的数据权限信息在 Session 中不存在，请重新登录", StpUtil.getLoginIdAsString());
+                log.warn("用户 {} 的数据权限信息在 Session 中不存在，请重新登录", loginId);
             }
         }
 
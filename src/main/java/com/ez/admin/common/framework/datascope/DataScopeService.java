@@ -8,6 +8,7 @@ import com.ez.admin.modules.system.entity.SysRoleDeptRelation;
 import com.ez.admin.modules.system.entity.SysUser;
 import com.ez.admin.modules.system.mapper.SysRoleDeptRelationMapper;
 import com.ez.admin.modules.system.mapper.SysRoleMapper;
+import com.ez.admin.modules.system.mapper.SysUserMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,18 @@ public class DataScopeService {
     private final SysRoleMapper roleMapper;
     private final SysRoleDeptRelationMapper roleDeptRelationMapper;
     private final com.ez.admin.modules.system.mapper.SysDeptMapper deptMapper;
+    private final SysUserMapper userMapper;
+
+    /**
+     * 按用户ID重新计算数据权限信息（角色或部门变更后刷新已登录用户的 Session）
+     *
+     * @param userId 用户ID
+     * @return 数据权限信息，用户不存在时返回 null
+     */
+    public DataScopeInfo getDataScopeInfo(Long userId) {
+        SysUser user = userMapper.selectById(userId);
+        return user == null ? null : getDataScopeInfo(user);
+    }
 
     /**
      * 获取用户的数据权限信息
@@ -0,0 +1,284 @@
+package com.ez.admin.common.framework.datascope;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.stp.StpUtil;
+import com.ez.admin.common.infrastructure.cache.AdminCache;
+import com.ez.admin.common.infrastructure.redis.RedisCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据权限 Session 本地快照
+ * <p>
+ * 数据权限信息保存在 Sa-Token Session 中（Redis），{@link DataScopeInterceptor} 每个请求都要读取。
+ * 本组件按 token 在 JVM 本地缓存解析好的 {@link DataScopeInfo}（短 TTL），命中时请求不再访问 Redis、不再反序列化 Session
+ * </p>
+ * <p>
+ * 版本与失效：
+ * <ul>
+ *   <li>本地代际号：全部失效（{@link #invalidateAll()}、{@link #bumpVersion()} 或收到 ds_session:*）时递增，
+ *       代际号不一致的快照视为失效，O(1) 清空全部 token</li>
+ *   <li>用户代际号：按用户失效时只为该用户分配新的代际号（全局递增序列，不会重复），
+ *       该用户所有 token 的快照随即失效，其他用户的快照不受影响</li>
+ *   <li>Redis 版本号：角色的数据权限范围、自定义部门、状态变更时由 {@link #bumpVersion()} 递增；
+ *       Session 中记录写入时的版本，读取时版本落后则按数据库重新计算并写回 Session，用户无需重新登录</li>
+ *   <li>登出、用户角色或部门变更时由 {@link #refreshUser(Long)} / {@link #evictUser(Object)} 按用户失效</li>
+ * </ul>
+ * 失效消息通过 {@link AdminCache#CACHE_INVALIDATE_CHANNEL} 通知其他节点；在事务中调用时于提交后执行，
+ * 避免其他节点在提交前按旧数据重新计算并写回新版本
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class DataScopeSessionCache {
+
+    /**
+     * Session 中的数据权限信息
+     */
+    public static final String SESSION_KEY = "dataScopeInfo";
+
+    /**
+     * Session 中数据权限信息对应的版本号
+     */
+    private static final String SESSION_VERSION_KEY = "dataScopeVersion";
+
+    /**
+     * 数据权限版本号
+     */
+    private static final String VERSION_KEY = "sys:auth:data_scope:version";
+
+    /**
+     * 失效消息前缀（与权限缓存共用广播频道）：ds_session:* 全部，ds_session:{loginId} 指定用户
+     */
+    public static final String INVALIDATE_PREFIX = "ds_session:";
+
+    private static final String INVALIDATE_ALL = "*";
+
+    private final RedisCache redisCache;
+    private final DataScopeService dataScopeService;
+
+    /**
+     * token -> 数据权限快照，为 null 表示不缓存
+     */
+    private final Cache<String, Snapshot> snapshots;
+
+    /**
+     * 本地代际号
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * loginId -> 用户代际号，未按用户失效过的用户为 0
+     */
+    private final Map<String, Long> userGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * 用户代际号序列，保证同一用户先后分配到的代际号不重复
+     */
+    private final AtomicLong userGenerationSequence = new AtomicLong();
+
+    /**
+     * 最多记录的用户代际号数量，超过时整体清空并递增本地代际号
+     */
+    private final int maxTrackedUsers;
+
+    public DataScopeSessionCache(RedisCache redisCache,
+                                 DataScopeService dataScopeService,
+                                 @Value("${ez.admin.data-scope.session-cache-seconds:30}") long ttlSeconds,
+                                 @Value("${ez.admin.data-scope.session-cache-size:10000}") int cacheSize) {
+        this.redisCache = redisCache;
+        this.dataScopeService = dataScopeService;
+        this.snapshots = ttlSeconds > 0
+                ? Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(Duration.ofSeconds(ttlSeconds)).build()
+                : null;
+        this.maxTrackedUsers = Math.max(cacheSize, 1);
+    }
+
+    /**
+     * 获取登录用户的数据权限信息
+     *
+     * @param token   当前请求的 token
+     * @param loginId 登录ID（已由 Sa-Token 拦截器校验）
+     * @return 数据权限信息，Session 中不存在时返回 null
+     */
+    public DataScopeInfo get(String token, Object loginId) {
+        if (snapshots == null || token == null) {
+            return load(loginId);
+        }
+        String loginKey = String.valueOf(loginId);
+        Snapshot snapshot = snapshots.getIfPresent(token);
+        long current = generation.get();
+        long userCurrent = userGeneration(loginKey);
+        if (snapshot != null && snapshot.generation() == current && snapshot.userGeneration() == userCurrent
+                && snapshot.loginId().equals(loginKey)) {
+            return snapshot.info();
+        }
+        DataScopeInfo info = load(loginId);
+        // 加载期间发生过失效（全部或该用户）则不缓存，下次请求重新加载
+        if (info != null && generation.get() == current && userGeneration(loginKey) == userCurrent) {
+            snapshots.put(token, new Snapshot(loginKey, current, userCurrent, info));
+        }
+        return info;
+    }
+
+    /**
+     * 登录时写入数据权限信息（记录当前版本号）
+     *
+     * @param session 登录用户的 Session
+     * @param info    数据权限信息
+     */
+    public void store(SaSession session, DataScopeInfo info) {
+        session.set(SESSION_KEY, info);
+        session.set(SESSION_VERSION_KEY, currentVersion());
+    }
+
+    /**
+     * 角色的数据权限变更：递增版本号，各用户下次请求时按数据库重新计算
+     */
+    public void bumpVersion() {
+        afterCommit(() -> {
+            redisCache.increment(VERSION_KEY);
+            invalidateAll();
+        });
+    }
+
+    /**
+     * 用户的角色或部门变更：重新计算已登录用户的数据权限信息并失效其快照
+     *
+     * @param userId 用户ID
+     */
+    public void refreshUser(Long userId) {
+        afterCommit(() -> {
+            SaSession session = StpUtil.getSessionByLoginId(userId, false);
+            if (session != null) {
+                DataScopeInfo info = dataScopeService.getDataScopeInfo(userId);
+                if (info != null) {
+                    store(session, info);
+                }
+            }
+            evictUser(userId);
+        });
+    }
+
+    /**
+     * 清空本节点快照并通知其他节点
+     */
+    public void invalidateAll() {
+        evictLocalAll();
+        redisCache.publish(AdminCache.CACHE_INVALIDATE_CHANNEL, INVALIDATE_PREFIX + INVALIDATE_ALL);
+    }
+
+    /**
+     * 失效指定用户的快照并通知其他节点（登出时调用）
+     *
+     * @param loginId 登录ID
+     */
+    public void evictUser(Object loginId) {
+        evictLocalUser(String.valueOf(loginId));
+        redisCache.publish(AdminCache.CACHE_INVALIDATE_CHANNEL, INVALIDATE_PREFIX + loginId);
+    }
+
+    /**
+     * 处理其他节点广播的失效消息
+     *
+     * @param message 失效消息（以 {@link #INVALIDATE_PREFIX} 开头）
+     */
+    public void onInvalidated(String message) {
+        String target = message.substring(INVALIDATE_PREFIX.length());
+        if (INVALIDATE_ALL.equals(target)) {
+            evictLocalAll();
+        } else {
+            evictLocalUser(target);
+        }
+    }
+
+    private void evictLocalAll() {
+        // 先递增本地代际号再清空用户代际号：清空后用户代际号回到 0，旧快照已因本地代际号不一致而失效
+        generation.incrementAndGet();
+        userGenerations.clear();
+    }
+
+    /**
+     * 为用户分配新的代际号：该用户已缓存的快照失效，失效前已开始的加载也不会写回
+     */
+    private void evictLocalUser(String loginId) {
+        if (userGenerations.size() >= maxTrackedUsers && !userGenerations.containsKey(loginId)) {
+            evictLocalAll();
+        }
+        userGenerations.put(loginId, userGenerationSequence.incrementAndGet());
+    }
+
+    private long userGeneration(String loginId) {
+        return userGenerations.getOrDefault(loginId, 0L);
+    }
+
+    /**
+     * 从 Session 读取数据权限信息，版本落后时重新计算并写回
+     */
+    private DataScopeInfo load(Object loginId) {
+        SaSession session = StpUtil.getSessionByLoginId(loginId, false);
+        if (session == null) {
+            return null;
+        }
+        DataScopeInfo info = (DataScopeInfo) session.get(SESSION_KEY);
+        long version = currentVersion();
+        if (info != null && session.getLong(SESSION_VERSION_KEY) < version) {
+            DataScopeInfo refreshed = dataScopeService.getDataScopeInfo(info.getUserId());
+            if (refreshed != null) {
+                log.debug("数据权限版本落后，重新计算：loginId={}, version={}", loginId, version);
+                session.set(SESSION_KEY, refreshed);
+                session.set(SESSION_VERSION_KEY, version);
+                info = refreshed;
+            }
+        }
+        return info;
+    }
+
+    private long currentVersion() {
+        Object version = redisCache.get(VERSION_KEY);
+        if (version instanceof Number number) {
+            return number.longValue();
+        }
+        return version == null ? 0 : Long.parseLong(version.toString());
+    }
+
+    /**
+     * 在事务中时推迟到提交后执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 数据权限快照
+     *
+     * @param loginId        登录ID（token 被复用到其他账号时不命中）
+     * @param generation     写入时的本地代际号
+     * @param userGeneration 写入时该用户的代际号
+     * @param info           数据权限信息（共享，不可修改）
+     */
+    private record Snapshot(String loginId, long generation, long userGeneration, DataScopeInfo info) {
+    }
+}
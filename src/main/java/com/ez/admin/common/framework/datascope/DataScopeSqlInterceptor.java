@@ -0,0 +1,206 @@
+package com.ez.admin.common.framework.datascope;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.ArrayTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据权限 SQL 改写插件
+ * <p>
+ * 在 {@link DataPermissionInterceptor} 改写 SQL 之后，为 {@link UserDataPermissionHandler} 生成的
+ * {@code created_by = ANY(?::bigint[])} 条件补充参数映射：按改写后 SQL 中该占位符之前的 {@code ?} 个数确定位置，
+ * 插入一个以 BIGINT 数组绑定的附加参数（同一条语句中涉及多张表时，各占位符绑定同一组创建人ID）
+ * </p>
+ * <p>
+ * 改写之前先由 {@link UserDataPermissionHandler#needsRewrite(String)} 判断：未设置数据权限、全部数据权限、
+ * 或 SQL 中没有出现任何受保护表名（{@link DataScopeTableRegistry} 哈希查找）时直接放行，不做 JSqlParser 解析
+ * </p>
+ * <p>
+ * 使用 {@code created_by = ANY(?)} 条件时必须注册本插件而不是 {@link DataPermissionInterceptor}，否则占位符没有参数
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public class DataScopeSqlInterceptor extends DataPermissionInterceptor {
+
+    /**
+     * 附加参数名
+     */
+    private static final String CREATORS_PARAMETER = "__ezDataScopeCreators";
+
+    private static final ArrayTypeHandler ARRAY_TYPE_HANDLER = new ArrayTypeHandler();
+
+    private final UserDataPermissionHandler handler;
+
+    public DataScopeSqlInterceptor(UserDataPermissionHandler handler) {
+        super(handler);
+        this.handler = handler;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        if (!handler.needsRewrite(boundSql.getSql())) {
+            return;
+        }
+        Long[] outer = handler.takeBoundCreators();
+        try {
+            super.beforeQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            bindCreators(ms.getConfiguration(), boundSql, handler.takeBoundCreators());
+        } finally {
+            handler.restoreBoundCreators(outer);
+        }
+    }
+
+    @Override
+    public void beforePrepare(StatementHandler sh, Connection connection, Integer transactionTimeout) {
+        PluginUtils.MPStatementHandler mpSh = PluginUtils.mpStatementHandler(sh);
+        if (!handler.needsRewrite(mpSh.boundSql().getSql())) {
+            return;
+        }
+        Long[] outer = handler.takeBoundCreators();
+        try {
+            super.beforePrepare(sh, connection, transactionTimeout);
+            bindCreators(mpSh.configuration(), mpSh.boundSql(), handler.takeBoundCreators());
+        } finally {
+            handler.restoreBoundCreators(outer);
+        }
+    }
+
+    /**
+     * 为改写后 SQL 中的每个创建人数组占位符插入参数映射
+     */
+    static void bindCreators(Configuration configuration, BoundSql boundSql, Long[] creators) {
+        if (creators == null) {
+            return;
+        }
+        String sql = boundSql.getSql();
+        int markerOffset = UserDataPermissionHandler.CREATOR_ARRAY_PARAMETER.indexOf('?');
+        List<ParameterMapping> mappings = null;
+        int from = 0;
+        int inserted = 0;
+        int marker;
+        while ((marker = sql.indexOf(UserDataPermissionHandler.CREATOR_ARRAY_PARAMETER, from)) >= 0) {
+            int placeholder = marker + markerOffset;
+            if (mappings == null) {
+                mappings = new ArrayList<>(boundSql.getParameterMappings());
+            }
+            mappings.add(countPlaceholders(sql, placeholder), new ParameterMapping.Builder(
+                    configuration, CREATORS_PARAMETER, Object.class)
+                    .jdbcType(JdbcType.ARRAY)
+                    .typeHandler(ARRAY_TYPE_HANDLER)
+                    .build());
+            inserted++;
+            from = placeholder + 1;
+        }
+        if (inserted == 0) {
+            return;
+        }
+        PluginUtils.mpBoundSql(boundSql).parameterMappings(mappings);
+        boundSql.setAdditionalParameter(CREATORS_PARAMETER, creators);
+    }
+
+    /**
+     * 统计 end 之前的参数占位符个数
+     * <p>
+     * 跳过字符串常量、带引号的标识符、美元符号引用的字符串（$tag$...$tag$）、行注释和块注释中的 ?；
+     * jsonb 运算符 {@code ??}（JDBC 转义的 ?）、{@code ?|} 和 {@code ?&} 不是占位符
+     * </p>
+     */
+    static int countPlaceholders(String sql, int end) {
+        int count = 0;
+        int i = 0;
+        while (i < end) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                int close = sql.indexOf(c, i + 1);
+                i = close < 0 ? end : close + 1;
+            } else if (c == '-' && i + 1 < end && sql.charAt(i + 1) == '-') {
+                int newline = sql.indexOf('\n', i + 2);
+                i = newline < 0 ? end : newline + 1;
+            } else if (c == '/' && i + 1 < end && sql.charAt(i + 1) == '*') {
+                i = skipBlockComment(sql, i, end);
+            } else if (c == '$' && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                i = skipDollarQuote(sql, i, end);
+            } else if (c == '?') {
+                char next = i + 1 < end ? sql.charAt(i + 1) : 0;
+                if (next == '?') {
+                    i += 2;
+                    continue;
+                }
+                // ?|| 是占位符后接字符串拼接，不是 jsonb 运算符 ?|
+                boolean operator = next == '&'
+                        || (next == '|' && (i + 2 >= end || sql.charAt(i + 2) != '|'));
+                if (!operator) {
+                    count++;
+                }
+                i++;
+            } else {
+                i++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 跳过块注释（PostgreSQL 允许嵌套），返回注释之后的位置
+     */
+    private static int skipBlockComment(String sql, int start, int end) {
+        int depth = 0;
+        int i = start;
+        while (i < end) {
+            if (sql.startsWith("/*", i)) {
+                depth++;
+                i += 2;
+            } else if (sql.startsWith("*/", i)) {
+                i += 2;
+                if (--depth == 0) {
+                    return i;
+                }
+            } else {
+                i++;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * 跳过美元符号引用的字符串 $tag$...$tag$，返回其后的位置；不是美元引用（如 $1）时只跳过 $
+     */
+    private static int skipDollarQuote(String sql, int start, int end) {
+        int tagEnd = start + 1;
+        while (tagEnd < end && sql.charAt(tagEnd) != '$') {
+            char c = sql.charAt(tagEnd);
+            boolean valid = tagEnd == start + 1 ? Character.isLetter(c) || c == '_' : isIdentifierPart(c);
+            if (!valid) {
+                return start + 1;
+            }
+            tagEnd++;
+        }
+        if (tagEnd >= end) {
+            return start + 1;
+        }
+        String tag = sql.substring(start, tagEnd + 1);
+        int close = sql.indexOf(tag, tagEnd + 1);
+        return close < 0 ? end : close + tag.length();
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -0,0 +1,242 @@
+package com.ez.admin.common.framework.datascope;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.ez.admin.common.model.annotation.DataScope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 数据权限表注册表
+ * <p>
+ * 启动时扫描标注了 {@link DataScope} 的实体类，按表名（小写）建立不可变哈希索引，
+ * 每张表可声明自己的创建人、部门字段；查询时按表名 O(1) 判断是否需要过滤
+ * </p>
+ * <p>
+ * {@link #mayReference(String)} 供 {@link DataScopeSqlInterceptor} 在解析 SQL 之前使用：
+ * 逐个标识符在 SQL 原串上按区间哈希查表名（不截取子串），语句中没有出现任何受保护表名时直接跳过，不再调用 JSqlParser
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class DataScopeTableRegistry {
+
+    /**
+     * 扫描实体类的根包
+     */
+    private static final String BASE_PACKAGE = "com.ez.admin";
+
+    /**
+     * 表名（小写） -> 字段映射（不可修改）
+     */
+    private final Map<String, DataScopeTable> tables;
+
+    /**
+     * 已登记表名的最短、最长长度，长度不在范围内的标识符不用查索引
+     */
+    private final int minNameLength;
+    private final int maxNameLength;
+
+    /**
+     * 表名的开放寻址哈希表（线性探测），供 {@link #mayReference} 在 SQL 原串上按区间查找，不截取子串
+     */
+    private final String[] nameSlots;
+    private final int[] hashSlots;
+    private final int slotMask;
+
+    public DataScopeTableRegistry() {
+        this(scan(BASE_PACKAGE));
+        log.info("数据权限表注册完成：{}", tables.keySet());
+    }
+
+    /**
+     * @param tables 受保护表（同一表名重复登记时字段映射必须一致）
+     */
+    public DataScopeTableRegistry(Collection<DataScopeTable> tables) {
+        Map<String, DataScopeTable> index = new HashMap<>();
+        for (DataScopeTable table : tables) {
+            DataScopeTable previous = index.putIfAbsent(table.tableName(), table);
+            if (previous != null && !previous.equals(table)) {
+                throw new IllegalStateException("数据权限表 " + table.tableName() + " 的字段映射冲突：" + previous + " / " + table);
+            }
+        }
+        this.tables = Map.copyOf(index);
+        this.minNameLength = index.keySet().stream().mapToInt(String::length).min().orElse(0);
+        this.maxNameLength = index.keySet().stream().mapToInt(String::length).max().orElse(0);
+
+        int capacity = Integer.highestOneBit(Math.max(1, index.size()) * 4);
+        this.nameSlots = new String[capacity];
+        this.hashSlots = new int[capacity];
+        this.slotMask = capacity - 1;
+        for (String name : index.keySet()) {
+            int hash = hashIgnoreCase(name, 0, name.length());
+            int slot = hash & slotMask;
+            while (nameSlots[slot] != null) {
+                slot = (slot + 1) & slotMask;
+            }
+            nameSlots[slot] = name;
+            hashSlots[slot] = hash;
+        }
+    }
+
+    /**
+     * 获取表的数据权限字段映射
+     *
+     * @param tableName 表名（可带双引号，不区分大小写）
+     * @return 字段映射，不是受保护表时返回 null
+     */
+    public DataScopeTable get(String tableName) {
+        if (tableName == null || tables.isEmpty()) {
+            return null;
+        }
+        return tables.get(normalize(tableName));
+    }
+
+    /**
+     * SQL 中是否可能引用了受保护表
+     * <p>
+     * 只做词法判断：跳过字符串常量，把其余标识符（含带双引号的标识符、schema 限定名的各段）逐个查索引。
+     * 返回 false 时语句一定不涉及受保护表；返回 true 时仍由 JSqlParser 解析后按表判断
+     * </p>
+     *
+     * @param sql SQL 语句
+     * @return 是否可能引用受保护表
+     */
+    public boolean mayReference(String sql) {
+        if (tables.isEmpty() || sql == null) {
+            return false;
+        }
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                int end = sql.indexOf('\'', i + 1);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '"') {
+                int end = sql.indexOf('"', i + 1);
+                if (end < 0) {
+                    return true;
+                }
+                if (matches(sql, i + 1, end)) {
+                    return true;
+                }
+                i = end + 1;
+            } else if (isIdentifierPart(c)) {
+                int start = i;
+                while (i < length && isIdentifierPart(sql.charAt(i))) {
+                    i++;
+                }
+                if (matches(sql, start, i)) {
+                    return true;
+                }
+            } else {
+                i++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * sql[start, end) 是否为已登记的表名（不区分大小写，不分配对象）
+     */
+    private boolean matches(String sql, int start, int end) {
+        int length = end - start;
+        if (length < minNameLength || length > maxNameLength) {
+            return false;
+        }
+        int hash = hashIgnoreCase(sql, start, end);
+        for (int slot = hash & slotMask; nameSlots[slot] != null; slot = (slot + 1) & slotMask) {
+            String name = nameSlots[slot];
+            if (hashSlots[slot] == hash && name.length() == length && sql.regionMatches(true, start, name, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按小写字符计算区间哈希（已登记的表名均为小写），结果再打散低位
+     */
+    private static int hashIgnoreCase(String value, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(value.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return c == '_' || c == '$' || Character.isLetterOrDigit(c);
+    }
+
+    private static String normalize(String tableName) {
+        String name = tableName;
+        if (name.length() > 1 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
+            name = name.substring(1, name.length() - 1);
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isUpperCase(name.charAt(i))) {
+                return name.toLowerCase(Locale.ROOT);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * 扫描标注了 {@link DataScope} 的实体类
+     *
+     * @param basePackage 根包
+     * @return 受保护表
+     */
+    public static List<DataScopeTable> scan(String basePackage) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(DataScope.class));
+        List<DataScopeTable> result = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+            AnnotationMetadata metadata = ((AnnotatedBeanDefinition) candidate).getMetadata();
+            Map<String, Object> tableName = metadata.getAnnotationAttributes(TableName.class.getName());
+            if (tableName == null || !StringUtils.hasText((String) tableName.get("value"))) {
+                throw new IllegalStateException("@DataScope 实体类必须通过 @TableName 声明表名：" + metadata.getClassName());
+            }
+            Map<String, Object> dataScope = metadata.getAnnotationAttributes(DataScope.class.getName());
+            result.add(DataScopeTable.of((String) tableName.get("value"),
+                    (String) dataScope.get("creatorColumn"), (String) dataScope.get("deptColumn")));
+        }
+        return result;
+    }
+
+    /**
+     * 受保护表的字段映射
+     *
+     * @param tableName     表名（小写）
+     * @param creatorColumn 创建人字段名
+     * @param deptColumn    部门字段名，没有时为 null
+     */
+    public record DataScopeTable(String tableName, String creatorColumn, String deptColumn) {
+
+        public static DataScopeTable of(String tableName, String creatorColumn, String deptColumn) {
+            return new DataScopeTable(normalize(tableName), creatorColumn,
+                    StringUtils.hasText(deptColumn) ? deptColumn : null);
+        }
+
+        public boolean hasDeptColumn() {
+            return deptColumn != null;
+        }
+    }
+}
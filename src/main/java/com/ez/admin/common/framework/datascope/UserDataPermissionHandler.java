@@ -1,11 +1,14 @@
 package com.ez.admin.common.framework.datascope;
 
 import com.baomidou.mybatisplus.extension.plugins.handler.MultiDataPermissionHandler;
+import com.ez.admin.common.framework.datascope.DataScopeTableRegistry.DataScopeTable;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jsqlparser.expression.Expression;
-import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Table;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -35,18 +38,39 @@ import static com.ez.admin.common.core.constant.SystemConstants.*;
  * @Bean
  * public MybatisPlusInterceptor mybatisPlusInterceptor(UserDataPermissionHandler handler) {
  *     MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
- *     interceptor.addInnerInterceptor(new DataPermissionInterceptor(handler));
+ *     interceptor.addInnerInterceptor(new DataScopeSqlInterceptor(handler));
  *     return interceptor;
  * }
  *
- * // 2. 在登录时设置数据权限信息
+ * // 2. 在需要过滤的实体类上声明数据权限字段
+ * @TableName("ez_admin_order")
+ * @DataScope(creatorColumn = "created_by")
+ * public class Order { ... }
+ *
+ * // 3. 在登录时设置数据权限信息
  * DataScopeContext.setDataScopeInfo(dataScopeInfo);
  *
- * // 3. 查询时会自动添加数据权限条件
+ * // 4. 查询时会自动添加数据权限条件
  * List<Order> orders = orderMapper.selectList(null);
  * // 实际 SQL: SELECT * FROM ez_admin_order WHERE created_by IN (...)
  * }</pre>
  * </p>
+ * <p>
+ * 受保护表：由 {@link DataScopeTableRegistry} 在启动时扫描 {@link com.ez.admin.common.model.annotation.DataScope} 注解得到，
+ * 按表名哈希查找；声明了部门字段的表在部门类权限下直接按部门字段过滤，否则按创建人字段关联用户部门
+ * </p>
+ * <p>
+ * 解析结果缓存：SQL 片段只由「权限范围 + 表名 + 绑定值（用户ID / 部门ID / 自定义部门ID列表）」决定，
+ * 解析后的 {@link Expression} 放入有界本地缓存（ez.admin.data-scope.expression-cache-size，0 表示不缓存），
+ * 同一用户、同一部门的后续查询直接复用，不再拼接字符串和调用 JSqlParser。
+ * 缓存的表达式在多个线程的 SQL 改写间共享，只会被 MyBatis-Plus 作为子节点挂到新的 AND 条件下，不能修改
+ * </p>
+ * <p>
+ * 可见创建人数组参数：本部门、本部门及以下、自定义三种范围优先使用 {@link DataScopeCreatorCache} 中预先算好的创建人ID集合，
+ * 生成 {@code created_by = ANY(?::bigint[])}（语句文本与用户无关，表达式按权限范围 + 表名缓存），
+ * 集合记录在当前线程，由 {@link DataScopeSqlInterceptor} 在改写完成后作为一个数组参数绑定；
+ * 集合超过上限或查询失败时退回子查询条件
+ * </p>
  *
  * @author ez-admin
  * @since 2026-01-28
@@ -56,25 +80,56 @@ import static com.ez.admin.common.core.constant.SystemConstants.*;
 public class UserDataPermissionHandler implements MultiDataPermissionHandler {
 
     /**
-     * 需要进行数据权限过滤的表名白名单
-     * <p>
-     * 只有在白名单中的表才会进行数据权限过滤
-     * </p>
+     * 可见创建人数组参数（改写后的 SQL 中按此文本定位参数位置）
+     */
+    static final String CREATOR_ARRAY_PARAMETER = "ANY(?::bigint[])";
+
+    /**
+     * 当前线程正在改写的语句中待绑定的可见创建人ID
+     */
+    private static final ThreadLocal<Long[]> BOUND_CREATORS = new ThreadLocal<>();
+
+    private final DataScopeTableRegistry tableRegistry;
+    private final DataScopeCreatorCache creatorCache;
+
+    /**
+     * 已解析的数据权限表达式：权限范围 + 表名 + 绑定值 -> 表达式（共享，不可修改）
      * <p>
-     * 注意：表名必须是数据库表名，不是实体类名
+     * 为 null 表示不缓存，每次查询重新拼接并解析
      * </p>
      */
-    private static final List<String> DATA_PERMISSION_TABLES = List.of(
-            // 测试订单表（用于验证数据权限功能）
-            "ez_admin_test_order"
-            // 后续添加新表时，在此处注册表名
-            // 例如："ez_admin_contract", "ez_admin_customer" 等
-    );
+    private final Cache<ExpressionKey, Expression> expressionCache;
+
+    public UserDataPermissionHandler(DataScopeTableRegistry tableRegistry,
+                                     DataScopeCreatorCache creatorCache,
+                                     @Value("${ez.admin.data-scope.expression-cache-size:1024}") int expressionCacheSize) {
+        this.tableRegistry = tableRegistry;
+        this.creatorCache = creatorCache;
+        this.expressionCache = expressionCacheSize > 0
+                ? Caffeine.newBuilder().maximumSize(expressionCacheSize).build()
+                : null;
+    }
 
     /**
-     * 创建人字段名
+     * 判断语句是否需要交给 JSqlParser 改写
+     * <p>
+     * 未设置数据权限信息、全部数据权限、或 SQL 中没有出现任何受保护表名时返回 false，拦截器直接跳过
+     * </p>
+     *
+     * @param sql 原始 SQL
+     * @return 是否需要改写
      */
-    private static final String CREATED_BY = "created_by";
+    boolean needsRewrite(String sql) {
+        DataScopeInfo info = DataScopeContext.getDataScopeInfo();
+        if (info == null) {
+            return false;
+        }
+        Integer dataScope = info.getDataScope();
+        if (dataScope != null && dataScope == DATA_SCOPE_ALL) {
+            return false;
+        }
+        return tableRegistry.mayReference(sql);
+    }
 
     /**
      * 获取数据权限 SQL 片段
@@ -83,7 +138,7 @@ public class UserDataPermissionHandler implements MultiDataPermissionHandler {
      * </p>
      *
      * @param table               表对象
-     * @param where               原有的 WHERE 条件
+     * @param where               原有的 WHERE 条件（仅供参考，合并由 MyBatis-Plus 完成）
      * @param mappedStatementId   Mapper 方法全限定名
      * @return SQL 条件表达式，如果不需要过滤则返回 null
      */
@@ -96,64 +151,126 @@ public class UserDataPermissionHandler implements MultiDataPermissionHandler {
             return null;
         }
 
-        // 2. 检查表是否在白名单中
-        String tableName = table.getName();
-        if (!DATA_PERMISSION_TABLES.contains(tableName)) {
-            log.debug("表 {} 不在数据权限白名单中，跳过权限过滤", tableName);
+        // 2. 检查表是否登记了数据权限
+        DataScopeTable scopeTable = tableRegistry.get(table.getName());
+        if (scopeTable == null) {
+            log.debug("表 {} 未声明数据权限，跳过权限过滤", table.getName());
             return null;
         }
+        String tableName = scopeTable.tableName();
 
-        // 3. 根据数据权限范围生成 SQL 片段
-        String sqlSegment = buildSqlSegment(info, tableName);
-
-        if (sqlSegment == null) {
+        // 3. 根据数据权限范围取得（或解析并缓存）条件表达式
+        Integer dataScope = info.getDataScope();
+        if (dataScope != null && dataScope == DATA_SCOPE_ALL) {
             log.debug("数据权限范围为【全部数据】，不添加过滤条件");
             return null;
         }
+        // 声明了部门字段的表直接按部门过滤，不需要可见创建人集合
+        Long[] creators = scopeTable.hasDeptColumn() ? null : creatorCache.getVisibleCreators(info);
+        Expression sqlExpression;
+        if (creators != null) {
+            // 可见创建人集合：表达式与用户无关，值在改写完成后作为数组参数绑定
+            sqlExpression = expressionCache != null
+                    ? expressionCache.get(ExpressionKey.bound(dataScope, tableName),
+                    key -> compile(creatorArrayCondition(scopeTable), tableName))
+                    : compile(creatorArrayCondition(scopeTable), tableName);
+            if (sqlExpression != null) {
+                BOUND_CREATORS.set(creators);
+            }
+        } else {
+            sqlExpression = expressionCache != null
+                    ? expressionCache.get(ExpressionKey.of(info, tableName),
+                    key -> compile(buildSqlSegment(info, scopeTable), tableName))
+                    : compile(buildSqlSegment(info, scopeTable), tableName);
+        }
+
+        // 4. 只返回数据权限条件，由 MyBatis-Plus 与原有条件用新的 AND 条件合并（不修改缓存的表达式）
+        return sqlExpression;
+    }
+
+    /**
+     * 取出当前线程待绑定的可见创建人ID
+     *
+     * @return 可见创建人ID，没有时返回 null
+     */
+    Long[] takeBoundCreators() {
+        Long[] creators = BOUND_CREATORS.get();
+        BOUND_CREATORS.remove();
+        return creators;
+    }
 
-        // 4. 解析 SQL 片段为表达式
+    /**
+     * 恢复外层语句待绑定的可见创建人ID（改写过程中查询可见创建人会嵌套执行 SQL）
+     *
+     * @param creators 外层语句的可见创建人ID，null 表示没有
+     */
+    void restoreBoundCreators(Long[] creators) {
+        if (creators == null) {
+            BOUND_CREATORS.remove();
+        } else {
+            BOUND_CREATORS.set(creators);
+        }
+    }
+
+    /**
+     * 解析数据权限条件表达式
+     *
+     * @param sqlSegment SQL 片段，为 null 表示不需要过滤
+     * @param tableName  表名
+     * @return 条件表达式，不需要过滤或解析失败时返回 null（不缓存）
+     */
+    private Expression compile(String sqlSegment, String tableName) {
+        if (sqlSegment == null) {
+            return null;
+        }
         try {
             Expression sqlExpression = CCJSqlParserUtil.parseCondExpression(sqlSegment);
-            log.debug("数据权限 SQL 片段生成成功: 表={}, 条件={}", tableName, sqlExpression);
-
-            // 5. 将数据权限条件与原有条件合并
-            if (where != null) {
-                return new AndExpression(where, sqlExpression);
-            } else {
-                return sqlExpression;
-            }
+            log.debug("数据权限 SQL 片段解析成功: 表={}, 条件={}", tableName, sqlExpression);
+            return sqlExpression;
         } catch (Exception e) {
             log.error("数据权限 SQL 片段解析失败: 表={}, SQL片段={}", tableName, sqlSegment, e);
             return null;
         }
     }
 
+    /**
+     * 构建可见创建人数组条件
+     * <p>
+     * SQL: 创建人字段 = ANY(?::bigint[])
+     * </p>
+     *
+     * @param table 表的数据权限字段映射
+     * @return SQL 条件
+     */
+    private String creatorArrayCondition(DataScopeTable table) {
+        return table.creatorColumn() + " = " + CREATOR_ARRAY_PARAMETER;
+    }
+
     /**
      * 根据数据权限范围构建 SQL 片段
      *
-     * @param info     数据权限信息
-     * @param tableName 表名
+     * @param info  数据权限信息
+     * @param table 表的数据权限字段映射
      * @return SQL 片段，如果不需要过滤则返回 null
      */
-    private String buildSqlSegment(DataScopeInfo info, String tableName) {
+    private String buildSqlSegment(DataScopeInfo info, DataScopeTable table) {
         Integer dataScope = info.getDataScope();
         Long userId = info.getUserId();
         Long deptId = info.getDeptId();
-        String ancestors = info.getAncestors();
         List<Long> customDeptIds = info.getCustomDeptIds();
 
         return switch (dataScope) {
             case DATA_SCOPE_SELF -> // 仅本人数据权限
-                    buildSelfCondition(userId);
+                    buildSelfCondition(table, userId);
 
             case DATA_SCOPE_DEPT -> // 本部门数据权限
-                    buildDeptCondition(deptId);
+                    buildDeptCondition(table, deptId);
 
             case DATA_SCOPE_DEPT_AND_CHILD -> // 本部门及以下数据权限
-                    buildDeptAndChildCondition(deptId, ancestors);
+                    buildDeptAndChildCondition(table, deptId);
 
             case DATA_SCOPE_CUSTOM -> // 自定义数据权限
-                    buildCustomCondition(customDeptIds);
+                    buildCustomCondition(table, customDeptIds);
 
             case DATA_SCOPE_ALL -> // 全部数据权限
                     null;
@@ -168,56 +285,72 @@ public class UserDataPermissionHandler implements MultiDataPermissionHandler {
     /**
      * 构建仅本人数据的 SQL 条件
      * <p>
-     * SQL: created_by = 当前用户ID
+     * SQL: 创建人字段 = 当前用户ID
      * </p>
      *
+     * @param table  表的数据权限字段映射
      * @param userId 当前用户ID
      * @return SQL 条件
      */
-    private String buildSelfCondition(Long userId) {
-        return CREATED_BY + " = " + userId;
+    private String buildSelfCondition(DataScopeTable table, Long userId) {
+        return table.creatorColumn() + " = " + userId;
     }
 
     /**
      * 构建本部门数据的 SQL 条件
      * <p>
-     * SQL: created_by IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id = 部门ID)
+     * SQL: 部门字段 = 部门ID；
+     * 没有部门字段时为 创建人字段 IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id = 部门ID)
      * </p>
      *
+     * @param table  表的数据权限字段映射
      * @param deptId 部门ID
      * @return SQL 条件
      */
-    private String buildDeptCondition(Long deptId) {
-        return CREATED_BY + " IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id = " + deptId + ")";
+    private String buildDeptCondition(DataScopeTable table, Long deptId) {
+        if (table.hasDeptColumn()) {
+            return table.deptColumn() + " = " + deptId;
+        }
+        return table.creatorColumn() + " IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id = " + deptId + ")";
     }
 
     /**
      * 构建本部门及以下数据的 SQL 条件
      * <p>
-     * SQL: created_by IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id IN
-     *      (SELECT dept_id FROM ez_admin_sys_dept WHERE ancestors LIKE '祖先路径/部门ID/%' OR dept_id = 部门ID))
+     * SQL: 部门字段 IN (SELECT descendant_id FROM ez_admin_sys_dept_closure WHERE ancestor_id = 部门ID)；
+     * 没有部门字段时为 创建人字段 IN (SELECT u.user_id FROM ez_admin_sys_user u
+     *      JOIN ez_admin_sys_dept_closure c ON c.descendant_id = u.dept_id WHERE c.ancestor_id = 部门ID)
+     * </p>
+     * <p>
+     * 部门闭包表中每个部门与自身及所有祖先各有一行，按主键 (ancestor_id, descendant_id) 取出子树，
+     * 再按用户表 dept_id 索引关联，层级多深都只是两次索引查找
      * </p>
      *
-     * @param deptId    部门ID
-     * @param ancestors 祖先路径
+     * @param table  表的数据权限字段映射
+     * @param deptId 部门ID
      * @return SQL 条件
      */
-    private String buildDeptAndChildCondition(Long deptId, String ancestors) {
-        String likePattern = ancestors + deptId + "/%";
-        return CREATED_BY + " IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id IN " +
-                "(SELECT dept_id FROM ez_admin_sys_dept WHERE ancestors LIKE '" + likePattern + "' OR dept_id = " + deptId + "))";
+    private String buildDeptAndChildCondition(DataScopeTable table, Long deptId) {
+        if (table.hasDeptColumn()) {
+            return table.deptColumn() + " IN (SELECT descendant_id FROM ez_admin_sys_dept_closure WHERE ancestor_id = "
+                    + deptId + ")";
+        }
+        return table.creatorColumn() + " IN (SELECT u.user_id FROM ez_admin_sys_user u " +
+                "JOIN ez_admin_sys_dept_closure c ON c.descendant_id = u.dept_id WHERE c.ancestor_id = " + deptId + ")";
     }
 
     /**
      * 构建自定义数据权限的 SQL 条件
      * <p>
-     * SQL: created_by IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id IN (部门ID列表))
+     * SQL: 部门字段 IN (部门ID列表)；
+     * 没有部门字段时为 创建人字段 IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id IN (部门ID列表))
      * </p>
      *
+     * @param table         表的数据权限字段映射
      * @param customDeptIds 自定义部门ID列表
      * @return SQL 条件
      */
-    private String buildCustomCondition(List<Long> customDeptIds) {
+    private String buildCustomCondition(DataScopeTable table, List<Long> customDeptIds) {
         if (customDeptIds == null || customDeptIds.isEmpty()) {
             log.warn("自定义数据权限的部门ID列表为空，返回空结果");
             return "1 = 0"; // 没有权限，返回空结果
@@ -227,6 +360,39 @@ public class UserDataPermissionHandler implements MultiDataPermissionHandler {
                 .map(String::valueOf)
                 .collect(Collectors.joining(", "));
 
-        return CREATED_BY + " IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id IN (" + deptIdsStr + "))";
+        if (table.hasDeptColumn()) {
+            return table.deptColumn() + " IN (" + deptIdsStr + ")";
+        }
+        return table.creatorColumn() + " IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id IN (" + deptIdsStr + "))";
+    }
+
+    /**
+     * 表达式缓存键：SQL 片段只取决于权限范围、表名和该范围用到的绑定值
+     *
+     * @param dataScope 数据权限范围
+     * @param tableName 表名
+     * @param binding   绑定值：数组参数形式为固定标记；子查询形式下仅本人为用户ID，本部门及本部门及以下为部门ID，自定义为部门ID列表
+     */
+    private record ExpressionKey(int dataScope, String tableName, Object binding) {
+
+        /**
+         * 数组参数形式的绑定值标记（表达式与用户无关）
+         */
+        private static final Object ARRAY_PARAMETER = CREATOR_ARRAY_PARAMETER;
+
+        static ExpressionKey bound(int dataScope, String tableName) {
+            return new ExpressionKey(dataScope, tableName, ARRAY_PARAMETER);
+        }
+
+        static ExpressionKey of(DataScopeInfo info, String tableName) {
+            int dataScope = info.getDataScope();
+            Object binding = switch (dataScope) {
+                case DATA_SCOPE_SELF -> info.getUserId();
+                case DATA_SCOPE_DEPT, DATA_SCOPE_DEPT_AND_CHILD -> info.getDeptId();
+                case DATA_SCOPE_CUSTOM -> info.getCustomDeptIds() == null ? List.of() : List.copyOf(info.getCustomDeptIds());
+                default -> null;
+            };
+            return new ExpressionKey(dataScope, tableName, binding);
+        }
     }
 }
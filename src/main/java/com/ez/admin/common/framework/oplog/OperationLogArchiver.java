@@ -0,0 +1,391 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import com.ez.admin.modules.system.mapper.SysOperationLogMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 操作日志冷数据归档
+ * <p>
+ * 每日定时把 after-days 天之前的日志按天写入本地归档目录的段文件（oplog-yyyyMMdd[-序号].seg，
+ * 块压缩并带时间/用户名块索引，格式见 {@link OperationLogSegmentWriter}），写完后在同一事务中删除已归档的行；
+ * 日志表已分区时，随后整体删除已清空的过期分区。数据库只保留近期日志，归档日志可通过 {@link #search} 检索，不依赖数据库
+ * </p>
+ * <p>
+ * 只归档有日志的日期：每归档完一天，按索引查询下一条日志的日期跳过中间的空白日期
+ * （迁移时 create_time 为空的历史行被补为 1970-01-01，不能从最早时间逐天遍历）
+ * </p>
+ * <p>
+ * 段文件先写成待提交文件（*.seg.pending），删除行的事务提交后才原子重命名为正式段文件，事务回滚时删除待提交文件，
+ * 检索不会看到未提交的归档；写完即不再修改，同一天再次归档（如迟到的日志）时写入新的序号文件。
+ * 提交后重命名失败时保留待提交文件并记录错误，需人工改名恢复
+ * </p>
+ * <p>
+ * 启用归档后，分区清理的 retention-days 应设为 0 或大于 after-days，否则日志可能在归档前被删除
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OperationLogArchiver {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("oplog-(\\d{8})(?:-(\\d+))?\\.seg");
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * 单个段文件的大小上限，超过后写入下一个序号文件（读取时整体内存映射，需小于 2GB）
+     */
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    /**
+     * 缓存的段文件读取器个数（每个读取器持有一份内存映射和解析好的块索引）
+     */
+    private static final int READER_CACHE_SIZE = 64;
+
+    private final SysOperationLogMapper operationLogMapper;
+    private final OperationLogPartitionManager partitionManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 段文件 -> 读取器（段文件写完即不再修改，块索引只需解析一次）
+     */
+    private final Cache<Path, OperationLogSegmentReader> readers = Caffeine.newBuilder()
+            .maximumSize(READER_CACHE_SIZE)
+            .build();
+
+    @Value("${ez.admin.operation-log.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ez.admin.operation-log.archive.dir:./data/oplog-archive}")
+    private String archiveDir;
+
+    /**
+     * 数据库中保留的天数，更早的日志归档
+     */
+    @Value("${ez.admin.operation-log.archive.after-days:30}")
+    private int afterDays;
+
+    /**
+     * 单次检索最多扫描的段文件个数，超过时要求缩小时间范围
+     */
+    @Value("${ez.admin.operation-log.archive.max-segments-per-query:62}")
+    private int maxSegmentsPerQuery;
+
+    /**
+     * 每日归档
+     */
+    @Scheduled(cron = "${ez.admin.operation-log.archive.cron:0 30 1 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive();
+        } catch (Exception e) {
+            log.warn("操作日志归档失败，下次继续：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 归档 after-days 天之前的日志
+     *
+     * @return 归档的日志条数
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("操作日志归档正在进行，跳过本次");
+            return 0;
+        }
+        try {
+            LocalDateTime next = operationLogMapper.selectMinCreateTime(null);
+            LocalDate cutoff = LocalDate.now().minusDays(afterDays);
+            if (next == null || !next.toLocalDate().isBefore(cutoff)) {
+                return 0;
+            }
+            Files.createDirectories(archivePath());
+
+            long total = 0;
+            while (next != null && next.toLocalDate().isBefore(cutoff)) {
+                LocalDate day = next.toLocalDate();
+                total += archiveDay(day);
+                // 跳到下一个有日志的日期
+                next = operationLogMapper.selectMinCreateTime(day.plusDays(1).atStartOfDay());
+            }
+            if (partitionManager.isPartitioned()) {
+                partitionManager.dropPartitionsBefore(cutoff.atStartOfDay());
+            }
+            log.info("操作日志归档完成：{} 条，归档至 {}", total, cutoff);
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建操作日志归档目录失败：" + archiveDir, e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 归档一天的日志：写待提交段文件并删除对应行，事务提交后再重命名为正式段文件
+     * <p>
+     * 读取与删除在同一个可重复读事务中，只删除已写入段文件的行；删除条数与写入条数不一致时回滚
+     * </p>
+     */
+    private long archiveDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        // 可重复读：删除语句与游标读取看到同一快照，归档期间新写入该时间范围的行（如写入队列积压的日志）不会被删除
+        TransactionTemplate snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        List<Path> tempFiles = new ArrayList<>();
+        Long archived;
+        try {
+            archived = snapshotTemplate.execute(status -> writeAndDelete(day, from, to, tempFiles));
+        } catch (RuntimeException e) {
+            deleteQuietly(tempFiles);
+            throw e;
+        }
+        publishSegments(day, tempFiles);
+        if (archived != null && archived > 0) {
+            log.info("操作日志已归档：{}，{} 条", day, archived);
+        }
+        return archived != null ? archived : 0;
+    }
+
+    /**
+     * 在事务中把一天的日志写入待提交段文件，再删除已写入的行
+     *
+     * @param tempFiles 输出参数，按写入顺序记录生成的待提交文件
+     * @return 归档条数
+     */
+    private long writeAndDelete(LocalDate day, LocalDateTime from, LocalDateTime to, List<Path> tempFiles) {
+        LambdaQueryWrapper<SysOperationLog> wrapper = new LambdaQueryWrapper<SysOperationLog>()
+                .ge(SysOperationLog::getCreateTime, from)
+                .lt(SysOperationLog::getCreateTime, to)
+                .orderByAsc(SysOperationLog::getCreateTime, SysOperationLog::getLogId);
+        long rows = 0;
+        OperationLogSegmentWriter writer = null;
+        try (Cursor<SysOperationLog> cursor = operationLogMapper.selectLogCursor(wrapper)) {
+            for (SysOperationLog logEntity : cursor) {
+                if (writer == null) {
+                    Path tempFile = tempSegmentPath(day);
+                    tempFiles.add(tempFile);
+                    writer = OperationLogSegmentWriter.create(tempFile);
+                }
+                writer.append(logEntity);
+                rows++;
+                if (writer.size() >= MAX_SEGMENT_BYTES) {
+                    writer.finish();
+                    writer.close();
+                    writer = null;
+                }
+            }
+            if (writer != null) {
+                writer.finish();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入操作日志归档段文件失败：" + day, e);
+        } finally {
+            closeQuietly(writer);
+        }
+        if (rows > 0) {
+            int deleted = operationLogMapper.deleteByTimeRange(from, to);
+            if (deleted != rows) {
+                // 删除了未写入段文件的行（数据库不支持快照隔离时可能出现），回滚删除，下次重新归档
+                throw new IllegalStateException("操作日志归档删除条数与写入条数不一致：" + day
+                        + "，写入 " + rows + " 条，删除 " + deleted + " 条");
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 事务提交后把待提交文件依次原子重命名为正式段文件
+     */
+    private void publishSegments(LocalDate day, List<Path> tempFiles) {
+        for (Path tempFile : tempFiles) {
+            Path target = nextSegmentPath(day);
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // 行已删除，待提交文件是这部分日志的唯一副本，不能删除
+                log.error("操作日志归档段文件重命名失败，请手动将 {} 改名为 {}：{}", tempFile, target, e.getMessage());
+                throw new UncheckedIOException("操作日志归档段文件重命名失败：" + tempFile, e);
+            }
+        }
+    }
+
+    /**
+     * 检索归档日志（按 create_time 倒序，同一天有多个段文件时顺序近似）
+     * <p>
+     * 段文件的块索引解析后缓存复用；时间范围内需要扫描的段文件超过 max-segments-per-query 时拒绝检索
+     * </p>
+     *
+     * @param startTime        开始时间（含），为空时不限
+     * @param endTime          结束时间（含），为空时不限
+     * @param usernameContains 用户名关键词，用于按块索引跳过数据块
+     * @param filter           其余筛选条件
+     * @param offset           跳过条数
+     * @param limit            返回条数
+     * @return 日志列表
+     */
+    public List<SysOperationLog> search(LocalDateTime startTime, LocalDateTime endTime, String usernameContains,
+                                        Predicate<SysOperationLog> filter, long offset, int limit) {
+        long fromMillis = startTime != null ? OperationLogSegmentWriter.toMillis(startTime) : Long.MIN_VALUE;
+        long toMillis = endTime != null ? OperationLogSegmentWriter.toMillis(endTime) : Long.MAX_VALUE;
+        // 不按 limit 预分配，实际命中的行数可能远小于请求的条数
+        List<SysOperationLog> result = new ArrayList<>();
+        long[] skipped = {0};
+        int scanned = 0;
+
+        for (Segment segment : listSegments()) {
+            if ((startTime != null && segment.day().isBefore(startTime.toLocalDate()))
+                    || (endTime != null && segment.day().isAfter(endTime.toLocalDate()))) {
+                continue;
+            }
+            try {
+                OperationLogSegmentReader reader = reader(segment.path());
+                if (!reader.overlaps(fromMillis, toMillis)) {
+                    continue;
+                }
+                if (++scanned > maxSegmentsPerQuery) {
+                    throw new IllegalArgumentException("归档日志单次最多检索 " + maxSegmentsPerQuery + " 个段文件，请缩小时间范围");
+                }
+                boolean completed = reader.scanDescending(fromMillis, toMillis, usernameContains, row -> {
+                    if (!filter.test(row)) {
+                        return true;
+                    }
+                    if (skipped[0] < offset) {
+                        skipped[0]++;
+                        return true;
+                    }
+                    result.add(row);
+                    return result.size() < limit;
+                });
+                if (!completed) {
+                    break;
+                }
+            } catch (IOException e) {
+                readers.invalidate(segment.path());
+                log.warn("读取操作日志归档段文件失败，已跳过：{}，原因：{}", segment.path(), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 归档目录中的段文件，按日期、序号倒序
+     */
+    private List<Segment> listSegments() {
+        Path dir = archivePath();
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(Segment::parse)
+                    .filter(segment -> segment != null)
+                    .sorted(Comparator.comparing(Segment::day).thenComparingInt(Segment::sequence).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取操作日志归档目录失败：" + dir, e);
+        }
+    }
+
+    /**
+     * 获取段文件读取器，未缓存时映射文件并解析块索引
+     */
+    private OperationLogSegmentReader reader(Path path) throws IOException {
+        OperationLogSegmentReader reader = readers.getIfPresent(path);
+        if (reader == null) {
+            reader = OperationLogSegmentReader.open(path);
+            readers.put(path, reader);
+        }
+        return reader;
+    }
+
+    private Path nextSegmentPath(LocalDate day) {
+        String prefix = "oplog-" + day.format(DAY_FORMATTER);
+        Path path = archivePath().resolve(prefix + ".seg");
+        for (int sequence = 1; Files.exists(path); sequence++) {
+            path = archivePath().resolve(prefix + "-" + sequence + ".seg");
+        }
+        return path;
+    }
+
+    private Path tempSegmentPath(LocalDate day) {
+        return archivePath().resolve("oplog-" + day.format(DAY_FORMATTER) + "-" + UUID.randomUUID() + ".seg.pending");
+    }
+
+    private Path archivePath() {
+        return Paths.get(archiveDir);
+    }
+
+    private static void closeQuietly(OperationLogSegmentWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("关闭操作日志归档段文件失败：{}", e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除操作日志归档待提交文件失败：{}，原因：{}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 段文件
+     */
+    private record Segment(Path path, LocalDate day, int sequence) {
+
+        static Segment parse(Path path) {
+            Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+            if (!matcher.matches()) {
+                return null;
+            }
+            int sequence = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+            return new Segment(path, LocalDate.parse(matcher.group(1), DAY_FORMATTER), sequence);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.common.model.annotation.OperationLog;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 操作日志请求参数序列化
+ * <p>
+ * 序列化输出写入有上限的缓冲区，达到 params-max-length 后立即中断序列化（而不是先完整序列化再截断），
+ * 批量接口的大请求体不会在请求线程上生成完整 JSON 字符串；
+ * Jackson 生成器自带约 8K 字符缓冲，实际多序列化的内容不超过一个缓冲区
+ * </p>
+ * <p>
+ * 参数按 {@link OperationLog#excludeParams()} 跳过、按 {@link OperationLog#maskParams()} 脱敏，
+ * 请求/响应对象和上传文件始终跳过
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OperationLogParamsSerializer {
+
+    /**
+     * 脱敏参数的替换值
+     */
+    public static final String MASK = "******";
+
+    /**
+     * 截断后追加的标记
+     */
+    private static final String TRUNCATED_SUFFIX = "...";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${ez.admin.operation-log.params-max-length:2000}")
+    private int maxLength;
+
+    /**
+     * 按注解配置筛选参数（返回的数组持有原参数引用，不做拷贝）
+     *
+     * @param annotation 操作日志注解
+     * @param names      参数名（编译时需保留参数名，Spring Boot 默认开启 -parameters）
+     * @param args       参数值
+     * @return 需要记录的参数；没有时返回空数组
+     */
+    public Object[] capture(OperationLog annotation, String[] names, Object[] args) {
+        if (args == null || args.length == 0) {
+            return new Object[0];
+        }
+        List<String> excludes = Arrays.asList(annotation.excludeParams());
+        List<String> masks = Arrays.asList(annotation.maskParams());
+        List<Object> captured = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof HttpServletRequest || arg instanceof HttpServletResponse || arg instanceof MultipartFile) {
+                continue;
+            }
+            String name = names != null && i < names.length ? names[i] : null;
+            if (name != null && excludes.contains(name)) {
+                continue;
+            }
+            captured.add(name != null && masks.contains(name) ? MASK : arg);
+        }
+        return captured.toArray();
+    }
+
+    /**
+     * 序列化参数，超过长度上限时截断并追加 "..."
+     *
+     * @param args 已筛选的参数
+     * @return JSON 字符串；没有参数时返回 null
+     */
+    public String serialize(Object[] args) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        CappedWriter writer = new CappedWriter(maxLength);
+        try {
+            objectMapper.writeValue(writer, args);
+        } catch (RuntimeException e) {
+            if (!writer.isTruncated()) {
+                log.warn("序列化请求参数失败：{}", e.getMessage());
+                return "参数序列化失败";
+            }
+        }
+        return writer.isTruncated() ? writer + TRUNCATED_SUFFIX : writer.toString();
+    }
+
+    /**
+     * 有长度上限的 Writer：超出上限时保留前 limit 个字符并抛出异常中断序列化
+     */
+    static final class CappedWriter extends Writer {
+
+        private final StringBuilder buffer;
+        private final int limit;
+        private boolean truncated;
+
+        CappedWriter(int limit) {
+            this.limit = limit;
+            this.buffer = new StringBuilder(Math.min(limit, 256));
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int room = reserve(length);
+            buffer.append(chars, offset, room);
+            checkOverflow(room, length);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) throws IOException {
+            int room = reserve(length);
+            buffer.append(str, offset, offset + room);
+            checkOverflow(room, length);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            int room = reserve(1);
+            if (room > 0) {
+                buffer.append((char) c);
+            }
+            checkOverflow(room, 1);
+        }
+
+        /**
+         * 返回本次最多可写入的字符数
+         */
+        private int reserve(int length) throws IOException {
+            if (truncated) {
+                throw LimitReachedException.INSTANCE;
+            }
+            return Math.min(length, limit - buffer.length());
+        }
+
+        private void checkOverflow(int written, int length) throws IOException {
+            if (written < length) {
+                truncated = true;
+                throw LimitReachedException.INSTANCE;
+            }
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+
+    /**
+     * 达到长度上限时中断序列化（不填充堆栈，开销可忽略）
+     */
+    static final class LimitReachedException extends IOException {
+
+        static final LimitReachedException INSTANCE = new LimitReachedException();
+
+        private LimitReachedException() {
+            super("请求参数超过长度上限", null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
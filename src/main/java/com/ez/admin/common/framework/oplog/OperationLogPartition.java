@@ -0,0 +1,28 @@
+package com.ez.admin.common.framework.oplog;
+
+import lombok.Data;
+
+/**
+ * 操作日志表分区信息
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Data
+public class OperationLogPartition {
+
+    /**
+     * 分区表名
+     */
+    private String partitionName;
+
+    /**
+     * 分区范围表达式，如 FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00')，默认分区为 DEFAULT
+     */
+    private String partitionBound;
+
+    /**
+     * 估算行数（来自 pg_class.reltuples，未 ANALYZE 时为 0）
+     */
+    private Long estimatedRows;
+}
@@ -0,0 +1,188 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.mapper.SysOperationLogMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 操作日志分区管理
+ * <p>
+ * 操作日志表按 create_time 范围分区（见 doc/sql），本组件负责：
+ * <ul>
+ *   <li>预建分区：启动时及每日定时创建当前及未来 premake 个分区（按月或按天）</li>
+ *   <li>过期清理：把上界不晚于截止时间的分区整体 DETACH + DROP，不产生逐行删除、表膨胀和大量 WAL</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 清理粒度为一个分区：按月分区时，截止时间所在月份的日志要等整月过期后才会删除；
+ * 需要精确到天时可将 ez.admin.operation-log.partition.interval 设为 day。
+ * 默认分区（兜底）中的过期日志仍按行删除，正常情况下默认分区为空
+ * </p>
+ * <p>
+ * 操作日志表未分区（旧库未迁移）时本组件不做任何操作，清理接口退回按行删除
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(2)
+public class OperationLogPartitionManager implements ApplicationRunner {
+
+    private static final String PARTITION_PREFIX = OperationLogSink.TABLE_NAME + "_p";
+
+    private static final DateTimeFormatter BOUND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 解析 pg_get_expr 输出的时间边界（可能带小数秒）
+     */
+    private static final DateTimeFormatter BOUND_PARSER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .toFormatter();
+
+    /**
+     * 分区上界，如 TO ('2026-11-01 00:00:00')；上界为 MAXVALUE 或默认分区时不匹配
+     */
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final SysOperationLogMapper operationLogMapper;
+
+    /**
+     * 分区粒度：month / day
+     */
+    @Value("${ez.admin.operation-log.partition.interval:month}")
+    private String interval;
+
+    /**
+     * 预建的未来分区个数（不含当前分区）
+     */
+    @Value("${ez.admin.operation-log.partition.premake:3}")
+    private int premake;
+
+    /**
+     * 自动清理的保留天数，0 表示不自动清理
+     */
+    @Value("${ez.admin.operation-log.partition.retention-days:0}")
+    private int retentionDays;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        maintain();
+    }
+
+    /**
+     * 每日维护：预建分区，并按保留天数清理过期分区
+     */
+    @Scheduled(cron = "${ez.admin.operation-log.partition.maintain-cron:0 10 0 * * *}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                log.debug("操作日志表未分区，跳过分区维护");
+                return;
+            }
+            createFuturePartitions();
+            if (retentionDays > 0) {
+                dropPartitionsBefore(LocalDateTime.now().minusDays(retentionDays));
+            }
+        } catch (Exception e) {
+            log.warn("操作日志分区维护失败，下次继续：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 操作日志表是否为分区表
+     *
+     * @return 是否已分区
+     */
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(operationLogMapper.isPartitioned());
+    }
+
+    /**
+     * 创建当前及未来 premake 个分区（已存在的跳过）
+     */
+    public void createFuturePartitions() {
+        boolean daily = isDaily();
+        LocalDate start = daily ? LocalDate.now() : LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= premake; i++) {
+            LocalDate from = daily ? start.plusDays(i) : start.plusMonths(i);
+            LocalDate to = daily ? from.plusDays(1) : from.plusMonths(1);
+            String partitionName = PARTITION_PREFIX
+                    + from.format(DateTimeFormatter.ofPattern(daily ? "yyyyMMdd" : "yyyyMM"));
+            try {
+                operationLogMapper.createPartition(partitionName,
+                        from.atStartOfDay().format(BOUND_FORMATTER),
+                        to.atStartOfDay().format(BOUND_FORMATTER));
+            } catch (Exception e) {
+                // 与已有分区范围重叠、默认分区中已有该范围数据或其他节点并发创建时跳过
+                log.warn("创建操作日志分区失败：{}，原因：{}", partitionName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 整体删除上界不晚于截止时间的分区，并按行删除默认分区中的过期日志
+     *
+     * @param before 截止时间
+     * @return 删除的日志条数（分区部分为统计信息中的估算值）
+     */
+    public int dropPartitionsBefore(LocalDateTime before) {
+        long removed = 0;
+        List<OperationLogPartition> partitions = operationLogMapper.selectPartitions();
+        for (OperationLogPartition partition : partitions) {
+            LocalDateTime upperBound = upperBoundOf(partition);
+            if (upperBound == null || upperBound.isAfter(before)) {
+                continue;
+            }
+            try {
+                operationLogMapper.detachPartition(partition.getPartitionName());
+                operationLogMapper.dropPartition(partition.getPartitionName());
+                removed += partition.getEstimatedRows() != null ? partition.getEstimatedRows() : 0;
+                log.info("操作日志分区已删除：{}（{}，约 {} 条）",
+                        partition.getPartitionName(), partition.getPartitionBound(), partition.getEstimatedRows());
+            } catch (Exception e) {
+                log.warn("删除操作日志分区失败：{}，原因：{}", partition.getPartitionName(), e.getMessage());
+            }
+        }
+        removed += operationLogMapper.deleteDefaultPartitionBefore(before);
+        return (int) Math.min(Integer.MAX_VALUE, removed);
+    }
+
+    private boolean isDaily() {
+        return "day".equalsIgnoreCase(interval.trim());
+    }
+
+    /**
+     * 解析分区上界，默认分区或上界为 MAXVALUE 时返回 null
+     */
+    private static LocalDateTime upperBoundOf(OperationLogPartition partition) {
+        if (partition.getPartitionBound() == null) {
+            return null;
+        }
+        Matcher matcher = UPPER_BOUND.matcher(partition.getPartitionBound());
+        if (!matcher.find()) {
+            return null;
+        }
+        return LocalDateTime.parse(matcher.group(1), BOUND_PARSER);
+    }
+}
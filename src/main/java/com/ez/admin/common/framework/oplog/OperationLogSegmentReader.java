@@ -0,0 +1,226 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.entity.SysOperationLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 操作日志归档段文件读取（格式见 {@link OperationLogSegmentWriter}）
+ * <p>
+ * 以只读方式内存映射整个段文件，先读块索引，再按时间范围和用户名跳过不相关的数据块，
+ * 只解压可能命中的块；块内按 create_time 倒序回调
+ * </p>
+ * <p>
+ * 段文件写完后不再修改，读取器打开后可被多个线程复用（解压状态为每次遍历独有）
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+final class OperationLogSegmentReader {
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final List<BlockIndex> blocks;
+
+    /**
+     * 段内最早、最晚的 create_time（UTC 毫秒）
+     */
+    private final long minTime;
+    private final long maxTime;
+
+    private OperationLogSegmentReader(Path file, MappedByteBuffer buffer, List<BlockIndex> blocks) {
+        this.file = file;
+        this.buffer = buffer;
+        this.blocks = List.copyOf(blocks);
+        this.minTime = blocks.stream().mapToLong(BlockIndex::minTime).min().orElse(Long.MAX_VALUE);
+        this.maxTime = blocks.stream().mapToLong(BlockIndex::maxTime).max().orElse(Long.MIN_VALUE);
+    }
+
+    /**
+     * 段内是否可能有时间范围内的日志
+     *
+     * @param fromMillis 开始时间（含，UTC 毫秒）
+     * @param toMillis   结束时间（含，UTC 毫秒）
+     * @return 是否可能有
+     */
+    boolean overlaps(long fromMillis, long toMillis) {
+        return maxTime >= fromMillis && minTime <= toMillis;
+    }
+
+    /**
+     * 映射段文件并读取块索引
+     *
+     * @param file 段文件
+     * @return 读取器
+     */
+    static OperationLogSegmentReader open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 8 + OperationLogSegmentWriter.TRAILER_SIZE
+                || buffer.getInt(0) != OperationLogSegmentWriter.MAGIC
+                || buffer.getInt(buffer.capacity() - 4) != OperationLogSegmentWriter.MAGIC) {
+            throw new IOException("不是有效的操作日志归档段文件：" + file);
+        }
+        if (buffer.getInt(4) != OperationLogSegmentWriter.VERSION) {
+            throw new IOException("不支持的归档段文件版本：" + buffer.getInt(4) + "，文件：" + file);
+        }
+
+        int trailer = buffer.capacity() - OperationLogSegmentWriter.TRAILER_SIZE;
+        ByteBuffer index = buffer.duplicate().position((int) buffer.getLong(trailer)).limit(trailer);
+        int blockCount = buffer.getInt(trailer + 8);
+        List<BlockIndex> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            long offset = index.getLong();
+            int compressedLength = index.getInt();
+            int rawLength = index.getInt();
+            int rowCount = index.getInt();
+            long minTime = index.getLong();
+            long maxTime = index.getLong();
+            int usernameCount = index.getInt();
+            List<String> usernames = null;
+            if (usernameCount >= 0) {
+                usernames = new ArrayList<>(usernameCount);
+                for (int j = 0; j < usernameCount; j++) {
+                    usernames.add(readString(index));
+                }
+            }
+            blocks.add(new BlockIndex(offset, compressedLength, rawLength, rowCount, minTime, maxTime, usernames));
+        }
+        return new OperationLogSegmentReader(file, buffer, blocks);
+    }
+
+    /**
+     * 按 create_time 倒序遍历时间范围内的日志
+     *
+     * @param fromMillis        开始时间（含，UTC 毫秒），不限时传 Long.MIN_VALUE
+     * @param toMillis          结束时间（含，UTC 毫秒），不限时传 Long.MAX_VALUE
+     * @param usernameContains  用户名包含的关键词，用于按块索引跳过数据块，为空时不过滤
+     * @param consumer          逐行回调，返回 false 时停止遍历
+     * @return 是否遍历完（未被 consumer 中止）
+     */
+    boolean scanDescending(long fromMillis, long toMillis, String usernameContains,
+                           Predicate<SysOperationLog> consumer) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            for (int i = blocks.size() - 1; i >= 0; i--) {
+                BlockIndex block = blocks.get(i);
+                if (block.maxTime() < fromMillis || block.minTime() > toMillis
+                        || !block.mayContainUsername(usernameContains)) {
+                    continue;
+                }
+                List<SysOperationLog> rows = decode(block, inflater);
+                for (int j = rows.size() - 1; j >= 0; j--) {
+                    SysOperationLog row = rows.get(j);
+                    long time = OperationLogSegmentWriter.toMillis(row.getCreateTime());
+                    if (time >= fromMillis && time <= toMillis && !consumer.test(row)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private List<SysOperationLog> decode(BlockIndex block, Inflater inflater) throws IOException {
+        byte[] raw = new byte[block.rawLength()];
+        inflater.reset();
+        inflater.setInput(buffer.slice((int) block.offset(), block.compressedLength()));
+        try {
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IOException("归档段文件数据块不完整：" + file + "，偏移 " + block.offset());
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("归档段文件数据块损坏：" + file + "，偏移 " + block.offset(), e);
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        List<SysOperationLog> rows = new ArrayList<>(block.rowCount());
+        for (int i = 0; i < block.rowCount(); i++) {
+            SysOperationLog row = new SysOperationLog();
+            row.setLogId(in.getLong());
+            row.setCreateTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(in.getLong()), ZoneOffset.UTC));
+            row.setModule(readString(in));
+            row.setOperation(readString(in));
+            row.setDescription(readString(in));
+            row.setUserId(readLong(in));
+            row.setUsername(readString(in));
+            row.setRequestMethod(readString(in));
+            row.setRequestUrl(readString(in));
+            row.setRequestIp(readString(in));
+            row.setRequestParams(readString(in));
+            row.setExecuteTime(readLong(in));
+            byte status = in.get();
+            row.setStatus(status >= 0 ? (int) status : null);
+            row.setErrorMsg(readString(in));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (!in.hasArray()) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    /**
+     * 块索引
+     *
+     * @param usernames 块内出现的用户名，为 null 表示用户名过多未索引
+     */
+    private record BlockIndex(long offset, int compressedLength, int rawLength, int rowCount,
+                              long minTime, long maxTime, List<String> usernames) {
+
+        boolean mayContainUsername(String keyword) {
+            if (keyword == null || keyword.isEmpty() || usernames == null) {
+                return true;
+            }
+            for (String username : usernames) {
+                if (username.contains(keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
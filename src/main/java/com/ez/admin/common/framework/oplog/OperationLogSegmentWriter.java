@@ -0,0 +1,250 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.entity.SysOperationLog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * 操作日志归档段文件写入
+ * <p>
+ * 段文件只追加写一次，写完后不再修改。先写临时文件，fsync 后原子改名，中途失败不会留下半个段文件。格式：
+ * <pre>
+ * 文件头   int magic, int version
+ * 数据块   Deflate 压缩的若干行（每块最多 4096 行或 1MB 原始数据，行按写入顺序即 create_time 升序）
+ * 块索引   每块：long 偏移, int 压缩长度, int 原始长度, int 行数, long 最早时间, long 最晚时间,
+ *          int 用户名个数（超过 64 个时为 -1，表示不做用户名过滤）+ 用户名
+ * 文件尾   long 块索引偏移, int 块数, int magic
+ * </pre>
+ * 时间以 create_time 按 UTC 换算的毫秒数存储（与数据库中的本地时间一一对应，不做时区转换）
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+final class OperationLogSegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x455A4F4C;
+    static final int VERSION = 1;
+    static final int TRAILER_SIZE = 16;
+
+    private static final int MAX_BLOCK_ROWS = 4096;
+    private static final int MAX_BLOCK_BYTES = 1024 * 1024;
+    static final int MAX_INDEXED_USERNAMES = 64;
+
+    private final Path target;
+    private final Path tempFile;
+    private final OutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final byte[] compressBuffer = new byte[64 * 1024];
+
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(MAX_BLOCK_BYTES + 64 * 1024);
+    private final DataOutputStream block = new DataOutputStream(blockBytes);
+    private final Set<String> blockUsernames = new LinkedHashSet<>();
+    private final List<byte[]> blockIndexes = new ArrayList<>();
+
+    private long position;
+    private long rows;
+    private int blockRows;
+    private long blockMinTime;
+    private long blockMaxTime;
+    private boolean blockUsernamesOverflow;
+    private boolean finished;
+
+    private OperationLogSegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        this.out = new BufferedOutputStream(Files.newOutputStream(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), 64 * 1024);
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        position = 8;
+    }
+
+    /**
+     * 创建段文件（目标文件需不存在）
+     *
+     * @param target 段文件路径
+     * @return 写入器
+     */
+    static OperationLogSegmentWriter create(Path target) throws IOException {
+        if (Files.exists(target)) {
+            throw new IOException("归档段文件已存在：" + target);
+        }
+        return new OperationLogSegmentWriter(target);
+    }
+
+    /**
+     * 追加一行（需按 create_time 升序追加）
+     *
+     * @param logEntity 日志
+     */
+    void append(SysOperationLog logEntity) throws IOException {
+        long time = toMillis(logEntity.getCreateTime());
+        if (blockRows == 0) {
+            blockMinTime = time;
+        }
+        blockMinTime = Math.min(blockMinTime, time);
+        blockMaxTime = blockRows == 0 ? time : Math.max(blockMaxTime, time);
+        if (!blockUsernamesOverflow) {
+            blockUsernames.add(logEntity.getUsername() != null ? logEntity.getUsername() : "");
+            if (blockUsernames.size() > MAX_INDEXED_USERNAMES) {
+                blockUsernamesOverflow = true;
+                blockUsernames.clear();
+            }
+        }
+
+        block.writeLong(logEntity.getLogId());
+        block.writeLong(time);
+        writeString(block, logEntity.getModule());
+        writeString(block, logEntity.getOperation());
+        writeString(block, logEntity.getDescription());
+        writeLong(block, logEntity.getUserId());
+        writeString(block, logEntity.getUsername());
+        writeString(block, logEntity.getRequestMethod());
+        writeString(block, logEntity.getRequestUrl());
+        writeString(block, logEntity.getRequestIp());
+        writeString(block, logEntity.getRequestParams());
+        writeLong(block, logEntity.getExecuteTime());
+        block.writeByte(logEntity.getStatus() != null ? logEntity.getStatus() : -1);
+        writeString(block, logEntity.getErrorMsg());
+
+        rows++;
+        if (++blockRows >= MAX_BLOCK_ROWS || blockBytes.size() >= MAX_BLOCK_BYTES) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * 已写入的字节数（段文件按内存映射读取，单个文件需小于 2GB）
+     *
+     * @return 字节数
+     */
+    long size() {
+        return position + blockBytes.size();
+    }
+
+    /**
+     * 写入块索引和文件尾，落盘后改名为正式段文件
+     *
+     * @return 写入行数
+     */
+    long finish() throws IOException {
+        flushBlock();
+        long indexOffset = position;
+        for (byte[] blockIndex : blockIndexes) {
+            write(blockIndex, blockIndex.length);
+        }
+        DataOutputStream trailer = new DataOutputStream(out);
+        trailer.writeLong(indexOffset);
+        trailer.writeInt(blockIndexes.size());
+        trailer.writeInt(MAGIC);
+        out.flush();
+        out.close();
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+        return rows;
+    }
+
+    /**
+     * 未调用 {@link #finish()} 时删除临时文件
+     */
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRows == 0) {
+            return;
+        }
+        block.flush();
+        byte[] raw = blockBytes.toByteArray();
+        long offset = position;
+
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            int length = deflater.deflate(compressBuffer);
+            write(compressBuffer, length);
+            compressedLength += length;
+        }
+
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(64);
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        index.writeLong(offset);
+        index.writeInt(compressedLength);
+        index.writeInt(raw.length);
+        index.writeInt(blockRows);
+        index.writeLong(blockMinTime);
+        index.writeLong(blockMaxTime);
+        if (blockUsernamesOverflow) {
+            index.writeInt(-1);
+        } else {
+            index.writeInt(blockUsernames.size());
+            for (String username : blockUsernames) {
+                writeString(index, username);
+            }
+        }
+        index.flush();
+        blockIndexes.add(indexBytes.toByteArray());
+
+        blockBytes.reset();
+        blockUsernames.clear();
+        blockUsernamesOverflow = false;
+        blockRows = 0;
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+
+    static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import com.ez.admin.modules.system.service.SysOperationLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 操作日志批量落库
+ * <p>
+ * 优先通过 PostgreSQL 驱动的 CopyManager 以 {@code COPY ... FROM STDIN (FORMAT csv)} 流式写入，
+ * 整批只有一次往返、没有逐行语句解析与参数绑定开销；
+ * 数据源不是 PostgreSQL（无法 unwrap 为 {@link PGConnection}）或关闭 copy-enabled 时，
+ * 退回 JDBC Batch 单行 INSERT（{@link SysOperationLogService#saveBatch}，同一事务内每 500 行提交一次批）。
+ * 不用多行 VALUES：每行 14 个绑定参数，超过约 4680 行就会超出 PostgreSQL 单条语句 65535 个参数的上限
+ * </p>
+ * <p>
+ * 写入失败（如某行数据超长）时整批回滚并抛出异常，由 {@link OperationLogWriter} 按失败原因重试
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OperationLogSink {
+
+    /**
+     * 操作日志表
+     */
+    public static final String TABLE_NAME = "ez_admin_sys_operation_log";
+
+    private static final String COLUMNS = "log_id, module, operation, description, user_id, username, request_method, "
+            + "request_url, request_ip, request_params, execute_time, status, error_msg, create_time";
+
+    /**
+     * COPY 写缓冲区大小
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 退回 INSERT 时每个 JDBC Batch 的行数
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final DataSource dataSource;
+    private final SysOperationLogService operationLogService;
+
+    @Value("${ez.admin.operation-log.copy-enabled:true}")
+    private boolean copyEnabled;
+
+    /**
+     * 数据源是否支持 COPY（首次 unwrap 失败后不再尝试）
+     */
+    private volatile boolean copyAvailable = true;
+
+    /**
+     * 写入一批操作日志（日志ID、创建时间需已填充）
+     *
+     * @param logs 日志列表
+     */
+    public void write(List<SysOperationLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        if (copyEnabled && copyAvailable && copyIn(logs)) {
+            return;
+        }
+        operationLogService.saveBatch(logs, INSERT_BATCH_SIZE);
+    }
+
+    /**
+     * 通过 COPY 写入
+     *
+     * @return 是否已写入；返回 false 表示当前数据源不支持 COPY
+     */
+    private boolean copyIn(List<SysOperationLog> logs) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            PGConnection pgConnection;
+            try {
+                pgConnection = connection.unwrap(PGConnection.class);
+            } catch (SQLException e) {
+                copyAvailable = false;
+                log.warn("数据源不支持 PostgreSQL COPY，操作日志改用批量 INSERT 写入：{}", e.getMessage());
+                return false;
+            }
+            copyIn(pgConnection, TABLE_NAME, logs);
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("COPY 写入操作日志失败：" + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("COPY 写入操作日志失败", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * 以 CSV 格式 COPY 操作日志到指定表（表结构需与操作日志表一致，基准测试可指定临时表）
+     *
+     * @param connection PostgreSQL 连接
+     * @param tableName  目标表
+     * @param logs       日志列表
+     * @return 写入行数
+     */
+    public static long copyIn(PGConnection connection, String tableName, List<SysOperationLog> logs)
+            throws SQLException, IOException {
+        String sql = "COPY " + tableName + " (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+        PGCopyOutputStream out = new PGCopyOutputStream(connection, sql, COPY_BUFFER_SIZE);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+            for (SysOperationLog logEntity : logs) {
+                writeCsvRow(writer, logEntity);
+            }
+            writer.flush();
+            return out.endCopy();
+        } catch (SQLException | IOException | RuntimeException e) {
+            if (out.isActive()) {
+                out.cancelCopy();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 写一行 CSV：NULL 输出为空（不加引号），字符串一律加引号，以区分 NULL 与空字符串
+     */
+    static void writeCsvRow(Writer writer, SysOperationLog logEntity) throws IOException {
+        writeValue(writer, logEntity.getLogId());
+        writer.write(',');
+        writeText(writer, logEntity.getModule());
+        writer.write(',');
+        writeText(writer, logEntity.getOperation());
+        writer.write(',');
+        writeText(writer, logEntity.getDescription());
+        writer.write(',');
+        writeValue(writer, logEntity.getUserId());
+        writer.write(',');
+        writeText(writer, logEntity.getUsername());
+        writer.write(',');
+        writeText(writer, logEntity.getRequestMethod());
+        writer.write(',');
+        writeText(writer, logEntity.getRequestUrl());
+        writer.write(',');
+        writeText(writer, logEntity.getRequestIp());
+        writer.write(',');
+        writeText(writer, logEntity.getRequestParams());
+        writer.write(',');
+        writeValue(writer, logEntity.getExecuteTime());
+        writer.write(',');
+        writeValue(writer, logEntity.getStatus());
+        writer.write(',');
+        writeText(writer, logEntity.getErrorMsg());
+        writer.write(',');
+        writeValue(writer, logEntity.getCreateTime());
+        writer.write('\n');
+    }
+
+    private static void writeValue(Writer writer, Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writer.write(value, start, i + 1 - start);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+}
@@ -0,0 +1,276 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import com.ez.admin.modules.system.entity.SysOperationLogStat;
+import com.ez.admin.modules.system.mapper.SysOperationLogStatMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * 操作日志统计收集器
+ * <p>
+ * {@link com.ez.admin.common.framework.aspect.OperationLogAspect} 每记录一条日志，
+ * 就在内存中按 (分钟, 模块, 操作类型, 用户) 累加请求次数、失败次数、执行时长及 HdrHistogram 时长分布；
+ * 已结束的分钟定期批量写入统计表，统计查询不再扫描日志原表
+ * </p>
+ * <p>
+ * 统计在日志入队之前完成，队列写满被丢弃或采样掉的日志同样计入。
+ * 写入统计表失败时该批统计丢弃（只记录告警），不影响业务请求
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OperationLogStatsCollector {
+
+    /**
+     * 时长分布精度（有效数字位数，2 位即相对误差 1%）
+     */
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    /**
+     * 每次批量写入的行数
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final SysOperationLogStatMapper statMapper;
+
+    private final ConcurrentHashMap<StatKey, StatBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 已从内存桶取出、正在写入统计表的数据（写入完成前仍由 {@link #snapshot} 返回，统计查询不出现空档）
+     */
+    private final Set<SysOperationLogStat> flushing = ConcurrentHashMap.newKeySet();
+
+    @Value("${ez.admin.operation-log.stats.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 统计数据保留天数，0 表示不清理
+     */
+    @Value("${ez.admin.operation-log.stats.retention-days:90}")
+    private int retentionDays;
+
+    /**
+     * 累加一条操作日志
+     *
+     * @param logEntity 日志实体（执行时长、状态需已填充）
+     */
+    public void record(SysOperationLog logEntity) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime time = logEntity.getCreateTime() != null ? logEntity.getCreateTime() : LocalDateTime.now();
+        StatKey key = new StatKey(time.truncatedTo(ChronoUnit.MINUTES), logEntity.getModule(), logEntity.getOperation(),
+                logEntity.getUserId(), logEntity.getUsername());
+        long executeTime = logEntity.getExecuteTime() != null ? Math.max(0, logEntity.getExecuteTime()) : 0;
+        boolean error = logEntity.getStatus() != null && logEntity.getStatus() == 0;
+
+        // 桶在写入统计表时会被移除并关闭，拿到已关闭的桶时重新创建
+        while (!buckets.computeIfAbsent(key, k -> new StatBucket()).record(executeTime, error)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 内存中尚未写入统计表的数据（统计查询时与统计表合并，保证最近一分钟可见）
+     *
+     * @param startTime 开始时间（含）
+     * @param endTime   结束时间（不含）
+     * @return 统计数据
+     */
+    public List<SysOperationLogStat> snapshot(LocalDateTime startTime, LocalDateTime endTime) {
+        List<SysOperationLogStat> stats = new ArrayList<>();
+        buckets.forEach((key, bucket) -> {
+            if (!key.minute().isBefore(startTime) && key.minute().isBefore(endTime)) {
+                // 已关闭的桶已转入 flushing
+                SysOperationLogStat stat = bucket.toOpenStat(key);
+                if (stat != null) {
+                    stats.add(stat);
+                }
+            }
+        });
+        for (SysOperationLogStat stat : flushing) {
+            if (!stat.getStatTime().isBefore(startTime) && stat.getStatTime().isBefore(endTime)) {
+                stats.add(stat);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 定期把已结束分钟的统计写入统计表
+     */
+    @Scheduled(fixedDelayString = "${ez.admin.operation-log.stats.flush-interval-millis:60000}",
+            initialDelayString = "${ez.admin.operation-log.stats.flush-interval-millis:60000}")
+    public void flush() {
+        flushBefore(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+    }
+
+    /**
+     * 应用关闭时写入全部统计
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushBefore(LocalDateTime.MAX);
+    }
+
+    /**
+     * 按保留天数清理统计表
+     */
+    @Scheduled(cron = "${ez.admin.operation-log.stats.clean-cron:0 20 0 * * *}")
+    public void cleanExpired() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        try {
+            int count = statMapper.deleteBefore(LocalDateTime.now().minusDays(retentionDays));
+            log.info("清理过期操作日志统计：{} 条", count);
+        } catch (Exception e) {
+            log.warn("清理过期操作日志统计失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入指定时间之前的统计：先写统计表，写入完成后再从 flushing 中移除，
+     * 写入期间统计查询仍能从内存读到这些数据（写入提交与移除之间的极短窗口内可能重复计入）
+     */
+    private void flushBefore(LocalDateTime before) {
+        List<SysOperationLogStat> stats = new ArrayList<>();
+        for (Map.Entry<StatKey, StatBucket> entry : buckets.entrySet()) {
+            if (entry.getKey().minute().isBefore(before)) {
+                stats.add(entry.getValue().close(entry.getKey(), flushing));
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (stats.isEmpty()) {
+            return;
+        }
+        int written = 0;
+        try {
+            for (int from = 0; from < stats.size(); from += INSERT_BATCH_SIZE) {
+                List<SysOperationLogStat> batch = stats.subList(from, Math.min(stats.size(), from + INSERT_BATCH_SIZE));
+                statMapper.insertBatch(batch);
+                batch.forEach(flushing::remove);
+                written += batch.size();
+            }
+            log.debug("操作日志统计写入成功：{} 条", stats.size());
+        } catch (Exception e) {
+            log.warn("操作日志统计写入失败，丢弃 {} 条统计：{}", stats.size() - written, e.getMessage());
+            stats.subList(written, stats.size()).forEach(flushing::remove);
+        }
+    }
+
+    /**
+     * 解码时长分布
+     *
+     * @param encoded 压缩编码（为空时返回空分布）
+     * @return 时长分布
+     */
+    public static Histogram decodeHistogram(byte[] encoded) {
+        if (encoded == null || encoded.length == 0) {
+            return new Histogram(SIGNIFICANT_DIGITS);
+        }
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0);
+        } catch (DataFormatException e) {
+            log.warn("操作日志统计时长分布解码失败：{}", e.getMessage());
+            return new Histogram(SIGNIFICANT_DIGITS);
+        }
+    }
+
+    /**
+     * 创建空的时长分布（用于合并）
+     *
+     * @return 自动扩容的时长分布
+     */
+    public static Histogram newHistogram() {
+        return new Histogram(SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * 统计维度
+     */
+    private record StatKey(LocalDateTime minute, String module, String operation, Long userId, String username) {
+    }
+
+    /**
+     * 单个维度一分钟内的统计
+     */
+    private static final class StatBucket {
+
+        private final IntCountsHistogram histogram = new IntCountsHistogram(SIGNIFICANT_DIGITS);
+        private long requestCount;
+        private long errorCount;
+        private long totalTime;
+        private long maxTime;
+        private boolean closed;
+
+        synchronized boolean record(long executeTime, boolean error) {
+            if (closed) {
+                return false;
+            }
+            requestCount++;
+            if (error) {
+                errorCount++;
+            }
+            totalTime += executeTime;
+            maxTime = Math.max(maxTime, executeTime);
+            histogram.recordValue(executeTime);
+            return true;
+        }
+
+        /**
+         * 关闭桶并把统计转入 flushing（与 {@link #toOpenStat} 互斥，查询不会同时漏掉桶和 flushing）
+         */
+        synchronized SysOperationLogStat close(StatKey key, Set<SysOperationLogStat> flushing) {
+            closed = true;
+            SysOperationLogStat stat = toStat(key);
+            stat.setStatId(IdWorker.getId());
+            flushing.add(stat);
+            return stat;
+        }
+
+        synchronized SysOperationLogStat toOpenStat(StatKey key) {
+            return closed ? null : toStat(key);
+        }
+
+        synchronized SysOperationLogStat toStat(StatKey key) {
+            SysOperationLogStat stat = new SysOperationLogStat();
+            stat.setStatTime(key.minute());
+            stat.setModule(key.module());
+            stat.setOperation(key.operation());
+            stat.setUserId(key.userId());
+            stat.setUsername(key.username());
+            stat.setRequestCount(requestCount);
+            stat.setErrorCount(errorCount);
+            stat.setTotalTime(totalTime);
+            stat.setMaxTime(maxTime);
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            stat.setLatencyHistogram(Arrays.copyOf(buffer.array(), length));
+            return stat;
+        }
+    }
+}
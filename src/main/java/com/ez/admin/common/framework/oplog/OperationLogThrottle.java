@@ -0,0 +1,261 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.common.model.annotation.OperationLog;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 操作日志采样与限流
+ * <p>
+ * 按 {@link OperationLog#successSamplePercent()} 和 {@link OperationLog#maxPerUserPerSecond()}
+ * 决定一条日志是否落库，用于高频接口在流量高峰时限制日志写入量：
+ * <ul>
+ *   <li>失败日志始终记录</li>
+ *   <li>成功日志先按百分比采样，再按（接口, 用户）每秒条数限流</li>
+ *   <li>被省略的日志按（接口, 用户）计数，每隔 summary-interval-millis 写一条汇总日志，
+ *       描述中注明省略条数，请求参数中记录采样/限流各自的条数和时间范围</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 未配置采样和限流的接口不经过任何计数，开销可忽略；分钟级统计（{@link OperationLogStatsCollector}）
+ * 在采样之前完成，不受影响
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class OperationLogThrottle {
+
+    private static final String METRIC_NAME = "ez.admin.operation.log.suppressed";
+
+    private final OperationLogWriter operationLogWriter;
+
+    private final ConcurrentHashMap<ThrottleKey, ThrottleState> states = new ConcurrentHashMap<>();
+
+    private final Counter suppressedSampled;
+    private final Counter suppressedRateLimited;
+
+    @Value("${ez.admin.operation-log.throttle.enabled:true}")
+    private boolean enabled;
+
+    public OperationLogThrottle(OperationLogWriter operationLogWriter, MeterRegistry registry) {
+        this.operationLogWriter = operationLogWriter;
+        this.suppressedSampled = Counter.builder(METRIC_NAME)
+                .description("因采样未记录的成功操作日志数")
+                .tag("reason", "sampled")
+                .register(registry);
+        this.suppressedRateLimited = Counter.builder(METRIC_NAME)
+                .description("因限流未记录的成功操作日志数")
+                .tag("reason", "rate-limited")
+                .register(registry);
+    }
+
+    /**
+     * 判断日志是否需要记录（状态、用户信息需已填充）；不记录时计入汇总
+     *
+     * @param method     接口方法
+     * @param annotation 操作日志注解
+     * @param logEntity  日志实体
+     * @return 是否记录
+     */
+    public boolean tryAcquire(Method method, OperationLog annotation, SysOperationLog logEntity) {
+        int samplePercent = annotation.successSamplePercent();
+        int maxPerSecond = annotation.maxPerUserPerSecond();
+        if (!enabled || (samplePercent >= 100 && maxPerSecond <= 0)) {
+            return true;
+        }
+        if (logEntity.getStatus() == null || logEntity.getStatus() == 0) {
+            return true;
+        }
+
+        ThrottleKey key = new ThrottleKey(method, logEntity.getUserId());
+        boolean sampledOut = samplePercent < 100 && ThreadLocalRandom.current().nextInt(100) >= samplePercent;
+        long second = System.currentTimeMillis() / 1000;
+        Decision decision;
+        // 状态对象空闲被清理时会标记为 RETIRED，拿到已清理的对象时重新创建
+        do {
+            decision = states.computeIfAbsent(key, k -> new ThrottleState(logEntity))
+                    .decide(sampledOut, second, maxPerSecond);
+        } while (decision == Decision.RETIRED);
+
+        switch (decision) {
+            case SAMPLED -> suppressedSampled.increment();
+            case RATE_LIMITED -> suppressedRateLimited.increment();
+            default -> {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 定期为被省略的日志写汇总日志，并清理空闲的计数
+     */
+    @Scheduled(fixedDelayString = "${ez.admin.operation-log.throttle.summary-interval-millis:60000}",
+            initialDelayString = "${ez.admin.operation-log.throttle.summary-interval-millis:60000}")
+    public void flushSummaries() {
+        long currentSecond = System.currentTimeMillis() / 1000;
+        Iterator<Map.Entry<ThrottleKey, ThrottleState>> iterator = states.entrySet().iterator();
+        while (iterator.hasNext()) {
+            ThrottleState state = iterator.next().getValue();
+            SysOperationLog summary = state.drainSummary();
+            if (summary != null) {
+                operationLogWriter.submit(summary);
+            } else if (state.retireIfIdle(currentSecond)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 应用关闭时写出尚未汇总的省略计数
+     * <p>
+     * 本组件通过构造器依赖 {@link OperationLogWriter}，Spring 会先销毁本组件再销毁写入器，
+     * 汇总日志在写入器停止接收、排空队列之前入队
+     * </p>
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            flushSummaries();
+        }
+    }
+
+    /**
+     * 采样与限流结果
+     */
+    private enum Decision {
+        RECORD,
+        SAMPLED,
+        RATE_LIMITED,
+        RETIRED
+    }
+
+    /**
+     * 限流维度：接口方法 + 用户
+     */
+    private record ThrottleKey(Method method, Long userId) {
+    }
+
+    /**
+     * 单个（接口, 用户）的限流窗口与省略计数
+     */
+    private static final class ThrottleState {
+
+        /**
+         * 汇总日志的模板（取第一条日志的接口与用户信息）
+         */
+        private final SysOperationLog template;
+
+        private long windowSecond;
+        private int windowCount;
+        private long sampled;
+        private long rateLimited;
+        private LocalDateTime firstSuppressed;
+        private LocalDateTime lastSuppressed;
+        private boolean retired;
+
+        ThrottleState(SysOperationLog first) {
+            this.template = new SysOperationLog();
+            template.setModule(first.getModule());
+            template.setOperation(first.getOperation());
+            template.setDescription(first.getDescription());
+            template.setUserId(first.getUserId());
+            template.setUsername(first.getUsername());
+            template.setRequestMethod(first.getRequestMethod());
+            template.setRequestUrl(first.getRequestUrl());
+            template.setRequestIp(first.getRequestIp());
+        }
+
+        synchronized Decision decide(boolean sampledOut, long second, int maxPerSecond) {
+            if (retired) {
+                return Decision.RETIRED;
+            }
+            if (sampledOut) {
+                sampled++;
+                markSuppressed();
+                return Decision.SAMPLED;
+            }
+            if (maxPerSecond <= 0) {
+                return Decision.RECORD;
+            }
+            if (second != windowSecond) {
+                windowSecond = second;
+                windowCount = 0;
+            }
+            if (++windowCount <= maxPerSecond) {
+                return Decision.RECORD;
+            }
+            rateLimited++;
+            markSuppressed();
+            return Decision.RATE_LIMITED;
+        }
+
+        private void markSuppressed() {
+            LocalDateTime now = LocalDateTime.now();
+            if (firstSuppressed == null) {
+                firstSuppressed = now;
+            }
+            lastSuppressed = now;
+        }
+
+        /**
+         * 取出省略计数并生成汇总日志，没有省略时返回 null
+         */
+        synchronized SysOperationLog drainSummary() {
+            long total = sampled + rateLimited;
+            if (total == 0) {
+                return null;
+            }
+            SysOperationLog summary = new SysOperationLog();
+            summary.setModule(template.getModule());
+            summary.setOperation(template.getOperation());
+            summary.setDescription(truncate("[汇总] " + template.getDescription() + "，省略 " + total + " 条成功日志"));
+            summary.setUserId(template.getUserId());
+            summary.setUsername(template.getUsername());
+            summary.setRequestMethod(template.getRequestMethod());
+            summary.setRequestUrl(template.getRequestUrl());
+            summary.setRequestIp(template.getRequestIp());
+            summary.setRequestParams("{\"suppressed\":" + total + ",\"sampled\":" + sampled
+                    + ",\"rateLimited\":" + rateLimited + ",\"from\":\"" + firstSuppressed
+                    + "\",\"to\":\"" + lastSuppressed + "\"}");
+            summary.setStatus(1);
+            summary.setCreateTime(LocalDateTime.now());
+
+            sampled = 0;
+            rateLimited = 0;
+            firstSuppressed = null;
+            lastSuppressed = null;
+            return summary;
+        }
+
+        /**
+         * 没有待汇总的计数且限流窗口已过期时标记为已清理
+         */
+        synchronized boolean retireIfIdle(long currentSecond) {
+            if (sampled + rateLimited == 0 && currentSecond - windowSecond > 1) {
+                retired = true;
+            }
+            return retired;
+        }
+
+        private static String truncate(String description) {
+            return description.length() > 255 ? description.substring(0, 255) : description;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 操作日志异步批量写入器
+ * <p>
+ * 请求线程只把日志放入有界无锁队列（{@link ConcurrentLinkedQueue} + CAS 计数），
+ * 由单个后台线程取出，攒够 batch-size 条或距上次写入超过 flush-interval-millis 时，
+ * 交给 {@link OperationLogSink} 整批写入数据库（PostgreSQL COPY，不可用时退回多行 INSERT）
+ * </p>
+ * <p>
+ * 队列写满时的处理策略（ez.admin.operation-log.overflow-policy）：
+ * <ul>
+ *   <li>drop：直接丢弃新日志（默认）</li>
+ *   <li>sample：队列超过 80% 后，成功日志按 1/sample-rate 采样保留，失败日志始终保留；写满后丢弃</li>
+ *   <li>block：请求线程最多等待 block-timeout-millis，仍无空位则丢弃</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 写入失败时区分原因：连接不可用、超时等暂时性故障整批退避重试（最多 retry-attempts 次，间隔从 retry-backoff-millis 起倍增），
+ * 仍失败则整批计入失败、只记一条错误日志；数据错误（如某行超长）才逐条重试，避免一条异常数据连带整批丢失
+ * </p>
+ * <p>
+ * 指标：{@code ez.admin.operation.log.queue.size}（队列深度）、
+ * {@code ez.admin.operation.log.dropped}（按 reason=full / sampled / shutdown 统计丢弃数）、
+ * {@code ez.admin.operation.log.written} / {@code ez.admin.operation.log.failed}（写入成功 / 失败条数）
+ * </p>
+ * <p>
+ * 应用关闭时（Web 服务器已停止接收请求之后）停止接收新日志，并在 shutdown-timeout-millis 内写完队列中剩余日志；
+ * 关闭后才提交的日志不再同步写入数据库（此时连接池可能已关闭），直接丢弃并计入 reason=shutdown
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class OperationLogWriter {
+
+    private static final String METRIC_PREFIX = "ez.admin.operation.log";
+
+    /**
+     * sample 策略开始采样的队列水位（百分比）
+     */
+    private static final int SAMPLE_HIGH_WATER_PERCENT = 80;
+
+    /**
+     * block 策略下等待队列空位的轮询间隔
+     */
+    private static final long BLOCK_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    /**
+     * 暂时性故障退避的最长间隔
+     */
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 30_000;
+
+    private final OperationLogSink operationLogSink;
+
+    private final ConcurrentLinkedQueue<SysOperationLog> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 队列中的日志数（用于限制容量，ConcurrentLinkedQueue.size() 是 O(n)）
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * sample 策略的计数器
+     */
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private final Counter droppedFull;
+    private final Counter droppedSampled;
+    private final Counter droppedShutdown;
+    private final Counter written;
+    private final Counter failed;
+
+    @Value("${ez.admin.operation-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${ez.admin.operation-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ez.admin.operation-log.flush-interval-millis:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${ez.admin.operation-log.overflow-policy:drop}")
+    private String overflowPolicy;
+
+    @Value("${ez.admin.operation-log.sample-rate:10}")
+    private int sampleRate;
+
+    @Value("${ez.admin.operation-log.block-timeout-millis:100}")
+    private long blockTimeoutMillis;
+
+    @Value("${ez.admin.operation-log.shutdown-timeout-millis:10000}")
+    private long shutdownTimeoutMillis;
+
+    @Value("${ez.admin.operation-log.retry-attempts:3}")
+    private int retryAttempts;
+
+    @Value("${ez.admin.operation-log.retry-backoff-millis:500}")
+    private long retryBackoffMillis;
+
+    private OverflowPolicy policy;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public OperationLogWriter(OperationLogSink operationLogSink, MeterRegistry registry) {
+        this.operationLogSink = operationLogSink;
+        Gauge.builder(METRIC_PREFIX + ".queue.size", pending, AtomicInteger::get)
+                .description("待写入的操作日志数")
+                .register(registry);
+        this.droppedFull = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("因队列已满丢弃的操作日志数")
+                .tag("reason", "full")
+                .register(registry);
+        this.droppedSampled = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("因采样丢弃的操作日志数")
+                .tag("reason", "sampled")
+                .register(registry);
+        this.droppedShutdown = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("应用关闭后提交而丢弃的操作日志数")
+                .tag("reason", "shutdown")
+                .register(registry);
+        this.written = Counter.builder(METRIC_PREFIX + ".written")
+                .description("已写入数据库的操作日志数")
+                .register(registry);
+        this.failed = Counter.builder(METRIC_PREFIX + ".failed")
+                .description("写入数据库失败的操作日志数")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        policy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+        running = true;
+        writerThread = new Thread(this::runWriter, "oplog-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("操作日志写入器已启动：capacity={}, batchSize={}, flushInterval={}ms, overflowPolicy={}",
+                queueCapacity, batchSize, flushIntervalMillis, policy);
+    }
+
+    /**
+     * 提交操作日志（不阻塞请求线程，block 策略除外）
+     *
+     * @param logEntity 日志实体
+     */
+    public void submit(SysOperationLog logEntity) {
+        if (!running) {
+            droppedShutdown.increment();
+            log.debug("操作日志写入器已关闭，丢弃日志：{} - {}", logEntity.getModule(), logEntity.getDescription());
+            return;
+        }
+
+        if (policy == OverflowPolicy.SAMPLE && shouldSampleOut(logEntity)) {
+            droppedSampled.increment();
+            return;
+        }
+
+        if (tryEnqueue(logEntity)) {
+            return;
+        }
+
+        if (policy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+            while (System.nanoTime() < deadline) {
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(this, BLOCK_POLL_NANOS);
+                if (tryEnqueue(logEntity)) {
+                    return;
+                }
+            }
+        }
+        droppedFull.increment();
+        log.debug("操作日志队列已满，丢弃日志：{} - {}", logEntity.getModule(), logEntity.getDescription());
+    }
+
+    /**
+     * 队列超过高水位后，成功日志只保留 1/sampleRate，失败日志始终保留
+     */
+    private boolean shouldSampleOut(SysOperationLog logEntity) {
+        if (pending.get() * 100L < (long) queueCapacity * SAMPLE_HIGH_WATER_PERCENT) {
+            return false;
+        }
+        if (logEntity.getStatus() != null && logEntity.getStatus() == 0) {
+            return false;
+        }
+        return sampleSequence.incrementAndGet() % Math.max(1, sampleRate) != 0;
+    }
+
+    private boolean tryEnqueue(SysOperationLog logEntity) {
+        int current;
+        do {
+            current = pending.get();
+            if (current >= queueCapacity) {
+                return false;
+            }
+        } while (!pending.compareAndSet(current, current + 1));
+
+        queue.offer(logEntity);
+        if (!running && !writerThread.isAlive()) {
+            // 检查 running 之后写入器才关闭，后台线程已退出，不会再取这条日志
+            discardRemaining();
+        } else if (current + 1 >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    // ============================= 后台写入 =============================
+
+    private void runWriter() {
+        List<SysOperationLog> batch = new ArrayList<>(batchSize);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        long deadline = 0;
+
+        while (true) {
+            SysOperationLog logEntity;
+            while (batch.size() < batchSize && (logEntity = queue.poll()) != null) {
+                pending.decrementAndGet();
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + intervalNanos;
+                }
+                batch.add(logEntity);
+            }
+
+            boolean stopping = !running;
+            if (batch.size() >= batchSize
+                    || (!batch.isEmpty() && (stopping || System.nanoTime() - deadline >= 0))) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+                continue;
+            }
+            if (stopping && queue.isEmpty()) {
+                return;
+            }
+
+            LockSupport.parkNanos(this, batch.isEmpty() ? intervalNanos : Math.max(0, deadline - System.nanoTime()));
+        }
+    }
+
+    /**
+     * 写入一批日志：暂时性故障整批退避重试，数据错误逐条重试
+     */
+    private void flush(List<SysOperationLog> batch) {
+        for (SysOperationLog logEntity : batch) {
+            resolveDeferredParams(logEntity);
+            if (logEntity.getLogId() == null) {
+                logEntity.setLogId(IdWorker.getId());
+            }
+            if (logEntity.getCreateTime() == null) {
+                logEntity.setCreateTime(LocalDateTime.now());
+            }
+        }
+
+        long backoffMillis = retryBackoffMillis;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                operationLogSink.write(batch);
+                written.increment(batch.size());
+                log.debug("操作日志批量写入成功：{} 条", batch.size());
+                return;
+            } catch (Exception e) {
+                if (!isTransient(e)) {
+                    log.warn("操作日志批量写入失败，改为逐条写入：{} 条，原因：{}", batch.size(), e.getMessage());
+                    break;
+                }
+                // 数据库暂时不可用：逐条重试只会每条都失败一次，整批退避后重试；关闭期间不再等待
+                if (attempt >= retryAttempts || !running) {
+                    failed.increment(batch.size());
+                    log.error("数据库暂时不可用，丢弃 {} 条操作日志（已重试 {} 次）：{}", batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                log.warn("数据库暂时不可用，{}ms 后重试写入 {} 条操作日志：{}", backoffMillis, batch.size(), e.getMessage());
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF_MILLIS);
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            SysOperationLog logEntity = batch.get(i);
+            try {
+                operationLogSink.write(List.of(logEntity));
+                written.increment();
+            } catch (Exception e) {
+                if (isTransient(e)) {
+                    // 逐条写入期间数据库不可用，剩余日志整体计入失败，不再逐条报错
+                    failed.increment(batch.size() - i);
+                    log.error("数据库暂时不可用，丢弃 {} 条操作日志：{}", batch.size() - i, e.getMessage());
+                    return;
+                }
+                failed.increment();
+                log.error("保存操作日志失败：{} - {} - {}", logEntity.getModule(), logEntity.getDescription(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 是否为连接不可用、超时等暂时性故障（重试整批可能成功），而不是某行数据本身的问题
+     */
+    static boolean isTransient(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof TransientDataAccessException
+                    || e instanceof DataAccessResourceFailureException
+                    || e instanceof RecoverableDataAccessException
+                    || e instanceof SQLTransientException
+                    || e instanceof SQLRecoverableException
+                    || e instanceof SQLNonTransientConnectionException
+                    || e instanceof SocketException
+                    || e instanceof SocketTimeoutException) {
+                return true;
+            }
+            if (e instanceof SQLException sqlException && isTransientSqlState(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * SQLSTATE 08 连接异常、53 资源不足、57P 管理员关闭或暂不接受连接、40 事务回滚（死锁、串行化失败）
+     */
+    private static boolean isTransientSqlState(String sqlState) {
+        return sqlState != null && (sqlState.startsWith("08") || sqlState.startsWith("53")
+                || sqlState.startsWith("57P") || sqlState.startsWith("40"));
+    }
+
+    /**
+     * 序列化延迟记录的请求参数
+     */
+    private void resolveDeferredParams(SysOperationLog logEntity) {
+        if (logEntity.getDeferredRequestParams() == null) {
+            return;
+        }
+        try {
+            logEntity.setRequestParams(logEntity.getDeferredRequestParams().get());
+        } catch (Exception e) {
+            log.warn("序列化请求参数失败：{}", e.getMessage());
+            logEntity.setRequestParams("参数序列化失败");
+        } finally {
+            logEntity.setDeferredRequestParams(null);
+        }
+    }
+
+    /**
+     * 停止接收新日志，并等待后台线程写完队列中剩余的日志
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("操作日志写入器关闭超时，约 {} 条日志未写入", pending.get());
+            return;
+        }
+        // 后台线程退出前后仍可能有请求入队，重新检查队列
+        int discarded = discardRemaining();
+        if (discarded > 0) {
+            log.warn("操作日志写入器已关闭，丢弃关闭期间提交的 {} 条日志", discarded);
+        } else {
+            log.info("操作日志写入器已关闭");
+        }
+    }
+
+    /**
+     * 后台线程退出后丢弃队列中剩余的日志（计入 reason=shutdown）
+     *
+     * @return 丢弃条数
+     */
+    private int discardRemaining() {
+        int discarded = 0;
+        while (queue.poll() != null) {
+            pending.decrementAndGet();
+            droppedShutdown.increment();
+            discarded++;
+        }
+        return discarded;
+    }
+
+    /**
+     * 队列写满时的处理策略
+     */
+    enum OverflowPolicy {
+        DROP,
+        SAMPLE,
+        BLOCK
+    }
+}
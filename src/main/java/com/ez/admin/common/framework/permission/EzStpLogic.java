@@ -0,0 +1,27 @@
+package com.ez.admin.common.framework.permission;
+
+import cn.dev33.satoken.jwt.StpLogicJwtForSimple;
+
+import java.util.List;
+
+/**
+ * 自定义 StpLogic（JWT Simple 模式）
+ * <p>
+ * 权限列表为 {@link PermissionSet} 时直接走其位图判断，
+ * 避免 Sa-Token 默认策略在精确匹配未命中后对整个列表逐个做模糊匹配；
+ * 其他列表（如角色列表）仍使用默认策略
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public class EzStpLogic extends StpLogicJwtForSimple {
+
+    @Override
+    public boolean hasElement(List<String> list, String element) {
+        if (list instanceof PermissionSet permissionSet) {
+            return permissionSet.implies(element);
+        }
+        return super.hasElement(list, element);
+    }
+}
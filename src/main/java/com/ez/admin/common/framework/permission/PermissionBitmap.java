@@ -0,0 +1,107 @@
+package com.ez.admin.common.framework.permission;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * 权限位图（不可变）
+ * <p>
+ * 第 i 位表示是否拥有 {@link PermissionCodeRegistry} 中ID为 i 的权限码。
+ * 权限码ID稠密分配，数千个权限码只需几十个 long；末尾的全零字被截掉，
+ * 只持有少量低位权限的角色位图更短
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class PermissionBitmap {
+
+    /**
+     * 空位图
+     */
+    public static final PermissionBitmap EMPTY = new PermissionBitmap(new long[0], 0);
+
+    private final long[] words;
+    private final int cardinality;
+
+    private PermissionBitmap(long[] words, int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * 由 BitSet 构建位图（复制，之后修改 BitSet 不影响位图）
+     *
+     * @param bits 权限码ID集合
+     * @return 位图
+     */
+    public static PermissionBitmap of(BitSet bits) {
+        if (bits.isEmpty()) {
+            return EMPTY;
+        }
+        return new PermissionBitmap(bits.toLongArray(), bits.cardinality());
+    }
+
+    /**
+     * 按字 OR 合并多个位图
+     *
+     * @param bitmaps 位图
+     * @return 并集
+     */
+    public static PermissionBitmap union(Collection<PermissionBitmap> bitmaps) {
+        int length = 0;
+        for (PermissionBitmap bitmap : bitmaps) {
+            length = Math.max(length, bitmap.words.length);
+        }
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        long[] words = new long[length];
+        for (PermissionBitmap bitmap : bitmaps) {
+            long[] other = bitmap.words;
+            for (int i = 0; i < other.length; i++) {
+                words[i] |= other[i];
+            }
+        }
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return new PermissionBitmap(words, cardinality);
+    }
+
+    /**
+     * 是否包含指定权限码ID
+     *
+     * @param id 权限码ID（负数视为不包含）
+     * @return 是否包含
+     */
+    public boolean contains(int id) {
+        int index = id >>> 6;
+        return id >= 0 && index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * 权限码数量
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * 按ID升序返回全部权限码ID
+     */
+    public int[] toArray() {
+        int[] ids = new int[cardinality];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ez.admin.common.framework.permission;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限码字典
+ * <p>
+ * 为每个权限码（{@code SysMenu.menuPerm}，如 {@code system:user:create}）分配一个从 0 开始的稠密整数ID，
+ * 并保存唯一的字符串实例。角色权限因此可以用位图（{@link PermissionBitmap}）表示，
+ * 多角色合并为按字 OR，权限判断为一次位测试
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>ID 只在当前 JVM 内有效，不写入 Redis，各节点按各自加载顺序分配</li>
+ *   <li>ID 只增不回收，权限码总量受菜单表约束（数千级别）</li>
+ *   <li>启动时按菜单表顺序预注册（见 PermissionService），常用权限码的 ID 更小、位图更短</li>
+ * </ul>
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Component
+public class PermissionCodeRegistry {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * 权限码 -> ID
+     */
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * ID -> 权限码（写入在 {@link #ids} 发布之前完成）
+     */
+    private volatile String[] codes = new String[INITIAL_CAPACITY];
+
+    /**
+     * 含通配符 {@code *} 的权限码ID
+     */
+    private volatile int[] patternIds = new int[0];
+
+    /**
+     * 已分配的ID数量（由 this 锁保护）
+     */
+    private int size;
+
+    /**
+     * 注册权限码，返回其ID（已注册则直接返回）
+     *
+     * @param code 权限码
+     * @return 权限码ID
+     */
+    public int register(String code) {
+        Integer id = ids.get(code);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(code);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            String[] current = codes;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = code;
+            codes = current;
+            if (code.indexOf('*') >= 0) {
+                int[] patterns = Arrays.copyOf(patternIds, patternIds.length + 1);
+                patterns[patterns.length - 1] = next;
+                patternIds = patterns;
+            }
+            size = next + 1;
+            ids.put(code, next);
+            return next;
+        }
+    }
+
+    /**
+     * 查询权限码ID
+     *
+     * @param code 权限码
+     * @return 权限码ID，未注册返回 -1
+     */
+    public int idOf(String code) {
+        Integer id = ids.get(code);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * 查询ID对应的权限码
+     *
+     * @param id 权限码ID
+     * @return 权限码
+     */
+    public String codeOf(int id) {
+        return codes[id];
+    }
+
+    /**
+     * 返回权限码的唯一实例（未注册时注册）
+     *
+     * @param code 权限码
+     * @return 字典中的同值字符串
+     */
+    public String intern(String code) {
+        return codeOf(register(code));
+    }
+
+    /**
+     * 含通配符的权限码ID（只读，调用方不得修改）
+     */
+    int[] patternIds() {
+        return patternIds;
+    }
+
+    /**
+     * 已注册的权限码数量
+     */
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ez.admin.common.framework.permission;
+
+import cn.dev33.satoken.util.SaFoxUtil;
+
+import java.util.*;
+
+/**
+ * 用户有效权限快照
+ * <p>
+ * 用户所有角色权限位图的并集，创建后不可变。以 {@link List} 形式交给 Sa-Token，
+ * 但 {@link #contains(Object)} 通过 {@link PermissionCodeRegistry} 查到权限码ID后做一次位测试，
+ * 替代 Sa-Token 默认的线性查找；快照本身只持有位图，不持有权限码字符串
+ * </p>
+ * <p>
+ * 含 {@code *} 的权限码（如 {@code system:user:*}）单独保存，仅在精确匹配未命中时逐个做模糊匹配，
+ * 匹配规则与 Sa-Token 默认策略一致
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class PermissionSet extends AbstractList<String> implements RandomAccess {
+
+    /**
+     * 空权限集合
+     */
+    public static final PermissionSet EMPTY = new PermissionSet(null, PermissionBitmap.EMPTY, new String[0]);
+
+    private final PermissionCodeRegistry registry;
+
+    /**
+     * 权限码ID位图
+     */
+    private final PermissionBitmap bitmap;
+
+    /**
+     * 含通配符的权限码
+     */
+    private final String[] patterns;
+
+    /**
+     * 按ID升序排列的权限码ID，首次按下标访问时生成
+     */
+    private volatile int[] orderedIds;
+
+    private PermissionSet(PermissionCodeRegistry registry, PermissionBitmap bitmap, String[] patterns) {
+        this.registry = registry;
+        this.bitmap = bitmap;
+        this.patterns = patterns;
+    }
+
+    /**
+     * 由权限位图构建权限集合
+     *
+     * @param registry 分配位图中权限码ID的字典
+     * @param bitmap   权限位图
+     * @return 权限集合
+     */
+    public static PermissionSet of(PermissionCodeRegistry registry, PermissionBitmap bitmap) {
+        if (bitmap.cardinality() == 0) {
+            return EMPTY;
+        }
+
+        List<String> patterns = new ArrayList<>();
+        for (int patternId : registry.patternIds()) {
+            if (bitmap.contains(patternId)) {
+                patterns.add(registry.codeOf(patternId));
+            }
+        }
+        return new PermissionSet(registry, bitmap, patterns.toArray(new String[0]));
+    }
+
+    /**
+     * 是否拥有指定权限
+     * <p>
+     * 先做位测试，未命中再尝试通配符权限码
+     * </p>
+     *
+     * @param permission 需要校验的权限码
+     * @return 是否拥有
+     */
+    public boolean implies(String permission) {
+        if (permission == null) {
+            return false;
+        }
+        if (contains(permission)) {
+            return true;
+        }
+        for (String pattern : patterns) {
+            if (SaFoxUtil.vagueMatch(pattern, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String code && registry != null && bitmap.contains(registry.idOf(code));
+    }
+
+    @Override
+    public String get(int i) {
+        int[] ids = orderedIds;
+        if (ids == null) {
+            ids = bitmap.toArray();
+            orderedIds = ids;
+        }
+        return registry.codeOf(ids[i]);
+    }
+
+    @Override
+    public int size() {
+        return bitmap.cardinality();
+    }
+}
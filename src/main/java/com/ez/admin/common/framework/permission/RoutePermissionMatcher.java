@@ -0,0 +1,343 @@
+package com.ez.admin.common.framework.permission;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 编译后的路由权限匹配器
+ * <p>
+ * 将 {@code SysMenu.apiRoute / apiMethod} 构建的路由规则（METHOD:PATH -> 权限码）编译为按 HTTP 方法分组的路径段前缀树，
+ * 支持路径变量，解决 {@code DELETE /api/user/{userId}} 这类路由无法被精确 Map 匹配的问题
+ * </p>
+ * <p>
+ * 支持的路径段写法：
+ * <ul>
+ *   <li>字面量：{@code /api/user}</li>
+ *   <li>路径变量：{@code /api/user/{userId}}，匹配任意单个路径段</li>
+ *   <li>单段通配：{@code /api/user/*}，等同于路径变量</li>
+ *   <li>多段通配：{@code /api/file/**}，仅允许出现在末尾，匹配剩余任意层级</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 匹配规则：
+ * <ol>
+ *   <li>先匹配指定 HTTP 方法的规则，未命中再匹配未配置方法的规则</li>
+ *   <li>同一层级字面量优先于路径变量，路径变量优先于多段通配</li>
+ *   <li>匹配过程按路径段逐层下钻，复杂度为 O(路径段数)，不做字符串切分和拼接，无对象分配</li>
+ * </ol>
+ * </p>
+ * <p>
+ * 实例不可变，编译后可被多线程共享
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class RoutePermissionMatcher {
+
+    /**
+     * 空匹配器（无任何规则）
+     */
+    public static final RoutePermissionMatcher EMPTY = new RoutePermissionMatcher(Map.of(), null, 0);
+
+    /**
+     * HTTP 方法（大写） -> 路径前缀树根节点
+     */
+    private final Map<String, Node> methodRoots;
+
+    /**
+     * 未配置 HTTP 方法的规则（匹配任意方法）
+     */
+    private final Node anyMethodRoot;
+
+    /**
+     * 规则数量
+     */
+    private final int size;
+
+    private RoutePermissionMatcher(Map<String, Node> methodRoots, Node anyMethodRoot, int size) {
+        this.methodRoots = methodRoots;
+        this.anyMethodRoot = anyMethodRoot;
+        this.size = size;
+    }
+
+    /**
+     * 编译路由权限规则
+     *
+     * @param routePermMap 路由权限规则映射（METHOD:PATH 或 PATH -> 权限码）
+     * @return 匹配器
+     */
+    public static RoutePermissionMatcher compile(Map<String, String> routePermMap) {
+        if (routePermMap == null || routePermMap.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<String, Builder> methodBuilders = new HashMap<>();
+        Builder anyMethodBuilder = null;
+
+        for (Map.Entry<String, String> entry : routePermMap.entrySet()) {
+            String routeKey = entry.getKey();
+            if (routeKey == null || routeKey.isEmpty()) {
+                continue;
+            }
+            String permission = entry.getValue() != null ? entry.getValue() : "";
+
+            // 路由键格式：METHOD:PATH，未配置方法时为 PATH（以 / 开头）
+            String method = null;
+            String path = routeKey;
+            int separator = routeKey.indexOf(':');
+            if (routeKey.charAt(0) != '/' && separator > 0) {
+                method = routeKey.substring(0, separator).trim().toUpperCase(Locale.ROOT);
+                path = routeKey.substring(separator + 1);
+            }
+
+            Builder root;
+            if (method == null || method.isEmpty()) {
+                if (anyMethodBuilder == null) {
+                    anyMethodBuilder = new Builder();
+                }
+                root = anyMethodBuilder;
+            } else {
+                root = methodBuilders.computeIfAbsent(method, k -> new Builder());
+            }
+            root.insert(path, permission);
+        }
+
+        Map<String, Node> methodRoots = new HashMap<>(methodBuilders.size() * 2);
+        methodBuilders.forEach((method, builder) -> methodRoots.put(method, builder.build()));
+
+        return new RoutePermissionMatcher(
+                Map.copyOf(methodRoots),
+                anyMethodBuilder != null ? anyMethodBuilder.build() : null,
+                routePermMap.size());
+    }
+
+    /**
+     * 查找请求需要的权限码
+     *
+     * @param method HTTP 方法（大写，如 GET）
+     * @param path   请求路径（如 /api/user/1）
+     * @return 权限码；命中的规则未配置权限码时返回空字符串；未命中任何规则返回 null
+     */
+    public String match(String method, String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+
+        Node root = method != null ? methodRoots.get(method) : null;
+        if (root != null) {
+            String permission = root.match(path, 0);
+            if (permission != null) {
+                return permission;
+            }
+        }
+        return anyMethodRoot != null ? anyMethodRoot.match(path, 0) : null;
+    }
+
+    /**
+     * 规则数量
+     *
+     * @return 编译的规则数量
+     */
+    public int size() {
+        return size;
+    }
+
+    // ============================= 前缀树节点 =============================
+
+    /**
+     * 前缀树节点（编译后只读）
+     * <p>
+     * 字面量子节点使用开放寻址哈希表存储，按路径区间直接计算哈希并比较，避免 substring 分配
+     * </p>
+     */
+    private static final class Node {
+
+        /**
+         * 以该节点结尾的规则对应的权限码，null 表示该节点不是规则终点
+         */
+        private final String permission;
+
+        /**
+         * 字面量子节点哈希表（长度为 2 的幂，空槽为 null）
+         */
+        private final String[] literalKeys;
+        private final Node[] literalChildren;
+        private final int literalMask;
+
+        /**
+         * 路径变量 / 单段通配子节点
+         */
+        private final Node variableChild;
+
+        /**
+         * 多段通配（**）对应的权限码
+         */
+        private final String wildcardPermission;
+
+        private Node(String permission, String[] literalKeys, Node[] literalChildren,
+                     Node variableChild, String wildcardPermission) {
+            this.permission = permission;
+            this.literalKeys = literalKeys;
+            this.literalChildren = literalChildren;
+            this.literalMask = literalKeys.length - 1;
+            this.variableChild = variableChild;
+            this.wildcardPermission = wildcardPermission;
+        }
+
+        /**
+         * 从 path[pos] 开始匹配剩余路径
+         */
+        private String match(String path, int pos) {
+            int length = path.length();
+
+            // 跳过分隔符（兼容重复斜杠和末尾斜杠）
+            while (pos < length && path.charAt(pos) == '/') {
+                pos++;
+            }
+            if (pos == length) {
+                return permission != null ? permission : wildcardPermission;
+            }
+
+            int end = path.indexOf('/', pos);
+            if (end < 0) {
+                end = length;
+            }
+
+            // 1. 字面量优先
+            Node literal = findLiteral(path, pos, end);
+            if (literal != null) {
+                String result = literal.match(path, end);
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            // 2. 路径变量
+            if (variableChild != null) {
+                String result = variableChild.match(path, end);
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            // 3. 多段通配
+            return wildcardPermission;
+        }
+
+        private Node findLiteral(String path, int start, int end) {
+            if (literalKeys.length == 0) {
+                return null;
+            }
+            int segmentLength = end - start;
+            int index = spread(hash(path, start, end)) & literalMask;
+            while (true) {
+                String key = literalKeys[index];
+                if (key == null) {
+                    return null;
+                }
+                if (key.length() == segmentLength && path.regionMatches(start, key, 0, segmentLength)) {
+                    return literalChildren[index];
+                }
+                index = (index + 1) & literalMask;
+            }
+        }
+    }
+
+    /**
+     * 与 {@link String#hashCode()} 一致的区间哈希
+     */
+    private static int hash(CharSequence value, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + value.charAt(i);
+        }
+        return h;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // ============================= 编译期构建器 =============================
+
+    /**
+     * 可变的构建期节点，编译完成后转换为只读 {@link Node}
+     */
+    private static final class Builder {
+
+        private String permission;
+        private final Map<String, Builder> literals = new HashMap<>();
+        private Builder variable;
+        private String wildcardPermission;
+
+        private void insert(String path, String routePermission) {
+            Builder current = this;
+            String[] segments = path.split("/");
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i].trim();
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if ("**".equals(segment)) {
+                    // 多段通配仅允许出现在末尾，之后的路径段忽略
+                    if (current.wildcardPermission == null) {
+                        current.wildcardPermission = routePermission;
+                    }
+                    return;
+                }
+                if (isVariable(segment)) {
+                    if (current.variable == null) {
+                        current.variable = new Builder();
+                    }
+                    current = current.variable;
+                } else {
+                    current = current.literals.computeIfAbsent(segment, k -> new Builder());
+                }
+            }
+            if (current.permission == null) {
+                current.permission = routePermission;
+            }
+        }
+
+        private static boolean isVariable(String segment) {
+            return "*".equals(segment)
+                    || (segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}');
+        }
+
+        private Node build() {
+            int capacity = tableSizeFor(literals.size());
+            String[] keys = new String[capacity];
+            Node[] children = new Node[capacity];
+            int mask = capacity - 1;
+
+            for (Map.Entry<String, Builder> entry : literals.entrySet()) {
+                String key = entry.getKey();
+                int index = spread(hash(key, 0, key.length())) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                children[index] = entry.getValue().build();
+            }
+
+            return new Node(permission, keys, children,
+                    variable != null ? variable.build() : null, wildcardPermission);
+        }
+
+        /**
+         * 负载因子不超过 0.5 的 2 的幂容量
+         */
+        private static int tableSizeFor(int count) {
+            if (count == 0) {
+                return 0;
+            }
+            int capacity = 2;
+            while (capacity < count * 2) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+    }
+}
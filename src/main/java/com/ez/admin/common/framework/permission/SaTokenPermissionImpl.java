@@ -2,11 +2,9 @@ package com.ez.admin.common.framework.permission;
 
 import cn.dev33.satoken.stp.StpInterface;
 import com.ez.admin.common.infrastructure.cache.AdminCache;
-import com.ez.admin.dto.menu.vo.MenuPermissionVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
 import java.util.Collections;
 import java.util.List;
@@ -22,6 +20,7 @@ import java.util.List;
  *   <li>从缓存中读取权限和角色，避免每次查询数据库</li>
  *   <li>缓存由 DataInitializer 在启动时预加载</li>
  *   <li>数据变更时自动刷新缓存（通过 UserService、RoleService）</li>
+ *   <li>权限码以用户有效权限快照（{@link PermissionSet}，角色权限位图的并集）返回，校验时 O(1) 位测试，不再逐次合并角色权限</li>
  * </ul>
  * </p>
  *
@@ -38,12 +37,8 @@ public class SaTokenPermissionImpl implements StpInterface {
     /**
      * 返回指定账号所拥有的权限码集合
      * <p>
-     * 权限码来源：
-     * <ol>
-     *   <li>获取用户的所有角色标识</li>
-     *   <li>根据角色标识从缓存获取对应的菜单权限</li>
-     *   <li>提取菜单权限中的权限标识（menuPerm）</li>
-     * </ol>
+     * 返回本地缓存的用户有效权限快照（所有角色权限码的并集），
+     * 快照仅在用户角色或角色权限变更后重新计算，热路径上不读取、不反序列化角色菜单列表
      * </p>
      *
      * @param loginId   账号id（即 userId）
@@ -52,28 +47,19 @@ public class SaTokenPermissionImpl implements StpInterface {
      */
     @Override
     public List<String> getPermissionList(Object loginId, String loginType) {
-        // 1. 获取用户的角色列表
-        List<String> roleLabels = getRoleList(loginId, loginType);
-        if (roleLabels.isEmpty()) {
-            log.debug("用户无角色，返回空权限列表：userId={}", loginId);
-            return Collections.emptyList();
+        if (loginId == null) {
+            log.warn("loginId 为空，返回空权限列表");
+            return PermissionSet.EMPTY;
         }
 
-        // 2. 根据角色列表从缓存获取菜单权限
-        List<MenuPermissionVO> menuPermissions = adminCache.getMenuByRoleLabels(roleLabels);
-        if (menuPermissions == null || menuPermissions.isEmpty()) {
-            log.debug("用户角色无权限，返回空权限列表：userId={}, roles={}", loginId, roleLabels);
-            return Collections.emptyList();
+        Long userId = parseUserId(loginId);
+        if (userId == null) {
+            log.warn("loginId 解析失败：{}", loginId);
+            return PermissionSet.EMPTY;
         }
 
-        // 3. 提取权限标识
-        List<String> permissions = menuPermissions.stream()
-                .map(MenuPermissionVO::getMenuPerm)
-                .filter(StringUtils::hasText)
-                .distinct()
-                .toList();
-
-        log.debug("用户权限查询成功：userId={}, permissionsCount={}", loginId, permissions.size());
+        PermissionSet permissions = adminCache.getUserPermissions(userId);
+        log.debug("用户权限查询成功：userId={}, permissionsCount={}", userId, permissions.size());
         return permissions;
     }
 
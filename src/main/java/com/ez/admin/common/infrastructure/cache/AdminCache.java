@@ -1,13 +1,25 @@
 package com.ez.admin.common.infrastructure.cache;
 
+import com.ez.admin.common.framework.permission.PermissionBitmap;
+import com.ez.admin.common.framework.permission.PermissionCodeRegistry;
+import com.ez.admin.common.framework.permission.PermissionSet;
+import com.ez.admin.common.framework.permission.RoutePermissionMatcher;
+import com.ez.admin.common.infrastructure.cache.codec.CacheCodecRegistry;
 import com.ez.admin.common.infrastructure.redis.RedisCache;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
 import com.ez.admin.dto.menu.vo.MenuPermissionVO;
 import com.ez.admin.modules.system.mapper.SysRoleMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 管理系统业务缓存
@@ -17,10 +29,17 @@ import java.util.*;
  * <p>
  * 缓存 TTL 策略：
  * <ul>
- *   <li>用户角色：1 天（变更频率中等）</li>
- *   <li>角色菜单权限：30 天（变更频率低）</li>
+ *   <li>用户角色：1 天（变更频率中等），叠加 0~10% 随机抖动</li>
+ *   <li>角色菜单权限：30 天（变更频率低），叠加 0~10% 随机抖动，避免预热后集中过期</li>
+ *   <li>空结果（无角色的用户、无权限的角色）：写入空值标记，5 分钟，避免每次权限校验都查库</li>
+ *   <li>路由权限规则：不过期，由版本号 + 广播消息驱动本地快照刷新</li>
+ *   <li>用户有效权限快照（本地）：10 分钟兜底过期，用户角色或角色权限变更时广播失效</li>
  * </ul>
  * </p>
+ * <p>
+ * 防击穿：Redis 未命中后的回源按缓存 Key 单飞（同一 JVM 内同一 Key 只有一个线程查库），
+ * 可选开启跨节点加载锁（ez.admin.cache.load-lock.enabled），未抢到锁的节点短暂等待其他节点回填
+ * </p>
  *
  * @author ez-admin
  * @since 2026-01-27
@@ -32,6 +51,9 @@ public class AdminCache {
 
     private final RedisCache redisCache;
     private final SysRoleMapper roleMapper;
+    private final PermissionCacheMetrics metrics;
+    private final CacheCodecRegistry codecRegistry;
+    private final PermissionCodeRegistry permissionCodes;
 
     // ============================= 缓存 TTL 配置 =============================
 
@@ -45,17 +67,197 @@ public class AdminCache {
      */
     private static final int ROLE_MENUS_TTL = 30 * 24 * 60 * 60;
 
+    /**
+     * 空结果缓存过期时间：5 分钟（秒）
+     */
+    private static final int EMPTY_RESULT_TTL = 5 * 60;
+
+    /**
+     * 空结果标记值（负缓存），与"Key 不存在"区分
+     */
+    private static final String EMPTY_VALUE = "<empty>";
+
+    /**
+     * TTL 随机抖动比例上限：10%
+     */
+    private static final int TTL_JITTER_PERCENT = 10;
+
     // ============================= 缓存 Key 定义 =============================
 
     /**
-     * 用户角色缓存 Key 模式：user:roles:{userId}
+     * 用户角色缓存 Key 模式：perm:{generation}:user:roles:{userId}
+     */
+    private static final String USER_ROLES_KEY = "perm:%d:user:roles:%s";
+
+    /**
+     * 角色菜单权限缓存 Key 模式：perm:{generation}:role:menus:{roleLabel}
+     */
+    private static final String ROLE_MENUS_KEY = "perm:%d:role:menus:%s";
+
+    /**
+     * 权限缓存代际 Key 模式（用于清理旧代际）：perm:{generation}:*
+     */
+    private static final String PERMISSION_GENERATION_PATTERN = "perm:%d:*";
+
+    /**
+     * 权限缓存当前代际号 Key，全量清空时自增，旧代际的 Key 随即失效
+     */
+    private static final String PERMISSION_GENERATION_KEY = "sys:auth:perm:generation";
+
+    /**
+     * 已清理完成的最大代际号 Key
+     */
+    private static final String PERMISSION_SWEPT_GENERATION_KEY = "sys:auth:perm:generation:swept";
+
+    /**
+     * 旧代际清理锁 Key，保证同一时刻只有一个节点在清理
+     */
+    private static final String PERMISSION_SWEEP_LOCK_KEY = "lock:perm:sweep";
+
+    /**
+     * 路由权限规则缓存 Key（Hash 结构）
+     */
+    private static final String ROUTE_MAP_KEY = "sys:auth:route_map";
+
+    /**
+     * 路由权限规则版本号 Key，每次刷新自增
+     */
+    private static final String ROUTE_MAP_VERSION_KEY = "sys:auth:route_map:version";
+
+    // ============================= 缓存失效广播 =============================
+
+    /**
+     * 权限缓存失效广播频道
+     */
+    public static final String CACHE_INVALIDATE_CHANNEL = "sys:auth:cache:invalidate";
+
+    /**
+     * 失效消息命名空间：路由权限规则
+     */
+    private static final String NAMESPACE_ROUTE_MAP = "route_map";
+
+    /**
+     * 路由权限版本兜底校验间隔：30 秒（毫秒），防止广播消息丢失导致快照长期过期
+     */
+    private static final long ROUTE_MAP_VERSION_CHECK_INTERVAL = 30 * 1000L;
+
+    /**
+     * 失效消息命名空间：用户有效权限（参数为 userId）
+     */
+    private static final String NAMESPACE_USER_PERMISSION = "user_perm";
+
+    /**
+     * 失效消息命名空间：角色权限（参数为 roleLabel，* 表示全部）
+     */
+    private static final String NAMESPACE_ROLE_PERMISSION = "role_perm";
+
+    /**
+     * 失效消息命名空间：权限缓存代际（参数为新代际号）
+     */
+    private static final String NAMESPACE_PERMISSION_GENERATION = "perm_gen";
+
+    /**
+     * 全部失效的消息参数
+     */
+    private static final String INVALIDATE_ALL = "*";
+
+    /**
+     * 权限缓存代际号兜底校验间隔：30 秒（毫秒）
+     */
+    private static final long PERMISSION_GENERATION_CHECK_INTERVAL = 30 * 1000L;
+
+    // ============================= 本地快照 =============================
+
+    /**
+     * 路由权限本地快照（不可变，整体替换）
+     */
+    private volatile RouteMapSnapshot routeMapSnapshot;
+
+    /**
+     * 下一次版本校验的时间戳（毫秒）
+     */
+    private volatile long nextRouteMapVersionCheck;
+
+    /**
+     * 版本校验进行中标记
+     */
+    private final AtomicBoolean routeMapVersionChecking = new AtomicBoolean(false);
+
+    /**
+     * 权限缓存当前代际号，-1 表示尚未加载
+     */
+    private volatile long permissionGeneration = -1;
+
+    /**
+     * 下一次代际号校验的时间戳（毫秒）
+     */
+    private volatile long nextPermissionGenerationCheck;
+
+    /**
+     * 代际号校验进行中标记
+     */
+    private final AtomicBoolean permissionGenerationChecking = new AtomicBoolean(false);
+
+    // ============================= 回源加载（防击穿） =============================
+
+    /**
+     * 跨节点加载锁 Key 前缀：lock:load:{cacheKey}
+     */
+    private static final String LOAD_LOCK_KEY_PREFIX = "lock:load:";
+
+    /**
+     * 等待其他节点回填时的轮询间隔（毫秒）
+     */
+    private static final long LOAD_LOCK_POLL_INTERVAL = 20L;
+
+    /**
+     * 用户角色回源单飞
+     */
+    private final SingleFlight<List<String>> userRoleLoads = new SingleFlight<>();
+
+    /**
+     * 角色菜单权限回源单飞
+     */
+    private final SingleFlight<List<MenuPermissionVO>> roleMenuLoads = new SingleFlight<>();
+
+    /**
+     * 是否启用跨节点加载锁
      */
-    private static final String USER_ROLES_KEY = "user:roles:%s";
+    @Value("${ez.admin.cache.load-lock.enabled:false}")
+    private boolean loadLockEnabled;
 
     /**
-     * 角色菜单权限缓存 Key 模式：role:menus:{roleLabel}
+     * 加载锁自动过期时间（毫秒）
      */
-    private static final String ROLE_MENUS_KEY = "role:menus:%s";
+    @Value("${ez.admin.cache.load-lock.lease-millis:3000}")
+    private long loadLockLeaseMillis;
+
+    /**
+     * 未抢到加载锁时等待其他节点回填的最长时间（毫秒），超时后自行回源
+     */
+    @Value("${ez.admin.cache.load-lock.wait-millis:200}")
+    private long loadLockWaitMillis;
+
+    /**
+     * 本地权限快照兜底过期时间，防止广播消息丢失导致长期使用旧权限
+     */
+    private static final Duration PERMISSION_SNAPSHOT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * 用户有效权限快照：userId -> 快照
+     */
+    private final Cache<Long, UserPermissionSnapshot> userPermissionSnapshots = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(PERMISSION_SNAPSHOT_TTL)
+            .build();
+
+    /**
+     * 角色权限快照：roleLabel -> 权限码ID位图（不可变）
+     */
+    private final Cache<String, PermissionBitmap> rolePermissionSnapshots = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(PERMISSION_SNAPSHOT_TTL)
+            .build();
 
     // ============================= 用户角色缓存 =============================
 
@@ -65,23 +267,60 @@ public class AdminCache {
      * @param userId 用户ID
      * @return 角色标识列表
      */
-    @SuppressWarnings("unchecked")
     public List<String> getUserRoles(Long userId) {
         try {
-            String key = String.format(USER_ROLES_KEY, userId);
-            Object cached = redisCache.get(key);
+            return loadUserRoles(userId);
+        } catch (Exception e) {
+            log.error("获取用户角色失败：userId={}", userId, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 从 Redis 读取用户角色，未命中时单飞回源数据库并回填（异常直接抛出）
+     */
+    private List<String> loadUserRoles(Long userId) {
+        String key = userRolesKey(userId);
+        Object cached = redisCache.get(key, userRolesCodec());
+        if (cached != null) {
+            recordHit(PermissionCacheMetrics.CACHE_USER_ROLES, cached);
+            return decodeList(cached);
+        }
+        metrics.miss(PermissionCacheMetrics.CACHE_USER_ROLES, 1);
+        return userRoleLoads.load(key, () -> loadUserRolesFromDb(userId, key));
+    }
+
+    /**
+     * 回源数据库加载用户角色（同一 JVM 内同一用户只有一个线程执行）
+     */
+    private List<String> loadUserRolesFromDb(Long userId, String key) {
+        String lockToken = null;
+        if (loadLockEnabled) {
+            lockToken = tryLoadLock(key);
+            if (lockToken == null) {
+                // 其他节点正在回源，等待其回填
+                Object loaded = awaitCachedValues(List.of(key), userRolesCodec()).get(key);
+                if (loaded != null) {
+                    return decodeList(loaded);
+                }
+            }
+        }
+
+        try {
+            // 二次检查：等待单飞或锁期间可能已被回填
+            Object cached = redisCache.get(key, userRolesCodec());
             if (cached != null) {
-                return (List<String>) cached;
+                return decodeList(cached);
             }
 
-            // 缓存未命中，查询数据库
             List<String> roleLabels = roleMapper.selectRoleLabelsByUserId(userId);
-            redisCache.set(key, roleLabels, USER_ROLES_TTL);
-            log.debug("缓存用户角色：userId={}, roles={}, ttl={}s", userId, roleLabels, USER_ROLES_TTL);
+            metrics.load(PermissionCacheMetrics.CACHE_USER_ROLES, 1);
+            long ttl = ttlOf(roleLabels, USER_ROLES_TTL);
+            redisCache.set(key, encodeList(roleLabels), ttl, userRolesCodec());
+            log.debug("缓存用户角色：userId={}, roles={}, ttl={}s", userId, roleLabels, ttl);
             return roleLabels;
-        } catch (Exception e) {
-            log.error("获取用户角色失败：userId={}", userId, e);
-            return Collections.emptyList();
+        } finally {
+            releaseLoadLock(key, lockToken);
         }
     }
 
@@ -92,9 +331,11 @@ public class AdminCache {
      * @param roleLabels 角色标识列表
      */
     public void cacheUserRoles(Long userId, List<String> roleLabels) {
-        String key = String.format(USER_ROLES_KEY, userId);
-        redisCache.set(key, roleLabels, USER_ROLES_TTL);
-        log.debug("缓存用户角色：userId={}, roles={}, ttl={}s", userId, roleLabels, USER_ROLES_TTL);
+        String key = userRolesKey(userId);
+        long ttl = ttlOf(roleLabels, USER_ROLES_TTL);
+        redisCache.set(key, encodeList(roleLabels), ttl, userRolesCodec());
+        log.debug("缓存用户角色：userId={}, roles={}, ttl={}s", userId, roleLabels, ttl);
+        invalidateUserPermissions(userId);
     }
 
     /**
@@ -103,9 +344,10 @@ public class AdminCache {
      * @param userId 用户ID
      */
     public void evictUserRoles(Long userId) {
-        String key = String.format(USER_ROLES_KEY, userId);
+        String key = userRolesKey(userId);
         redisCache.delete(key);
         log.debug("删除用户角色缓存：userId={}", userId);
+        invalidateUserPermissions(userId);
     }
 
     // ============================= 角色菜单权限缓存 =============================
@@ -115,8 +357,8 @@ public class AdminCache {
      * <p>
      * 缓存策略：Cache-Aside 懒加载 + 降级回填
      * <ol>
-     *   <li>先从 Redis 缓存读取</li>
-     *   <li>缓存未命中时，从数据库查询并回填缓存</li>
+     *   <li>先从 Redis 缓存批量读取（MGET，一次网络往返）</li>
+     *   <li>缓存未命中的角色，一条 SQL 批量查询并通过管道回填缓存</li>
      *   <li>返回所有角色的权限去重后的列表</li>
      * </ol>
      * </p>
@@ -124,45 +366,174 @@ public class AdminCache {
      * @param roleLabels 角色标识列表
      * @return 菜单权限列表
      */
-    @SuppressWarnings("unchecked")
     public List<MenuPermissionVO> getMenuByRoleLabels(List<String> roleLabels) {
         if (roleLabels == null || roleLabels.isEmpty()) {
             return Collections.emptyList();
         }
 
         Set<MenuPermissionVO> allPermissions = new HashSet<>();
+        for (List<MenuPermissionVO> menuPermissions : loadRoleMenuPermissions(roleLabels).values()) {
+            allPermissions.addAll(menuPermissions);
+        }
+        return new ArrayList<>(allPermissions);
+    }
 
+    /**
+     * 批量读取角色的菜单权限
+     * <p>
+     * MGET 一次读取所有角色；未命中的角色按角色单飞，由当前线程负责的角色用一条 SQL 批量回源，
+     * 并通过管道回填 Redis（数据未变化，无需广播本地快照失效）
+     * </p>
+     *
+     * @param roleLabels 角色标识
+     * @return 角色标识 -> 菜单权限列表（包含所有传入角色，无权限的角色为空列表）
+     */
+    private Map<String, List<MenuPermissionVO>> loadRoleMenuPermissions(Collection<String> roleLabels) {
+        Map<String, String> keyToRole = new LinkedHashMap<>(roleLabels.size() * 2);
         for (String roleLabel : roleLabels) {
-            String key = String.format(ROLE_MENUS_KEY, roleLabel);
-            Object cached = redisCache.get(key);
-            if (cached != null) {
-                // 缓存命中，直接使用
-                allPermissions.addAll((List<MenuPermissionVO>) cached);
+            keyToRole.put(roleMenusKey(roleLabel), roleLabel);
+        }
+
+        // 1. 批量读取 Redis
+        Map<String, Object> cached = redisCache.getAll(keyToRole.keySet(), roleMenusCodec());
+        Map<String, List<MenuPermissionVO>> result = new HashMap<>(keyToRole.size() * 2);
+        List<String> missedRoles = new ArrayList<>();
+        keyToRole.forEach((key, roleLabel) -> {
+            Object value = cached.get(key);
+            if (value != null) {
+                recordHit(PermissionCacheMetrics.CACHE_ROLE_MENUS, value);
+                result.put(roleLabel, decodeList(value));
             } else {
-                // 缓存未命中，从数据库查询并回填缓存
-                log.debug("角色权限缓存未命中，从数据库加载：roleLabel={}", roleLabel);
-                List<MenuPermissionVO> menuPermissions = roleMapper.selectMenuPermissionsByRoleLabel(roleLabel);
-                if (menuPermissions != null && !menuPermissions.isEmpty()) {
-                    // 回填缓存
-                    cacheRoleMenuPermissions(roleLabel, menuPermissions);
-                    allPermissions.addAll(menuPermissions);
-                }
+                missedRoles.add(roleLabel);
             }
+        });
+        if (missedRoles.isEmpty()) {
+            return result;
         }
+        metrics.miss(PermissionCacheMetrics.CACHE_ROLE_MENUS, missedRoles.size());
 
-        return new ArrayList<>(allPermissions);
+        // 2. 未命中的角色单飞回源
+        result.putAll(roleMenuLoads.loadAll(missedRoles, this::loadRoleMenuPermissionsFromDb));
+        return result;
+    }
+
+    /**
+     * 回源数据库批量加载角色菜单权限（同一 JVM 内同一角色只有一个线程执行）
+     *
+     * @param roleLabels 需要回源的角色标识
+     * @return 角色标识 -> 菜单权限列表（包含所有传入角色）
+     */
+    private Map<String, List<MenuPermissionVO>> loadRoleMenuPermissionsFromDb(List<String> roleLabels) {
+        Map<String, List<MenuPermissionVO>> result = new HashMap<>(roleLabels.size() * 2);
+        Map<String, String> keyToRole = new LinkedHashMap<>(roleLabels.size() * 2);
+        for (String roleLabel : roleLabels) {
+            keyToRole.put(roleMenusKey(roleLabel), roleLabel);
+        }
+
+        Map<String, String> lockTokens = new HashMap<>();
+        try {
+            Map<String, String> toLoad = new LinkedHashMap<>(keyToRole);
+            if (loadLockEnabled) {
+                // 抢锁失败的角色由其他节点回源，等待其回填
+                List<String> contestedKeys = new ArrayList<>();
+                for (String key : keyToRole.keySet()) {
+                    String token = tryLoadLock(key);
+                    if (token != null) {
+                        lockTokens.put(key, token);
+                    } else {
+                        contestedKeys.add(key);
+                    }
+                }
+                if (!contestedKeys.isEmpty()) {
+                    awaitCachedValues(contestedKeys, roleMenusCodec()).forEach((key, value) -> {
+                        result.put(toLoad.remove(key), decodeList(value));
+                    });
+                }
+            }
+
+            // 二次检查：等待单飞或锁期间可能已被回填
+            if (!toLoad.isEmpty()) {
+                redisCache.getAll(toLoad.keySet(), roleMenusCodec()).forEach((key, value) -> {
+                    result.put(toLoad.remove(key), decodeList(value));
+                });
+            }
+            if (toLoad.isEmpty()) {
+                return result;
+            }
+
+            // 剩余角色一次性从数据库加载
+            List<String> missedRoles = new ArrayList<>(toLoad.values());
+            log.debug("角色权限缓存未命中，从数据库批量加载：roleLabels={}", missedRoles);
+            List<MenuPermissionVO> loaded = roleMapper.selectMenuPermissionsByRoleLabels(missedRoles);
+            metrics.load(PermissionCacheMetrics.CACHE_ROLE_MENUS, missedRoles.size());
+            Map<String, List<MenuPermissionVO>> grouped = new HashMap<>();
+            for (MenuPermissionVO menuPermission : loaded) {
+                grouped.computeIfAbsent(menuPermission.getRoleLabel(), k -> new ArrayList<>()).add(menuPermission);
+            }
+
+            // 批量回填，无权限的角色写入空值标记（较短 TTL）
+            Map<String, Object> backfill = new HashMap<>(grouped.size() * 2);
+            Map<String, Object> emptyBackfill = new HashMap<>();
+            toLoad.forEach((key, roleLabel) -> {
+                List<MenuPermissionVO> menuPermissions = grouped.getOrDefault(roleLabel, Collections.emptyList());
+                result.put(roleLabel, menuPermissions);
+                if (menuPermissions.isEmpty()) {
+                    emptyBackfill.put(key, EMPTY_VALUE);
+                } else {
+                    backfill.put(key, menuPermissions);
+                }
+            });
+            redisCache.setAll(backfill, jitter(ROLE_MENUS_TTL), roleMenusCodec());
+            redisCache.setAll(emptyBackfill, jitter(EMPTY_RESULT_TTL), roleMenusCodec());
+            return result;
+        } finally {
+            lockTokens.forEach(this::releaseLoadLock);
+        }
     }
 
     /**
      * 缓存角色的菜单权限
+     * <p>
+     * 权限列表为空时写入空值标记，避免该角色的每次权限校验都回源数据库
+     * </p>
      *
      * @param roleLabel         角色标识
      * @param menuPermissionsVO 菜单权限列表
      */
     public void cacheRoleMenuPermissions(String roleLabel, List<MenuPermissionVO> menuPermissionsVO) {
-        String key = String.format(ROLE_MENUS_KEY, roleLabel);
-        redisCache.set(key, menuPermissionsVO, ROLE_MENUS_TTL);
-        log.debug("缓存角色菜单权限：roleLabel={}, permissions={}, ttl={}s", roleLabel, menuPermissionsVO.size(), ROLE_MENUS_TTL);
+        String key = roleMenusKey(roleLabel);
+        long ttl = ttlOf(menuPermissionsVO, ROLE_MENUS_TTL);
+        redisCache.set(key, encodeList(menuPermissionsVO), ttl, roleMenusCodec());
+        log.debug("缓存角色菜单权限：roleLabel={}, permissions={}, ttl={}s", roleLabel, menuPermissionsVO.size(), ttl);
+        invalidateRolePermissions(roleLabel);
+    }
+
+    /**
+     * 批量缓存角色的菜单权限（启动预热）
+     * <p>
+     * 管道批量写入 Redis，全部写完后只做一次本地全量失效和一次广播，
+     * 不再逐个角色遍历用户快照、逐个广播；权限列表为空的角色写入空值标记
+     * </p>
+     *
+     * @param roleMenuPermissions 角色标识 -> 菜单权限列表
+     */
+    public void cacheAllRoleMenuPermissions(Map<String, List<MenuPermissionVO>> roleMenuPermissions) {
+        if (roleMenuPermissions.isEmpty()) {
+            return;
+        }
+        Map<String, Object> values = new HashMap<>(roleMenuPermissions.size() * 2);
+        Map<String, Object> emptyValues = new HashMap<>();
+        roleMenuPermissions.forEach((roleLabel, menuPermissions) -> {
+            if (menuPermissions.isEmpty()) {
+                emptyValues.put(roleMenusKey(roleLabel), EMPTY_VALUE);
+            } else {
+                values.put(roleMenusKey(roleLabel), menuPermissions);
+            }
+        });
+        redisCache.setAll(values, jitter(ROLE_MENUS_TTL), roleMenusCodec());
+        redisCache.setAll(emptyValues, jitter(EMPTY_RESULT_TTL), roleMenusCodec());
+        log.debug("批量缓存角色菜单权限：roles={}, empty={}", values.size(), emptyValues.size());
+        invalidateRolePermissions(INVALIDATE_ALL);
     }
 
     /**
@@ -171,73 +542,536 @@ public class AdminCache {
      * @param roleLabel 角色标识
      */
     public void evictRoleMenuPermissions(String roleLabel) {
-        String key = String.format(ROLE_MENUS_KEY, roleLabel);
+        String key = roleMenusKey(roleLabel);
         redisCache.delete(key);
         log.debug("删除角色菜单权限缓存：roleLabel={}", roleLabel);
+        invalidateRolePermissions(roleLabel);
     }
 
-    // ============================= 批量操作 =============================
+    // ============================= 用户有效权限快照 =============================
+
+    /**
+     * 获取用户有效权限
+     * <p>
+     * 返回用户所有角色权限码的并集快照（不可变，O(1) 判断），按用户在本地缓存，
+     * 仅在快照缺失时计算一次：
+     * <ol>
+     *   <li>读取用户角色（Redis，未命中查数据库）</li>
+     *   <li>按角色读取本地角色权限位图（未命中时从 Redis / 数据库加载）</li>
+     *   <li>按字 OR 合并为 {@link PermissionSet}</li>
+     * </ol>
+     * 用户角色或角色权限变更时，相关快照被失效并广播到其他节点
+     * </p>
+     *
+     * @param userId 用户ID
+     * @return 有效权限集合，加载失败时返回空集合
+     */
+    public PermissionSet getUserPermissions(Long userId) {
+        try {
+            return userPermissionSnapshots.get(userId, this::buildUserPermissionSnapshot).permissions();
+        } catch (Exception e) {
+            log.error("获取用户有效权限失败：userId={}", userId, e);
+            return PermissionSet.EMPTY;
+        }
+    }
+
+    /**
+     * 计算用户有效权限快照（异常直接抛出，不会写入本地缓存）
+     */
+    private UserPermissionSnapshot buildUserPermissionSnapshot(Long userId) {
+        List<String> roleLabels = List.copyOf(loadUserRoles(userId));
+        if (roleLabels.isEmpty()) {
+            return new UserPermissionSnapshot(roleLabels, PermissionSet.EMPTY);
+        }
+
+        PermissionBitmap bitmap = PermissionBitmap.union(
+                rolePermissionSnapshots.getAll(roleLabels, this::buildRolePermissionSnapshots).values());
+        PermissionSet permissionSet = PermissionSet.of(permissionCodes, bitmap);
+        log.debug("用户有效权限快照已构建：userId={}, roles={}, permissions={}", userId, roleLabels, permissionSet.size());
+        return new UserPermissionSnapshot(roleLabels, permissionSet);
+    }
+
+    /**
+     * 批量计算本地缺失的角色权限位图（权限码经字典转换为ID，菜单权限列表随即可被回收）
+     */
+    private Map<String, PermissionBitmap> buildRolePermissionSnapshots(Set<? extends String> roleLabels) {
+        Map<String, PermissionBitmap> snapshots = new HashMap<>(roleLabels.size() * 2);
+        loadRoleMenuPermissions(new ArrayList<>(roleLabels)).forEach((roleLabel, menuPermissions) -> {
+            BitSet bits = new BitSet();
+            for (MenuPermissionVO menuPermission : menuPermissions) {
+                String menuPerm = menuPermission.getMenuPerm();
+                if (menuPerm != null && !menuPerm.isBlank()) {
+                    bits.set(permissionCodes.register(menuPerm));
+                }
+            }
+            snapshots.put(roleLabel, PermissionBitmap.of(bits));
+        });
+        return snapshots;
+    }
+
+    /**
+     * 失效指定用户的权限快照，并通知其他节点
+     *
+     * @param userId 用户ID
+     */
+    public void invalidateUserPermissions(Long userId) {
+        userPermissionSnapshots.invalidate(userId);
+        redisCache.publish(CACHE_INVALIDATE_CHANNEL, NAMESPACE_USER_PERMISSION + ":" + userId);
+    }
+
+    /**
+     * 失效指定角色及持有该角色的用户权限快照，并通知其他节点
+     *
+     * @param roleLabel 角色标识，{@code *} 表示全部
+     */
+    public void invalidateRolePermissions(String roleLabel) {
+        evictLocalRolePermissions(roleLabel);
+        redisCache.publish(CACHE_INVALIDATE_CHANNEL, NAMESPACE_ROLE_PERMISSION + ":" + roleLabel);
+    }
+
+    private void evictLocalRolePermissions(String roleLabel) {
+        if (INVALIDATE_ALL.equals(roleLabel)) {
+            rolePermissionSnapshots.invalidateAll();
+            userPermissionSnapshots.invalidateAll();
+            return;
+        }
+        rolePermissionSnapshots.invalidate(roleLabel);
+        userPermissionSnapshots.asMap().values().removeIf(snapshot -> snapshot.roleLabels().contains(roleLabel));
+    }
+
+    /**
+     * 用户有效权限快照
+     *
+     * @param roleLabels  计算快照时的角色标识（用于按角色失效）
+     * @param permissions 有效权限集合
+     */
+    private record UserPermissionSnapshot(List<String> roleLabels, PermissionSet permissions) {
+    }
+
+    // ============================= 路由权限缓存 =============================
 
     /**
      * 刷新路由权限缓存
      * <p>
-     * 批量将路由权限规则写入 Redis Hash
+     * 批量将路由权限规则写入 Redis Hash，然后递增版本号并广播失效消息，
+     * 各节点收到消息后各自重新加载一次本地快照
      * </p>
      *
      * @param routePermMap 路由权限规则映射（路由键 -> 权限码）
      */
     public void refreshRoutePermissionCache(Map<String, String> routePermMap) {
-        String cacheKey = "sys:auth:route_map";
-
         // 1. 删除旧缓存
-        redisCache.delete(cacheKey);
+        redisCache.delete(ROUTE_MAP_KEY);
 
         // 2. 批量写入新缓存
         if (!routePermMap.isEmpty()) {
             Map<String, Object> cacheMap = new HashMap<>(routePermMap);
-            redisCache.hSetAll(cacheKey, cacheMap);
+            redisCache.hSetAll(ROUTE_MAP_KEY, cacheMap, codecRegistry.codecFor(CacheCodecRegistry.NAMESPACE_ROUTE_MAP));
         }
 
-        log.debug("路由权限缓存已刷新：{} 条规则", routePermMap.size());
+        // 3. 递增版本号，本节点直接替换本地快照
+        long version = toLong(redisCache.increment(ROUTE_MAP_VERSION_KEY));
+        routeMapSnapshot = RouteMapSnapshot.of(version, routePermMap);
+        nextRouteMapVersionCheck = System.currentTimeMillis() + ROUTE_MAP_VERSION_CHECK_INTERVAL;
+
+        // 4. 通知其他节点重新加载
+        redisCache.publish(CACHE_INVALIDATE_CHANNEL, NAMESPACE_ROUTE_MAP + ":" + version);
+
+        log.debug("路由权限缓存已刷新：{} 条规则，version={}", routePermMap.size(), version);
     }
 
     /**
      * 获取路由权限缓存
+     * <p>
+     * 返回 JVM 内的不可变快照，正常情况下不访问 Redis。快照仅在以下情况重新加载：
+     * <ul>
+     *   <li>首次访问（本地尚无快照）</li>
+     *   <li>收到其他节点广播的失效消息</li>
+     *   <li>定期版本校验发现 Redis 中的版本号与本地不一致（兜底丢失的广播消息）</li>
+     * </ul>
+     * </p>
      *
-     * @return 路由权限规则映射
+     * @return 路由权限规则映射（不可变）
      */
     public Map<String, String> getRoutePermissionCache() {
-        String cacheKey = "sys:auth:route_map";
-        Map<Object, Object> rawMap = redisCache.hGetAll(cacheKey);
-        Map<String, String> result = new HashMap<>();
+        return currentRouteMapSnapshot().routes();
+    }
+
+    /**
+     * 获取编译后的路由权限匹配器
+     * <p>
+     * 与 {@link #getRoutePermissionCache()} 共用同一份本地快照，快照刷新时一并重新编译，
+     * 支持路径变量（如 /api/user/{userId}）
+     * </p>
+     *
+     * @return 路由权限匹配器
+     */
+    public RoutePermissionMatcher getRoutePermissionMatcher() {
+        return currentRouteMapSnapshot().matcher();
+    }
 
-        for (Map.Entry<Object, Object> entry : rawMap.entrySet()) {
-            String key = (String) entry.getKey();
-            String value = (String) entry.getValue();
-            result.put(key, value);
+    /**
+     * 获取当前路由权限快照，必要时触发加载或版本校验
+     */
+    private RouteMapSnapshot currentRouteMapSnapshot() {
+        RouteMapSnapshot snapshot = routeMapSnapshot;
+        if (snapshot == null) {
+            return reloadRouteMapSnapshot(-1);
         }
 
-        return result;
+        long now = System.currentTimeMillis();
+        if (now >= nextRouteMapVersionCheck) {
+            snapshot = checkRouteMapVersion(snapshot, now);
+        }
+        return snapshot;
     }
 
     /**
-     * 清空所有权限相关缓存
+     * 处理缓存失效消息
+     * <p>
+     * 由 {@link PermissionCacheInvalidationListener} 在收到广播后调用，消息格式：namespace:参数
+     * <ul>
+     *   <li>route_map:{version}：重新加载路由权限快照</li>
+     *   <li>user_perm:{userId}：失效该用户的有效权限快照</li>
+     *   <li>role_perm:{roleLabel}：失效该角色及持有该角色的用户权限快照（* 表示全部）</li>
+     *   <li>perm_gen:{generation}：权限缓存已全量清空，切换代际号并失效全部本地快照</li>
+     * </ul>
+     * </p>
+     *
+     * @param message 失效消息
      */
-    public void clearAllPermissionCache() {
+    public void onCacheInvalidated(String message) {
+        int separator = message.indexOf(':');
+        String namespace = separator < 0 ? message : message.substring(0, separator);
+        String argument = separator < 0 ? "" : message.substring(separator + 1);
+
+        if (NAMESPACE_ROUTE_MAP.equals(namespace)) {
+            long version = parseVersion(argument);
+            RouteMapSnapshot snapshot = routeMapSnapshot;
+            if (snapshot != null && version >= 0 && snapshot.version() >= version) {
+                // 本节点发起的刷新，或已加载过更新的版本
+                return;
+            }
+            // 消息中没有版本号时强制重新加载
+            reloadRouteMapSnapshot(version >= 0 ? version : Long.MAX_VALUE);
+        } else if (NAMESPACE_USER_PERMISSION.equals(namespace)) {
+            try {
+                userPermissionSnapshots.invalidate(Long.parseLong(argument));
+            } catch (NumberFormatException e) {
+                log.warn("无效的用户权限失效消息：{}", message);
+            }
+        } else if (NAMESPACE_ROLE_PERMISSION.equals(namespace)) {
+            evictLocalRolePermissions(argument);
+        } else if (NAMESPACE_PERMISSION_GENERATION.equals(namespace)) {
+            long generation = parseVersion(argument);
+            if (generation > permissionGeneration) {
+                permissionGeneration = generation;
+            }
+            evictLocalRolePermissions(INVALIDATE_ALL);
+        }
+    }
+
+    /**
+     * 定期校验 Redis 中的版本号，不一致时重新加载
+     */
+    private RouteMapSnapshot checkRouteMapVersion(RouteMapSnapshot snapshot, long now) {
+        // 同一时刻只允许一个线程做版本校验，其他线程继续使用当前快照
+        if (!routeMapVersionChecking.compareAndSet(false, true)) {
+            return snapshot;
+        }
+        try {
+            nextRouteMapVersionCheck = now + ROUTE_MAP_VERSION_CHECK_INTERVAL;
+            long remoteVersion = toLong(redisCache.get(ROUTE_MAP_VERSION_KEY));
+            if (remoteVersion != snapshot.version()) {
+                log.info("路由权限版本不一致，重新加载：local={}, remote={}", snapshot.version(), remoteVersion);
+                return reloadRouteMapSnapshot(remoteVersion);
+            }
+            return snapshot;
+        } catch (Exception e) {
+            log.warn("路由权限版本校验失败，继续使用本地快照：version={}", snapshot.version(), e);
+            return snapshot;
+        } finally {
+            routeMapVersionChecking.set(false);
+        }
+    }
+
+    /**
+     * 从 Redis 重新加载路由权限快照
+     * <p>
+     * 加锁保证并发请求只触发一次加载；加载失败时保留旧快照
+     * </p>
+     *
+     * @param expectedVersion 期望加载到的版本，-1 表示只需要有快照（首次加载），{@link Long#MAX_VALUE} 表示强制重新加载
+     * @return 最新快照
+     */
+    private synchronized RouteMapSnapshot reloadRouteMapSnapshot(long expectedVersion) {
+        RouteMapSnapshot current = routeMapSnapshot;
+        if (current != null && (expectedVersion < 0 || current.version() >= expectedVersion)) {
+            // 等待锁期间已被其他线程加载
+            return current;
+        }
+
         try {
-            Collection<String> userKeys = redisCache.keys("user:roles:*");
-            if (userKeys != null && !userKeys.isEmpty()) {
-                redisCache.delete(userKeys);
+            // 先读版本号再读数据：即使期间发生刷新，最坏情况也只是多加载一次
+            long version = toLong(redisCache.get(ROUTE_MAP_VERSION_KEY));
+            Map<String, Object> rawMap = redisCache.hGetAll(ROUTE_MAP_KEY,
+                    codecRegistry.codecFor(CacheCodecRegistry.NAMESPACE_ROUTE_MAP));
+            Map<String, String> routes = new HashMap<>(rawMap.size() * 2);
+            for (Map.Entry<String, Object> entry : rawMap.entrySet()) {
+                routes.put(entry.getKey(), (String) entry.getValue());
             }
 
-            Collection<String> roleKeys = redisCache.keys("role:menus:*");
-            if (roleKeys != null && !roleKeys.isEmpty()) {
-                redisCache.delete(roleKeys);
+            RouteMapSnapshot snapshot = RouteMapSnapshot.of(version, routes);
+            routeMapSnapshot = snapshot;
+            nextRouteMapVersionCheck = System.currentTimeMillis() + ROUTE_MAP_VERSION_CHECK_INTERVAL;
+            log.debug("路由权限本地快照已加载：{} 条规则，version={}", routes.size(), version);
+            return snapshot;
+        } catch (RuntimeException e) {
+            if (current == null) {
+                throw e;
+            }
+            log.error("路由权限本地快照加载失败，继续使用旧快照：version={}", current.version(), e);
+            return current;
+        }
+    }
+
+    // ============================= 辅助方法 =============================
+
+    /**
+     * 尝试获取跨节点加载锁
+     *
+     * @return 锁持有者标识，未获取到返回 null
+     */
+    private String tryLoadLock(String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            return redisCache.tryLock(LOAD_LOCK_KEY_PREFIX + key, token, loadLockLeaseMillis) ? token : null;
+        } catch (Exception e) {
+            // 锁只是优化手段，获取失败不影响回源
+            log.warn("获取加载锁失败，直接回源：key={}", key, e);
+            return token;
+        }
+    }
+
+    private void releaseLoadLock(String key, String token) {
+        if (token == null) {
+            return;
+        }
+        try {
+            redisCache.unlock(LOAD_LOCK_KEY_PREFIX + key, token);
+        } catch (Exception e) {
+            log.warn("释放加载锁失败，等待自动过期：key={}", key, e);
+        }
+    }
+
+    /**
+     * 在等待时间内轮询 Redis，直到所有 Key 被其他节点回填或超时
+     *
+     * @return 已回填的 Key -> 值
+     */
+    private Map<String, Object> awaitCachedValues(List<String> keys, CacheValueCodec<?> codec) {
+        long deadline = System.currentTimeMillis() + loadLockWaitMillis;
+        Map<String, Object> values = new HashMap<>(keys.size() * 2);
+        List<String> pending = new ArrayList<>(keys);
+        while (true) {
+            Map<String, Object> loaded = redisCache.getAll(pending, codec);
+            values.putAll(loaded);
+            pending.removeAll(loaded.keySet());
+            if (pending.isEmpty() || System.currentTimeMillis() >= deadline) {
+                return values;
+            }
+            try {
+                Thread.sleep(LOAD_LOCK_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return values;
             }
+        }
+    }
+
+    private CacheValueCodec<?> userRolesCodec() {
+        return codecRegistry.codecFor(CacheCodecRegistry.NAMESPACE_USER_ROLES);
+    }
+
+    private CacheValueCodec<?> roleMenusCodec() {
+        return codecRegistry.codecFor(CacheCodecRegistry.NAMESPACE_ROLE_MENUS);
+    }
+
+    /**
+     * 解码缓存值，空值标记还原为空列表
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> decodeList(Object cached) {
+        return EMPTY_VALUE.equals(cached) ? Collections.emptyList() : (List<T>) cached;
+    }
+
+    /**
+     * 编码缓存值，空列表写为空值标记
+     */
+    private static Object encodeList(List<?> list) {
+        return list == null || list.isEmpty() ? EMPTY_VALUE : list;
+    }
+
+    /**
+     * 空结果使用较短的 TTL
+     */
+    private static long ttlOf(List<?> list, int ttlSeconds) {
+        return jitter(list == null || list.isEmpty() ? EMPTY_RESULT_TTL : ttlSeconds);
+    }
+
+    private void recordHit(String cache, Object cached) {
+        if (EMPTY_VALUE.equals(cached)) {
+            metrics.negativeHit(cache);
+        } else {
+            metrics.hit(cache);
+        }
+    }
+
+    /**
+     * 为 TTL 叠加 0~10% 的随机抖动，避免批量写入的 Key 同时过期
+     */
+    private static long jitter(long ttlSeconds) {
+        return ttlSeconds + ThreadLocalRandom.current().nextLong(ttlSeconds * TTL_JITTER_PERCENT / 100 + 1);
+    }
+
+    private static long parseVersion(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+
+    /**
+     * 路由权限本地快照
+     *
+     * @param version 快照对应的 Redis 版本号
+     * @param routes  路由键 -> 权限码（不可变）
+     * @param matcher 编译后的路由匹配器
+     */
+    private record RouteMapSnapshot(long version, Map<String, String> routes, RoutePermissionMatcher matcher) {
+
+        private static RouteMapSnapshot of(long version, Map<String, String> routes) {
+            return new RouteMapSnapshot(version, Map.copyOf(routes), RoutePermissionMatcher.compile(routes));
+        }
+    }
+
+    // ============================= 批量操作 =============================
 
-            log.info("已清空所有权限缓存");
+    /**
+     * 清空所有权限相关缓存
+     * <p>
+     * 不再逐个删除 Key（KEYS 会阻塞 Redis），而是自增代际号：
+     * 用户角色、角色菜单权限的 Key 都带有代际前缀，代际切换后旧 Key 不再被读取，
+     * 由 {@link #sweepStalePermissionGenerations(int)} 在后台增量清理
+     * </p>
+     */
+    public void clearAllPermissionCache() {
+        try {
+            long generation = toLong(redisCache.increment(PERMISSION_GENERATION_KEY));
+            permissionGeneration = generation;
+            nextPermissionGenerationCheck = System.currentTimeMillis() + PERMISSION_GENERATION_CHECK_INTERVAL;
+            evictLocalRolePermissions(INVALIDATE_ALL);
+            redisCache.publish(CACHE_INVALIDATE_CHANNEL, NAMESPACE_PERMISSION_GENERATION + ":" + generation);
+            log.info("已清空所有权限缓存：generation={}", generation);
         } catch (Exception e) {
             log.error("清空权限缓存失败", e);
         }
     }
+
+    /**
+     * 增量清理旧代际的权限缓存
+     * <p>
+     * 按代际号从小到大使用 SCAN + UNLINK 删除已废弃代际的 Key，每次最多删除 maxKeys 个，
+     * 未清理完的代际留到下一次继续；通过 Redis 锁保证多节点下同一时刻只有一个节点在清理
+     * </p>
+     *
+     * @param maxKeys 本次最多删除的 Key 数量
+     * @return 本次删除的 Key 数量
+     */
+    public long sweepStalePermissionGenerations(int maxKeys) {
+        String token = UUID.randomUUID().toString();
+        if (!redisCache.tryLock(PERMISSION_SWEEP_LOCK_KEY, token, PERMISSION_GENERATION_CHECK_INTERVAL)) {
+            return 0;
+        }
+
+        try {
+            long current = toLong(redisCache.get(PERMISSION_GENERATION_KEY));
+            // 尚未清理过任何代际时从第 0 代开始
+            Object sweptValue = redisCache.get(PERMISSION_SWEPT_GENERATION_KEY);
+            long swept = sweptValue != null ? toLong(sweptValue) : -1;
+            long deleted = 0;
+            for (long generation = swept + 1; generation < current; generation++) {
+                int budget = (int) (maxKeys - deleted);
+                long count = redisCache.unlinkByPattern(String.format(PERMISSION_GENERATION_PATTERN, generation), budget);
+                deleted += count;
+                if (count >= budget) {
+                    // 额度用完，该代际可能尚未清理完，下次继续
+                    break;
+                }
+                redisCache.set(PERMISSION_SWEPT_GENERATION_KEY, generation);
+            }
+            if (deleted > 0) {
+                log.info("已清理旧代际权限缓存：{} 个 Key，currentGeneration={}", deleted, current);
+            }
+            return deleted;
+        } finally {
+            redisCache.unlock(PERMISSION_SWEEP_LOCK_KEY, token);
+        }
+    }
+
+    // ============================= 权限缓存代际 =============================
+
+    private String userRolesKey(Long userId) {
+        return String.format(USER_ROLES_KEY, permissionGeneration(), userId);
+    }
+
+    private String roleMenusKey(String roleLabel) {
+        return String.format(ROLE_MENUS_KEY, permissionGeneration(), roleLabel);
+    }
+
+    /**
+     * 获取当前权限缓存代际号
+     * <p>
+     * 本地缓存代际号，由广播消息驱动更新，并定期与 Redis 校验兜底丢失的消息
+     * </p>
+     */
+    private long permissionGeneration() {
+        long generation = permissionGeneration;
+        long now = System.currentTimeMillis();
+        if (generation >= 0 && now < nextPermissionGenerationCheck) {
+            return generation;
+        }
+        // 已有代际号时同一时刻只允许一个线程校验，其他线程继续使用当前值
+        if (generation >= 0 && !permissionGenerationChecking.compareAndSet(false, true)) {
+            return generation;
+        }
+        try {
+            nextPermissionGenerationCheck = now + PERMISSION_GENERATION_CHECK_INTERVAL;
+            long remote = toLong(redisCache.get(PERMISSION_GENERATION_KEY));
+            if (generation >= 0 && remote != generation) {
+                log.info("权限缓存代际号不一致，切换代际：local={}, remote={}", generation, remote);
+                evictLocalRolePermissions(INVALIDATE_ALL);
+            }
+            permissionGeneration = remote;
+            return remote;
+        } catch (RuntimeException e) {
+            if (generation < 0) {
+                throw e;
+            }
+            log.warn("权限缓存代际号校验失败，继续使用本地代际：generation={}", generation, e);
+            return generation;
+        } finally {
+            if (generation >= 0) {
+                permissionGenerationChecking.set(false);
+            }
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package com.ez.admin.common.infrastructure.cache;
+
+import com.ez.admin.common.framework.datascope.DataScopeCreatorCache;
+import com.ez.admin.common.framework.datascope.DataScopeSessionCache;
+import com.ez.admin.common.infrastructure.redis.RedisCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 权限缓存失效消息监听器
+ * <p>
+ * 订阅 {@link AdminCache#CACHE_INVALIDATE_CHANNEL} 频道，收到其他节点广播的失效消息后，
+ * 交由 {@link AdminCache} 刷新本地快照，保证每次变更每个节点只重新加载一次；
+ * 数据权限可见创建人、数据权限 Session 快照的失效消息分别交由 {@link DataScopeCreatorCache}、{@link DataScopeSessionCache} 处理
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionCacheInvalidationListener implements MessageListener {
+
+    private final AdminCache adminCache;
+    private final DataScopeCreatorCache dataScopeCreatorCache;
+    private final DataScopeSessionCache dataScopeSessionCache;
+    private final RedisCache redisCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object body = redisCache.deserializeMessage(message.getBody());
+            if (body != null) {
+                log.debug("收到权限缓存失效消息：{}", body);
+                String text = body.toString();
+                if (DataScopeCreatorCache.INVALIDATE_MESSAGE.equals(text)) {
+                    dataScopeCreatorCache.evictLocal();
+                } else if (text.startsWith(DataScopeSessionCache.INVALIDATE_PREFIX)) {
+                    dataScopeSessionCache.onInvalidated(text);
+                } else {
+                    adminCache.onCacheInvalidated(text);
+                }
+            }
+        } catch (Exception e) {
+            log.error("处理权限缓存失效消息失败", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ez.admin.common.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 权限缓存指标
+ * <p>
+ * 指标名 {@code ez.admin.permission.cache}，标签：
+ * <ul>
+ *   <li>cache：user_roles（用户角色）/ role_menus（角色菜单权限）</li>
+ *   <li>result：hit（命中）/ negative_hit（命中空值标记，省掉一次查库）/ miss（未命中）/ load（实际查库）</li>
+ * </ul>
+ * 可通过 /actuator/metrics/ez.admin.permission.cache 查看
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Component
+public class PermissionCacheMetrics {
+
+    static final String CACHE_USER_ROLES = "user_roles";
+    static final String CACHE_ROLE_MENUS = "role_menus";
+
+    private static final String METRIC_NAME = "ez.admin.permission.cache";
+
+    private final Counter userRolesHit;
+    private final Counter userRolesNegativeHit;
+    private final Counter userRolesMiss;
+    private final Counter userRolesLoad;
+    private final Counter roleMenusHit;
+    private final Counter roleMenusNegativeHit;
+    private final Counter roleMenusMiss;
+    private final Counter roleMenusLoad;
+
+    public PermissionCacheMetrics(MeterRegistry registry) {
+        this.userRolesHit = counter(registry, CACHE_USER_ROLES, "hit");
+        this.userRolesNegativeHit = counter(registry, CACHE_USER_ROLES, "negative_hit");
+        this.userRolesMiss = counter(registry, CACHE_USER_ROLES, "miss");
+        this.userRolesLoad = counter(registry, CACHE_USER_ROLES, "load");
+        this.roleMenusHit = counter(registry, CACHE_ROLE_MENUS, "hit");
+        this.roleMenusNegativeHit = counter(registry, CACHE_ROLE_MENUS, "negative_hit");
+        this.roleMenusMiss = counter(registry, CACHE_ROLE_MENUS, "miss");
+        this.roleMenusLoad = counter(registry, CACHE_ROLE_MENUS, "load");
+    }
+
+    private static Counter counter(MeterRegistry registry, String cache, String result) {
+        return Counter.builder(METRIC_NAME)
+                .description("权限缓存访问次数")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    void hit(String cache) {
+        (CACHE_USER_ROLES.equals(cache) ? userRolesHit : roleMenusHit).increment();
+    }
+
+    void negativeHit(String cache) {
+        (CACHE_USER_ROLES.equals(cache) ? userRolesNegativeHit : roleMenusNegativeHit).increment();
+    }
+
+    void miss(String cache, int count) {
+        (CACHE_USER_ROLES.equals(cache) ? userRolesMiss : roleMenusMiss).increment(count);
+    }
+
+    void load(String cache, int count) {
+        (CACHE_USER_ROLES.equals(cache) ? userRolesLoad : roleMenusLoad).increment(count);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ez.admin.common.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 旧代际权限缓存清理任务
+ * <p>
+ * 权限缓存全量清空只是自增代际号，旧代际的 Key 由本任务在后台定期、分批清理，
+ * 每次清理的 Key 数量有上限，避免长时间占用 Redis
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionCacheSweeper {
+
+    private final AdminCache adminCache;
+
+    /**
+     * 单次最多清理的 Key 数量
+     */
+    @Value("${ez.admin.cache.sweep.max-keys:10000}")
+    private int maxKeys;
+
+    /**
+     * 定期清理旧代际权限缓存
+     */
+    @Scheduled(initialDelayString = "${ez.admin.cache.sweep.interval-millis:60000}",
+            fixedDelayString = "${ez.admin.cache.sweep.interval-millis:60000}")
+    public void sweep() {
+        try {
+            adminCache.sweepStalePermissionGenerations(maxKeys);
+        } catch (Exception e) {
+            log.warn("清理旧代际权限缓存失败，下次继续", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ez.admin.common.infrastructure.cache;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 单飞加载器（JVM 内）
+ * <p>
+ * 同一个 key 同一时刻只允许一个线程执行回源加载，其余并发请求等待并共享同一份结果，
+ * 避免缓存过期或清空后大量请求同时打到数据库（缓存击穿）
+ * </p>
+ * <p>
+ * 只合并"正在进行中"的加载，加载完成后立即移除，不缓存结果；加载异常会传递给所有等待者
+ * </p>
+ *
+ * @param <T> 加载结果类型
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+final class SingleFlight<T> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 加载单个 key
+     *
+     * @param key    加载 key
+     * @param loader 回源加载函数
+     * @return 加载结果
+     */
+    T load(String key, Supplier<T> loader) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            T value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 批量加载
+     * <p>
+     * 未被其他线程加载中的 key 由当前线程通过一次批量回源加载，
+     * 其余 key 等待正在进行的加载结果。当前线程先完成自己负责的 key 再等待其他 key，不会相互死锁
+     * </p>
+     *
+     * @param keys   加载 key
+     * @param loader 批量回源加载函数（返回结果中缺失的 key 视为 null）
+     * @return key -> 加载结果（不包含结果为 null 的 key）
+     */
+    Map<String, T> loadAll(Collection<String> keys, Function<List<String>, Map<String, T>> loader) {
+        Map<String, CompletableFuture<T>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<T>> waiting = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (owned.containsKey(key) || waiting.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<T> created = new CompletableFuture<>();
+            CompletableFuture<T> existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                owned.put(key, created);
+            } else {
+                waiting.put(key, existing);
+            }
+        }
+
+        Map<String, T> result = new HashMap<>(keys.size() * 2);
+        if (!owned.isEmpty()) {
+            try {
+                Map<String, T> loaded = loader.apply(new ArrayList<>(owned.keySet()));
+                owned.forEach((key, future) -> {
+                    T value = loaded.get(key);
+                    future.complete(value);
+                    if (value != null) {
+                        result.put(key, value);
+                    }
+                });
+            } catch (RuntimeException | Error e) {
+                owned.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.forEach(inFlight::remove);
+            }
+        }
+
+        waiting.forEach((key, future) -> {
+            T value = await(future);
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
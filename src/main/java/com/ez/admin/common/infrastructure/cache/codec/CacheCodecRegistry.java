@@ -0,0 +1,90 @@
+package com.ez.admin.common.infrastructure.cache.codec;
+
+import com.ez.admin.common.infrastructure.redis.codec.CacheCodecs;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 缓存编解码器注册表
+ * <p>
+ * 按缓存命名空间选择值的编码格式，通过 ez.admin.cache.codec.compact-namespaces 配置启用紧凑编码的命名空间，
+ * 未启用的命名空间沿用 RedisTemplate 的 JSON 序列化。
+ * 读取时按头部自动识别格式，切换配置不影响已有数据的读取
+ * </p>
+ * <p>
+ * 注意：默认不启用任何命名空间。这些 Key 由所有节点共享，多实例滚动升级时，应在所有节点都部署了本版本后再启用紧凑编码，
+ * 否则旧版本节点无法解码紧凑格式，每个请求的权限校验都会失败
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class CacheCodecRegistry {
+
+    /**
+     * 命名空间：用户角色标识列表
+     */
+    public static final String NAMESPACE_USER_ROLES = "user_roles";
+
+    /**
+     * 命名空间：角色菜单权限列表
+     */
+    public static final String NAMESPACE_ROLE_MENUS = "role_menus";
+
+    /**
+     * 命名空间：路由权限规则（Hash 字段值）
+     */
+    public static final String NAMESPACE_ROUTE_MAP = "route_map";
+
+    private static final Map<String, CacheValueCodec<?>> COMPACT_CODECS = Map.of(
+            NAMESPACE_USER_ROLES, StringListCodec.INSTANCE,
+            NAMESPACE_ROLE_MENUS, MenuPermissionListCodec.INSTANCE,
+            NAMESPACE_ROUTE_MAP, StringCodec.INSTANCE
+    );
+
+    private final Set<String> enabledNamespaces = new HashSet<>();
+
+    /**
+     * 命名空间 -> 实际使用的编解码器（启用的为紧凑编解码器，未启用的为只读包装）
+     */
+    private final Map<String, CacheValueCodec<?>> resolvedCodecs = new HashMap<>();
+
+    public CacheCodecRegistry(@Value("${ez.admin.cache.codec.compact-namespaces:}") List<String> compactNamespaces) {
+        for (String namespace : compactNamespaces) {
+            if (namespace.isBlank()) {
+                continue;
+            }
+            if (!COMPACT_CODECS.containsKey(namespace.trim())) {
+                log.warn("未知的缓存命名空间，忽略紧凑编码配置：{}", namespace);
+                continue;
+            }
+            enabledNamespaces.add(namespace.trim());
+        }
+        COMPACT_CODECS.forEach((namespace, codec) -> resolvedCodecs.put(namespace,
+                enabledNamespaces.contains(namespace) ? codec : CacheCodecs.readOnly(codec)));
+        log.info("缓存紧凑编码已启用的命名空间：{}", enabledNamespaces);
+    }
+
+    /**
+     * 获取命名空间的编解码器
+     * <p>
+     * 未启用紧凑编码的命名空间返回只读编解码器：写入走 JSON，但仍能读取之前以紧凑格式写入的数据
+     * </p>
+     *
+     * @param namespace 命名空间
+     * @return 编解码器，未知命名空间返回 null（使用 JSON）
+     */
+    public CacheValueCodec<?> codecFor(String namespace) {
+        return resolvedCodecs.get(namespace);
+    }
+}
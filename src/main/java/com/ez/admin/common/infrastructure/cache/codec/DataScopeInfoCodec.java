@@ -0,0 +1,78 @@
+package com.ez.admin.common.infrastructure.cache.codec;
+
+import com.ez.admin.common.framework.datascope.DataScopeInfo;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import com.ez.admin.common.infrastructure.redis.codec.CompactInput;
+import com.ez.admin.common.infrastructure.redis.codec.CompactOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据权限信息紧凑编解码器
+ * <p>
+ * 格式：dataScope、userId、deptId、ancestors、customDeptIds（个数 + 元素，-1 表示 null）
+ * </p>
+ * <p>
+ * 数据权限信息保存在 Sa-Token Session 中，由 sa-token-redis-template 整体序列化，
+ * 本编解码器未接入该路径、也不在 {@link CacheCodecRegistry} 中登记，目前仅用于编码格式的基准对比
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class DataScopeInfoCodec implements CacheValueCodec<DataScopeInfo> {
+
+    public static final DataScopeInfoCodec INSTANCE = new DataScopeInfoCodec();
+
+    private DataScopeInfoCodec() {
+    }
+
+    @Override
+    public byte id() {
+        return 4;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return value instanceof DataScopeInfo;
+    }
+
+    @Override
+    public void encode(DataScopeInfo value, CompactOutput out) {
+        out.writeNullableInt(value.getDataScope());
+        out.writeNullableLong(value.getUserId());
+        out.writeNullableLong(value.getDeptId());
+        out.writeString(value.getAncestors());
+
+        List<Long> customDeptIds = value.getCustomDeptIds();
+        if (customDeptIds == null) {
+            out.writeVarLong(-1);
+            return;
+        }
+        out.writeVarLong(customDeptIds.size());
+        for (Long deptId : customDeptIds) {
+            out.writeNullableLong(deptId);
+        }
+    }
+
+    @Override
+    public DataScopeInfo decode(CompactInput in) {
+        DataScopeInfo info = DataScopeInfo.builder()
+                .dataScope(in.readNullableInt())
+                .userId(in.readNullableLong())
+                .deptId(in.readNullableLong())
+                .ancestors(in.readString())
+                .build();
+
+        int size = (int) in.readVarLong();
+        if (size >= 0) {
+            List<Long> customDeptIds = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                customDeptIds.add(in.readNullableLong());
+            }
+            info.setCustomDeptIds(customDeptIds);
+        }
+        return info;
+    }
+}
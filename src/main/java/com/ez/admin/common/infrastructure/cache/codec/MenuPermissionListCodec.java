@@ -0,0 +1,72 @@
+package com.ez.admin.common.infrastructure.cache.codec;
+
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import com.ez.admin.common.infrastructure.redis.codec.CompactInput;
+import com.ez.admin.common.infrastructure.redis.codec.CompactOutput;
+import com.ez.admin.dto.menu.vo.MenuPermissionVO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 菜单权限列表紧凑编解码器（角色菜单权限）
+ * <p>
+ * 格式：[元素个数]，每个元素依次为 menuId、menuPerm、menuType、roleId、roleLabel
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class MenuPermissionListCodec implements CacheValueCodec<List<MenuPermissionVO>> {
+
+    public static final MenuPermissionListCodec INSTANCE = new MenuPermissionListCodec();
+
+    private MenuPermissionListCodec() {
+    }
+
+    @Override
+    public byte id() {
+        return 3;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!(element instanceof MenuPermissionVO)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void encode(List<MenuPermissionVO> value, CompactOutput out) {
+        out.writeVarInt(value.size());
+        for (MenuPermissionVO element : value) {
+            out.writeNullableLong(element.getMenuId());
+            out.writeString(element.getMenuPerm());
+            out.writeNullableInt(element.getMenuType());
+            out.writeNullableLong(element.getRoleId());
+            out.writeString(element.getRoleLabel());
+        }
+    }
+
+    @Override
+    public List<MenuPermissionVO> decode(CompactInput in) {
+        int size = in.readVarInt();
+        List<MenuPermissionVO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(MenuPermissionVO.builder()
+                    .menuId(in.readNullableLong())
+                    .menuPerm(in.readString())
+                    .menuType(in.readNullableInt())
+                    .roleId(in.readNullableLong())
+                    .roleLabel(in.readString())
+                    .build());
+        }
+        return list;
+    }
+}
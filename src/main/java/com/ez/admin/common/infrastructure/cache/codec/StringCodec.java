@@ -0,0 +1,39 @@
+package com.ez.admin.common.infrastructure.cache.codec;
+
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import com.ez.admin.common.infrastructure.redis.codec.CompactInput;
+import com.ez.admin.common.infrastructure.redis.codec.CompactOutput;
+
+/**
+ * 字符串紧凑编解码器（路由权限规则的权限码）
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class StringCodec implements CacheValueCodec<String> {
+
+    public static final StringCodec INSTANCE = new StringCodec();
+
+    private StringCodec() {
+    }
+
+    @Override
+    public byte id() {
+        return 1;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return value instanceof String;
+    }
+
+    @Override
+    public void encode(String value, CompactOutput out) {
+        out.writeString(value);
+    }
+
+    @Override
+    public String decode(CompactInput in) {
+        return in.readString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ez.admin.common.infrastructure.cache.codec;
+
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import com.ez.admin.common.infrastructure.redis.codec.CompactInput;
+import com.ez.admin.common.infrastructure.redis.codec.CompactOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 字符串列表紧凑编解码器（用户角色标识列表）
+ * <p>
+ * 格式：[元素个数][字符串]...
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class StringListCodec implements CacheValueCodec<List<String>> {
+
+    public static final StringListCodec INSTANCE = new StringListCodec();
+
+    private StringListCodec() {
+    }
+
+    @Override
+    public byte id() {
+        return 2;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return false;
+        }
+        for (Object element : list) {
+            if (element != null && !(element instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void encode(List<String> value, CompactOutput out) {
+        out.writeVarInt(value.size());
+        for (String element : value) {
+            out.writeString(element);
+        }
+    }
+
+    @Override
+    public List<String> decode(CompactInput in) {
+        int size = in.readVarInt();
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(in.readString());
+        }
+        return list;
+    }
+}
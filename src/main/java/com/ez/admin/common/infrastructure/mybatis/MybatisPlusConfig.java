@@ -3,9 +3,9 @@ package com.ez.admin.common.infrastructure.mybatis;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.BlockAttackInnerInterceptor;
-import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.ez.admin.common.framework.datascope.DataScopeSqlInterceptor;
 import com.ez.admin.common.framework.datascope.UserDataPermissionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -57,8 +57,8 @@ public class MybatisPlusConfig {
 
         // 2. 数据权限插件
         // 根据当前登录用户的角色和数据权限范围，自动在 SQL 中添加数据过滤条件
-        // 只对白名单中的表生效（在 UserDataPermissionHandler 中配置）
-        interceptor.addInnerInterceptor(new DataPermissionInterceptor(dataPermissionHandler));
+        // 只对标注了 @DataScope 的实体表生效，SQL 中没有这些表时不做解析，并绑定可见创建人数组参数
+        interceptor.addInnerInterceptor(new DataScopeSqlInterceptor(dataPermissionHandler));
 
         // 3. 防止全表更新和删除插件
         // 阻止恶意的全表更新或删除操作（没有 WHERE 条件的 UPDATE/DELETE）
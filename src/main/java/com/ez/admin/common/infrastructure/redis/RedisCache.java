@@ -1,11 +1,24 @@
 package com.ez.admin.common.infrastructure.redis;
 
+import com.ez.admin.common.infrastructure.redis.codec.CacheCodecs;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -23,6 +36,18 @@ public class RedisCache {
 
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * SCAN 每批返回的 Key 数量提示，同时也是 UNLINK 的批大小
+     */
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    /**
+     * 值等于期望值时才删除（比较并删除），用于安全释放锁
+     */
+    private static final RedisScript<Long> COMPARE_AND_DELETE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     // =============================  基本操作  =============================
 
     /**
@@ -68,6 +93,66 @@ public class RedisCache {
         return redisTemplate.opsForValue().get(key);
     }
 
+    /**
+     * 批量获取缓存（MGET）
+     * <p>
+     * 一次网络往返获取多个键，替代循环调用 {@link #get(String)}
+     * </p>
+     *
+     * @param keys 键集合
+     * @return 键 -> 值（仅包含存在的键，保持传入顺序）
+     */
+    public Map<String, Object> getAll(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<String> keyList = new ArrayList<>(keys);
+        List<Object> values = redisTemplate.opsForValue().multiGet(keyList);
+        if (values == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>(keyList.size() * 2);
+        for (int i = 0; i < keyList.size() && i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                result.put(keyList.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量设置缓存（带过期时间，秒）
+     * <p>
+     * 使用管道一次性发送多条 SET EX 命令，减少网络往返
+     * </p>
+     *
+     * @param map     键值对
+     * @param seconds 过期时间（秒）
+     */
+    public void setAll(Map<String, Object> map, long seconds) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        if (map.size() == 1) {
+            Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+            set(entry.getKey(), entry.getValue(), seconds);
+            return;
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                map.forEach((key, value) -> ops.opsForValue().set(key, value, seconds, TimeUnit.SECONDS));
+                return null;
+            }
+        });
+    }
+
     /**
      * 删除缓存
      *
@@ -131,6 +216,218 @@ public class RedisCache {
         return redisTemplate.getExpire(key, TimeUnit.SECONDS);
     }
 
+    /**
+     * 自增（INCR）
+     * <p>
+     * 原子地将键的值加 1，键不存在时从 0 开始，常用于版本号、计数器
+     * </p>
+     *
+     * @param key 键
+     * @return 自增后的值
+     */
+    public Long increment(String key) {
+        return redisTemplate.opsForValue().increment(key);
+    }
+
+    // =============================  紧凑编码  =============================
+
+    /**
+     * 获取缓存（指定编解码器）
+     * <p>
+     * 带紧凑编码头部的值由编解码器解码，否则按 JSON 反序列化
+     * </p>
+     *
+     * @param key   键
+     * @param codec 编解码器，null 时等同于 {@link #get(String)}
+     * @return 值
+     */
+    public Object get(String key, CacheValueCodec<?> codec) {
+        if (codec == null) {
+            return get(key);
+        }
+        byte[] bytes = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(rawKey(key)));
+        return deserializeValue(bytes, codec);
+    }
+
+    /**
+     * 设置缓存（指定编解码器，带过期时间，秒）
+     *
+     * @param key     键
+     * @param value   值，编解码器不支持时按 JSON 序列化
+     * @param seconds 过期时间（秒）
+     * @param codec   编解码器，null 时等同于 {@link #set(String, Object, long)}
+     */
+    public void set(String key, Object value, long seconds, CacheValueCodec<?> codec) {
+        if (codec == null) {
+            set(key, value, seconds);
+            return;
+        }
+        byte[] bytes = serializeValue(value, codec);
+        redisTemplate.execute((RedisCallback<Object>) connection ->
+                connection.stringCommands().set(rawKey(key), bytes, Expiration.seconds(seconds),
+                        RedisStringCommands.SetOption.upsert()));
+    }
+
+    /**
+     * 批量获取缓存（指定编解码器，MGET）
+     *
+     * @param keys  键集合
+     * @param codec 编解码器，null 时等同于 {@link #getAll(Collection)}
+     * @return 键 -> 值（仅包含存在的键，保持传入顺序）
+     */
+    public Map<String, Object> getAll(Collection<String> keys, CacheValueCodec<?> codec) {
+        if (codec == null) {
+            return getAll(keys);
+        }
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<String> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = new byte[keyList.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = rawKey(keyList.get(i));
+        }
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(rawKeys));
+        if (values == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>(keyList.size() * 2);
+        for (int i = 0; i < keyList.size() && i < values.size(); i++) {
+            Object value = deserializeValue(values.get(i), codec);
+            if (value != null) {
+                result.put(keyList.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量设置缓存（指定编解码器，带过期时间，秒，管道）
+     *
+     * @param map     键值对
+     * @param seconds 过期时间（秒）
+     * @param codec   编解码器，null 时等同于 {@link #setAll(Map, long)}
+     */
+    public void setAll(Map<String, Object> map, long seconds, CacheValueCodec<?> codec) {
+        if (codec == null) {
+            setAll(map, seconds);
+            return;
+        }
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+
+        Map<byte[], byte[]> rawMap = new LinkedHashMap<>(map.size() * 2);
+        map.forEach((key, value) -> rawMap.put(rawKey(key), serializeValue(value, codec)));
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            rawMap.forEach((key, value) -> connection.stringCommands().setEx(key, seconds, value));
+            return null;
+        });
+    }
+
+    /**
+     * 批量设置 Hash 缓存（指定编解码器）
+     *
+     * @param key   键
+     * @param map   Hash 键值对
+     * @param codec 编解码器，null 时等同于 {@link #hSetAll(String, Map)}
+     */
+    public void hSetAll(String key, Map<String, Object> map, CacheValueCodec<?> codec) {
+        if (codec == null) {
+            hSetAll(key, map);
+            return;
+        }
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+
+        Map<byte[], byte[]> rawMap = new LinkedHashMap<>(map.size() * 2);
+        map.forEach((hashKey, value) -> rawMap.put(rawKey(hashKey), serializeValue(value, codec)));
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hMSet(rawKey(key), rawMap);
+            return null;
+        });
+    }
+
+    /**
+     * 获取所有 Hash 值（指定编解码器）
+     *
+     * @param key   键
+     * @param codec 编解码器，null 时按 JSON 反序列化
+     * @return Hash 键 -> 值
+     */
+    public Map<String, Object> hGetAll(String key, CacheValueCodec<?> codec) {
+        Map<byte[], byte[]> rawMap = redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                connection.hashCommands().hGetAll(rawKey(key)));
+        if (rawMap == null || rawMap.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Object> result = new HashMap<>(rawMap.size() * 2);
+        rawMap.forEach((hashKey, value) ->
+                result.put(new String(hashKey, StandardCharsets.UTF_8), deserializeValue(value, codec)));
+        return result;
+    }
+
+    private static byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] serializeValue(Object value, CacheValueCodec<?> codec) {
+        if (codec != null && codec.supports(value)) {
+            return CacheCodecs.encode(codec, value);
+        }
+        return valueSerializer().serialize(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> valueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+
+    private Object deserializeValue(byte[] bytes, CacheValueCodec<?> codec) {
+        if (bytes == null) {
+            return null;
+        }
+        if (codec != null && CacheCodecs.isCompact(bytes)) {
+            return CacheCodecs.decode(codec, bytes);
+        }
+        return redisTemplate.getValueSerializer().deserialize(bytes);
+    }
+
+    // =============================  分布式锁  =============================
+
+    /**
+     * 尝试获取锁（SET NX PX）
+     *
+     * @param key          锁键
+     * @param token        锁持有者标识（释放时校验）
+     * @param leaseMillis  锁自动过期时间（毫秒）
+     * @return true: 获取成功，false: 锁已被占用
+     */
+    public boolean tryLock(String key, String token, long leaseMillis) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, leaseMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 释放锁
+     * <p>
+     * 通过 Lua 脚本比较持有者标识后再删除，避免误删锁过期后被其他节点重新获取的锁
+     * </p>
+     *
+     * @param key   锁键
+     * @param token 锁持有者标识
+     * @return true: 释放成功，false: 锁已过期或不属于当前持有者
+     */
+    public boolean unlock(String key, String token) {
+        Long deleted = redisTemplate.execute(COMPARE_AND_DELETE_SCRIPT, List.of(key), token);
+        return deleted != null && deleted > 0;
+    }
+
     // =============================  Hash 操作  =============================
 
     /**
@@ -202,10 +499,78 @@ public class RedisCache {
         return redisTemplate.opsForHash().hasKey(key, hashKey);
     }
 
+    // =============================  发布订阅  =============================
+
+    /**
+     * 发布消息到指定频道
+     * <p>
+     * 消息体使用 RedisTemplate 的值序列化器编码，订阅方需使用相同的序列化器解码
+     * </p>
+     *
+     * @param channel 频道名称
+     * @param message 消息内容
+     */
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 解码订阅收到的消息体
+     *
+     * @param body 原始消息体
+     * @return 解码后的消息内容
+     */
+    public Object deserializeMessage(byte[] body) {
+        return redisTemplate.getValueSerializer().deserialize(body);
+    }
+
     // =============================  其他操作  =============================
 
+    /**
+     * 增量删除匹配模式的键（SCAN + UNLINK）
+     * <p>
+     * 使用游标分批扫描，每批通过 UNLINK 异步释放内存，不会像 KEYS + DEL 那样阻塞 Redis
+     * </p>
+     *
+     * @param pattern 匹配模式（如：perm:1:*）
+     * @param maxKeys 本次最多删除的键数量
+     * @return 实际删除（提交 UNLINK）的键数量，达到 maxKeys 时说明可能尚未删除完
+     */
+    public long unlinkByPattern(String pattern, int maxKeys) {
+        if (maxKeys <= 0) {
+            return 0;
+        }
+
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build();
+        long deleted = 0;
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext() && deleted + batch.size() < maxKeys) {
+                batch.add(cursor.next());
+                if (batch.size() >= SCAN_BATCH_SIZE) {
+                    deleted += unlinkBatch(batch);
+                }
+            }
+        }
+        deleted += unlinkBatch(batch);
+        return deleted;
+    }
+
+    private long unlinkBatch(List<String> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        redisTemplate.unlink(batch);
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
     /**
      * 获取匹配模式的所有键
+     * <p>
+     * 注意：底层为 KEYS 命令，会阻塞 Redis，生产环境大数据量时请使用 {@link #unlinkByPattern(String, int)} 等基于 SCAN 的方法
+     * </p>
      *
      * @param pattern 匹配模式（如：user:*）
      * @return 键集合
@@ -0,0 +1,98 @@
+package com.ez.admin.common.infrastructure.redis;
+
+import com.ez.admin.common.infrastructure.cache.AdminCache;
+import com.ez.admin.common.infrastructure.cache.PermissionCacheInvalidationListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 发布订阅配置类
+ * <p>
+ * 注册消息监听容器，用于多节点之间广播本地缓存失效消息
+ * </p>
+ * <p>
+ * 订阅失败不阻止应用启动：启动时 Redis 不可用则在后台按重试间隔重新订阅，运行中断线由容器自身按同一间隔恢复。
+ * 订阅恢复前收不到广播，本地快照依靠 Redis 中的版本号 / 代际号定期校验兜底（见 {@link AdminCache}）
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Configuration
+public class RedisListenerConfig {
+
+    /**
+     * 订阅失败后的重试间隔（毫秒）
+     */
+    static final long SUBSCRIBE_RETRY_INTERVAL_MILLIS = 5000;
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory,
+                                                                       PermissionCacheInvalidationListener invalidationListener) {
+        RedisMessageListenerContainer container = new ResilientListenerContainer(SUBSCRIBE_RETRY_INTERVAL_MILLIS);
+        container.setConnectionFactory(factory);
+        container.setRecoveryInterval(SUBSCRIBE_RETRY_INTERVAL_MILLIS);
+
+        // 权限缓存失效广播
+        container.addMessageListener(invalidationListener, new ChannelTopic(AdminCache.CACHE_INVALIDATE_CHANNEL));
+        return container;
+    }
+
+    /**
+     * 首次订阅失败时不抛出异常、改为后台重试的监听容器
+     * <p>
+     * {@link RedisMessageListenerContainer} 只在已建立订阅后断线时自动恢复，
+     * 启动时的首次订阅失败会直接抛出异常导致应用上下文启动失败
+     * </p>
+     */
+    @Slf4j
+    static class ResilientListenerContainer extends RedisMessageListenerContainer {
+
+        private final long retryIntervalMillis;
+
+        private volatile boolean stopped;
+
+        ResilientListenerContainer(long retryIntervalMillis) {
+            this.retryIntervalMillis = retryIntervalMillis;
+        }
+
+        @Override
+        public void start() {
+            stopped = false;
+            subscribe();
+        }
+
+        @Override
+        public void stop(Runnable callback) {
+            stopped = true;
+            super.stop(callback);
+        }
+
+        private void subscribe() {
+            try {
+                super.start();
+            } catch (RuntimeException e) {
+                // 复位启动状态，下次 start 才会重新订阅
+                super.stop(() -> {
+                });
+                if (stopped) {
+                    return;
+                }
+                log.warn("Redis 缓存失效广播订阅失败，{}ms 后重试，期间本地快照按版本号定期校验：{}",
+                        retryIntervalMillis, e.getMessage());
+                CompletableFuture.delayedExecutor(retryIntervalMillis, TimeUnit.MILLISECONDS).execute(() -> {
+                    if (!stopped) {
+                        subscribe();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ez.admin.common.infrastructure.redis.codec;
+
+/**
+ * 紧凑编码头部处理
+ * <p>
+ * 格式：[魔数 0xEC][编解码器ID][负载]。JSON 的首字节只可能是 ASCII 字符，不会与魔数冲突
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class CacheCodecs {
+
+    /**
+     * 紧凑编码魔数
+     */
+    public static final byte MAGIC = (byte) 0xEC;
+
+    private static final int HEADER_LENGTH = 2;
+
+    private CacheCodecs() {
+    }
+
+    /**
+     * 编码（带头部）
+     *
+     * @param codec 编解码器
+     * @param value 值
+     * @return 编码结果
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> byte[] encode(CacheValueCodec<T> codec, Object value) {
+        CompactOutput out = new CompactOutput(64);
+        out.writeByte(MAGIC);
+        out.writeByte(codec.id());
+        codec.encode((T) value, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 是否为紧凑编码
+     *
+     * @param bytes 原始数据
+     * @return 是否带紧凑编码头部
+     */
+    public static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC;
+    }
+
+    /**
+     * 解码（带头部）
+     *
+     * @param codec 编解码器
+     * @param bytes 原始数据
+     * @return 值
+     * @throws IllegalStateException 编解码器ID不匹配
+     */
+    public static <T> T decode(CacheValueCodec<T> codec, byte[] bytes) {
+        if (bytes[1] != codec.id()) {
+            throw new IllegalStateException("紧凑编码的编解码器ID不匹配：expected=" + codec.id() + ", actual=" + bytes[1]);
+        }
+        return codec.decode(new CompactInput(bytes, HEADER_LENGTH));
+    }
+
+    /**
+     * 包装为只读编解码器：不再以紧凑格式写入，但仍能解码已有的紧凑数据
+     *
+     * @param codec 编解码器
+     * @return 只读编解码器
+     */
+    public static <T> CacheValueCodec<T> readOnly(CacheValueCodec<T> codec) {
+        return new CacheValueCodec<>() {
+            @Override
+            public byte id() {
+                return codec.id();
+            }
+
+            @Override
+            public boolean supports(Object value) {
+                return false;
+            }
+
+            @Override
+            public void encode(T value, CompactOutput out) {
+                codec.encode(value, out);
+            }
+
+            @Override
+            public T decode(CompactInput in) {
+                return codec.decode(in);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.ez.admin.common.infrastructure.redis.codec;
+
+/**
+ * 缓存值紧凑编解码器
+ * <p>
+ * 为热点缓存类型提供手写的二进制格式（变长整数 + 长度前缀字符串），
+ * 替代带类名的 JSON，减小 Redis 中的数据体积并避免反射反序列化。
+ * 编码结果统一带 2 字节头部（魔数 + 编解码器ID），读取时据此识别，
+ * 不带头部的值按原 JSON 序列化器解析，两种格式可以共存、按命名空间切换
+ * </p>
+ *
+ * @param <T> 值类型
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public interface CacheValueCodec<T> {
+
+    /**
+     * 编解码器ID，写入头部，同一应用内唯一
+     *
+     * @return 编解码器ID
+     */
+    byte id();
+
+    /**
+     * 是否支持编码该值，不支持时回退为 JSON
+     *
+     * @param value 值
+     * @return 是否支持
+     */
+    boolean supports(Object value);
+
+    /**
+     * 编码（不含头部）
+     *
+     * @param value 值
+     * @param out   输出
+     */
+    void encode(T value, CompactOutput out);
+
+    /**
+     * 解码（不含头部）
+     *
+     * @param in 输入
+     * @return 值
+     */
+    T decode(CompactInput in);
+}
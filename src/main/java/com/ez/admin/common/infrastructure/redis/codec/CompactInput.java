@@ -0,0 +1,77 @@
+package com.ez.admin.common.infrastructure.redis.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 紧凑二进制输入，与 {@link CompactOutput} 对应
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class CompactInput {
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+
+    public CompactInput(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = buffer.length;
+    }
+
+    public int readByte() {
+        checkAvailable(1);
+        return buffer[position++];
+    }
+
+    public int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("变长整数格式错误");
+    }
+
+    public long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalStateException("变长长整数格式错误");
+    }
+
+    public Long readNullableLong() {
+        return readByte() == 0 ? null : readVarLong();
+    }
+
+    public Integer readNullableInt() {
+        return readByte() == 0 ? null : (int) readVarLong();
+    }
+
+    public String readString() {
+        int length = readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        checkAvailable(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private void checkAvailable(int length) {
+        if (length < 0 || position + length > limit) {
+            throw new IllegalStateException("紧凑编码数据不完整");
+        }
+    }
+}
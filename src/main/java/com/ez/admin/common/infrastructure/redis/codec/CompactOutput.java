@@ -0,0 +1,102 @@
+package com.ez.admin.common.infrastructure.redis.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 紧凑二进制输出
+ * <p>
+ * 整数使用 LEB128 变长编码（有符号数先做 ZigZag），字符串为"长度 + 1"前缀的 UTF-8 字节，长度 0 表示 null
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public final class CompactOutput {
+
+    private byte[] buffer;
+    private int position;
+
+    public CompactOutput(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * 写入非负整数（变长）
+     */
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * 写入有符号长整数（ZigZag + 变长）
+     */
+    public void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[position++] = (byte) zigzag;
+    }
+
+    /**
+     * 写入可为 null 的长整数（null 标记 + 变长）
+     */
+    public void writeNullableLong(Long value) {
+        if (value == null) {
+            writeByte(0);
+        } else {
+            writeByte(1);
+            writeVarLong(value);
+        }
+    }
+
+    /**
+     * 写入可为 null 的整数
+     */
+    public void writeNullableInt(Integer value) {
+        if (value == null) {
+            writeByte(0);
+        } else {
+            writeByte(1);
+            writeVarLong(value);
+        }
+    }
+
+    /**
+     * 写入可为 null 的字符串
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + additional));
+        }
+    }
+}
@@ -1,16 +1,16 @@
 package com.ez.admin.common.infrastructure.web.config;
 
-import cn.dev33.satoken.jwt.StpLogicJwtForSimple;
 import cn.dev33.satoken.stp.StpLogic;
+import com.ez.admin.common.framework.permission.EzStpLogic;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class SaTokenConfigure {
-    // Sa-Token 整合 jwt (Simple 简单模式)
+    // Sa-Token 整合 jwt (Simple 简单模式)，权限校验走 PermissionSet 位图
     @Bean
     public StpLogic getStpLogicJwt() {
-        return new StpLogicJwtForSimple();
+        return new EzStpLogic();
     }
 }
 
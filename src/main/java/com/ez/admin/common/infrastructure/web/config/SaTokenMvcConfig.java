@@ -1,10 +1,12 @@
 package com.ez.admin.common.infrastructure.web.config;
 
 import cn.dev33.satoken.context.SaHolder;
+import cn.dev33.satoken.exception.NotPermissionException;
 import cn.dev33.satoken.interceptor.SaInterceptor;
 import cn.dev33.satoken.router.SaRouter;
 import cn.dev33.satoken.stp.StpUtil;
 import com.ez.admin.common.framework.datascope.DataScopeInterceptor;
+import com.ez.admin.common.framework.permission.RoutePermissionMatcher;
 import com.ez.admin.common.infrastructure.cache.AdminCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,8 +14,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.util.Map;
-
 /**
  * Sa-Token 权限校验配置
  * <p>
@@ -22,8 +22,8 @@ import java.util.Map;
  * <p>
  * 权限校验流程：
  * <ol>
- *   <li>从 Redis 缓存获取所有路由权限规则（避免每次查询数据库）</li>
- *   <li>匹配当前请求路径，查找对应的权限码</li>
+ *   <li>从 JVM 本地快照获取所有路由权限规则（快照由 Redis 版本号 + 广播消息驱动刷新，避免每次请求访问 Redis）</li>
+ *   <li>按 HTTP 方法和路径段匹配当前请求（支持路径变量），查找对应的权限码</li>
  *   <li>如果找到了权限码，则校验用户是否拥有该权限</li>
  *   <li>如果没有找到权限码，说明该路由不需要权限控制，直接放行</li>
  * </ol>
@@ -48,28 +48,28 @@ public class SaTokenMvcConfig implements WebMvcConfigurer {
                     String path = SaHolder.getRequest().getRequestPath();
                     String method = SaHolder.getRequest().getMethod();
 
-                    // 2. 从 Redis 获取所有的权限配置规则（缓存中，性能极高）
-                    Map<String, String> routePermMap = adminCache.getRoutePermissionCache();
-
-                    // 3. 构建当前请求的路由键：METHOD:PATH，如 "POST:/api/user"
-                    String currentRouteKey = method + ":" + path;
+                    // 2. 从本地快照获取编译后的路由匹配器（不访问 Redis）
+                    RoutePermissionMatcher routeMatcher = adminCache.getRoutePermissionMatcher();
 
-                    // 4. 查找当前路由需要的权限码
-                    String requiredPerm = routePermMap.get(currentRouteKey);
+                    // 3. 按 HTTP 方法 + 路径段匹配当前请求需要的权限码（支持 /api/user/{userId} 等路径变量）
+                    String requiredPerm = routeMatcher.match(method, path);
 
-                    // 5. 如果找到了权限码，则进行权限校验
+                    // 4. 如果找到了权限码，则进行权限校验
                     if (requiredPerm != null && !requiredPerm.isEmpty()) {
                         SaRouter.match(path).check(r -> {
-                            // 先校验登录
-                            StpUtil.checkLogin();
-                            // 再校验权限
+                            // 先校验登录（未登录时抛出 NotLoginException），登录ID供数据权限拦截器复用
+                            Object loginId = StpUtil.getLoginId();
+                            DataScopeInterceptor.rememberLogin(loginId);
+                            // 再按已解析的登录ID校验权限，不再重复查询登录状态
                             log.debug("路由权限校验：{} {} 需要权限 {}", method, path, requiredPerm);
-                            StpUtil.checkPermission(requiredPerm);
+                            if (!StpUtil.hasPermission(loginId, requiredPerm)) {
+                                throw new NotPermissionException(requiredPerm, StpUtil.getLoginType());
+                            }
                         });
                     } else {
                         // 如果没有找到权限码，只做登录校验
                         SaRouter.match(path).check(r -> {
-                            StpUtil.checkLogin();
+                            DataScopeInterceptor.rememberLogin(StpUtil.getLoginId());
                             log.debug("路由无需权限控制（仅需登录）：{} {}", method, path);
                         });
                     }
@@ -86,7 +86,7 @@ public class SaTokenMvcConfig implements WebMvcConfigurer {
                 ).order(1); // 第一个执行
 
         // 2. 数据权限拦截器（在 Sa-Token 拦截器之后执行）
-        // 从 Sa-Token Session 中恢复数据权限上下文到 ThreadLocal
+        // 复用上面解析的登录ID，从本地快照（或 Sa-Token Session）恢复数据权限上下文到 ThreadLocal
         registry.addInterceptor(dataScopeInterceptor)
                 .addPathPatterns("/api/**")
                 .excludePathPatterns(
@@ -0,0 +1,41 @@
+package com.ez.admin.common.model.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 数据权限注解
+ * <p>
+ * 标注在实体类上（需同时有 {@code @TableName}），启动时登记到数据权限表注册表，
+ * 查询该表时自动按当前用户的数据权限范围添加过滤条件
+ * </p>
+ * <p>
+ * 示例：
+ * <pre>{@code
+ * @TableName("ez_admin_contract")
+ * @DataScope(creatorColumn = "owner_id", deptColumn = "dept_id")
+ * public class Contract { ... }
+ * }</pre>
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DataScope {
+
+    /**
+     * 创建人字段名（数据库列名）
+     * <p>仅本人数据权限按此列过滤；未声明部门字段时，本部门、本部门及以下、自定义数据权限也按此列关联用户部门</p>
+     */
+    String creatorColumn() default "created_by";
+
+    /**
+     * 所属部门字段名（数据库列名），为空表示表中没有部门字段
+     * <p>声明后本部门、本部门及以下、自定义数据权限直接按此列过滤，不再关联用户表</p>
+     */
+    String deptColumn() default "";
+}
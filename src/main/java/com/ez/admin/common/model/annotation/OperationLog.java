@@ -35,4 +35,37 @@ public @interface OperationLog {
      * <p>详细描述本次操作，例如：创建用户、删除角色</p>
      */
     String description() default "";
+
+    /**
+     * 不记录的参数名
+     * <p>例如：批量导入接口的数据列表，excludeParams = {"rows"}</p>
+     */
+    String[] excludeParams() default {};
+
+    /**
+     * 需要脱敏的参数名，记录为 ******
+     * <p>例如：excludeParams 之外仍需留痕但不能明文保存的参数，maskParams = {"password"}</p>
+     */
+    String[] maskParams() default {};
+
+    /**
+     * 延迟序列化参数
+     * <p>
+     * 为 true 时请求线程只保存参数引用，由日志后台写入线程序列化，进一步缩短请求耗时；
+     * 仅适用于方法执行后不会再被修改的参数（记录的是写入时的参数状态）
+     * </p>
+     */
+    boolean lazyParams() default false;
+
+    /**
+     * 成功日志的采样百分比（0-100），失败日志始终记录
+     * <p>高频接口可设为 10 等值，只记录约 10% 的成功请求，被省略的条数定期写入一条汇总日志</p>
+     */
+    int successSamplePercent() default 100;
+
+    /**
+     * 同一用户在本接口每秒最多记录的成功日志条数，0 表示不限制
+     * <p>超出部分不记录，定期写入一条汇总日志；失败日志始终记录</p>
+     */
+    int maxPerUserPerSecond() default 0;
 }
@@ -1,6 +1,7 @@
 package com.ez.admin.common.model.model;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Getter;
@@ -38,6 +39,10 @@ public class PageVO<T> {
     @Schema(description = "数据列表")
     private List<T> records;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "下一页游标（仅游标分页返回，为空表示没有更多数据）")
+    private String nextCursor;
+
     /**
      * 从 MyBatis-Plus 的 Page 对象构建分页响应
      *
@@ -1,6 +1,8 @@
 package com.ez.admin.dto.log.req;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -15,6 +17,11 @@ import java.time.LocalDateTime;
 @Schema(name = "OperationLogQueryReq", description = "操作日志查询请求对象")
 public class OperationLogQueryReq {
 
+    /**
+     * 每页大小上限
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Schema(description = "模块名称", example = "用户管理")
     private String module;
 
@@ -40,8 +47,17 @@ public class OperationLogQueryReq {
     private String keyword;
 
     @Schema(description = "页码", example = "1")
+    @Min(value = 1, message = "页码不能小于 1")
     private Integer pageNum = 1;
 
     @Schema(description = "每页大小", example = "10")
+    @Min(value = 1, message = "每页大小不能小于 1")
+    @Max(value = MAX_PAGE_SIZE, message = "每页大小不能大于 500")
     private Integer pageSize = 10;
+
+    @Schema(description = "是否使用游标分页（不统计总数，适合深度翻页），为 true 时忽略页码", example = "false")
+    private Boolean cursorMode = false;
+
+    @Schema(description = "游标分页的游标，首页不传，后续传上一页返回的 nextCursor")
+    private String cursor;
 }
@@ -0,0 +1,38 @@
+package com.ez.admin.dto.log.req;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志统计查询请求对象
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Data
+@Schema(name = "OperationLogStatQueryReq", description = "操作日志统计查询请求对象")
+public class OperationLogStatQueryReq {
+
+    @Schema(description = "统计维度：module 按模块 / endpoint 按模块+操作类型 / user 按用户", example = "endpoint")
+    @Pattern(regexp = "^(module|endpoint|user)$", message = "统计维度只能是 module、endpoint 或 user")
+    private String dimension = "endpoint";
+
+    @Schema(description = "模块名称（精确匹配，为空时统计全部模块）", example = "用户管理")
+    private String module;
+
+    @Schema(description = "开始时间（为空时为结束时间前 1 小时）", example = "2026-10-17 00:00:00")
+    private LocalDateTime startTime;
+
+    @Schema(description = "结束时间（为空时为当前时间）", example = "2026-10-17 23:59:59")
+    private LocalDateTime endTime;
+
+    @Schema(description = "按请求次数倒序返回的条数", example = "20")
+    @Min(value = 1, message = "返回条数不能小于 1")
+    @Max(value = 1000, message = "返回条数不能大于 1000")
+    private Integer limit = 20;
+}
@@ -0,0 +1,50 @@
+package com.ez.admin.dto.log.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 操作日志统计 VO
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Getter
+@Builder
+@Schema(name = "OperationLogStatVO", description = "操作日志统计响应")
+public class OperationLogStatVO {
+
+    @Schema(description = "模块名称（按用户统计时为空）")
+    private String module;
+
+    @Schema(description = "操作类型（仅按 endpoint 统计时返回）")
+    private String operation;
+
+    @Schema(description = "操作用户ID（仅按用户统计时返回）")
+    private Long userId;
+
+    @Schema(description = "操作用户名（仅按用户统计时返回）")
+    private String username;
+
+    @Schema(description = "请求次数")
+    private Long requestCount;
+
+    @Schema(description = "失败次数")
+    private Long errorCount;
+
+    @Schema(description = "平均执行时长（毫秒）")
+    private Long avgTime;
+
+    @Schema(description = "最大执行时长（毫秒）")
+    private Long maxTime;
+
+    @Schema(description = "执行时长 P50（毫秒，统计时间跨度超过 1 天时为空）")
+    private Long p50Time;
+
+    @Schema(description = "执行时长 P90（毫秒，统计时间跨度超过 1 天时为空）")
+    private Long p90Time;
+
+    @Schema(description = "执行时长 P99（毫秒，统计时间跨度超过 1 天时为空）")
+    private Long p99Time;
+}
@@ -33,4 +33,7 @@ public class MenuPermissionVO {
 
     @Schema(description = "角色ID（用于批量查询时的分组）")
     private Long roleId;
+
+    @Schema(description = "角色标识（用于批量查询时的分组）")
+    private String roleLabel;
 }
@@ -0,0 +1,41 @@
+package com.ez.admin.modules.system.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * 部门闭包表
+ * <p>
+ * 每个部门与其自身及所有祖先部门各有一行（自身 depth = 0），主键为 (ancestor_id, descendant_id)
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Getter
+@Setter
+@ToString
+@TableName("ez_admin_sys_dept_closure")
+@Schema(name = "SysDeptClosure", description = "部门闭包表")
+public class SysDeptClosure implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableField("ancestor_id")
+    @Schema(description = "祖先部门ID")
+    private Long ancestorId;
+
+    @TableField("descendant_id")
+    @Schema(description = "后代部门ID")
+    private Long descendantId;
+
+    @TableField("depth")
+    @Schema(description = "层级距离（自身为 0）")
+    private Integer depth;
+}
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,6 +13,7 @@ import lombok.ToString;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 /**
  * 操作日志表
@@ -83,4 +85,12 @@ public class SysOperationLog implements Serializable {
     @Schema(description = "创建时间")
     @TableField(value = "create_time", fill = FieldFill.INSERT)
     private LocalDateTime createTime;
+
+    /**
+     * 延迟序列化的请求参数（@OperationLog(lazyParams = true)），由日志写入线程在落库前转为 requestParams
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @TableField(exist = false)
+    private transient Supplier<String> deferredRequestParams;
 }
@@ -0,0 +1,74 @@
+package com.ez.admin.modules.system.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志统计表（按分钟汇总）
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Getter
+@Setter
+@ToString
+@TableName("ez_admin_sys_operation_log_stat")
+@Schema(name = "SysOperationLogStat", description = "操作日志统计表")
+public class SysOperationLogStat implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "统计ID")
+    @TableId(value = "stat_id", type = IdType.ASSIGN_ID)
+    private Long statId;
+
+    @TableField("stat_time")
+    @Schema(description = "统计分钟（整分钟起始时间）")
+    private LocalDateTime statTime;
+
+    @TableField("module")
+    @Schema(description = "模块名称")
+    private String module;
+
+    @TableField("operation")
+    @Schema(description = "操作类型")
+    private String operation;
+
+    @TableField("user_id")
+    @Schema(description = "操作用户ID")
+    private Long userId;
+
+    @TableField("username")
+    @Schema(description = "操作用户名")
+    private String username;
+
+    @TableField("request_count")
+    @Schema(description = "请求次数")
+    private Long requestCount;
+
+    @TableField("error_count")
+    @Schema(description = "失败次数")
+    private Long errorCount;
+
+    @TableField("total_time")
+    @Schema(description = "总执行时长（毫秒）")
+    private Long totalTime;
+
+    @TableField("max_time")
+    @Schema(description = "最大执行时长（毫秒）")
+    private Long maxTime;
+
+    @ToString.Exclude
+    @TableField("latency_histogram")
+    @Schema(description = "执行时长分布（HdrHistogram 压缩编码）")
+    private byte[] latencyHistogram;
+}
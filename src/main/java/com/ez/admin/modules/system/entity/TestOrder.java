@@ -2,6 +2,7 @@ package com.ez.admin.modules.system.entity;
 
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.ez.admin.common.model.annotation.DataScope;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -19,6 +20,7 @@ import java.time.LocalDateTime;
  */
 @Data
 @TableName("ez_admin_test_order")
+@DataScope(creatorColumn = "created_by")
 @Schema(description = "测试订单实体")
 public class TestOrder {
 
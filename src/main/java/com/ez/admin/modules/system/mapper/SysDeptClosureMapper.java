@@ -0,0 +1,70 @@
+package com.ez.admin.modules.system.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ez.admin.modules.system.entity.SysDeptClosure;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 部门闭包表 Mapper 接口
+ * <p>
+ * 由 DeptService 在部门新增、移动、删除时同步维护，供「本部门及以下」数据权限按索引关联查询
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Mapper
+public interface SysDeptClosureMapper extends BaseMapper<SysDeptClosure> {
+
+    /**
+     * 为新部门写入闭包关系：自身（depth = 0）及父部门的全部祖先（depth + 1）
+     *
+     * @param deptId   新部门ID
+     * @param parentId 父部门ID，顶级部门为 0
+     * @return 插入行数
+     */
+    int insertNode(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
+
+    /**
+     * 断开子树与原祖先的关系（子树内部的关系保留）
+     *
+     * @param deptId 子树根部门ID
+     * @return 删除行数
+     */
+    int detachSubtree(@Param("deptId") Long deptId);
+
+    /**
+     * 把子树挂到新父部门下：新父部门的每个祖先（含自身）与子树中的每个部门建立关系
+     *
+     * @param deptId   子树根部门ID
+     * @param parentId 新父部门ID，移到顶级时为 0（不产生新关系）
+     * @return 插入行数
+     */
+    int attachSubtree(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
+
+    /**
+     * 判断 descendantId 是否为 ancestorId 本身或其后代
+     *
+     * @param ancestorId   祖先部门ID
+     * @param descendantId 后代部门ID
+     * @return 是否为后代
+     */
+    default boolean isDescendant(Long ancestorId, Long descendantId) {
+        return this.exists(new LambdaQueryWrapper<SysDeptClosure>()
+                .eq(SysDeptClosure::getAncestorId, ancestorId)
+                .eq(SysDeptClosure::getDescendantId, descendantId));
+    }
+
+    /**
+     * 删除部门的全部闭包关系（只用于没有子部门的部门）
+     *
+     * @param deptId 部门ID
+     * @return 删除行数
+     */
+    default int deleteByDescendant(Long deptId) {
+        return this.delete(new LambdaQueryWrapper<SysDeptClosure>()
+                .eq(SysDeptClosure::getDescendantId, deptId));
+    }
+}
@@ -1,15 +1,21 @@
 package com.ez.admin.modules.system.mapper;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.ez.admin.common.data.metadata.condition.QueryConditionSupport;
+import com.ez.admin.common.framework.oplog.OperationLogPartition;
 import com.ez.admin.common.core.constant.SystemConstants;
 import com.ez.admin.common.model.model.PageQuery;
 import com.ez.admin.modules.system.entity.SysOperationLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 操作日志表 Mapper 接口
@@ -31,11 +37,13 @@ public interface SysOperationLogMapper extends BaseMapper<SysOperationLog> {
         LambdaQueryWrapper<SysOperationLog> wrapper = new LambdaQueryWrapper<>();
 
         if (query != null) {
-            // 快捷模糊搜索：搜索用户名、模块、操作描述
-            if (query.getKeyword() != null && !query.getKeyword().isEmpty()) {
-                wrapper.like(SysOperationLog::getUsername, query.getKeyword())
-                        .or().like(SysOperationLog::getModule, query.getKeyword())
-                        .or().like(SysOperationLog::getDescription, query.getKeyword());
+            // 快捷模糊搜索：搜索用户名、模块、操作描述（三列均有 pg_trgm GIN 索引，OR 条件走 BitmapOr）
+            // OR 条件整体加括号，避免与高级查询条件的 AND 优先级混淆
+            if (query.getKeyword() != null && !query.getKeyword().isBlank()) {
+                String keyword = query.getKeyword().trim();
+                wrapper.and(w -> w.like(SysOperationLog::getUsername, keyword)
+                        .or().like(SysOperationLog::getModule, keyword)
+                        .or().like(SysOperationLog::getDescription, keyword));
             }
 
             // 高级查询：动态应用 conditions
@@ -50,6 +58,111 @@ public interface SysOperationLogMapper extends BaseMapper<SysOperationLog> {
         return this.selectPage(page, wrapper);
     }
 
+    /**
+     * 游标（Keyset）分页查询操作日志
+     * <p>
+     * 按 (create_time, log_id) 倒序，只取游标之后的 limit 条，不做 OFFSET 和 COUNT；
+     * 依赖 (create_time, log_id) 复合索引
+     * </p>
+     *
+     * @param wrapper          筛选条件（不含排序）
+     * @param cursorCreateTime 上一页最后一条的创建时间，首页为 null
+     * @param cursorLogId      上一页最后一条的日志ID，首页为 null
+     * @param limit            查询条数
+     * @return 日志列表
+     */
+    default List<SysOperationLog> selectLogsBeforeCursor(LambdaQueryWrapper<SysOperationLog> wrapper,
+                                                         LocalDateTime cursorCreateTime, Long cursorLogId, int limit) {
+        if (cursorCreateTime != null && cursorLogId != null) {
+            wrapper.apply("(create_time, log_id) < ({0}, {1})", cursorCreateTime, cursorLogId);
+        }
+        wrapper.orderByDesc(SysOperationLog::getCreateTime, SysOperationLog::getLogId)
+                .last("LIMIT " + limit);
+        return this.selectList(wrapper);
+    }
+
+    /**
+     * 流式查询操作日志（导出用）
+     * <p>
+     * 结果集通过服务端游标分批读取（fetchSize=1000），必须在事务中调用并在使用后关闭游标，
+     * 否则 PostgreSQL 驱动会一次性读取全部结果
+     * </p>
+     *
+     * @param wrapper 筛选及排序条件
+     * @return 日志游标
+     */
+    Cursor<SysOperationLog> selectLogCursor(@Param(Constants.WRAPPER) Wrapper<SysOperationLog> wrapper);
+
+    /**
+     * 指定时间之后最早一条操作日志的创建时间（按 create_time 索引取最小值，用于跳过没有日志的日期）
+     *
+     * @param from 起始时间（含），为 null 时不限
+     * @return 创建时间，没有日志时返回 null
+     */
+    LocalDateTime selectMinCreateTime(@Param("from") LocalDateTime from);
+
+    /**
+     * 删除时间范围内的操作日志（归档后清理）
+     *
+     * @param from 开始时间（含）
+     * @param to   结束时间（不含）
+     * @return 删除条数
+     */
+    default int deleteByTimeRange(LocalDateTime from, LocalDateTime to) {
+        return this.delete(new LambdaQueryWrapper<SysOperationLog>()
+                .ge(SysOperationLog::getCreateTime, from)
+                .lt(SysOperationLog::getCreateTime, to));
+    }
+
+    // ============================= 分区管理（PostgreSQL） =============================
+
+    /**
+     * 操作日志表是否为分区表
+     *
+     * @return 是否已分区
+     */
+    boolean isPartitioned();
+
+    /**
+     * 查询操作日志表的全部分区
+     *
+     * @return 分区列表
+     */
+    List<OperationLogPartition> selectPartitions();
+
+    /**
+     * 创建范围分区（已存在则跳过）
+     *
+     * @param partitionName 分区表名
+     * @param from          下界（含），格式 yyyy-MM-dd HH:mm:ss
+     * @param to            上界（不含），格式 yyyy-MM-dd HH:mm:ss
+     */
+    void createPartition(@Param("partitionName") String partitionName,
+                         @Param("from") String from,
+                         @Param("to") String to);
+
+    /**
+     * 从主表分离分区
+     *
+     * @param partitionName 分区表名
+     */
+    void detachPartition(@Param("partitionName") String partitionName);
+
+    /**
+     * 删除已分离的分区表
+     *
+     * @param partitionName 分区表名
+     */
+    void dropPartition(@Param("partitionName") String partitionName);
+
+    /**
+     * 删除默认分区中指定时间之前的日志
+     *
+     * @param before 时间
+     * @return 删除条数
+     */
+    int deleteDefaultPartitionBefore(@Param("before") LocalDateTime before);
+
     /**
      * 清理指定天数之前的日志
      *
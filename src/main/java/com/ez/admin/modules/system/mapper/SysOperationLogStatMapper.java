@@ -0,0 +1,68 @@
+package com.ez.admin.modules.system.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ez.admin.modules.system.entity.SysOperationLogStat;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志统计表 Mapper 接口
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Mapper
+public interface SysOperationLogStatMapper extends BaseMapper<SysOperationLogStat> {
+
+    /**
+     * 批量插入统计数据（单条多行 INSERT，统计ID需调用方提前设置）
+     *
+     * @param stats 统计数据
+     * @return 插入条数
+     */
+    int insertBatch(@Param("stats") List<SysOperationLogStat> stats);
+
+    /**
+     * 按维度汇总时间范围内的请求次数、失败次数与执行时长（不含时长分布）
+     *
+     * @param startTime 开始时间（含）
+     * @param endTime   结束时间（不含）
+     * @param module    模块名称，为空时不限
+     * @param dimension 统计维度：module / endpoint / user
+     * @return 每个维度一行
+     */
+    List<SysOperationLogStat> selectAggregates(@Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime,
+                                               @Param("module") String module,
+                                               @Param("dimension") String dimension);
+
+    /**
+     * 查询时间范围内的统计数据
+     *
+     * @param startTime 开始时间（含）
+     * @param endTime   结束时间（不含）
+     * @param module    模块名称，为空时不限
+     * @return 统计数据
+     */
+    default List<SysOperationLogStat> selectByTimeRange(LocalDateTime startTime, LocalDateTime endTime, String module) {
+        return this.selectList(new LambdaQueryWrapper<SysOperationLogStat>()
+                .ge(SysOperationLogStat::getStatTime, startTime)
+                .lt(SysOperationLogStat::getStatTime, endTime)
+                .eq(module != null && !module.isBlank(), SysOperationLogStat::getModule, module));
+    }
+
+    /**
+     * 删除指定时间之前的统计数据
+     *
+     * @param before 截止时间
+     * @return 删除条数
+     */
+    default int deleteBefore(LocalDateTime before) {
+        return this.delete(new LambdaQueryWrapper<SysOperationLogStat>()
+                .lt(SysOperationLogStat::getStatTime, before));
+    }
+}
@@ -10,6 +10,7 @@ import com.ez.admin.modules.system.entity.SysRole;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -144,4 +145,15 @@ public interface SysRoleMapper extends BaseMapper<SysRole> {
      * @return 菜单权限列表
      */
     List<com.ez.admin.dto.menu.vo.MenuPermissionVO> selectMenuPermissionsByRoleLabel(@Param("roleLabel") String roleLabel);
+
+    /**
+     * 根据角色标识列表批量查询菜单权限列表
+     * <p>
+     * 用于权限缓存批量回源，一次查询加载所有未命中角色的菜单权限，结果按 roleLabel 分组
+     * </p>
+     *
+     * @param roleLabels 角色标识列表
+     * @return 菜单权限列表（含 roleLabel）
+     */
+    List<com.ez.admin.dto.menu.vo.MenuPermissionVO> selectMenuPermissionsByRoleLabels(@Param("roleLabels") Collection<String> roleLabels);
 }
@@ -8,6 +8,10 @@ import com.ez.admin.common.core.constant.SystemConstants;
 import com.ez.admin.common.model.model.PageQuery;
 import com.ez.admin.modules.system.entity.SysUser;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>
@@ -109,4 +113,22 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
     default Page<SysUser> selectUserPage(Page<SysUser> page, PageQuery query) {
         return MapperHelper.selectPage(this, page, query, SysUser.class);
     }
+
+    /**
+     * 查询指定部门下的用户ID（含已逻辑删除的用户，与数据权限子查询口径一致）
+     *
+     * @param deptIds 部门ID列表
+     * @param limit   最多返回条数
+     * @return 用户ID列表（升序）
+     */
+    List<Long> selectUserIdsByDeptIds(@Param("deptIds") Collection<Long> deptIds, @Param("limit") int limit);
+
+    /**
+     * 查询指定部门及其全部子部门下的用户ID（按部门闭包表关联，含已逻辑删除的用户）
+     *
+     * @param deptId 部门ID
+     * @param limit  最多返回条数
+     * @return 用户ID列表（升序）
+     */
+    List<Long> selectUserIdsInDeptTree(@Param("deptId") Long deptId, @Param("limit") int limit);
 }
@@ -6,6 +6,7 @@ import com.ez.admin.common.core.exception.EzBusinessException;
 import com.ez.admin.common.framework.datascope.DataScopeContext;
 import com.ez.admin.common.framework.datascope.DataScopeInfo;
 import com.ez.admin.common.framework.datascope.DataScopeService;
+import com.ez.admin.common.framework.datascope.DataScopeSessionCache;
 import com.ez.admin.dto.auth.req.LoginReq;
 import com.ez.admin.dto.auth.vo.LoginVO;
 import com.ez.admin.modules.system.entity.SysUser;
@@ -29,6 +30,7 @@ public class AuthService {
 
     private final SysUserMapper userMapper;
     private final DataScopeService dataScopeService;
+    private final DataScopeSessionCache dataScopeSessionCache;
 
     /**
      * 密码编码器（用于验证密码）
@@ -67,7 +69,7 @@ public class AuthService {
         DataScopeInfo dataScopeInfo = dataScopeService.getDataScopeInfo(user);
 
         // 7. 将数据权限信息存入 Sa-Token Session，供后续请求使用
-        StpUtil.getSession().set("dataScopeInfo", dataScopeInfo);
+        dataScopeSessionCache.store(StpUtil.getSession(), dataScopeInfo);
         log.info("用户 {} 数据权限信息已存入 Session：{}", user.getUsername(), dataScopeInfo);
 
         // 8. 设置到当前请求的上下文中
@@ -91,7 +93,12 @@ public class AuthService {
      * 用户登出
      */
     public void logout() {
+        Object loginId = StpUtil.getLoginIdDefaultNull();
         StpUtil.logout();
+        // 失效数据权限本地快照
+        if (loginId != null) {
+            dataScopeSessionCache.evictUser(loginId);
+        }
         log.info("用户登出成功");
     }
 }
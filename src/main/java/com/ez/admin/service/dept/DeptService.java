@@ -4,12 +4,14 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.ez.admin.common.core.exception.ErrorCode;
 import com.ez.admin.common.core.exception.EzBusinessException;
 import com.ez.admin.common.data.mapstruct.DeptConverter;
+import com.ez.admin.common.framework.datascope.DataScopeCreatorCache;
 import com.ez.admin.common.data.tree.TreeBuilder;
 import com.ez.admin.dto.dept.req.DeptCreateReq;
 import com.ez.admin.dto.dept.req.DeptUpdateReq;
 import com.ez.admin.dto.dept.vo.DeptDetailVO;
 import com.ez.admin.modules.system.entity.SysDept;
 import com.ez.admin.modules.system.entity.SysUser;
+import com.ez.admin.modules.system.mapper.SysDeptClosureMapper;
 import com.ez.admin.modules.system.mapper.SysDeptMapper;
 import com.ez.admin.modules.system.mapper.SysUserMapper;
 import com.ez.admin.modules.system.service.SysDeptService;
@@ -25,6 +27,10 @@ import java.util.List;
  * <p>
  * 业务聚合层，组合原子服务实现部门管理的复杂业务逻辑
  * </p>
+ * <p>
+ * 新增、移动、删除部门时在同一事务内维护部门闭包表（ez_admin_sys_dept_closure），
+ * 「本部门及以下」数据权限据此按索引关联查询，不再依赖祖级路径 LIKE 匹配
+ * </p>
  *
  * @author ez-admin
  * @since 2026-01-26
@@ -35,6 +41,8 @@ import java.util.List;
 public class DeptService {
 
     private final SysDeptMapper deptMapper;
+    private final SysDeptClosureMapper deptClosureMapper;
+    private final DataScopeCreatorCache dataScopeCreatorCache;
     private final SysUserMapper userMapper;
     private final SysDeptService sysDeptService;
     private final DeptConverter deptConverter;
@@ -61,6 +69,9 @@ public class DeptService {
         SysDept dept = buildDept(request, ancestors);
         deptMapper.insert(dept);
 
+        // 4. 写入闭包关系
+        deptClosureMapper.insertNode(dept.getDeptId(), normalizeParentId(request.getParentId()));
+
         log.info("创建部门成功，部门名称：{}", request.getDeptName());
     }
 
@@ -88,6 +99,11 @@ public class DeptService {
             if (parentDept == null) {
                 throw new EzBusinessException(ErrorCode.DEPT_NOT_FOUND);
             }
+
+            // 不能移动到自己的子部门下（会形成环）
+            if (deptClosureMapper.isDescendant(request.getDeptId(), request.getParentId())) {
+                throw new EzBusinessException(ErrorCode.BAD_REQUEST, "不能将部门移动到其子部门下");
+            }
         }
 
         // 3. 更新部门信息
@@ -107,6 +123,13 @@ public class DeptService {
 
         deptMapper.updateById(dept);
 
+        // 4. 父部门变化时，把整棵子树从原祖先下摘除，再挂到新父部门下
+        if (request.getParentId() != null && !existDept.getParentId().equals(request.getParentId())) {
+            deptClosureMapper.detachSubtree(request.getDeptId());
+            deptClosureMapper.attachSubtree(request.getDeptId(), normalizeParentId(request.getParentId()));
+            dataScopeCreatorCache.invalidateAll();
+        }
+
         log.info("更新部门成功，部门ID：{}", request.getDeptId());
     }
 
@@ -137,8 +160,9 @@ public class DeptService {
             throw new EzBusinessException(ErrorCode.DEPT_HAS_USERS);
         }
 
-        // 4. 逻辑删除部门
+        // 4. 逻辑删除部门，并删除其闭包关系（已确认没有子部门）
         sysDeptService.removeById(deptId);
+        deptClosureMapper.deleteByDescendant(deptId);
 
         log.info("删除部门成功，部门ID：{}", deptId);
     }
@@ -237,6 +261,13 @@ public class DeptService {
         return parentDept.getAncestors() + "," + parentId;
     }
 
+    /**
+     * 父部门ID为空时视为顶级部门（0）
+     */
+    private static Long normalizeParentId(Long parentId) {
+        return parentId == null ? 0L : parentId;
+    }
+
     /**
      * 构建部门实体
      */
@@ -0,0 +1,55 @@
+package com.ez.admin.service.log;
+
+import com.ez.admin.common.core.exception.ErrorCode;
+import com.ez.admin.common.core.exception.EzBusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 操作日志游标（按 create_time DESC, log_id DESC 排序的最后一条记录）
+ * <p>
+ * 对外以不透明字符串传递（Base64URL 编码），前端只需原样回传，不应解析其内容
+ * </p>
+ *
+ * @param createTime 最后一条记录的创建时间
+ * @param logId      最后一条记录的日志ID
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+public record OperationLogCursor(LocalDateTime createTime, Long logId) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 编码为不透明游标
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = VERSION + SEPARATOR + createTime + SEPARATOR + logId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标
+     * @throws EzBusinessException 游标格式错误时抛出
+     */
+    public static OperationLogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new OperationLogCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new EzBusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "分页游标无效，请从第一页重新查询");
+        }
+    }
+}
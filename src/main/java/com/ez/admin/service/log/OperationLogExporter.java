@@ -0,0 +1,193 @@
+package com.ez.admin.service.log;
+
+import com.ez.admin.common.core.exception.ErrorCode;
+import com.ez.admin.common.core.exception.EzBusinessException;
+import com.ez.admin.common.infrastructure.web.config.JacksonConfig;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * 操作日志导出写出器
+ * <p>
+ * 逐行把日志写到输出流，不在内存中累积，配合 MyBatis Cursor 使用时内存占用与导出行数无关：
+ * <ul>
+ *   <li>CSV：首行为表头，字符串一律加引号，NULL 输出为空，时间格式 yyyy-MM-dd HH:mm:ss；
+ *       以 = + - @ 或制表符、回车开头的字符串加单引号前缀，防止在表格软件中被当作公式执行</li>
+ *   <li>NDJSON：每行一个 JSON 对象，序列化规则与接口返回一致（Long 转字符串、统一时间格式）</li>
+ * </ul>
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Component
+@RequiredArgsConstructor
+public class OperationLogExporter {
+
+    private static final String CSV_HEADER = "日志ID,模块名称,操作类型,操作描述,操作用户ID,操作用户名,请求方法,请求URL,"
+            + "请求IP,请求参数,执行时长（毫秒）,操作状态,错误信息,创建时间";
+
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern(JacksonConfig.DATETIME_FORMAT);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 写出日志
+     *
+     * @param logs   日志（通常为 MyBatis Cursor）
+     * @param format 导出格式
+     * @param out    输出流（不会被关闭）
+     * @return 写出行数
+     */
+    public long write(Iterable<SysOperationLog> logs, Format format, OutputStream out) throws IOException {
+        return format == Format.CSV ? writeCsv(logs, out) : writeNdjson(logs, out);
+    }
+
+    private long writeCsv(Iterable<SysOperationLog> logs, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        for (SysOperationLog logEntity : logs) {
+            writeValue(writer, logEntity.getLogId());
+            writer.write(',');
+            writeText(writer, logEntity.getModule());
+            writer.write(',');
+            writeText(writer, logEntity.getOperation());
+            writer.write(',');
+            writeText(writer, logEntity.getDescription());
+            writer.write(',');
+            writeValue(writer, logEntity.getUserId());
+            writer.write(',');
+            writeText(writer, logEntity.getUsername());
+            writer.write(',');
+            writeText(writer, logEntity.getRequestMethod());
+            writer.write(',');
+            writeText(writer, logEntity.getRequestUrl());
+            writer.write(',');
+            writeText(writer, logEntity.getRequestIp());
+            writer.write(',');
+            writeText(writer, logEntity.getRequestParams());
+            writer.write(',');
+            writeValue(writer, logEntity.getExecuteTime());
+            writer.write(',');
+            writeValue(writer, logEntity.getStatus());
+            writer.write(',');
+            writeText(writer, logEntity.getErrorMsg());
+            writer.write(',');
+            writeTime(writer, logEntity.getCreateTime());
+            writer.write('\n');
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(Iterable<SysOperationLog> logs, OutputStream out) throws IOException {
+        long rows = 0;
+        try (SequenceWriter sequenceWriter = objectMapper.writerFor(SysOperationLog.class)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            for (SysOperationLog logEntity : logs) {
+                sequenceWriter.write(logEntity);
+                rows++;
+            }
+        }
+        if (rows > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return rows;
+    }
+
+    private static void writeValue(Writer writer, Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeTime(Writer writer, LocalDateTime value) throws IOException {
+        if (value != null) {
+            DATETIME_FORMATTER.formatTo(value, writer);
+        }
+    }
+
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        if (!value.isEmpty() && isFormulaPrefix(value.charAt(0))) {
+            // 防止 CSV 公式注入：以公式字符开头的单元格加单引号前缀，表格软件按文本显示
+            writer.write('\'');
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writer.write(value, start, i + 1 - start);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    private static boolean isFormulaPrefix(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * 导出格式
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+
+        CSV("csv", "text/csv;charset=UTF-8"),
+        NDJSON("ndjson", "application/x-ndjson;charset=UTF-8");
+
+        /**
+         * 文件扩展名
+         */
+        private final String extension;
+
+        /**
+         * 响应内容类型
+         */
+        private final String contentType;
+
+        /**
+         * 解析导出格式（不区分大小写）
+         *
+         * @param value 格式名称：csv / ndjson
+         * @return 导出格式
+         */
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equals(value == null ? null : value.trim().toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            throw new EzBusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "不支持的导出格式：" + value + "，可选 csv / ndjson");
+        }
+    }
+}
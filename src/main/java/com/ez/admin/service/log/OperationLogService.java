@@ -2,7 +2,11 @@ package com.ez.admin.service.log;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ez.admin.common.core.exception.ErrorCode;
+import com.ez.admin.common.core.exception.EzBusinessException;
 import com.ez.admin.common.data.mapstruct.OperationLogConverter;
+import com.ez.admin.common.framework.oplog.OperationLogArchiver;
+import com.ez.admin.common.framework.oplog.OperationLogPartitionManager;
 import com.ez.admin.common.model.model.PageQuery;
 import com.ez.admin.common.model.model.PageVO;
 import com.ez.admin.dto.log.req.OperationLogQueryReq;
@@ -11,10 +15,17 @@ import com.ez.admin.modules.system.entity.SysOperationLog;
 import com.ez.admin.modules.system.mapper.SysOperationLogMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 操作日志服务
@@ -27,8 +38,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OperationLogService {
 
+    /**
+     * 归档日志页码分页允许跳过的最大条数（跳过的行也要解压扫描）
+     */
+    private static final long MAX_ARCHIVE_OFFSET = 10_000;
+
     private final SysOperationLogMapper operationLogMapper;
     private final OperationLogConverter operationLogConverter;
+    private final OperationLogPartitionManager partitionManager;
+    private final OperationLogExporter operationLogExporter;
+    private final OperationLogArchiver operationLogArchiver;
 
     /**
      * 分页查询操作日志
@@ -52,12 +71,21 @@ public class OperationLogService {
 
     /**
      * 清理指定天数之前的日志
+     * <p>
+     * 日志表已分区时整体删除过期分区（清理粒度为一个分区，删除条数为估算值），
+     * 未分区时按行删除
+     * </p>
      *
      * @param days 天数
      * @return 删除条数
      */
     public Integer cleanLogs(int days) {
         log.info("开始清理 {} 天之前的操作日志", days);
+        if (partitionManager.isPartitioned()) {
+            int count = partitionManager.dropPartitionsBefore(LocalDateTime.now().minusDays(days));
+            log.info("操作日志分区清理完成，删除条数（估算）：{}", count);
+            return count;
+        }
         Integer count = operationLogMapper.deleteLogsBeforeDays(days);
         log.info("操作日志清理完成，删除条数：{}", count);
         return count;
@@ -65,27 +93,214 @@ public class OperationLogService {
 
     /**
      * 分页查询操作日志（支持条件筛选）
+     * <p>
+     * cursorMode 为 true 时使用游标分页：按 (create_time, log_id) 定位，不统计总数，
+     * 深度翻页耗时与第一页相同；否则使用页码分页（OFFSET + COUNT）
+     * </p>
      *
      * @param request 查询条件
      * @return 分页结果
      */
     public PageVO<OperationLogListVO> getOperationLogPage(OperationLogQueryReq request) {
-        // 构建查询条件
+        if (Boolean.TRUE.equals(request.getCursorMode())) {
+            return getOperationLogCursorPage(request);
+        }
+
+        LambdaQueryWrapper<SysOperationLog> wrapper = buildQueryWrapper(request);
+
+        // 按创建时间倒序排列
+        wrapper.orderByDesc(SysOperationLog::getCreateTime);
+
+        // 分页查询
+        Page<SysOperationLog> page = new Page<>(request.getPageNum(), request.getPageSize());
+        Page<SysOperationLog> logPage = operationLogMapper.selectPage(page, wrapper);
+
+        List<OperationLogListVO> voList = operationLogConverter.toListVOList(logPage.getRecords());
+
+        return PageVO.<OperationLogListVO>builder()
+                .records(voList)
+                .total(logPage.getTotal())
+                .pageNum(logPage.getCurrent())
+                .pageSize(logPage.getSize())
+                .build();
+    }
+
+    /**
+     * 游标分页查询操作日志
+     * <p>
+     * 多查一条用于判断是否还有下一页，有则返回本页最后一条生成的 nextCursor
+     * </p>
+     */
+    private PageVO<OperationLogListVO> getOperationLogCursorPage(OperationLogQueryReq request) {
+        int pageSize = pageSize(request);
+        OperationLogCursor cursor = StringUtils.hasText(request.getCursor())
+                ? OperationLogCursor.decode(request.getCursor())
+                : null;
+
+        List<SysOperationLog> logs = operationLogMapper.selectLogsBeforeCursor(buildQueryWrapper(request),
+                cursor != null ? cursor.createTime() : null,
+                cursor != null ? cursor.logId() : null,
+                pageSize + 1);
+
+        String nextCursor = null;
+        if (logs.size() > pageSize) {
+            logs = logs.subList(0, pageSize);
+            SysOperationLog last = logs.get(pageSize - 1);
+            nextCursor = new OperationLogCursor(last.getCreateTime(), last.getLogId()).encode();
+        }
+
+        return PageVO.<OperationLogListVO>builder()
+                .records(operationLogConverter.toListVOList(logs))
+                .pageSize((long) pageSize)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 校验每页大小（控制器已通过 @Valid 校验，此处兜底未经校验的调用方，避免 pageSize + 1 溢出）
+     */
+    private static int pageSize(OperationLogQueryReq request) {
+        Integer pageSize = request.getPageSize();
+        if (pageSize == null) {
+            return 10;
+        }
+        if (pageSize < 1 || pageSize > OperationLogQueryReq.MAX_PAGE_SIZE) {
+            throw new EzBusinessException(ErrorCode.PARAMETER_OUT_OF_RANGE,
+                    "每页大小必须在 1 到 " + OperationLogQueryReq.MAX_PAGE_SIZE + " 之间");
+        }
+        return pageSize;
+    }
+
+    /**
+     * 查询已归档的操作日志
+     * <p>
+     * 筛选条件与条件查询一致，直接扫描本地归档段文件（按时间范围和用户名跳过无关数据块），不访问数据库；
+     * 按创建时间倒序分页，不统计总数；跳过的行同样需要解压扫描，因此限制最大翻页深度
+     * </p>
+     *
+     * @param request 查询条件
+     * @return 分页结果（total 为空）
+     */
+    public PageVO<OperationLogListVO> getArchivedLogPage(OperationLogQueryReq request) {
+        long pageNum = request.getPageNum() != null && request.getPageNum() > 0 ? request.getPageNum() : 1;
+        int pageSize = pageSize(request);
+        long offset = (pageNum - 1) * pageSize;
+        if (offset > MAX_ARCHIVE_OFFSET) {
+            throw new EzBusinessException(ErrorCode.PARAMETER_OUT_OF_RANGE,
+                    "归档日志最多翻到第 " + MAX_ARCHIVE_OFFSET + " 条，请缩小时间范围");
+        }
+        String username = StringUtils.hasText(request.getUsername()) ? request.getUsername().trim() : null;
+
+        List<SysOperationLog> logs = operationLogArchiver.search(request.getStartTime(), request.getEndTime(),
+                username, buildArchiveFilter(request), offset, pageSize);
+
+        return PageVO.<OperationLogListVO>builder()
+                .records(operationLogConverter.toListVOList(logs))
+                .pageNum(pageNum)
+                .pageSize((long) pageSize)
+                .build();
+    }
+
+    /**
+     * 归档日志的筛选条件（与 {@link #buildQueryWrapper} 语义一致，时间范围由归档检索处理）
+     */
+    private Predicate<SysOperationLog> buildArchiveFilter(OperationLogQueryReq request) {
+        Predicate<SysOperationLog> filter = logEntity -> true;
+        if (StringUtils.hasText(request.getModule())) {
+            String module = request.getModule().trim();
+            filter = filter.and(logEntity -> contains(logEntity.getModule(), module));
+        }
+        if (StringUtils.hasText(request.getOperation())) {
+            String operation = request.getOperation().trim();
+            filter = filter.and(logEntity -> contains(logEntity.getOperation(), operation));
+        }
+        if (StringUtils.hasText(request.getUsername())) {
+            String username = request.getUsername().trim();
+            filter = filter.and(logEntity -> contains(logEntity.getUsername(), username));
+        }
+        if (StringUtils.hasText(request.getRequestMethod())) {
+            String requestMethod = request.getRequestMethod();
+            filter = filter.and(logEntity -> requestMethod.equals(logEntity.getRequestMethod()));
+        }
+        if (request.getStatus() != null) {
+            Integer status = request.getStatus();
+            filter = filter.and(logEntity -> status.equals(logEntity.getStatus()));
+        }
+        if (StringUtils.hasText(request.getKeyword())) {
+            String keyword = request.getKeyword().trim();
+            filter = filter.and(logEntity -> contains(logEntity.getDescription(), keyword)
+                    || contains(logEntity.getRequestUrl(), keyword));
+        }
+        return filter;
+    }
+
+    private static boolean contains(String value, String keyword) {
+        return value != null && value.contains(keyword);
+    }
+
+    /**
+     * 流式导出操作日志
+     * <p>
+     * 筛选条件与条件查询一致（忽略分页参数），按创建时间倒序；
+     * 通过 MyBatis Cursor 边读边写，内存占用与导出行数无关。
+     * 只读事务用于保持服务端游标，导出期间会持有同一个数据库快照
+     * </p>
+     *
+     * @param request 查询条件
+     * @param format  导出格式
+     * @param gzip    是否 gzip 压缩
+     * @param out     输出流（不会被关闭）
+     * @return 导出行数
+     */
+    @Transactional(readOnly = true, rollbackFor = Exception.class)
+    public long exportLogs(OperationLogQueryReq request, OperationLogExporter.Format format, boolean gzip,
+                           OutputStream out) throws IOException {
+        LambdaQueryWrapper<SysOperationLog> wrapper = buildQueryWrapper(request);
+        wrapper.orderByDesc(SysOperationLog::getCreateTime, SysOperationLog::getLogId);
+
+        long startTime = System.currentTimeMillis();
+        long rows;
+        try (Cursor<SysOperationLog> cursor = operationLogMapper.selectLogCursor(wrapper)) {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                rows = operationLogExporter.write(cursor, format, gzipOut);
+                gzipOut.finish();
+            } else {
+                rows = operationLogExporter.write(cursor, format, out);
+            }
+        }
+        out.flush();
+        log.info("导出操作日志完成：{} 条，格式 {}，gzip={}，耗时 {} ms",
+                rows, format.getExtension(), gzip, System.currentTimeMillis() - startTime);
+        return rows;
+    }
+
+    /**
+     * 构建操作日志筛选条件（不含排序）
+     * <p>
+     * 模糊条件统一为 {@code LIKE '%关键词%'}（关键词去除首尾空白），由 pg_trgm GIN 索引支持，
+     * 不要改写为 lower()/concat() 等表达式，否则无法命中索引
+     * </p>
+     *
+     * @param request 查询条件
+     * @return 查询条件
+     */
+    private LambdaQueryWrapper<SysOperationLog> buildQueryWrapper(OperationLogQueryReq request) {
         LambdaQueryWrapper<SysOperationLog> wrapper = new LambdaQueryWrapper<>();
 
         // 模块筛选
         if (StringUtils.hasText(request.getModule())) {
-            wrapper.like(SysOperationLog::getModule, request.getModule());
+            wrapper.like(SysOperationLog::getModule, request.getModule().trim());
         }
 
         // 操作类型筛选
         if (StringUtils.hasText(request.getOperation())) {
-            wrapper.like(SysOperationLog::getOperation, request.getOperation());
+            wrapper.like(SysOperationLog::getOperation, request.getOperation().trim());
         }
 
         // 用户名筛选
         if (StringUtils.hasText(request.getUsername())) {
-            wrapper.like(SysOperationLog::getUsername, request.getUsername());
+            wrapper.like(SysOperationLog::getUsername, request.getUsername().trim());
         }
 
         // 请求方法筛选
@@ -108,25 +323,12 @@ public class OperationLogService {
 
         // 关键词筛选（操作描述或请求URL）
         if (StringUtils.hasText(request.getKeyword())) {
-            wrapper.and(w -> w.like(SysOperationLog::getDescription, request.getKeyword())
+            String keyword = request.getKeyword().trim();
+            wrapper.and(w -> w.like(SysOperationLog::getDescription, keyword)
                     .or()
-                    .like(SysOperationLog::getRequestUrl, request.getKeyword()));
+                    .like(SysOperationLog::getRequestUrl, keyword));
         }
 
-        // 按创建时间倒序排列
-        wrapper.orderByDesc(SysOperationLog::getCreateTime);
-
-        // 分页查询
-        Page<SysOperationLog> page = new Page<>(request.getPageNum(), request.getPageSize());
-        Page<SysOperationLog> logPage = operationLogMapper.selectPage(page, wrapper);
-
-        List<OperationLogListVO> voList = operationLogConverter.toListVOList(logPage.getRecords());
-
-        return PageVO.<OperationLogListVO>builder()
-                .records(voList)
-                .total(logPage.getTotal())
-                .pageNum(logPage.getCurrent())
-                .pageSize(logPage.getSize())
-                .build();
+        return wrapper;
     }
 }
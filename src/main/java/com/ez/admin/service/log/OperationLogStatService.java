@@ -0,0 +1,183 @@
+package com.ez.admin.service.log;
+
+import com.ez.admin.common.core.exception.ErrorCode;
+import com.ez.admin.common.core.exception.EzBusinessException;
+import com.ez.admin.common.framework.oplog.OperationLogStatsCollector;
+import com.ez.admin.dto.log.req.OperationLogStatQueryReq;
+import com.ez.admin.dto.log.vo.OperationLogStatVO;
+import com.ez.admin.modules.system.entity.SysOperationLogStat;
+import com.ez.admin.modules.system.mapper.SysOperationLogStatMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 操作日志统计服务
+ * <p>
+ * 请求次数、失败次数、执行时长由统计表按维度在数据库中汇总（加上内存中尚未写入的最近一分钟），
+ * 不扫描操作日志原表；时长分布需要逐分钟解码合并，只对排名靠前的维度、且时间跨度不超过 1 天时计算分位数
+ * </p>
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OperationLogStatService {
+
+    /**
+     * 单次统计的最大时间跨度
+     */
+    private static final Duration MAX_RANGE = Duration.ofDays(31);
+
+    /**
+     * 计算时长分位数的最大时间跨度（每个维度每分钟一份分布，跨度越大需要解码合并的越多）
+     */
+    private static final Duration MAX_HISTOGRAM_RANGE = Duration.ofDays(1);
+
+    private final SysOperationLogStatMapper statMapper;
+    private final OperationLogStatsCollector statsCollector;
+
+    /**
+     * 按维度统计请求次数、失败次数与执行时长分位数
+     *
+     * @param request 查询条件
+     * @return 按请求次数倒序的统计结果（时间跨度超过 1 天时不返回分位数）
+     */
+    public List<OperationLogStatVO> getStats(OperationLogStatQueryReq request) {
+        LocalDateTime endTime = request.getEndTime() != null ? request.getEndTime() : LocalDateTime.now();
+        LocalDateTime startTime = request.getStartTime() != null ? request.getStartTime() : endTime.minusHours(1);
+        if (!startTime.isBefore(endTime)) {
+            throw new EzBusinessException(ErrorCode.PARAMETER_OUT_OF_RANGE, "开始时间必须早于结束时间");
+        }
+        if (Duration.between(startTime, endTime).compareTo(MAX_RANGE) > 0) {
+            throw new EzBusinessException(ErrorCode.PARAMETER_OUT_OF_RANGE, "统计时间范围不能超过 31 天");
+        }
+
+        String dimension = request.getDimension() != null ? request.getDimension() : "endpoint";
+        List<SysOperationLogStat> recent = statsCollector.snapshot(startTime, endTime).stream()
+                .filter(stat -> !StringUtils.hasText(request.getModule()) || request.getModule().equals(stat.getModule()))
+                .toList();
+
+        Map<List<Object>, Aggregate> aggregates = new HashMap<>();
+        for (SysOperationLogStat stat : statMapper.selectAggregates(startTime, endTime, request.getModule(), dimension)) {
+            aggregates.computeIfAbsent(groupKey(dimension, stat), key -> new Aggregate(dimension, stat)).add(stat);
+        }
+        for (SysOperationLogStat stat : recent) {
+            aggregates.computeIfAbsent(groupKey(dimension, stat), key -> new Aggregate(dimension, stat)).add(stat);
+        }
+
+        int limit = request.getLimit() != null ? request.getLimit() : 20;
+        Map<List<Object>, Aggregate> top = new LinkedHashMap<>();
+        aggregates.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<List<Object>, Aggregate> entry) -> entry.getValue().requestCount)
+                        .reversed())
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+
+        if (Duration.between(startTime, endTime).compareTo(MAX_HISTOGRAM_RANGE) <= 0) {
+            mergeHistograms(dimension, top, statMapper.selectByTimeRange(startTime, endTime, request.getModule()));
+            mergeHistograms(dimension, top, recent);
+        }
+        return top.values().stream().map(Aggregate::toVO).toList();
+    }
+
+    /**
+     * 只解码排名靠前维度的时长分布
+     */
+    private static void mergeHistograms(String dimension, Map<List<Object>, Aggregate> top, List<SysOperationLogStat> stats) {
+        for (SysOperationLogStat stat : stats) {
+            Aggregate aggregate = top.get(groupKey(dimension, stat));
+            if (aggregate != null) {
+                aggregate.addHistogram(stat);
+            }
+        }
+    }
+
+    private static List<Object> groupKey(String dimension, SysOperationLogStat stat) {
+        return switch (dimension) {
+            case "module" -> List.of(Objects.toString(stat.getModule(), ""));
+            case "user" -> List.of(Objects.requireNonNullElse(stat.getUserId(), -1L), Objects.toString(stat.getUsername(), ""));
+            default -> List.of(Objects.toString(stat.getModule(), ""), Objects.toString(stat.getOperation(), ""));
+        };
+    }
+
+    /**
+     * 单个维度的合并结果
+     */
+    private static final class Aggregate {
+
+        private final String module;
+        private final String operation;
+        private final Long userId;
+        private final String username;
+        private final Histogram histogram = OperationLogStatsCollector.newHistogram();
+        private boolean histogramMerged;
+        private long requestCount;
+        private long errorCount;
+        private long totalTime;
+        private long maxTime;
+
+        Aggregate(String dimension, SysOperationLogStat first) {
+            this.module = "user".equals(dimension) ? null : first.getModule();
+            this.operation = "endpoint".equals(dimension) ? first.getOperation() : null;
+            this.userId = "user".equals(dimension) ? first.getUserId() : null;
+            this.username = "user".equals(dimension) ? first.getUsername() : null;
+        }
+
+        void add(SysOperationLogStat stat) {
+            requestCount += nullToZero(stat.getRequestCount());
+            errorCount += nullToZero(stat.getErrorCount());
+            totalTime += nullToZero(stat.getTotalTime());
+            maxTime = Math.max(maxTime, nullToZero(stat.getMaxTime()));
+        }
+
+        void addHistogram(SysOperationLogStat stat) {
+            histogram.add(OperationLogStatsCollector.decodeHistogram(stat.getLatencyHistogram()));
+            histogramMerged = true;
+        }
+
+        OperationLogStatVO toVO() {
+            boolean empty = histogram.getTotalCount() == 0;
+            return OperationLogStatVO.builder()
+                    .module(module)
+                    .operation(operation)
+                    .userId(userId)
+                    .username(username)
+                    .requestCount(requestCount)
+                    .errorCount(errorCount)
+                    .avgTime(requestCount > 0 ? totalTime / requestCount : 0)
+                    .maxTime(maxTime)
+                    .p50Time(percentile(50, empty))
+                    .p90Time(percentile(90, empty))
+                    .p99Time(percentile(99, empty))
+                    .build();
+        }
+
+        /**
+         * 未合并时长分布时（时间跨度超过 1 天）返回 null
+         */
+        private Long percentile(double percentile, boolean empty) {
+            if (!histogramMerged) {
+                return null;
+            }
+            return empty ? 0 : histogram.getValueAtPercentile(percentile);
+        }
+
+        private static long nullToZero(Long value) {
+            return value != null ? value : 0;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ez.admin.service.permission;
 
+import com.ez.admin.common.framework.permission.PermissionCodeRegistry;
 import com.ez.admin.common.infrastructure.cache.AdminCache;
 import com.ez.admin.dto.menu.vo.MenuPermissionVO;
 import com.ez.admin.dto.system.vo.SuperAdminPermissionSyncVO;
@@ -17,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -43,6 +45,7 @@ import java.util.stream.Collectors;
 public class PermissionService {
 
     private final AdminCache adminCache;
+    private final PermissionCodeRegistry permissionCodes;
     private final SysRoleMapper roleMapper;
     private final SysMenuMapper menuMapper;
     private final SysRoleMenuRelationMapper roleMenuRelationMapper;
@@ -114,7 +117,9 @@ public class PermissionService {
     /**
      * 初始化所有角色的菜单权限缓存
      * <p>
-     * 从数据库加载所有角色的菜单权限，预热到 Redis 缓存
+     * 从数据库加载所有角色的菜单权限，预热到 Redis 缓存。
+     * 先按菜单排序把权限码注册到权限码字典，常用权限码获得较小的ID，
+     * 各角色的权限码字符串也共享字典中的同一实例
      * </p>
      *
      * @return 成功缓存的角色数量
@@ -131,22 +136,38 @@ public class PermissionService {
 
         log.debug("共 {} 个角色需要预加载权限", allRoles.size());
 
+        // 按菜单排序预注册权限码，分配稠密ID
+        for (SysMenu menu : menuMapper.selectAllActiveMenus()) {
+            if (menu.getMenuPerm() != null && !menu.getMenuPerm().isEmpty()) {
+                permissionCodes.register(menu.getMenuPerm());
+            }
+        }
+
         // 2. 批量加载菜单权限
         List<Long> roleIds = allRoles.stream()
                 .map(SysRole::getRoleId)
                 .collect(Collectors.toList());
 
-        Map<Long, List<MenuPermissionVO>> permissionMap = loadMenuPermissionsByRoleIds(roleIds);
+        Map<Long, List<MenuPermissionVO>> permissionMap;
+        try {
+            permissionMap = loadMenuPermissionsByRoleIds(roleIds);
+        } catch (Exception e) {
+            // 查询失败时不写入任何缓存（尤其不能写空值标记），已有缓存保持不变，未命中的角色按需回源
+            log.error("加载角色菜单权限失败，跳过权限缓存初始化：roleIds={}", roleIds, e);
+            return 0;
+        }
 
-        // 3. 写入 Redis 缓存
+        // 3. 批量写入 Redis 缓存（查询成功且无权限的角色写入空值标记），最后统一失效本地快照并广播一次
         int cachedCount = 0;
+        Map<String, List<MenuPermissionVO>> roleMenuPermissions = new HashMap<>(allRoles.size() * 2);
         for (SysRole role : allRoles) {
-            List<MenuPermissionVO> permissions = permissionMap.get(role.getRoleId());
-            if (permissions != null && !permissions.isEmpty()) {
-                adminCache.cacheRoleMenuPermissions(role.getRoleLabel(), permissions);
+            List<MenuPermissionVO> permissions = permissionMap.getOrDefault(role.getRoleId(), List.of());
+            roleMenuPermissions.put(role.getRoleLabel(), permissions);
+            if (!permissions.isEmpty()) {
                 cachedCount++;
             }
         }
+        adminCache.cacheAllRoleMenuPermissions(roleMenuPermissions);
 
         log.info("角色菜单权限缓存初始化完成：成功 {} 个", cachedCount);
         return cachedCount;
@@ -154,6 +175,9 @@ public class PermissionService {
 
     /**
      * 根据角色ID列表批量加载菜单权限
+     * <p>
+     * 查询异常直接抛出，由调用方决定是否保留旧缓存：返回的映射中没有某个角色，只表示该角色确实没有权限
+     * </p>
      *
      * @param roleIds 角色ID列表
      * @return 角色ID -> 菜单权限列表的映射
@@ -163,51 +187,45 @@ public class PermissionService {
             return Map.of();
         }
 
-        try {
-            // 1. 提取菜单ID列表
-            List<Long> menuIds = roleMenuRelationMapper.selectMenuIdsByRoleIds(roleIds);
-            if (menuIds.isEmpty()) {
-                return Map.of();
-            }
-
-            // 2. 查询菜单权限信息
-            List<SysMenu> menus = menuMapper.selectActiveMenusByIds(menuIds);
-            Map<Long, SysMenu> menuMap = menus.stream()
-                    .collect(Collectors.toMap(SysMenu::getMenuId, m -> m));
-
-            // 3. 查询角色-菜单关联关系
-            List<SysRoleMenuRelation> relations = roleMenuRelationMapper.selectList(
-                    new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<SysRoleMenuRelation>()
-                            .in(SysRoleMenuRelation::getRoleId, roleIds)
-            );
-
-            // 4. 构建角色ID -> 权限列表的映射
-            return relations.stream()
-                    .map(relation -> {
-                        SysMenu menu = menuMap.get(relation.getMenuId());
-                        if (menu == null || menu.getMenuPerm() == null || menu.getMenuPerm().isEmpty()) {
-                            return null;
-                        }
-                        return Map.entry(
-                                relation.getRoleId(),
-                                MenuPermissionVO.builder()
-                                        .menuId(menu.getMenuId())
-                                        .menuPerm(menu.getMenuPerm())
-                                        .menuType(menu.getMenuType())
-                                        .roleId(relation.getRoleId())
-                                        .build()
-                        );
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.groupingBy(
-                            Map.Entry::getKey,
-                            Collectors.mapping(Map.Entry::getValue, Collectors.toList())
-                    ));
-
-        } catch (Exception e) {
-            log.error("加载角色菜单权限失败：roleIds={}", roleIds, e);
+        // 1. 提取菜单ID列表
+        List<Long> menuIds = roleMenuRelationMapper.selectMenuIdsByRoleIds(roleIds);
+        if (menuIds.isEmpty()) {
             return Map.of();
         }
+
+        // 2. 查询菜单权限信息
+        List<SysMenu> menus = menuMapper.selectActiveMenusByIds(menuIds);
+        Map<Long, SysMenu> menuMap = menus.stream()
+                .collect(Collectors.toMap(SysMenu::getMenuId, m -> m));
+
+        // 3. 查询角色-菜单关联关系
+        List<SysRoleMenuRelation> relations = roleMenuRelationMapper.selectList(
+                new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<SysRoleMenuRelation>()
+                        .in(SysRoleMenuRelation::getRoleId, roleIds)
+        );
+
+        // 4. 构建角色ID -> 权限列表的映射
+        return relations.stream()
+                .map(relation -> {
+                    SysMenu menu = menuMap.get(relation.getMenuId());
+                    if (menu == null || menu.getMenuPerm() == null || menu.getMenuPerm().isEmpty()) {
+                        return null;
+                    }
+                    return Map.entry(
+                            relation.getRoleId(),
+                            MenuPermissionVO.builder()
+                                    .menuId(menu.getMenuId())
+                                    .menuPerm(permissionCodes.intern(menu.getMenuPerm()))
+                                    .menuType(menu.getMenuType())
+                                    .roleId(relation.getRoleId())
+                                    .build()
+                    );
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(
+                        Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())
+                ));
     }
 
     /**
@@ -226,17 +244,24 @@ public class PermissionService {
             return;
         }
 
-        Map<Long, List<MenuPermissionVO>> permissionMap = loadMenuPermissionsByRoleIds(List.of(roleId));
-        List<MenuPermissionVO> permissions = permissionMap.get(roleId);
+        List<MenuPermissionVO> permissions;
+        try {
+            permissions = loadMenuPermissionsByRoleIds(List.of(roleId)).get(roleId);
+        } catch (Exception e) {
+            // 查询失败时只清除缓存，由下一次权限校验回源，不能写入空值标记
+            log.error("加载角色菜单权限失败，已清除缓存：roleId={}, roleLabel={}", roleId, role.getRoleLabel(), e);
+            adminCache.evictRoleMenuPermissions(role.getRoleLabel());
+            return;
+        }
 
         if (permissions != null && !permissions.isEmpty()) {
             adminCache.cacheRoleMenuPermissions(role.getRoleLabel(), permissions);
             log.info("角色菜单权限缓存刷新成功：roleId={}, roleLabel={}, permissions={}",
                     roleId, role.getRoleLabel(), permissions.size());
         } else {
-            // 角色无权限时，清除缓存
-            adminCache.evictRoleMenuPermissions(role.getRoleLabel());
-            log.info("角色无权限，已清除缓存：roleId={}, roleLabel={}", roleId, role.getRoleLabel());
+            // 角色无权限时，缓存空值标记，避免每次权限校验回源数据库
+            adminCache.cacheRoleMenuPermissions(role.getRoleLabel(), List.of());
+            log.info("角色无权限，已缓存空结果：roleId={}, roleLabel={}", roleId, role.getRoleLabel());
         }
     }
 
@@ -281,7 +306,8 @@ public class PermissionService {
     /**
      * 刷新路由权限缓存
      * <p>
-     * 从数据库重新加载所有路由权限规则到 Redis
+     * 从数据库重新加载所有路由权限规则到 Redis，并递增版本号、广播失效消息，
+     * 各节点的本地路由快照随之重新加载一次
      * </p>
      *
      * @return 加载的路由权限规则数量
@@ -349,7 +375,7 @@ public class PermissionService {
                 .filter(menu -> menu.getMenuPerm() != null && !menu.getMenuPerm().isEmpty())
                 .map(menu -> MenuPermissionVO.builder()
                         .menuId(menu.getMenuId())
-                        .menuPerm(menu.getMenuPerm())
+                        .menuPerm(permissionCodes.intern(menu.getMenuPerm()))
                         .menuType(menu.getMenuType())
                         .roleId(roleId)
                         .build())
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.ez.admin.common.core.exception.EzBusinessException;
 import com.ez.admin.common.core.exception.ErrorCode;
 import com.ez.admin.common.data.mapstruct.RoleConverter;
+import com.ez.admin.common.framework.datascope.DataScopeSessionCache;
 import com.ez.admin.common.model.model.PageQuery;
 import com.ez.admin.common.model.model.PageVO;
 import com.ez.admin.dto.role.req.RoleCreateReq;
@@ -50,6 +51,7 @@ public class RoleService {
     private final com.ez.admin.service.permission.PermissionService permissionService;
     private final com.ez.admin.modules.system.service.SysRoleMenuRelationService roleMenuRelationService;
     private final com.ez.admin.modules.system.service.SysRoleDeptRelationService roleDeptRelationService;
+    private final DataScopeSessionCache dataScopeSessionCache;
 
     /**
      * 创建角色
@@ -137,6 +139,9 @@ public class RoleService {
             assignDepts(request.getRoleId(), request.getDeptIds());
         }
 
+        // 7. 数据权限范围、状态可能变化，已登录用户下次请求时重新计算数据权限
+        dataScopeSessionCache.bumpVersion();
+
         log.info("更新角色成功，角色ID：{}", request.getRoleId());
     }
 
@@ -197,6 +202,9 @@ public class RoleService {
         roleDeptRelationMapper.delete(new LambdaQueryWrapper<SysRoleDeptRelation>()
                 .in(SysRoleDeptRelation::getRoleId, roleIds));
 
+        // 已登录用户下次请求时重新计算数据权限
+        dataScopeSessionCache.bumpVersion();
+
         // 批量删除角色菜单权限缓存
         List<String> roleLabels = roleMapper.selectList(
                         new LambdaQueryWrapper<SysRole>().in(SysRole::getRoleId, roleIds))
@@ -340,6 +348,9 @@ public class RoleService {
             roleDeptRelationService.saveBatch(relations);
         }
 
+        // 自定义部门变化，已登录用户下次请求时重新计算数据权限
+        dataScopeSessionCache.bumpVersion();
+
         log.info("角色分配部门成功，角色ID：{}，部门数量：{}", roleId, deptIds != null ? deptIds.size() : 0);
     }
 
@@ -397,6 +408,9 @@ public class RoleService {
             permissionService.evictRoleMenuPermissions(role.getRoleLabel());
         }
 
+        // 4. 停用、启用的角色不再 / 重新参与数据权限计算
+        dataScopeSessionCache.bumpVersion();
+
         log.info("角色状态切换成功，角色ID：{}，状态：{}", request.getRoleId(), request.getStatus());
     }
 
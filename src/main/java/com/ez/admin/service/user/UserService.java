@@ -3,6 +3,8 @@ package com.ez.admin.service.user;
 import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ez.admin.common.framework.datascope.DataScopeCreatorCache;
+import com.ez.admin.common.framework.datascope.DataScopeSessionCache;
 import com.ez.admin.common.infrastructure.cache.AdminCache;
 import com.ez.admin.common.core.constant.SystemConstants;
 import com.ez.admin.common.core.exception.EzBusinessException;
@@ -57,6 +59,8 @@ public class UserService {
     private final SysUserService sysUserService;
     private final UserConverter userConverter;
     private final AdminCache adminCache;
+    private final DataScopeCreatorCache dataScopeCreatorCache;
+    private final DataScopeSessionCache dataScopeSessionCache;
 
     /**
      * 创建用户
@@ -83,6 +87,10 @@ public class UserService {
         // 4. 创建用户
         SysUser user = buildUser(request);
         userMapper.insert(user);
+        if (request.getDeptId() != null) {
+            // 部门新增成员，数据权限可见创建人随之变化
+            dataScopeCreatorCache.invalidateAll();
+        }
 
         // 5. 分配角色
         if (request.getRoleIds() != null && !request.getRoleIds().isEmpty()) {
@@ -127,6 +135,11 @@ public class UserService {
         user.setStatus(request.getStatus());
         user.setDescription(request.getDescription());
         userMapper.updateById(user);
+        if (request.getDeptId() != null && !request.getDeptId().equals(existUser.getDeptId())) {
+            // 用户调整部门，数据权限可见创建人、该用户自身的数据权限信息随之变化
+            dataScopeCreatorCache.invalidateAll();
+            dataScopeSessionCache.refreshUser(request.getUserId());
+        }
 
         // 5. 重新分配角色
         if (request.getRoleIds() != null) {
@@ -273,6 +286,9 @@ public class UserService {
                 .toList() : List.of();
         adminCache.cacheUserRoles(userId, roleLabels);
 
+        // 重新计算已登录用户的数据权限信息
+        dataScopeSessionCache.refreshUser(userId);
+
         log.info("用户分配角色成功，用户ID：{}，角色数量：{}", userId, roleIds != null ? roleIds.size() : 0);
     }
 
@@ -384,6 +400,7 @@ public class UserService {
 
         // 5. 清除用户登录状态（强制重新登录）
         StpUtil.logout(userId);
+        dataScopeSessionCache.evictUser(userId);
 
         log.info("用户密码修改成功，用户ID：{}", userId);
     }
@@ -410,6 +427,7 @@ public class UserService {
         // 3. 如果禁用用户，清除其登录状态
         if (request.getStatus() == SystemConstants.STATUS_DISABLED) {
             StpUtil.logout(request.getUserId());
+            dataScopeSessionCache.evictUser(request.getUserId());
         }
 
         log.info("用户状态切换成功，用户ID：{}，状态：{}", request.getUserId(), request.getStatus());
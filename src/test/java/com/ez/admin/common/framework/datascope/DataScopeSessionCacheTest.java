@@ -0,0 +1,172 @@
+package com.ez.admin.common.framework.datascope;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.stp.StpUtil;
+import com.ez.admin.common.infrastructure.cache.AdminCache;
+import com.ez.admin.common.infrastructure.redis.RedisCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 数据权限 Session 本地快照测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("数据权限 Session 本地快照测试")
+class DataScopeSessionCacheTest {
+
+    private static final String VERSION_KEY = "sys:auth:data_scope:version";
+
+    private RedisCache redisCache;
+    private DataScopeService dataScopeService;
+    private DataScopeSessionCache sessionCache;
+    private MockedStatic<StpUtil> stpUtil;
+    private final Map<Long, SaSession> sessions = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        redisCache = mock(RedisCache.class);
+        dataScopeService = mock(DataScopeService.class);
+        sessionCache = new DataScopeSessionCache(redisCache, dataScopeService, 30, 100);
+        stpUtil = mockStatic(StpUtil.class);
+        stpUtil.when(() -> StpUtil.getSessionByLoginId(any(), eq(false)))
+                .thenAnswer(invocation -> sessions.get(Long.valueOf(invocation.getArgument(0).toString())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stpUtil.close();
+    }
+
+    @Test
+    @DisplayName("同一 token 命中本地快照，不再读取 Session")
+    void cachesPerToken() {
+        DataScopeInfo info = login(1L, 0);
+
+        assertSame(info, sessionCache.get("token-1", 1L));
+        assertSame(info, sessionCache.get("token-1", 1L));
+
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(1L, false), times(1));
+    }
+
+    @Test
+    @DisplayName("按用户失效只影响该用户的 token，并广播到其他节点")
+    void evictUserKeepsOtherUsers() {
+        login(1L, 0);
+        login(2L, 0);
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-1b", 1L);
+        sessionCache.get("token-2", 2L);
+
+        sessionCache.evictUser(1L);
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-1b", 1L);
+        sessionCache.get("token-2", 2L);
+
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(1L, false), times(4));
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(2L, false), times(1));
+        verify(redisCache).publish(AdminCache.CACHE_INVALIDATE_CHANNEL, "ds_session:1");
+    }
+
+    @Test
+    @DisplayName("收到按用户失效的广播只失效该用户，收到 * 失效全部")
+    void onInvalidatedByUserOrAll() {
+        login(1L, 0);
+        login(2L, 0);
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-2", 2L);
+
+        sessionCache.onInvalidated("ds_session:2");
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-2", 2L);
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(1L, false), times(1));
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(2L, false), times(2));
+
+        sessionCache.onInvalidated("ds_session:*");
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-2", 2L);
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(1L, false), times(2));
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(2L, false), times(3));
+        verify(redisCache, never()).publish(any(), any());
+    }
+
+    @Test
+    @DisplayName("加载期间该用户被失效时不缓存加载结果")
+    void evictionDuringLoadSkipsPut() {
+        SaSession session = mock(SaSession.class);
+        sessions.put(1L, session);
+        DataScopeInfo info = DataScopeInfo.builder().userId(1L).dataScope(1).build();
+        when(session.get(DataScopeSessionCache.SESSION_KEY)).thenAnswer(invocation -> {
+            sessionCache.evictUser(1L);
+            return info;
+        });
+
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-1", 1L);
+
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(1L, false), times(2));
+    }
+
+    @Test
+    @DisplayName("Session 中的版本落后时按数据库重新计算并写回")
+    void recomputesWhenVersionIsStale() {
+        SaSession session = mock(SaSession.class);
+        sessions.put(1L, session);
+        DataScopeInfo stale = DataScopeInfo.builder().userId(1L).dataScope(5).build();
+        DataScopeInfo refreshed = DataScopeInfo.builder().userId(1L).dataScope(1).build();
+        when(session.get(DataScopeSessionCache.SESSION_KEY)).thenReturn(stale);
+        when(session.getLong("dataScopeVersion")).thenReturn(2L);
+        when(redisCache.get(VERSION_KEY)).thenReturn(3L);
+        when(dataScopeService.getDataScopeInfo(1L)).thenReturn(refreshed);
+
+        assertEquals(refreshed, sessionCache.get("token-1", 1L));
+
+        verify(session).set(DataScopeSessionCache.SESSION_KEY, refreshed);
+        verify(session).set("dataScopeVersion", 3L);
+    }
+
+    @Test
+    @DisplayName("递增版本号时失效全部快照并广播")
+    void bumpVersionInvalidatesAll() {
+        login(1L, 0);
+        login(2L, 0);
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-2", 2L);
+
+        sessionCache.bumpVersion();
+        sessionCache.get("token-1", 1L);
+        sessionCache.get("token-2", 2L);
+
+        verify(redisCache).increment(VERSION_KEY);
+        verify(redisCache).publish(AdminCache.CACHE_INVALIDATE_CHANNEL, "ds_session:*");
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(1L, false), times(2));
+        stpUtil.verify(() -> StpUtil.getSessionByLoginId(2L, false), times(2));
+    }
+
+    private DataScopeInfo login(Long userId, long version) {
+        SaSession session = mock(SaSession.class);
+        DataScopeInfo info = DataScopeInfo.builder().userId(userId).dataScope(1).build();
+        when(session.get(DataScopeSessionCache.SESSION_KEY)).thenReturn(info);
+        when(session.getLong("dataScopeVersion")).thenReturn(version);
+        sessions.put(userId, session);
+        return info;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ez.admin.common.framework.datascope;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 数据权限 SQL 改写插件参数映射测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("数据权限 SQL 改写插件参数映射测试")
+class DataScopeSqlInterceptorTest {
+
+    private final Configuration configuration = new Configuration();
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "SELECT * FROM t WHERE a = ? AND b = ?|2",
+            "SELECT * FROM t WHERE a = '?' AND b = ?|1",
+            "SELECT * FROM t WHERE a = 'it''s ?' AND b = ?|1",
+            "SELECT \"col?\" FROM t WHERE b = ?|1",
+            "SELECT * FROM t WHERE a = '\"?' AND b = ? AND c = \"x'?\"|1",
+            "SELECT * FROM t|0"
+    })
+    @DisplayName("统计占位符时跳过字符串常量和带引号标识符中的 ?")
+    void countsPlaceholdersOutsideQuotes(String sql, int expected) {
+        assertEquals(expected, DataScopeSqlInterceptor.countPlaceholders(sql, sql.length()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("commentsAndOperators")
+    @DisplayName("统计占位符时跳过注释、美元引用字符串中的 ? 和 jsonb 运算符")
+    void countsPlaceholdersOutsideCommentsAndOperators(String sql, int expected) {
+        assertEquals(expected, DataScopeSqlInterceptor.countPlaceholders(sql, sql.length()));
+    }
+
+    static Stream<Arguments> commentsAndOperators() {
+        return Stream.of(
+                Arguments.of("SELECT * FROM t -- a = ?\n WHERE b = ?", 1),
+                Arguments.of("SELECT * FROM t -- a = ?", 0),
+                Arguments.of("SELECT * FROM t /* a = ? */ WHERE b = ?", 1),
+                Arguments.of("SELECT * FROM t /* a /* nested ? */ = ? */ WHERE b = ?", 1),
+                Arguments.of("SELECT $$it's ?$$, $tag$ ? $$ ? $tag$ FROM t WHERE b = ?", 1),
+                Arguments.of("SELECT a$b FROM t WHERE c = $1 AND d = ?", 1),
+                Arguments.of("SELECT * FROM t WHERE data ?? 'key' AND b = ?", 1),
+                Arguments.of("SELECT * FROM t WHERE data ?| array['a'] AND data ?& array['b'] AND b = ?", 1),
+                Arguments.of("SELECT * FROM t WHERE data ??| array['a'] AND b = ?", 1),
+                Arguments.of("SELECT ?|| 'x' FROM t WHERE b = ?", 2),
+                Arguments.of("SELECT * FROM t WHERE a = 1 - ? AND b = ?", 2)
+        );
+    }
+
+    @Test
+    @DisplayName("只统计指定位置之前的占位符")
+    void countsPlaceholdersBeforeEnd() {
+        String sql = "SELECT * FROM t WHERE a = ? AND b = ? AND c = ?";
+
+        assertEquals(0, DataScopeSqlInterceptor.countPlaceholders(sql, sql.indexOf('?')));
+        assertEquals(1, DataScopeSqlInterceptor.countPlaceholders(sql, sql.indexOf('?') + 1));
+        assertEquals(2, DataScopeSqlInterceptor.countPlaceholders(sql, sql.lastIndexOf('?')));
+    }
+
+    @Test
+    @DisplayName("创建人数组参数按占位符位置插入，引号中的 ? 不影响位置")
+    void insertsCreatorMappingAtPlaceholderPosition() {
+        String sql = "SELECT * FROM sys_notice WHERE title = '?' AND type = ? AND created_by = "
+                + UserDataPermissionHandler.CREATOR_ARRAY_PARAMETER + " AND status = ?";
+        BoundSql boundSql = boundSql(sql, "type", "status");
+        Long[] creators = {1L, 2L};
+
+        DataScopeSqlInterceptor.bindCreators(configuration, boundSql, creators);
+
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        assertEquals(List.of("type", "__ezDataScopeCreators", "status"), properties(mappings));
+        assertEquals(JdbcType.ARRAY, mappings.get(1).getJdbcType());
+        assertSame(creators, boundSql.getAdditionalParameter("__ezDataScopeCreators"));
+    }
+
+    @Test
+    @DisplayName("多张受保护表时每个占位符都插入同一组创建人ID")
+    void insertsMappingForEveryMarker() {
+        String sql = "SELECT * FROM a JOIN b ON a.id = b.a_id WHERE a.created_by = "
+                + UserDataPermissionHandler.CREATOR_ARRAY_PARAMETER + " AND a.name = ? AND b.created_by = "
+                + UserDataPermissionHandler.CREATOR_ARRAY_PARAMETER;
+        BoundSql boundSql = boundSql(sql, "name");
+
+        DataScopeSqlInterceptor.bindCreators(configuration, boundSql, new Long[]{7L});
+
+        assertEquals(List.of("__ezDataScopeCreators", "name", "__ezDataScopeCreators"),
+                properties(boundSql.getParameterMappings()));
+        assertArrayEquals(new Long[]{7L}, (Long[]) boundSql.getAdditionalParameter("__ezDataScopeCreators"));
+    }
+
+    @Test
+    @DisplayName("没有创建人数组占位符或未绑定创建人时不修改参数映射")
+    void leavesMappingsUntouched() {
+        BoundSql plain = boundSql("SELECT * FROM t WHERE a = ?", "a");
+        DataScopeSqlInterceptor.bindCreators(configuration, plain, new Long[]{1L});
+        assertEquals(List.of("a"), properties(plain.getParameterMappings()));
+        assertFalse(plain.hasAdditionalParameter("__ezDataScopeCreators"));
+
+        BoundSql unbound = boundSql("SELECT * FROM t WHERE created_by = "
+                + UserDataPermissionHandler.CREATOR_ARRAY_PARAMETER);
+        DataScopeSqlInterceptor.bindCreators(configuration, unbound, null);
+        assertEquals(List.of(), properties(unbound.getParameterMappings()));
+    }
+
+    private BoundSql boundSql(String sql, String... properties) {
+        List<ParameterMapping> mappings = new ArrayList<>();
+        for (String property : properties) {
+            mappings.add(new ParameterMapping.Builder(configuration, property, Object.class).build());
+        }
+        return new BoundSql(configuration, sql, mappings, null);
+    }
+
+    private static List<String> properties(List<ParameterMapping> mappings) {
+        return mappings.stream().map(ParameterMapping::getProperty).toList();
+    }
+}
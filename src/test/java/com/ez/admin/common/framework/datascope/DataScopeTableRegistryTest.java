@@ -0,0 +1,93 @@
+package com.ez.admin.common.framework.datascope;
+
+import com.ez.admin.common.framework.datascope.DataScopeTableRegistry.DataScopeTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据权限表注册表测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("数据权限表注册表测试")
+class DataScopeTableRegistryTest {
+
+    private final DataScopeTableRegistry registry = new DataScopeTableRegistry(List.of(
+            DataScopeTable.of("ez_admin_order", "created_by", null),
+            DataScopeTable.of("EZ_ADMIN_DOC", "created_by", "dept_id")));
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("statements")
+    @DisplayName("按标识符判断语句是否可能引用受保护表")
+    void mayReference(String sql, boolean expected) {
+        assertEquals(expected, registry.mayReference(sql));
+    }
+
+    static Stream<Arguments> statements() {
+        return Stream.of(
+                Arguments.of("SELECT * FROM ez_admin_order WHERE id = ?", true),
+                Arguments.of("select * from EZ_ADMIN_ORDER o", true),
+                Arguments.of("SELECT * FROM \"ez_admin_order\"", true),
+                Arguments.of("SELECT * FROM \"EZ_ADMIN_DOC\" d", true),
+                Arguments.of("SELECT * FROM public.ez_admin_order", true),
+                Arguments.of("SELECT * FROM \"public\".\"ez_admin_doc\"", true),
+                Arguments.of("SELECT * FROM a JOIN ez_admin_doc d ON d.id = a.id", true),
+                Arguments.of("SELECT * FROM ez_admin_order_item", false),
+                Arguments.of("SELECT * FROM my_ez_admin_order", false),
+                Arguments.of("SELECT * FROM \"ez_admin_order \"", false),
+                Arguments.of("SELECT * FROM t WHERE note = 'ez_admin_order'", false),
+                Arguments.of("SELECT * FROM t WHERE note = 'it''s ez_admin_order'", false),
+                Arguments.of("SELECT * FROM t WHERE a$ez_admin_order = 1", false),
+                Arguments.of("SELECT 1", false),
+                Arguments.of("", false)
+        );
+    }
+
+    @Test
+    @DisplayName("未闭合的双引号按可能引用处理，交给 JSqlParser 判断")
+    void unterminatedQuotedIdentifier() {
+        assertTrue(registry.mayReference("SELECT * FROM \"ez_admin"));
+        assertFalse(registry.mayReference("SELECT * FROM t WHERE a = 'ez_admin_order"));
+        assertFalse(registry.mayReference(null));
+    }
+
+    @Test
+    @DisplayName("按表名查找字段映射，忽略大小写和双引号")
+    void getNormalisesName() {
+        assertEquals("created_by", registry.get("\"EZ_ADMIN_ORDER\"").creatorColumn());
+        assertEquals("dept_id", registry.get("ez_admin_doc").deptColumn());
+        assertFalse(registry.get("ez_admin_order").hasDeptColumn());
+        assertNull(registry.get("ez_admin_other"));
+        assertNull(registry.get(null));
+    }
+
+    @Test
+    @DisplayName("没有登记任何表时不需要改写")
+    void emptyRegistry() {
+        DataScopeTableRegistry empty = new DataScopeTableRegistry(List.of());
+
+        assertFalse(empty.mayReference("SELECT * FROM ez_admin_order"));
+        assertNull(empty.get("ez_admin_order"));
+    }
+
+    @Test
+    @DisplayName("同一表名的字段映射冲突时启动失败")
+    void rejectsConflictingMappings() {
+        assertThrows(IllegalStateException.class, () -> new DataScopeTableRegistry(List.of(
+                DataScopeTable.of("ez_admin_order", "created_by", null),
+                DataScopeTable.of("EZ_ADMIN_ORDER", "owner_id", null))));
+    }
+}
@@ -0,0 +1,176 @@
+package com.ez.admin.common.framework.datascope;
+
+import com.ez.admin.common.framework.datascope.DataScopeTableRegistry.DataScopeTable;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.schema.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ez.admin.common.core.constant.SystemConstants.DATA_SCOPE_CUSTOM;
+import static com.ez.admin.common.core.constant.SystemConstants.DATA_SCOPE_DEPT;
+import static com.ez.admin.common.core.constant.SystemConstants.DATA_SCOPE_DEPT_AND_CHILD;
+import static com.ez.admin.common.core.constant.SystemConstants.DATA_SCOPE_SELF;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户数据权限处理器测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("用户数据权限处理器测试")
+class UserDataPermissionHandlerTest {
+
+    private static final Table ORDER = new Table("ez_admin_order");
+    private static final Table DOC = new Table("ez_admin_doc");
+
+    private DataScopeTableRegistry tableRegistry;
+    private DataScopeCreatorCache creatorCache;
+    private UserDataPermissionHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        tableRegistry = new DataScopeTableRegistry(List.of(
+                DataScopeTable.of("ez_admin_order", "created_by", null),
+                DataScopeTable.of("ez_admin_doc", "created_by", "dept_id")));
+        creatorCache = mock(DataScopeCreatorCache.class);
+        handler = new UserDataPermissionHandler(tableRegistry, creatorCache, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataScopeContext.clear();
+        handler.takeBoundCreators();
+    }
+
+    @Test
+    @DisplayName("仅本人范围按用户ID缓存，同一用户复用同一个表达式")
+    void selfScopeKeyedByUser() {
+        Expression first = segment(ORDER, info(DATA_SCOPE_SELF, 1L, 10L, null));
+        Expression again = segment(ORDER, info(DATA_SCOPE_SELF, 1L, 20L, null));
+        Expression other = segment(ORDER, info(DATA_SCOPE_SELF, 2L, 10L, null));
+
+        assertSame(first, again);
+        assertEquals("created_by = 1", first.toString());
+        assertEquals("created_by = 2", other.toString());
+    }
+
+    @Test
+    @DisplayName("部门范围按部门ID缓存，同部门的不同用户复用同一个表达式，不同表分别缓存")
+    void deptScopeKeyedByDept() {
+        Expression first = segment(DOC, info(DATA_SCOPE_DEPT, 1L, 10L, null));
+        Expression sameDept = segment(DOC, info(DATA_SCOPE_DEPT, 2L, 10L, null));
+        Expression otherDept = segment(DOC, info(DATA_SCOPE_DEPT, 1L, 11L, null));
+        Expression otherTable = segment(ORDER, info(DATA_SCOPE_DEPT, 1L, 10L, null));
+
+        assertSame(first, sameDept);
+        assertEquals("dept_id = 10", first.toString());
+        assertEquals("dept_id = 11", otherDept.toString());
+        assertEquals("created_by IN (SELECT user_id FROM ez_admin_sys_user WHERE dept_id = 10)", otherTable.toString());
+    }
+
+    @Test
+    @DisplayName("本部门及以下按部门闭包表取子树，有部门字段的表直接按部门过滤")
+    void deptAndChildUsesClosureTable() {
+        Expression byDept = segment(DOC, info(DATA_SCOPE_DEPT_AND_CHILD, 1L, 10L, null));
+        Expression byCreator = segment(ORDER, info(DATA_SCOPE_DEPT_AND_CHILD, 1L, 10L, null));
+
+        assertEquals("dept_id IN (SELECT descendant_id FROM ez_admin_sys_dept_closure WHERE ancestor_id = 10)",
+                byDept.toString());
+        assertEquals("created_by IN (SELECT u.user_id FROM ez_admin_sys_user u "
+                + "JOIN ez_admin_sys_dept_closure c ON c.descendant_id = u.dept_id WHERE c.ancestor_id = 10)",
+                byCreator.toString());
+    }
+
+    @Test
+    @DisplayName("本部门及以下只按部门ID缓存，与祖级路径无关")
+    void deptAndChildKeyedByDeptOnly() {
+        DataScopeInfo first = info(DATA_SCOPE_DEPT_AND_CHILD, 1L, 10L, null);
+        first.setAncestors("0,1");
+        DataScopeInfo moved = info(DATA_SCOPE_DEPT_AND_CHILD, 2L, 10L, null);
+        moved.setAncestors("0,2");
+
+        assertSame(segment(DOC, first), segment(DOC, moved));
+        assertNotSame(segment(DOC, first), segment(DOC, info(DATA_SCOPE_DEPT_AND_CHILD, 1L, 11L, null)));
+    }
+
+    @Test
+    @DisplayName("自定义范围按部门ID列表缓存，调用方之后修改列表不影响缓存键")
+    void customScopeKeyedByDeptList() {
+        List<Long> deptIds = new ArrayList<>(List.of(10L, 11L));
+        Expression first = segment(DOC, info(DATA_SCOPE_CUSTOM, 1L, null, deptIds));
+        deptIds.add(12L);
+        Expression grown = segment(DOC, info(DATA_SCOPE_CUSTOM, 1L, null, deptIds));
+        Expression same = segment(DOC, info(DATA_SCOPE_CUSTOM, 2L, null, List.of(10L, 11L)));
+
+        assertEquals("dept_id IN (10, 11)", first.toString());
+        assertEquals("dept_id IN (10, 11, 12)", grown.toString());
+        assertSame(first, same);
+        assertEquals("1 = 0", segment(DOC, info(DATA_SCOPE_CUSTOM, 1L, null, List.of())).toString());
+    }
+
+    @Test
+    @DisplayName("可见创建人数组形式的表达式与用户无关，创建人ID记录在当前线程")
+    void creatorArrayIsSharedAcrossUsers() {
+        DataScopeInfo first = info(DATA_SCOPE_DEPT, 1L, 10L, null);
+        DataScopeInfo second = info(DATA_SCOPE_DEPT, 2L, 11L, null);
+        when(creatorCache.getVisibleCreators(any())).thenReturn(new Long[]{1L, 3L}, new Long[]{2L});
+
+        Expression firstSegment = segment(ORDER, first);
+        assertArrayEquals(new Long[]{1L, 3L}, handler.takeBoundCreators());
+        Expression secondSegment = segment(ORDER, second);
+        assertArrayEquals(new Long[]{2L}, handler.takeBoundCreators());
+
+        assertSame(firstSegment, secondSegment);
+        assertEquals("created_by = ANY(?::bigint[])", firstSegment.toString());
+        assertNull(handler.takeBoundCreators());
+    }
+
+    @Test
+    @DisplayName("缓存容量为 0 时每次重新解析")
+    void cacheDisabled() {
+        handler = new UserDataPermissionHandler(tableRegistry, creatorCache, 0);
+
+        Expression first = segment(ORDER, info(DATA_SCOPE_SELF, 1L, null, null));
+        Expression again = segment(ORDER, info(DATA_SCOPE_SELF, 1L, null, null));
+
+        assertNotSame(first, again);
+        assertEquals(first.toString(), again.toString());
+    }
+
+    @Test
+    @DisplayName("未登记的表或未设置数据权限信息时不过滤")
+    void skipsUnregisteredTables() {
+        assertNull(handler.getSqlSegment(ORDER, null, "test"));
+
+        assertNull(segment(new Table("ez_admin_other"), info(DATA_SCOPE_SELF, 1L, null, null)));
+        assertEquals("created_by = 1", segment(new Table("\"EZ_ADMIN_ORDER\""), info(DATA_SCOPE_SELF, 1L, null, null))
+                .toString());
+    }
+
+    private Expression segment(Table table, DataScopeInfo info) {
+        DataScopeContext.setDataScopeInfo(info);
+        return handler.getSqlSegment(table, null, "test");
+    }
+
+    private static DataScopeInfo info(int dataScope, Long userId, Long deptId, List<Long> customDeptIds) {
+        return DataScopeInfo.builder()
+                .dataScope(dataScope)
+                .userId(userId)
+                .deptId(deptId)
+                .customDeptIds(customDeptIds)
+                .build();
+    }
+}
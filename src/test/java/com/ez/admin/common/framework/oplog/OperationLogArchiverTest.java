@@ -0,0 +1,153 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import com.ez.admin.modules.system.mapper.SysOperationLogMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 操作日志冷数据归档测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志冷数据归档测试")
+class OperationLogArchiverTest {
+
+    private static final LocalDateTime EPOCH_DAY = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime OLD_DAY = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    @TempDir
+    Path dir;
+
+    private SysOperationLogMapper mapper;
+    private PlatformTransactionManager transactionManager;
+    private OperationLogArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(SysOperationLogMapper.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        archiver = new OperationLogArchiver(mapper, mock(OperationLogPartitionManager.class),
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(archiver, "archiveDir", dir.toString());
+        ReflectionTestUtils.setField(archiver, "afterDays", 30);
+        ReflectionTestUtils.setField(archiver, "maxSegmentsPerQuery", 62);
+    }
+
+    @Test
+    @DisplayName("从有日志的最早日期开始，跳过中间没有日志的日期")
+    void skipsEmptyDays() throws IOException {
+        when(mapper.selectMinCreateTime(null)).thenReturn(EPOCH_DAY);
+        when(mapper.selectMinCreateTime(EPOCH_DAY.plusDays(1))).thenReturn(OLD_DAY);
+        when(mapper.selectMinCreateTime(OLD_DAY.toLocalDate().plusDays(1).atStartOfDay())).thenReturn(null);
+        stubCursor(List.of(log(1L, EPOCH_DAY)), List.of(log(2L, OLD_DAY), log(3L, OLD_DAY.plusHours(1))));
+        when(mapper.deleteByTimeRange(EPOCH_DAY, EPOCH_DAY.plusDays(1))).thenReturn(1);
+        when(mapper.deleteByTimeRange(OLD_DAY.toLocalDate().atStartOfDay(), OLD_DAY.toLocalDate().plusDays(1).atStartOfDay()))
+                .thenReturn(2);
+
+        assertEquals(3, archiver.archive());
+
+        verify(mapper, times(2)).selectLogCursor(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(List.of("oplog-19700101.seg", "oplog-20260105.seg"), files());
+        assertEquals(3, archiver.search(null, null, null, row -> true, 0, 10).size());
+    }
+
+    @Test
+    @DisplayName("删除条数不一致时回滚并删除待提交文件")
+    void rollbackRemovesPendingSegment() throws IOException {
+        when(mapper.selectMinCreateTime(null)).thenReturn(OLD_DAY);
+        stubCursor(List.of(log(1L, OLD_DAY), log(2L, OLD_DAY)));
+        when(mapper.deleteByTimeRange(any(), any())).thenReturn(3);
+
+        assertThrows(IllegalStateException.class, archiver::archive);
+
+        verify(transactionManager).rollback(any());
+        assertEquals(List.of(), files());
+    }
+
+    @Test
+    @DisplayName("事务提交失败时不生成段文件")
+    void commitFailureRemovesPendingSegment() throws IOException {
+        when(mapper.selectMinCreateTime(null)).thenReturn(OLD_DAY);
+        stubCursor(List.of(log(1L, OLD_DAY)));
+        when(mapper.deleteByTimeRange(any(), any())).thenReturn(1);
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+
+        assertThrows(TransactionSystemException.class, archiver::archive);
+
+        assertEquals(List.of(), files());
+        assertEquals(0, archiver.search(null, null, null, row -> true, 0, 10).size());
+    }
+
+    @Test
+    @DisplayName("最早的日志还在保留期内时不归档")
+    void nothingToArchive() {
+        when(mapper.selectMinCreateTime(null)).thenReturn(LocalDateTime.now().minusDays(1));
+
+        assertEquals(0, archiver.archive());
+
+        verify(mapper, never()).selectLogCursor(any());
+        verify(mapper, times(1)).selectMinCreateTime(any());
+    }
+
+    /**
+     * 每次打开游标依次返回一组日志
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void stubCursor(List<SysOperationLog>... days) {
+        List<Cursor<SysOperationLog>> cursors = new ArrayList<>();
+        for (List<SysOperationLog> logs : days) {
+            Cursor<SysOperationLog> cursor = mock(Cursor.class);
+            when(cursor.iterator()).thenReturn(logs.iterator());
+            cursors.add(cursor);
+        }
+        Cursor<SysOperationLog> first = cursors.get(0);
+        Cursor<SysOperationLog>[] rest = cursors.subList(1, cursors.size()).toArray(new Cursor[0]);
+        when(mapper.selectLogCursor(any())).thenReturn(first, rest);
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static SysOperationLog log(Long logId, LocalDateTime createTime) {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setLogId(logId);
+        logEntity.setModule("测试");
+        logEntity.setUsername("admin");
+        logEntity.setCreateTime(createTime);
+        return logEntity;
+    }
+}
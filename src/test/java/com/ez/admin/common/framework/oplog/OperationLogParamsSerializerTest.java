@@ -0,0 +1,112 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.common.model.annotation.OperationLog;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 操作日志请求参数序列化测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志请求参数序列化测试")
+class OperationLogParamsSerializerTest {
+
+    private OperationLogParamsSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        serializer = new OperationLogParamsSerializer(JsonMapper.builder().build());
+        ReflectionTestUtils.setField(serializer, "maxLength", 20);
+    }
+
+    @Test
+    @DisplayName("未超过上限时完整输出，不追加截断标记")
+    void serializesWithinLimit() {
+        assertEquals("[\"abc\",1]", serializer.serialize(new Object[]{"abc", 1}));
+        assertNull(serializer.serialize(new Object[0]));
+        assertNull(serializer.serialize(null));
+    }
+
+    @Test
+    @DisplayName("超过上限时保留前 limit 个字符并追加 ...")
+    void truncatesAtLimit() {
+        String result = serializer.serialize(new Object[]{"x".repeat(1000)});
+
+        assertEquals("[\"" + "x".repeat(18) + "...", result);
+    }
+
+    @Test
+    @DisplayName("恰好写满上限不算截断，再写一个字符即中断")
+    void cappedWriterStopsAtLimit() throws IOException {
+        OperationLogParamsSerializer.CappedWriter writer = new OperationLogParamsSerializer.CappedWriter(5);
+        writer.write("abc", 0, 3);
+        writer.write(new char[]{'d', 'e'}, 0, 2);
+        assertFalse(writer.isTruncated());
+
+        assertSame(OperationLogParamsSerializer.LimitReachedException.INSTANCE,
+                assertThrows(IOException.class, () -> writer.write('f')));
+        assertTrue(writer.isTruncated());
+        // 截断后的任何写入都直接中断，缓冲区不再变化
+        assertThrows(IOException.class, () -> writer.write("g", 0, 1));
+        assertEquals("abcde", writer.toString());
+    }
+
+    @Test
+    @DisplayName("跨越上限的写入只保留能放下的部分")
+    void cappedWriterKeepsPrefix() {
+        OperationLogParamsSerializer.CappedWriter writer = new OperationLogParamsSerializer.CappedWriter(4);
+
+        assertThrows(IOException.class, () -> writer.write("abcdef", 1, 5));
+        assertTrue(writer.isTruncated());
+        assertEquals("bcde", writer.toString());
+    }
+
+    @Test
+    @DisplayName("按注解排除和脱敏参数，请求对象和上传文件始终跳过")
+    void captureExcludesAndMasks() throws NoSuchMethodException {
+        OperationLog annotation = getClass().getDeclaredMethod("annotated").getAnnotation(OperationLog.class);
+        Map<String, String> body = Map.of("username", "admin");
+        HttpServletRequest request = new MockHttpServletRequest();
+        MockMultipartFile file = new MockMultipartFile("file", new byte[0]);
+
+        Object[] captured = serializer.capture(annotation,
+                new String[]{"request", "body", "password", "token", "file"},
+                new Object[]{request, body, "secret", "t-1", file});
+
+        assertArrayEquals(new Object[]{body, OperationLogParamsSerializer.MASK}, captured);
+        ReflectionTestUtils.setField(serializer, "maxLength", 2000);
+        assertEquals("[{\"username\":\"admin\"},\"******\"]", serializer.serialize(captured));
+    }
+
+    @Test
+    @DisplayName("缺少参数名时不做排除和脱敏")
+    void captureWithoutNames() throws NoSuchMethodException {
+        OperationLog annotation = getClass().getDeclaredMethod("annotated").getAnnotation(OperationLog.class);
+
+        assertArrayEquals(new Object[]{"secret"}, serializer.capture(annotation, null, new Object[]{"secret"}));
+        assertEquals(0, serializer.capture(annotation, null, null).length);
+    }
+
+    @OperationLog(module = "测试", excludeParams = "token", maskParams = "password")
+    private void annotated() {
+    }
+}
@@ -0,0 +1,123 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.mapper.SysOperationLogMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 操作日志分区管理测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志分区管理测试")
+class OperationLogPartitionManagerTest {
+
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private SysOperationLogMapper mapper;
+    private OperationLogPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(SysOperationLogMapper.class);
+        partitionManager = new OperationLogPartitionManager(mapper);
+        ReflectionTestUtils.setField(partitionManager, "interval", "month");
+        ReflectionTestUtils.setField(partitionManager, "premake", 2);
+    }
+
+    @Test
+    @DisplayName("按月预建当前及未来分区，分区名为 _pyyyyMM，范围左闭右开")
+    void createsMonthlyPartitions() {
+        partitionManager.createFuturePartitions();
+
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= 2; i++) {
+            LocalDate from = month.plusMonths(i);
+            verify(mapper).createPartition(
+                    "ez_admin_sys_operation_log_p" + from.format(DateTimeFormatter.ofPattern("yyyyMM")),
+                    from.atStartOfDay().format(BOUND),
+                    from.plusMonths(1).atStartOfDay().format(BOUND));
+        }
+        verify(mapper, times(3)).createPartition(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("按天预建分区，单个分区创建失败不影响其余分区")
+    void createsDailyPartitionsAndSkipsFailures() {
+        ReflectionTestUtils.setField(partitionManager, "interval", " DAY ");
+        LocalDate today = LocalDate.now();
+        String first = "ez_admin_sys_operation_log_p" + today.format(DateTimeFormatter.BASIC_ISO_DATE);
+        doThrow(new IllegalStateException("already exists")).when(mapper).createPartition(first,
+                today.atStartOfDay().format(BOUND), today.plusDays(1).atStartOfDay().format(BOUND));
+
+        partitionManager.createFuturePartitions();
+
+        LocalDate last = today.plusDays(2);
+        verify(mapper).createPartition(
+                "ez_admin_sys_operation_log_p" + last.format(DateTimeFormatter.BASIC_ISO_DATE),
+                last.atStartOfDay().format(BOUND),
+                last.plusDays(1).atStartOfDay().format(BOUND));
+        verify(mapper, times(3)).createPartition(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("只删除上界不晚于截止时间的分区，跳过默认分区和 MAXVALUE 分区")
+    void dropsPartitionsByUpperBound() {
+        when(mapper.selectPartitions()).thenReturn(List.of(
+                partition("p202609", "FOR VALUES FROM ('2026-09-01 00:00:00') TO ('2026-10-01 00:00:00')", 100L),
+                partition("p202610", "FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00.000')", null),
+                partition("p202611", "FOR VALUES FROM ('2026-11-01 00:00:00') TO ('2026-12-01 00:00:00')", 300L),
+                partition("p_max", "FOR VALUES FROM ('2027-01-01 00:00:00') TO (MAXVALUE)", 400L),
+                partition("p_default", "DEFAULT", 500L)));
+        LocalDateTime before = LocalDateTime.of(2026, 11, 1, 0, 0);
+        when(mapper.deleteDefaultPartitionBefore(before)).thenReturn(7);
+
+        assertEquals(107, partitionManager.dropPartitionsBefore(before));
+
+        verify(mapper).detachPartition("p202609");
+        verify(mapper).dropPartition("p202609");
+        verify(mapper).detachPartition("p202610");
+        verify(mapper).dropPartition("p202610");
+        verify(mapper, times(2)).detachPartition(anyString());
+        verify(mapper, times(2)).dropPartition(anyString());
+    }
+
+    @Test
+    @DisplayName("日志表未分区时维护任务不做任何操作")
+    void maintainSkipsWhenNotPartitioned() {
+        when(mapper.isPartitioned()).thenReturn(false);
+        ReflectionTestUtils.setField(partitionManager, "retentionDays", 30);
+
+        partitionManager.maintain();
+
+        verify(mapper, never()).createPartition(anyString(), anyString(), anyString());
+        verify(mapper, never()).selectPartitions();
+        verify(mapper, never()).deleteDefaultPartitionBefore(any());
+    }
+
+    private static OperationLogPartition partition(String name, String bound, Long estimatedRows) {
+        OperationLogPartition partition = new OperationLogPartition();
+        partition.setPartitionName(name);
+        partition.setPartitionBound(bound);
+        partition.setEstimatedRows(estimatedRows);
+        return partition;
+    }
+}
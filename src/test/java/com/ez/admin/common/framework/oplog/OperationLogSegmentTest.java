@@ -0,0 +1,221 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 操作日志归档段文件读写测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志归档段文件读写测试")
+class OperationLogSegmentTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+    /**
+     * 单块最多 4096 行，5000 行写出两个数据块
+     */
+    private static final int TWO_BLOCK_ROWS = 5000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("写入后按 create_time 倒序读回，字段（含 null）一致")
+    void roundTrip() throws IOException {
+        List<SysOperationLog> logs = logs(BASE_TIME, TWO_BLOCK_ROWS, "admin");
+        SysOperationLog sparse = new SysOperationLog();
+        sparse.setLogId(99_999L);
+        sparse.setCreateTime(BASE_TIME.plusDays(1));
+        logs.add(sparse);
+        Path file = write(dir.resolve("oplog-20261001.seg"), logs);
+
+        List<SysOperationLog> read = scan(file, Long.MIN_VALUE, Long.MAX_VALUE, null);
+
+        assertEquals(logs.size(), read.size());
+        for (int i = 0; i < logs.size(); i++) {
+            // 实体未重写 equals，按全部字段的 toString 比较
+            assertEquals(logs.get(logs.size() - 1 - i).toString(), read.get(i).toString());
+        }
+        assertFalse(Files.exists(dir.resolve("oplog-20261001.seg.tmp")));
+    }
+
+    @Test
+    @DisplayName("按时间范围跳过数据块：范围外的块不解压")
+    void skipsBlocksOutsideTimeRange() throws IOException {
+        Path file = write(dir.resolve("oplog-20261001.seg"), logs(BASE_TIME, TWO_BLOCK_ROWS, "admin"));
+        // 破坏第一个数据块，只有解压它时才会失败
+        corrupt(file, 8);
+
+        long from = OperationLogSegmentWriter.toMillis(BASE_TIME.plusSeconds(4500));
+        long to = OperationLogSegmentWriter.toMillis(BASE_TIME.plusSeconds(4600));
+        List<SysOperationLog> read = scan(file, from, to, null);
+
+        assertEquals(101, read.size());
+        assertEquals(BASE_TIME.plusSeconds(4600), read.get(0).getCreateTime());
+        assertEquals(BASE_TIME.plusSeconds(4500), read.get(100).getCreateTime());
+        assertThrows(IOException.class, () -> scan(file, Long.MIN_VALUE, Long.MAX_VALUE, null));
+    }
+
+    @Test
+    @DisplayName("按块内用户名索引跳过数据块")
+    void skipsBlocksByUsername() throws IOException {
+        List<SysOperationLog> logs = logs(BASE_TIME, 4096, "admin");
+        logs.addAll(logs(BASE_TIME.plusHours(2), 10, "zhangsan"));
+        Path file = write(dir.resolve("oplog-20261001.seg"), logs);
+        corrupt(file, 8);
+
+        List<SysOperationLog> read = scan(file, Long.MIN_VALUE, Long.MAX_VALUE, "zhang");
+
+        assertEquals(10, read.size());
+        assertTrue(read.stream().allMatch(row -> "zhangsan".equals(row.getUsername())));
+    }
+
+    @Test
+    @DisplayName("回调返回 false 时停止遍历")
+    void stopsWhenConsumerReturnsFalse() throws IOException {
+        Path file = write(dir.resolve("oplog-20261001.seg"), logs(BASE_TIME, 100, "admin"));
+        List<SysOperationLog> read = new ArrayList<>();
+
+        boolean completed = OperationLogSegmentReader.open(file)
+                .scanDescending(Long.MIN_VALUE, Long.MAX_VALUE, null, row -> read.add(row) && read.size() < 3);
+
+        assertFalse(completed);
+        assertEquals(3, read.size());
+    }
+
+    @Test
+    @DisplayName("未完成的写入不留下段文件，已存在的段文件不覆盖")
+    void abortedWriteLeavesNothing() throws IOException {
+        Path target = dir.resolve("oplog-20261001.seg");
+        try (OperationLogSegmentWriter writer = OperationLogSegmentWriter.create(target)) {
+            writer.append(logs(BASE_TIME, 1, "admin").get(0));
+        }
+
+        assertFalse(Files.exists(target));
+        assertFalse(Files.exists(dir.resolve("oplog-20261001.seg.tmp")));
+
+        write(target, logs(BASE_TIME, 1, "admin"));
+        assertThrows(IOException.class, () -> OperationLogSegmentWriter.create(target));
+    }
+
+    @Test
+    @DisplayName("不是段文件时拒绝打开")
+    void rejectsInvalidFile() throws IOException {
+        Path file = Files.write(dir.resolve("oplog-20261001.seg"), new byte[64]);
+
+        assertThrows(IOException.class, () -> OperationLogSegmentReader.open(file));
+    }
+
+    @Test
+    @DisplayName("多个段文件按日期、序号倒序检索，分页跨越段文件")
+    void searchesAcrossSegments() throws IOException {
+        write(dir.resolve("oplog-20261001.seg"), logs(BASE_TIME, 5, "admin"));
+        write(dir.resolve("oplog-20261002.seg"), logs(BASE_TIME.plusDays(1), 5, "admin"));
+        // 同一天再次归档（迟到的日志）写入的序号文件
+        write(dir.resolve("oplog-20261002-1.seg"), logs(BASE_TIME.plusDays(1).plusHours(1), 5, "admin"));
+        OperationLogArchiver archiver = archiver(62);
+
+        List<SysOperationLog> all = archiver.search(null, null, null, row -> true, 0, 100);
+        assertEquals(15, all.size());
+        assertEquals(BASE_TIME.plusDays(1).plusHours(1).plusSeconds(4), all.get(0).getCreateTime());
+        assertEquals(BASE_TIME, all.get(14).getCreateTime());
+
+        List<SysOperationLog> page = archiver.search(null, null, null, row -> true, 8, 4);
+        assertEquals(all.subList(8, 12).toString(), page.toString());
+
+        List<SysOperationLog> firstDay = archiver.search(BASE_TIME, BASE_TIME.plusHours(23), null, row -> true, 0, 100);
+        assertEquals(5, firstDay.size());
+        assertTrue(firstDay.stream().allMatch(row -> row.getCreateTime().toLocalDate().equals(LocalDate.of(2026, 10, 1))));
+    }
+
+    @Test
+    @DisplayName("需要扫描的段文件超过上限时拒绝检索")
+    void limitsSegmentsPerQuery() throws IOException {
+        write(dir.resolve("oplog-20261001.seg"), logs(BASE_TIME, 5, "admin"));
+        write(dir.resolve("oplog-20261002.seg"), logs(BASE_TIME.plusDays(1), 5, "admin"));
+        OperationLogArchiver archiver = archiver(1);
+
+        assertEquals(3, archiver.search(null, null, null, row -> true, 0, 3).size());
+        assertThrows(IllegalArgumentException.class, () -> archiver.search(null, null, null, row -> true, 0, 10));
+    }
+
+    private OperationLogArchiver archiver(int maxSegmentsPerQuery) {
+        OperationLogArchiver archiver = new OperationLogArchiver(null, null, null);
+        ReflectionTestUtils.setField(archiver, "archiveDir", dir.toString());
+        ReflectionTestUtils.setField(archiver, "maxSegmentsPerQuery", maxSegmentsPerQuery);
+        return archiver;
+    }
+
+    /**
+     * 每秒一条日志
+     */
+    private static List<SysOperationLog> logs(LocalDateTime start, int count, String username) {
+        List<SysOperationLog> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SysOperationLog logEntity = new SysOperationLog();
+            logEntity.setLogId(start.toLocalDate().toEpochDay() * 1_000_000 + start.getHour() * 10_000L + i);
+            logEntity.setCreateTime(start.plusSeconds(i));
+            logEntity.setModule("用户管理");
+            logEntity.setOperation("查询");
+            logEntity.setDescription("查询用户 " + i);
+            logEntity.setUserId(i % 2 == 0 ? 1L : null);
+            logEntity.setUsername(username);
+            logEntity.setRequestMethod("GET");
+            logEntity.setRequestUrl("/api/user/" + i);
+            logEntity.setRequestIp("127.0.0.1");
+            logEntity.setRequestParams(i % 3 == 0 ? null : "{\"id\":" + i + "}");
+            logEntity.setExecuteTime((long) i);
+            logEntity.setStatus(i % 5 == 0 ? 0 : 1);
+            logEntity.setErrorMsg(i % 5 == 0 ? "失败" : null);
+            logs.add(logEntity);
+        }
+        return logs;
+    }
+
+    private static Path write(Path target, List<SysOperationLog> logs) throws IOException {
+        try (OperationLogSegmentWriter writer = OperationLogSegmentWriter.create(target)) {
+            for (SysOperationLog logEntity : logs) {
+                writer.append(logEntity);
+            }
+            assertEquals(logs.size(), writer.finish());
+        }
+        return target;
+    }
+
+    private static List<SysOperationLog> scan(Path file, long from, long to, String username) throws IOException {
+        List<SysOperationLog> rows = new ArrayList<>();
+        assertTrue(OperationLogSegmentReader.open(file).scanDescending(from, to, username, rows::add));
+        return rows;
+    }
+
+    /**
+     * 覆盖指定偏移处的若干字节
+     */
+    private static void corrupt(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF}), offset);
+        }
+    }
+}
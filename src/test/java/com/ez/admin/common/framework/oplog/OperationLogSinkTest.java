@@ -0,0 +1,117 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import com.ez.admin.modules.system.service.SysOperationLogService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 操作日志批量落库测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志批量落库测试")
+class OperationLogSinkTest {
+
+    @Test
+    @DisplayName("NULL 输出为空，空字符串输出为一对引号")
+    void nullAndEmptyAreDistinct() throws IOException {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setLogId(1L);
+        logEntity.setModule("");
+        logEntity.setCreateTime(LocalDateTime.of(2026, 10, 17, 8, 30, 0, 123_000_000));
+
+        assertEquals("1,\"\",,,,,,,,,,,,2026-10-17T08:30:00.123\n", csv(logEntity));
+    }
+
+    @Test
+    @DisplayName("引号加倍转义，逗号和换行保留在引号内")
+    void escapesQuotesAndNewlines() throws IOException {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setLogId(2L);
+        logEntity.setModule("用户管理");
+        logEntity.setOperation("创建");
+        logEntity.setDescription("say \"hi\", bye");
+        logEntity.setUserId(10L);
+        logEntity.setUsername("admin");
+        logEntity.setRequestMethod("POST");
+        logEntity.setRequestUrl("/api/user");
+        logEntity.setRequestIp("127.0.0.1");
+        logEntity.setRequestParams("{\"name\":\"a\"}");
+        logEntity.setExecuteTime(15L);
+        logEntity.setStatus(0);
+        logEntity.setErrorMsg("line1\r\nline2\n\"");
+        logEntity.setCreateTime(LocalDateTime.of(2026, 10, 17, 8, 30));
+
+        assertEquals("2,\"用户管理\",\"创建\",\"say \"\"hi\"\", bye\",10,\"admin\",\"POST\",\"/api/user\",\"127.0.0.1\","
+                        + "\"{\"\"name\"\":\"\"a\"\"}\",15,0,\"line1\r\nline2\n\"\"\",2026-10-17T08:30\n",
+                csv(logEntity));
+    }
+
+    @Test
+    @DisplayName("只有引号的字符串")
+    void onlyQuotes() throws IOException {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setDescription("\"\"");
+
+        assertEquals(",,,\"\"\"\"\"\",,,,,,,,,,\n", csv(logEntity));
+    }
+
+    @Test
+    @DisplayName("关闭 COPY 时以 JDBC Batch 分批插入，不拼多行 VALUES")
+    void fallsBackToJdbcBatchWhenCopyDisabled() {
+        DataSource dataSource = mock(DataSource.class);
+        SysOperationLogService operationLogService = mock(SysOperationLogService.class);
+        OperationLogSink sink = new OperationLogSink(dataSource, operationLogService);
+        ReflectionTestUtils.setField(sink, "copyEnabled", false);
+        List<SysOperationLog> logs = List.of(new SysOperationLog(), new SysOperationLog());
+
+        sink.write(logs);
+
+        verify(operationLogService).saveBatch(logs, 500);
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    @DisplayName("数据源不支持 COPY 时退回批量插入，之后不再尝试 COPY")
+    void fallsBackWhenDataSourceIsNotPostgres() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.unwrap(PGConnection.class)).thenThrow(new SQLException("not a PGConnection"));
+        SysOperationLogService operationLogService = mock(SysOperationLogService.class);
+        OperationLogSink sink = new OperationLogSink(dataSource, operationLogService);
+        ReflectionTestUtils.setField(sink, "copyEnabled", true);
+        List<SysOperationLog> logs = List.of(new SysOperationLog());
+
+        sink.write(logs);
+        sink.write(logs);
+
+        verify(operationLogService, times(2)).saveBatch(logs, 500);
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    private static String csv(SysOperationLog logEntity) throws IOException {
+        StringWriter writer = new StringWriter();
+        OperationLogSink.writeCsvRow(writer, logEntity);
+        return writer.toString();
+    }
+}
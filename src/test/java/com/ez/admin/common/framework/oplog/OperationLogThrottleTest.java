@@ -0,0 +1,174 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.common.model.annotation.OperationLog;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 操作日志采样与限流测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志采样与限流测试")
+class OperationLogThrottleTest {
+
+    private OperationLogWriter writer;
+    private SimpleMeterRegistry registry;
+    private OperationLogThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        writer = mock(OperationLogWriter.class);
+        registry = new SimpleMeterRegistry();
+        throttle = new OperationLogThrottle(writer, registry);
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+    }
+
+    @Test
+    @DisplayName("未配置采样和限流的接口全部记录，不产生计数")
+    void unconfiguredAlwaysRecords() throws NoSuchMethodException {
+        Method method = method("unconfigured");
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.tryAcquire(method, method.getAnnotation(OperationLog.class), log(1L, 1)));
+        }
+
+        assertTrue(states().isEmpty());
+        assertEquals(0, suppressed("sampled") + suppressed("rate-limited"));
+    }
+
+    @Test
+    @DisplayName("采样掉的成功日志按接口和用户汇总为一条日志，失败日志始终记录")
+    void summarisesSampledLogs() throws NoSuchMethodException {
+        Method method = method("neverSampled");
+        OperationLog annotation = method.getAnnotation(OperationLog.class);
+
+        assertTrue(throttle.tryAcquire(method, annotation, log(1L, 0)));
+        for (int i = 0; i < 5; i++) {
+            assertFalse(throttle.tryAcquire(method, annotation, log(1L, 1)));
+        }
+        assertEquals(5, suppressed("sampled"));
+
+        throttle.flushSummaries();
+
+        ArgumentCaptor<SysOperationLog> summary = ArgumentCaptor.forClass(SysOperationLog.class);
+        verify(writer).submit(summary.capture());
+        assertEquals("[汇总] 查询用户，省略 5 条成功日志", summary.getValue().getDescription());
+        assertEquals(1L, summary.getValue().getUserId());
+        assertEquals(1, summary.getValue().getStatus());
+        assertTrue(summary.getValue().getRequestParams().startsWith(
+                "{\"suppressed\":5,\"sampled\":5,\"rateLimited\":0,\"from\":\""), summary.getValue().getRequestParams());
+
+        // 计数已取出，下一轮没有汇总，空闲状态被清理
+        clearInvocations(writer);
+        throttle.flushSummaries();
+        verify(writer, never()).submit(any());
+        assertTrue(states().isEmpty());
+    }
+
+    @Test
+    @DisplayName("每个用户每秒最多记录 maxPerUserPerSecond 条，超出部分计入限流汇总")
+    void rateLimitsPerUser() throws NoSuchMethodException {
+        Method method = method("limited");
+        OperationLog annotation = method.getAnnotation(OperationLog.class);
+        awaitFreshSecond();
+
+        int recordedByFirst = 0;
+        int recordedBySecond = 0;
+        for (int i = 0; i < 5; i++) {
+            recordedByFirst += throttle.tryAcquire(method, annotation, log(1L, 1)) ? 1 : 0;
+            recordedBySecond += throttle.tryAcquire(method, annotation, log(2L, 1)) ? 1 : 0;
+        }
+
+        assertEquals(2, recordedByFirst);
+        assertEquals(2, recordedBySecond);
+        assertEquals(6, suppressed("rate-limited"));
+
+        throttle.flushSummaries();
+
+        ArgumentCaptor<SysOperationLog> summary = ArgumentCaptor.forClass(SysOperationLog.class);
+        verify(writer, times(2)).submit(summary.capture());
+        for (SysOperationLog logEntity : summary.getAllValues()) {
+            assertTrue(logEntity.getRequestParams().startsWith("{\"suppressed\":3,\"sampled\":0,\"rateLimited\":3,"),
+                    logEntity.getRequestParams());
+        }
+    }
+
+    @Test
+    @DisplayName("关闭限流后全部记录")
+    void disabledRecordsEverything() throws NoSuchMethodException {
+        ReflectionTestUtils.setField(throttle, "enabled", false);
+        Method method = method("neverSampled");
+
+        assertTrue(throttle.tryAcquire(method, method.getAnnotation(OperationLog.class), log(1L, 1)));
+
+        throttle.shutdown();
+        verify(writer, never()).submit(any());
+    }
+
+    private double suppressed(String reason) {
+        return registry.get("ez.admin.operation.log.suppressed").tag("reason", reason).counter().count();
+    }
+
+    private Map<?, ?> states() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(throttle, "states");
+    }
+
+    /**
+     * 离下一秒太近时等到下一秒开始，保证限流断言落在同一个窗口内
+     */
+    private static void awaitFreshSecond() {
+        long remaining = 1000 - System.currentTimeMillis() % 1000;
+        if (remaining < 200) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(remaining + 10));
+        }
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return OperationLogThrottleTest.class.getDeclaredMethod(name);
+    }
+
+    private static SysOperationLog log(Long userId, int status) {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setModule("用户管理");
+        logEntity.setOperation("查询");
+        logEntity.setDescription("查询用户");
+        logEntity.setUserId(userId);
+        logEntity.setUsername("user" + userId);
+        logEntity.setStatus(status);
+        return logEntity;
+    }
+
+    @OperationLog(module = "用户管理", operation = "查询")
+    private void unconfigured() {
+    }
+
+    @OperationLog(module = "用户管理", operation = "查询", successSamplePercent = 0)
+    private void neverSampled() {
+    }
+
+    @OperationLog(module = "用户管理", operation = "查询", maxPerUserPerSecond = 2)
+    private void limited() {
+    }
+}
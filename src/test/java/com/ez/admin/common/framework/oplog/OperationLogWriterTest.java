@@ -0,0 +1,273 @@
+package com.ez.admin.common.framework.oplog;
+
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 操作日志异步批量写入器测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志异步批量写入器测试")
+class OperationLogWriterTest {
+
+    private OperationLogSink sink;
+    private SimpleMeterRegistry meterRegistry;
+    private OperationLogWriter writer;
+
+    /**
+     * 后台线程进入 sink 后在此等待，用来把队列稳定在指定水位
+     */
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        sink = mock(OperationLogSink.class);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new OperationLogWriter(sink, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (ReflectionTestUtils.getField(writer, "writerThread") != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("drop 策略：队列写满后丢弃新日志")
+    void dropWhenFull() throws InterruptedException {
+        blockSink();
+        start(2, 1, "drop");
+
+        holdWriter();
+        writer.submit(log(1));
+        writer.submit(log(1));
+        writer.submit(log(1));
+
+        assertEquals(1.0, dropped("full"));
+        release.countDown();
+        writer.shutdown();
+        assertEquals(3.0, counter("written"));
+    }
+
+    @Test
+    @DisplayName("sample 策略：高水位后成功日志按比例采样，失败日志始终保留")
+    void sampleAboveHighWater() throws InterruptedException {
+        blockSink();
+        start(10, 1, "sample");
+        ReflectionTestUtils.setField(writer, "sampleRate", 2);
+
+        holdWriter();
+        for (int i = 0; i < 8; i++) {
+            writer.submit(log(1));
+        }
+        // 已到 80% 水位：成功日志每 2 条保留 1 条
+        writer.submit(log(1));
+        writer.submit(log(1));
+        writer.submit(log(1));
+        // 失败日志不参与采样，写满后才丢弃
+        writer.submit(log(0));
+        writer.submit(log(0));
+
+        assertEquals(2.0, dropped("sampled"));
+        assertEquals(1.0, dropped("full"));
+        release.countDown();
+        writer.shutdown();
+        assertEquals(11.0, counter("written"));
+    }
+
+    @Test
+    @DisplayName("block 策略：等待超时后丢弃")
+    void blockTimesOut() throws InterruptedException {
+        blockSink();
+        start(1, 1, "block");
+        ReflectionTestUtils.setField(writer, "blockTimeoutMillis", 50L);
+
+        holdWriter();
+        writer.submit(log(1));
+        long begin = System.nanoTime();
+        writer.submit(log(1));
+
+        assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1.0, dropped("full"));
+    }
+
+    @Test
+    @DisplayName("block 策略：等待期间队列腾出空位则入队")
+    void blockWaitsForSpace() throws InterruptedException {
+        blockSink();
+        start(1, 1, "block");
+        ReflectionTestUtils.setField(writer, "blockTimeoutMillis", 5000L);
+
+        holdWriter();
+        writer.submit(log(1));
+        Thread releaser = new Thread(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            release.countDown();
+        });
+        releaser.start();
+        writer.submit(log(1));
+        releaser.join();
+
+        assertEquals(0.0, dropped("full"));
+        writer.shutdown();
+        assertEquals(3.0, counter("written"));
+    }
+
+    @Test
+    @DisplayName("关闭时写完队列中剩余日志")
+    void shutdownDrainsQueue() {
+        start(100, 50, "drop");
+        ReflectionTestUtils.setField(writer, "flushIntervalMillis", 60_000L);
+
+        for (int i = 0; i < 5; i++) {
+            writer.submit(log(1));
+        }
+        writer.shutdown();
+
+        verify(sink).write(argThat(batch -> batch.size() == 5));
+        assertEquals(5.0, counter("written"));
+        assertEquals(0.0, dropped("shutdown"));
+    }
+
+    @Test
+    @DisplayName("关闭后提交的日志直接丢弃并计入 reason=shutdown")
+    void submitAfterShutdownIsCounted() {
+        start(100, 1, "drop");
+        writer.shutdown();
+
+        writer.submit(log(1));
+
+        assertEquals(1.0, dropped("shutdown"));
+        verify(sink, never()).write(anyList());
+    }
+
+    @Test
+    @DisplayName("暂时性故障整批退避重试，仍失败整批计入失败一次")
+    void transientFailureRetriesWholeBatch() {
+        doThrow(new CannotGetJdbcConnectionException("connection refused")).when(sink).write(anyList());
+        start(100, 3, "drop");
+        ReflectionTestUtils.setField(writer, "retryAttempts", 2);
+        ReflectionTestUtils.setField(writer, "retryBackoffMillis", 1L);
+
+        for (int i = 0; i < 3; i++) {
+            writer.submit(log(1));
+        }
+
+        verify(sink, timeout(5000).times(3)).write(argThat(batch -> batch.size() == 3));
+        writer.shutdown();
+        verify(sink, never()).write(argThat(batch -> batch.size() == 1));
+        assertEquals(3.0, counter("failed"));
+        assertEquals(0.0, counter("written"));
+    }
+
+    @Test
+    @DisplayName("数据错误逐条重试，只丢弃出错的那条")
+    void dataErrorRetriesRowByRow() {
+        SysOperationLog bad = log(1);
+        doAnswer(invocation -> {
+            List<SysOperationLog> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(logEntity -> logEntity == bad)) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return null;
+        }).when(sink).write(anyList());
+        start(100, 3, "drop");
+
+        writer.submit(log(1));
+        writer.submit(bad);
+        writer.submit(log(1));
+        writer.shutdown();
+
+        verify(sink, times(3)).write(argThat(batch -> batch.size() == 1));
+        assertEquals(2.0, counter("written"));
+        assertEquals(1.0, counter("failed"));
+    }
+
+    @Test
+    @DisplayName("按异常链和 SQLSTATE 识别暂时性故障")
+    void classifiesTransientErrors() {
+        assertTrue(OperationLogWriter.isTransient(new CannotGetJdbcConnectionException("refused")));
+        assertTrue(OperationLogWriter.isTransient(new IllegalStateException("COPY 失败", new SQLException("closed", "08006"))));
+        assertTrue(OperationLogWriter.isTransient(new SQLException("deadlock", "40P01")));
+        assertFalse(OperationLogWriter.isTransient(new SQLException("duplicate key", "23505")));
+        assertFalse(OperationLogWriter.isTransient(new DataIntegrityViolationException("value too long")));
+    }
+
+    private void start(int capacity, int batchSize, String policy) {
+        ReflectionTestUtils.setField(writer, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writer, "flushIntervalMillis", 1000L);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "sampleRate", 10);
+        ReflectionTestUtils.setField(writer, "blockTimeoutMillis", 100L);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(writer, "retryAttempts", 3);
+        ReflectionTestUtils.setField(writer, "retryBackoffMillis", 500L);
+        writer.start();
+    }
+
+    /**
+     * 首次写入时阻塞，直到 release
+     */
+    private void blockSink() {
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return null;
+        }).when(sink).write(anyList());
+    }
+
+    /**
+     * 提交一条日志并等待后台线程取走它、阻塞在 sink 中，此后队列只由测试控制
+     */
+    private void holdWriter() throws InterruptedException {
+        writer.submit(log(1));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("ez.admin.operation.log.dropped").tag("reason", reason).counter().count();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get("ez.admin.operation.log." + name).counter().count();
+    }
+
+    private static SysOperationLog log(int status) {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setModule("测试");
+        logEntity.setStatus(status);
+        return logEntity;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ez.admin.common.framework.permission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 权限位图与用户权限集合测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("权限位图与用户权限集合测试")
+class PermissionBitmapTest {
+
+    @Test
+    @DisplayName("位图复制 BitSet，跨字边界的位测试正确")
+    void bitmapContains() {
+        BitSet bits = bits(0, 63, 64, 130);
+        PermissionBitmap bitmap = PermissionBitmap.of(bits);
+        bits.set(5);
+
+        assertTrue(bitmap.contains(0));
+        assertTrue(bitmap.contains(63));
+        assertTrue(bitmap.contains(64));
+        assertTrue(bitmap.contains(130));
+        assertFalse(bitmap.contains(5));
+        assertFalse(bitmap.contains(-1));
+        assertFalse(bitmap.contains(10_000));
+        assertEquals(4, bitmap.cardinality());
+        assertArrayEquals(new int[]{0, 63, 64, 130}, bitmap.toArray());
+    }
+
+    @Test
+    @DisplayName("并集按字 OR，长度取最长的位图")
+    void union() {
+        PermissionBitmap shortBitmap = PermissionBitmap.of(bits(1, 2));
+        PermissionBitmap longBitmap = PermissionBitmap.of(bits(2, 200));
+
+        PermissionBitmap union = PermissionBitmap.union(List.of(shortBitmap, longBitmap, PermissionBitmap.EMPTY));
+
+        assertArrayEquals(new int[]{1, 2, 200}, union.toArray());
+        assertEquals(3, union.cardinality());
+        assertSame(PermissionBitmap.EMPTY, PermissionBitmap.union(List.of()));
+        assertSame(PermissionBitmap.EMPTY, PermissionBitmap.of(new BitSet()));
+    }
+
+    @Test
+    @DisplayName("权限码字典分配稠密ID并保存唯一实例")
+    void registryAssignsDenseIds() {
+        PermissionCodeRegistry registry = new PermissionCodeRegistry();
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i, registry.register("perm:" + i));
+        }
+
+        assertEquals(5, registry.register("perm:5"));
+        assertEquals(-1, registry.idOf("perm:unknown"));
+        assertSame(registry.codeOf(7), registry.intern(new String("perm:7")));
+        assertEquals(300, registry.size());
+    }
+
+    @Test
+    @DisplayName("权限集合按位测试精确匹配，按ID顺序遍历")
+    void permissionSetContains() {
+        PermissionCodeRegistry registry = new PermissionCodeRegistry();
+        int list = registry.register("system:user:list");
+        registry.register("system:user:delete");
+        int add = registry.register("system:user:add");
+
+        PermissionSet permissions = PermissionSet.of(registry, PermissionBitmap.of(bits(list, add)));
+
+        assertTrue(permissions.contains("system:user:list"));
+        assertTrue(permissions.implies("system:user:add"));
+        assertFalse(permissions.implies("system:user:delete"));
+        assertFalse(permissions.implies("system:role:list"));
+        assertFalse(permissions.implies(null));
+        assertFalse(permissions.contains(1));
+        assertEquals(List.of("system:user:list", "system:user:add"), permissions);
+    }
+
+    @Test
+    @DisplayName("通配符权限码在精确匹配未命中时模糊匹配")
+    void permissionSetWildcard() {
+        PermissionCodeRegistry registry = new PermissionCodeRegistry();
+        int userAll = registry.register("system:user:*");
+        int roleList = registry.register("system:role:list");
+
+        PermissionSet permissions = PermissionSet.of(registry, PermissionBitmap.of(bits(userAll, roleList)));
+
+        assertTrue(permissions.implies("system:user:delete"));
+        assertTrue(permissions.implies("system:role:list"));
+        assertFalse(permissions.implies("system:role:delete"));
+        // 没有持有通配符权限码时不做模糊匹配
+        PermissionSet roleOnly = PermissionSet.of(registry, PermissionBitmap.of(bits(roleList)));
+        assertFalse(roleOnly.implies("system:user:delete"));
+    }
+
+    @Test
+    @DisplayName("空位图返回空权限集合")
+    void emptySet() {
+        PermissionSet permissions = PermissionSet.of(new PermissionCodeRegistry(), PermissionBitmap.EMPTY);
+
+        assertSame(PermissionSet.EMPTY, permissions);
+        assertTrue(permissions.isEmpty());
+        assertFalse(permissions.implies("system:user:list"));
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ez.admin.common.framework.permission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 路由权限匹配器测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("路由权限匹配器测试")
+class RoutePermissionMatcherTest {
+
+    @Test
+    @DisplayName("字面量优先于路径变量，路径变量优先于多段通配")
+    void literalBeforeVariableBeforeWildcard() {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("GET:/api/user/**", "user:any");
+        routes.put("GET:/api/user/{userId}", "user:query");
+        routes.put("GET:/api/user/export", "user:export");
+        RoutePermissionMatcher matcher = RoutePermissionMatcher.compile(routes);
+
+        assertEquals("user:export", matcher.match("GET", "/api/user/export"));
+        assertEquals("user:query", matcher.match("GET", "/api/user/1"));
+        assertEquals("user:any", matcher.match("GET", "/api/user/1/roles"));
+        assertEquals("user:any", matcher.match("GET", "/api/user"));
+    }
+
+    @Test
+    @DisplayName("字面量分支未命中时回溯到路径变量")
+    void backtrackToVariable() {
+        RoutePermissionMatcher matcher = RoutePermissionMatcher.compile(Map.of(
+                "GET:/api/user/export/excel", "user:export",
+                "GET:/api/user/{userId}/roles", "user:roles"));
+
+        assertEquals("user:roles", matcher.match("GET", "/api/user/export/roles"));
+        assertNull(matcher.match("GET", "/api/user/export"));
+    }
+
+    @Test
+    @DisplayName("指定方法未命中时回退到未配置方法的规则")
+    void methodFallback() {
+        RoutePermissionMatcher matcher = RoutePermissionMatcher.compile(Map.of(
+                "DELETE:/api/user/{userId}", "user:delete",
+                "/api/user/{userId}", "user:query",
+                "post:/api/user", "user:add"));
+
+        assertEquals("user:delete", matcher.match("DELETE", "/api/user/1"));
+        assertEquals("user:query", matcher.match("GET", "/api/user/1"));
+        assertEquals("user:query", matcher.match(null, "/api/user/1"));
+        assertEquals("user:add", matcher.match("POST", "/api/user"));
+        assertNull(matcher.match("GET", "/api/user"));
+    }
+
+    @Test
+    @DisplayName("单段通配等同于路径变量，重复和末尾斜杠被忽略")
+    void singleWildcardAndSlashes() {
+        RoutePermissionMatcher matcher = RoutePermissionMatcher.compile(Map.of(
+                "GET:/api/dept/*", "dept:query",
+                "GET:/api/role/list", ""));
+
+        assertEquals("dept:query", matcher.match("GET", "/api/dept/10"));
+        assertEquals("dept:query", matcher.match("GET", "//api//dept/10/"));
+        assertNull(matcher.match("GET", "/api/dept/10/children"));
+        // 命中的规则没有权限码时返回空字符串，与未命中区分
+        assertEquals("", matcher.match("GET", "/api/role/list"));
+    }
+
+    @Test
+    @DisplayName("空规则返回空匹配器")
+    void emptyRules() {
+        assertSame(RoutePermissionMatcher.EMPTY, RoutePermissionMatcher.compile(Map.of()));
+        assertSame(RoutePermissionMatcher.EMPTY, RoutePermissionMatcher.compile(null));
+        assertNull(RoutePermissionMatcher.EMPTY.match("GET", "/api/user"));
+        assertNull(RoutePermissionMatcher.compile(Map.of("GET:/api/user", "user:list")).match("GET", ""));
+    }
+}
@@ -0,0 +1,208 @@
+package com.ez.admin.common.infrastructure.cache;
+
+import com.ez.admin.common.framework.permission.PermissionCodeRegistry;
+import com.ez.admin.common.infrastructure.cache.codec.CacheCodecRegistry;
+import com.ez.admin.common.infrastructure.redis.RedisCache;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import com.ez.admin.dto.menu.vo.MenuPermissionVO;
+import com.ez.admin.modules.system.mapper.SysRoleMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 管理系统业务缓存测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("管理系统业务缓存测试")
+class AdminCacheTest {
+
+    private static final String EMPTY_VALUE = "<empty>";
+
+    private RedisCache redisCache;
+    private SysRoleMapper roleMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private AdminCache adminCache;
+
+    @BeforeEach
+    void setUp() {
+        redisCache = mock(RedisCache.class);
+        roleMapper = mock(SysRoleMapper.class);
+        meterRegistry = new SimpleMeterRegistry();
+        adminCache = new AdminCache(redisCache, roleMapper, new PermissionCacheMetrics(meterRegistry),
+                new CacheCodecRegistry(List.of()), new PermissionCodeRegistry());
+    }
+
+    @Test
+    @DisplayName("命中空值标记时返回空列表，不回源数据库")
+    void negativeCacheHit() {
+        when(redisCache.getAll(anyCollection(), any())).thenReturn(Map.of("perm:0:role:menus:guest", EMPTY_VALUE));
+        when(redisCache.get(eq("perm:0:user:roles:1"), any())).thenReturn(EMPTY_VALUE);
+
+        assertEquals(List.of(), adminCache.getMenuByRoleLabels(List.of("guest")));
+        assertEquals(List.of(), adminCache.getUserRoles(1L));
+
+        verify(roleMapper, never()).selectMenuPermissionsByRoleLabels(anyCollection());
+        verify(roleMapper, never()).selectRoleLabelsByUserId(anyLong());
+        assertEquals(1.0, counter("role_menus", "negative_hit"));
+        assertEquals(1.0, counter("user_roles", "negative_hit"));
+    }
+
+    @Test
+    @DisplayName("未命中时回源，无权限的角色以较短 TTL 写入空值标记")
+    @SuppressWarnings("unchecked")
+    void negativeCacheMiss() {
+        MenuPermissionVO list = MenuPermissionVO.builder().menuId(1L).menuPerm("system:user:list").roleLabel("admin").build();
+        when(redisCache.getAll(anyCollection(), any())).thenReturn(Map.of());
+        when(roleMapper.selectMenuPermissionsByRoleLabels(anyCollection())).thenReturn(List.of(list));
+
+        assertEquals(List.of(list), adminCache.getMenuByRoleLabels(List.of("admin", "guest")));
+
+        ArgumentCaptor<Map<String, Object>> values = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Long> ttls = ArgumentCaptor.forClass(Long.class);
+        verify(redisCache, times(2)).setAll(values.capture(), ttls.capture(), any());
+        assertEquals(Map.of("perm:0:role:menus:admin", List.of(list)), values.getAllValues().get(0));
+        assertEquals(Map.of("perm:0:role:menus:guest", EMPTY_VALUE), values.getAllValues().get(1));
+        // 30 天 / 5 分钟，叠加 0~10% 抖动
+        assertTrue(ttls.getAllValues().get(0) >= 30 * 24 * 3600L && ttls.getAllValues().get(0) <= 33 * 24 * 3600L);
+        assertTrue(ttls.getAllValues().get(1) >= 300 && ttls.getAllValues().get(1) <= 330);
+        assertEquals(2.0, counter("role_menus", "miss"));
+    }
+
+    @Test
+    @DisplayName("用户无角色时写入空值标记")
+    void negativeCacheUserRoles() {
+        when(roleMapper.selectRoleLabelsByUserId(1L)).thenReturn(List.of());
+
+        assertEquals(List.of(), adminCache.getUserRoles(1L));
+
+        ArgumentCaptor<Long> ttl = ArgumentCaptor.forClass(Long.class);
+        verify(redisCache).set(eq("perm:0:user:roles:1"), eq(EMPTY_VALUE), ttl.capture(), any(CacheValueCodec.class));
+        assertTrue(ttl.getValue() >= 300 && ttl.getValue() <= 330);
+        verify(redisCache, never()).setAll(anyMap(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("清空权限缓存只自增代际号并广播，之后读写新代际的 Key")
+    void clearAllBumpsGeneration() {
+        when(redisCache.increment("sys:auth:perm:generation")).thenReturn(5L);
+        when(roleMapper.selectRoleLabelsByUserId(1L)).thenReturn(List.of("admin"));
+
+        adminCache.clearAllPermissionCache();
+        adminCache.getUserRoles(1L);
+
+        verify(redisCache).publish(AdminCache.CACHE_INVALIDATE_CHANNEL, "perm_gen:5");
+        verify(redisCache, atLeastOnce()).get(eq("perm:5:user:roles:1"), any());
+        verify(redisCache).set(eq("perm:5:user:roles:1"), any(), anyLong(), any(CacheValueCodec.class));
+        verify(redisCache, never()).unlinkByPattern(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("未抢到清理锁时不清理旧代际")
+    void sweepSkipsWithoutLock() {
+        when(redisCache.tryLock(eq("lock:perm:sweep"), any(), anyLong())).thenReturn(false);
+
+        assertEquals(0, adminCache.sweepStalePermissionGenerations(100));
+
+        verify(redisCache, never()).unlinkByPattern(any(), anyInt());
+        verify(redisCache, never()).unlock(any(), any());
+    }
+
+    @Test
+    @DisplayName("按代际从小到大清理，额度用完的代际留到下次，最后释放自己的锁")
+    void sweepRespectsBudgetAndReleasesLock() {
+        when(redisCache.tryLock(eq("lock:perm:sweep"), any(), anyLong())).thenReturn(true);
+        when(redisCache.get("sys:auth:perm:generation")).thenReturn(3L);
+        when(redisCache.unlinkByPattern("perm:0:*", 50)).thenReturn(20L);
+        when(redisCache.unlinkByPattern("perm:1:*", 30)).thenReturn(30L);
+
+        assertEquals(50, adminCache.sweepStalePermissionGenerations(50));
+
+        verify(redisCache).set("sys:auth:perm:generation:swept", 0L);
+        verify(redisCache, never()).set("sys:auth:perm:generation:swept", 1L);
+        verify(redisCache, never()).unlinkByPattern(eq("perm:2:*"), anyInt());
+        ArgumentCaptor<String> lockToken = ArgumentCaptor.forClass(String.class);
+        verify(redisCache).tryLock(eq("lock:perm:sweep"), lockToken.capture(), anyLong());
+        verify(redisCache).unlock("lock:perm:sweep", lockToken.getValue());
+    }
+
+    @Test
+    @DisplayName("批量缓存角色权限：管道写入，只失效一次本地快照并广播一次")
+    @SuppressWarnings("unchecked")
+    void cacheAllRoleMenuPermissionsInvalidatesOnce() {
+        MenuPermissionVO list = MenuPermissionVO.builder().menuId(1L).menuPerm("system:user:list").roleLabel("admin").build();
+        when(redisCache.get(eq("perm:0:user:roles:1"), any())).thenReturn(List.of("admin"));
+        when(redisCache.getAll(anyCollection(), any())).thenReturn(Map.of("perm:0:role:menus:admin", List.of(list)));
+        assertTrue(adminCache.getUserPermissions(1L).contains("system:user:list"));
+
+        adminCache.cacheAllRoleMenuPermissions(Map.of("admin", List.of(), "guest", List.of(list)));
+
+        ArgumentCaptor<Map<String, Object>> values = ArgumentCaptor.forClass(Map.class);
+        verify(redisCache, times(2)).setAll(values.capture(), anyLong(), any());
+        assertEquals(Map.of("perm:0:role:menus:guest", List.of(list)), values.getAllValues().get(0));
+        assertEquals(Map.of("perm:0:role:menus:admin", EMPTY_VALUE), values.getAllValues().get(1));
+        verify(redisCache).publish(AdminCache.CACHE_INVALIDATE_CHANNEL, "role_perm:*");
+        verify(redisCache, times(1)).publish(any(), any());
+
+        // 本地快照已失效，再次读取时重新计算
+        when(redisCache.getAll(anyCollection(), any())).thenReturn(Map.of("perm:0:role:menus:admin", EMPTY_VALUE));
+        assertFalse(adminCache.getUserPermissions(1L).contains("system:user:list"));
+    }
+
+    @Test
+    @DisplayName("收不到广播时路由快照按版本号定期校验并重新加载")
+    void routeSnapshotReloadsWithoutBroadcast() {
+        when(redisCache.get("sys:auth:route_map:version")).thenReturn(1L, 2L);
+        when(redisCache.hGetAll(eq("sys:auth:route_map"), any()))
+                .thenReturn(Map.of("GET:/api/user", "system:user:list"))
+                .thenReturn(Map.of("GET:/api/user", "system:user:query"));
+
+        assertEquals(Map.of("GET:/api/user", "system:user:list"), adminCache.getRoutePermissionCache());
+        // 校验间隔内直接使用本地快照
+        assertEquals(Map.of("GET:/api/user", "system:user:list"), adminCache.getRoutePermissionCache());
+        verify(redisCache, times(1)).get("sys:auth:route_map:version");
+
+        ReflectionTestUtils.setField(adminCache, "nextRouteMapVersionCheck", 0L);
+        assertEquals(Map.of("GET:/api/user", "system:user:query"), adminCache.getRoutePermissionCache());
+    }
+
+    @Test
+    @DisplayName("校验版本号时 Redis 不可用，继续使用本地快照")
+    void routeSnapshotSurvivesRedisOutage() {
+        when(redisCache.get("sys:auth:route_map:version")).thenReturn(1L).thenThrow(new IllegalStateException("down"));
+        when(redisCache.hGetAll(eq("sys:auth:route_map"), any())).thenReturn(Map.of("GET:/api/user", "system:user:list"));
+        adminCache.getRoutePermissionCache();
+
+        ReflectionTestUtils.setField(adminCache, "nextRouteMapVersionCheck", 0L);
+
+        assertEquals(Map.of("GET:/api/user", "system:user:list"), adminCache.getRoutePermissionCache());
+    }
+
+    private double counter(String cache, String result) {
+        return meterRegistry.get("ez.admin.permission.cache").tag("cache", cache).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,174 @@
+package com.ez.admin.common.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 单飞加载器测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("单飞加载器测试")
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("并发加载同一个 key 只回源一次，所有调用方共享结果")
+    void concurrentLoadsShareOneCall() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.load("role:1", () -> {
+                calls.incrementAndGet();
+                loaderStarted.countDown();
+                await(release);
+                return "perms";
+            })));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> singleFlight.load("role:1", () -> {
+                    calls.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // 等待其余线程进入等待状态后再放行回源
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("perms", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("加载完成后不缓存结果，下次调用重新回源")
+    void completedLoadIsNotCached() {
+        SingleFlight<Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(1, singleFlight.load("k", calls::incrementAndGet));
+        assertEquals(2, singleFlight.load("k", calls::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("加载异常传递给等待者，且不残留进行中的 key")
+    void failurePropagatesToWaiters() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("db down");
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> owner = executor.submit(() -> singleFlight.load("k", () -> {
+                loaderStarted.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> waiter = executor.submit(() -> singleFlight.load("k", () -> "unused"));
+            Thread.sleep(100);
+            release.countDown();
+
+            Exception ownerError = assertThrows(Exception.class, () -> owner.get(5, TimeUnit.SECONDS));
+            assertSame(failure, ownerError.getCause());
+            Exception waiterError = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertSame(failure, waiterError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("ok", singleFlight.load("k", () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("批量加载去重 key，结果中缺失的 key 不返回")
+    void loadAllDeduplicatesAndDropsMissing() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        List<List<String>> batches = new ArrayList<>();
+
+        Map<String, String> result = singleFlight.loadAll(List.of("a", "b", "a", "c"), keys -> {
+            batches.add(keys);
+            return Map.of("a", "A", "c", "C");
+        });
+
+        assertEquals(List.of(List.of("a", "b", "c")), batches);
+        assertEquals(Map.of("a", "A", "c", "C"), result);
+        assertFalse(result.containsKey("b"));
+    }
+
+    @Test
+    @DisplayName("批量加载等待其他线程正在加载的 key，只回源自己负责的 key")
+    void loadAllWaitsForInFlightKeys() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> single = executor.submit(() -> singleFlight.load("a", () -> {
+                loaderStarted.countDown();
+                await(release);
+                return "A";
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<List<String>> batches = new ArrayList<>();
+            Thread releaser = new Thread(() -> {
+                sleep(100);
+                release.countDown();
+            });
+            releaser.start();
+            Map<String, String> result = singleFlight.loadAll(List.of("a", "b"), keys -> {
+                batches.add(keys);
+                return Map.of("b", "B");
+            });
+            releaser.join();
+
+            assertEquals(List.of(List.of("b")), batches);
+            assertEquals(Map.of("a", "A", "b", "B"), result);
+            assertEquals("A", single.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ez.admin.common.infrastructure.cache.codec;
+
+import com.ez.admin.common.framework.datascope.DataScopeInfo;
+import com.ez.admin.common.infrastructure.redis.RedisCache;
+import com.ez.admin.common.infrastructure.redis.codec.CacheCodecs;
+import com.ez.admin.common.infrastructure.redis.codec.CacheValueCodec;
+import com.ez.admin.dto.menu.vo.MenuPermissionVO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 缓存紧凑编解码测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("缓存紧凑编解码测试")
+class CacheCodecTest {
+
+    private final GenericJacksonJsonRedisSerializer jsonSerializer = GenericJacksonJsonRedisSerializer.builder()
+            .enableUnsafeDefaultTyping()
+            .build();
+
+    @Test
+    @DisplayName("编码结果带 0xEC 魔数和编解码器ID")
+    void encodeWritesHeader() {
+        byte[] bytes = CacheCodecs.encode(StringCodec.INSTANCE, "system:user:list");
+
+        assertEquals(CacheCodecs.MAGIC, bytes[0]);
+        assertEquals(StringCodec.INSTANCE.id(), bytes[1]);
+        assertTrue(CacheCodecs.isCompact(bytes));
+    }
+
+    @Test
+    @DisplayName("字符串及字符串列表往返（含 null、空串、中文）")
+    void stringCodecsRoundTrip() {
+        assertEquals("权限", roundTrip(StringCodec.INSTANCE, "权限"));
+        assertEquals("", roundTrip(StringCodec.INSTANCE, ""));
+        assertNull(roundTrip(StringCodec.INSTANCE, null));
+
+        List<String> roles = Arrays.asList("admin", null, "", "测试角色");
+        assertEquals(roles, roundTrip(StringListCodec.INSTANCE, roles));
+        assertEquals(List.of(), roundTrip(StringListCodec.INSTANCE, List.of()));
+    }
+
+    @Test
+    @DisplayName("菜单权限列表往返（含 null 字段和极值）")
+    void menuPermissionListRoundTrip() {
+        List<MenuPermissionVO> menus = List.of(
+                MenuPermissionVO.builder().menuId(Long.MAX_VALUE).menuPerm("system:user:add").menuType(3)
+                        .roleId(1L).roleLabel("admin").build(),
+                MenuPermissionVO.builder().menuId(Long.MIN_VALUE).menuType(-1).build());
+
+        assertEquals(menus, roundTrip(MenuPermissionListCodec.INSTANCE, menus));
+    }
+
+    @Test
+    @DisplayName("数据权限信息往返（区分 null 列表与空列表）")
+    void dataScopeInfoRoundTrip() {
+        DataScopeInfo full = DataScopeInfo.builder()
+                .dataScope(5)
+                .userId(1024L)
+                .deptId(7L)
+                .ancestors("0,1,7")
+                .customDeptIds(Arrays.asList(3L, null, 9L))
+                .build();
+        DataScopeInfo empty = DataScopeInfo.builder().customDeptIds(List.of()).build();
+        DataScopeInfo nullList = DataScopeInfo.builder().dataScope(1).build();
+
+        assertEquals(full, roundTrip(DataScopeInfoCodec.INSTANCE, full));
+        assertEquals(List.of(), roundTrip(DataScopeInfoCodec.INSTANCE, empty).getCustomDeptIds());
+        assertNull(roundTrip(DataScopeInfoCodec.INSTANCE, nullList).getCustomDeptIds());
+    }
+
+    @Test
+    @DisplayName("编解码器ID不匹配或数据截断时抛出异常")
+    void rejectsMismatchedOrTruncatedData() {
+        byte[] bytes = CacheCodecs.encode(StringListCodec.INSTANCE, List.of("admin", "editor"));
+
+        assertThrows(IllegalStateException.class, () -> CacheCodecs.decode(StringCodec.INSTANCE, bytes));
+        assertThrows(IllegalStateException.class,
+                () -> CacheCodecs.decode(StringListCodec.INSTANCE, Arrays.copyOf(bytes, bytes.length - 2)));
+    }
+
+    @Test
+    @DisplayName("JSON 数据不会被识别为紧凑编码")
+    void jsonIsNeverCompact() {
+        assertFalse(CacheCodecs.isCompact(jsonSerializer.serialize(new ArrayList<>(List.of("admin")))));
+        assertFalse(CacheCodecs.isCompact(jsonSerializer.serialize("admin")));
+        assertFalse(CacheCodecs.isCompact(new byte[]{CacheCodecs.MAGIC}));
+        assertFalse(CacheCodecs.isCompact(null));
+    }
+
+    @Test
+    @DisplayName("读取时按头部选择紧凑解码或回退 JSON")
+    @SuppressWarnings("unchecked")
+    void redisCacheFallsBackToJson() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        doReturn(jsonSerializer).when(redisTemplate).getValueSerializer();
+        RedisCache redisCache = new RedisCache(redisTemplate);
+        // 与业务写入一致使用 ArrayList（JSON 带类型信息）
+        List<String> roles = new ArrayList<>(List.of("admin", "editor"));
+
+        doReturn(jsonSerializer.serialize(roles)).when(redisTemplate).execute(any(RedisCallback.class));
+        assertEquals(roles, redisCache.get("sys:auth:user_roles:1", StringListCodec.INSTANCE));
+
+        doReturn(CacheCodecs.encode(StringListCodec.INSTANCE, roles)).when(redisTemplate).execute(any(RedisCallback.class));
+        assertEquals(roles, redisCache.get("sys:auth:user_roles:1", StringListCodec.INSTANCE));
+    }
+
+    @Test
+    @DisplayName("未启用的命名空间只读：写入走 JSON，仍能解码紧凑数据")
+    void registryReadOnlyByDefault() {
+        CacheCodecRegistry registry = new CacheCodecRegistry(List.of());
+        CacheValueCodec<?> codec = registry.codecFor(CacheCodecRegistry.NAMESPACE_USER_ROLES);
+
+        assertFalse(codec.supports(List.of("admin")));
+        byte[] compact = CacheCodecs.encode(StringListCodec.INSTANCE, List.of("admin"));
+        assertEquals(List.of("admin"), CacheCodecs.decode(codec, compact));
+        assertNull(registry.codecFor("data_scope"));
+    }
+
+    @Test
+    @DisplayName("启用的命名空间使用紧凑编解码器，未知命名空间被忽略")
+    void registryEnablesConfiguredNamespaces() {
+        CacheCodecRegistry registry = new CacheCodecRegistry(List.of(" role_menus ", "unknown", ""));
+
+        assertSame(MenuPermissionListCodec.INSTANCE, registry.codecFor(CacheCodecRegistry.NAMESPACE_ROLE_MENUS));
+        assertFalse(registry.codecFor(CacheCodecRegistry.NAMESPACE_ROUTE_MAP).supports("perm"));
+        assertNull(registry.codecFor("unknown"));
+    }
+
+    @Test
+    @DisplayName("不支持的值回退 JSON：空菜单列表、非字符串元素")
+    void unsupportedValuesFallBackToJson() {
+        assertFalse(MenuPermissionListCodec.INSTANCE.supports(List.of()));
+        assertFalse(StringListCodec.INSTANCE.supports(List.of(1, 2)));
+    }
+
+    private static <T> T roundTrip(CacheValueCodec<T> codec, T value) {
+        return CacheCodecs.decode(codec, CacheCodecs.encode(codec, value));
+    }
+}
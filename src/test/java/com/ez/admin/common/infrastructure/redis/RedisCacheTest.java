@@ -0,0 +1,103 @@
+package com.ez.admin.common.infrastructure.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redis 缓存工具类测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("Redis 缓存工具类测试")
+class RedisCacheTest {
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private ValueOperations<String, Object> valueOperations;
+    private RedisCache redisCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        redisCache = new RedisCache(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("MGET 批量读取，只返回存在的键并保持传入顺序")
+    void getAllDropsMissingKeys() {
+        when(valueOperations.multiGet(List.of("c", "a", "b"))).thenReturn(Arrays.asList(3, null, 2));
+
+        Map<String, Object> result = redisCache.getAll(List.of("c", "a", "b"));
+
+        assertEquals(List.of("c", "b"), List.copyOf(result.keySet()));
+        assertEquals(Map.of("c", 3, "b", 2), result);
+    }
+
+    @Test
+    @DisplayName("键集合为空时不访问 Redis，MGET 返回 null 时返回空结果")
+    void getAllHandlesEmptyInputAndNullReply() {
+        assertEquals(Map.of(), redisCache.getAll(List.of()));
+        verifyNoInteractions(valueOperations);
+
+        when(valueOperations.multiGet(anyList())).thenReturn(null);
+        assertEquals(Map.of(), redisCache.getAll(List.of("a")));
+    }
+
+    @Test
+    @DisplayName("多个键通过一次管道写入，每个键带过期时间")
+    @SuppressWarnings("unchecked")
+    void setAllUsesSinglePipeline() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("a", 1);
+        values.put("b", 2);
+
+        redisCache.setAll(values, 60);
+
+        ArgumentCaptor<SessionCallback<Object>> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate).executePipelined(callback.capture());
+        verify(valueOperations, never()).set(any(), any(), any(Long.class), any());
+
+        // 在模拟的管道连接上执行回调，确认每个键都以 SET EX 写入
+        RedisOperations<String, Object> operations = mock(RedisOperations.class);
+        ValueOperations<String, Object> pipelined = mock(ValueOperations.class);
+        when(operations.opsForValue()).thenReturn(pipelined);
+        callback.getValue().execute(operations);
+        verify(pipelined).set("a", 1, 60, TimeUnit.SECONDS);
+        verify(pipelined).set("b", 2, 60, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("只有一个键时直接 SET，不开管道；空集合不访问 Redis")
+    void setAllSingleOrEmpty() {
+        redisCache.setAll(Map.of(), 60);
+        verifyNoInteractions(redisTemplate);
+
+        redisCache.setAll(Map.of("a", 1), 60);
+        verify(valueOperations).set("a", 1, 60, TimeUnit.SECONDS);
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+}
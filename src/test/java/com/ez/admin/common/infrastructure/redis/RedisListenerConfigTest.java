@@ -0,0 +1,54 @@
+package com.ez.admin.common.infrastructure.redis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redis 发布订阅配置测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("Redis 发布订阅配置测试")
+class RedisListenerConfigTest {
+
+    @Test
+    @DisplayName("Redis 不可用时启动不抛异常，后台重试订阅，停止后不再重试")
+    void startsWhenRedisIsDown() throws Exception {
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        when(factory.getConnection()).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        RedisListenerConfig.ResilientListenerContainer container = new RedisListenerConfig.ResilientListenerContainer(20);
+        container.setConnectionFactory(factory);
+        container.addMessageListener((message, pattern) -> {
+        }, new ChannelTopic("test"));
+        container.afterPropertiesSet();
+
+        assertDoesNotThrow(container::start);
+        verify(factory, timeout(2000).atLeast(3)).getConnection();
+        assertFalse(container.isListening());
+
+        container.stop();
+        // 等待已排队的重试执行完
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        clearInvocations(factory);
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        verify(factory, never()).getConnection();
+        container.destroy();
+    }
+}
@@ -127,7 +127,6 @@ public class PermissionIntegrationTest {
         request.setNickname("测试用户");
         request.setDeptId(1L);
         request.setGender(1);
-        request.setStatus(1);
 
         userService.createUser(request);
 
@@ -0,0 +1,75 @@
+package com.ez.admin.modules.system.mapper;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ez.admin.common.model.model.PageQuery;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 操作日志 Mapper 查询条件测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志 Mapper 查询条件测试")
+class SysOperationLogMapperTest {
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), SysOperationLog.class);
+    }
+
+    @Test
+    @DisplayName("关键词 OR 条件整体加括号，不会越过与高级条件的 AND")
+    void keywordOrIsParenthesised() {
+        PageQuery query = new PageQuery();
+        query.setKeyword("  admin ");
+
+        LambdaQueryWrapper<SysOperationLog> wrapper = captureWrapper(query);
+
+        String sql = wrapper.getSqlSegment();
+        // 三个 OR 条件包在同一个括号组内，之后追加的高级条件只能与整组 AND
+        assertTrue(sql.startsWith("((username LIKE "), sql);
+        assertTrue(sql.contains(" OR module LIKE ") && sql.contains(" OR description LIKE "), sql);
+        assertTrue(sql.endsWith(")) ORDER BY create_time DESC"), sql);
+        // 关键词去除首尾空白后按 %关键词% 匹配，可命中 pg_trgm 索引
+        assertEquals(3, wrapper.getParamNameValuePairs().values().stream().filter("%admin%"::equals).count());
+    }
+
+    @Test
+    @DisplayName("空白关键词不生成模糊条件")
+    void blankKeywordIsIgnored() {
+        PageQuery query = new PageQuery();
+        query.setKeyword("   ");
+
+        LambdaQueryWrapper<SysOperationLog> wrapper = captureWrapper(query);
+
+        assertEquals(" ORDER BY create_time DESC", wrapper.getSqlSegment());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LambdaQueryWrapper<SysOperationLog> captureWrapper(PageQuery query) {
+        SysOperationLogMapper mapper = mock(SysOperationLogMapper.class);
+        doCallRealMethod().when(mapper).selectLogPage(any(), any());
+
+        mapper.selectLogPage(query.toMpPage(), query);
+
+        ArgumentCaptor<Wrapper<SysOperationLog>> wrapper = ArgumentCaptor.forClass(Wrapper.class);
+        verify(mapper).selectPage(any(), wrapper.capture());
+        return (LambdaQueryWrapper<SysOperationLog>) wrapper.getValue();
+    }
+}
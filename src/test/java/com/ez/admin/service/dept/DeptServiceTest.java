@@ -0,0 +1,154 @@
+package com.ez.admin.service.dept;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ez.admin.common.core.exception.EzBusinessException;
+import com.ez.admin.common.data.mapstruct.DeptConverter;
+import com.ez.admin.common.framework.datascope.DataScopeCreatorCache;
+import com.ez.admin.dto.dept.req.DeptCreateReq;
+import com.ez.admin.dto.dept.req.DeptUpdateReq;
+import com.ez.admin.modules.system.entity.SysDept;
+import com.ez.admin.modules.system.entity.SysUser;
+import com.ez.admin.modules.system.mapper.SysDeptClosureMapper;
+import com.ez.admin.modules.system.mapper.SysDeptMapper;
+import com.ez.admin.modules.system.mapper.SysUserMapper;
+import com.ez.admin.modules.system.service.SysDeptService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 部门管理服务闭包表维护测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("部门管理服务闭包表维护测试")
+class DeptServiceTest {
+
+    private SysDeptMapper deptMapper;
+    private SysDeptClosureMapper deptClosureMapper;
+    private DataScopeCreatorCache creatorCache;
+    private SysUserMapper userMapper;
+    private DeptService deptService;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, SysDept.class);
+        TableInfoHelper.initTableInfo(assistant, SysUser.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        deptMapper = mock(SysDeptMapper.class);
+        deptClosureMapper = mock(SysDeptClosureMapper.class);
+        creatorCache = mock(DataScopeCreatorCache.class);
+        userMapper = mock(SysUserMapper.class);
+        deptService = new DeptService(deptMapper, deptClosureMapper, creatorCache, userMapper,
+                mock(SysDeptService.class), mock(DeptConverter.class));
+        when(deptMapper.selectById(10L)).thenReturn(dept(10L, 0L, "0"));
+        when(deptMapper.selectById(20L)).thenReturn(dept(20L, 10L, "0,10"));
+        when(deptMapper.selectById(30L)).thenReturn(dept(30L, 0L, "0"));
+    }
+
+    @Test
+    @DisplayName("新增部门时写入自身及父部门全部祖先的闭包关系，顶级部门的父部门按 0 处理")
+    void createInsertsClosureRows() {
+        doAnswer(invocation -> {
+            invocation.<SysDept>getArgument(0).setDeptId(99L);
+            return 1;
+        }).when(deptMapper).insert(any(SysDept.class));
+
+        deptService.createDept(createReq(20L));
+        verify(deptClosureMapper).insertNode(99L, 20L);
+
+        deptService.createDept(createReq(null));
+        verify(deptClosureMapper).insertNode(99L, 0L);
+    }
+
+    @Test
+    @DisplayName("更换父部门时先摘除子树再挂到新父部门下，并使可见创建人缓存失效")
+    void moveReattachesSubtree() {
+        deptService.updateDept(updateReq(20L, 30L));
+
+        InOrder inOrder = inOrder(deptClosureMapper, creatorCache);
+        inOrder.verify(deptClosureMapper).detachSubtree(20L);
+        inOrder.verify(deptClosureMapper).attachSubtree(20L, 30L);
+        inOrder.verify(creatorCache).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("移到顶级时只摘除，挂接到 0 不产生新关系")
+    void moveToTopLevel() {
+        deptService.updateDept(updateReq(20L, 0L));
+
+        verify(deptClosureMapper).detachSubtree(20L);
+        verify(deptClosureMapper).attachSubtree(20L, 0L);
+    }
+
+    @Test
+    @DisplayName("不能移动到自己的子部门下，闭包表不变")
+    void rejectsMoveUnderDescendant() {
+        when(deptClosureMapper.isDescendant(10L, 20L)).thenReturn(true);
+
+        assertThrows(EzBusinessException.class, () -> deptService.updateDept(updateReq(10L, 20L)));
+
+        verify(deptClosureMapper, never()).detachSubtree(anyLong());
+        verify(deptClosureMapper, never()).attachSubtree(anyLong(), anyLong());
+        verify(deptMapper, never()).updateById(any(SysDept.class));
+    }
+
+    @Test
+    @DisplayName("父部门不变时不改动闭包表")
+    void updateWithoutMoveKeepsClosure() {
+        deptService.updateDept(updateReq(20L, 10L));
+
+        verify(deptClosureMapper, never()).detachSubtree(anyLong());
+        verify(creatorCache, never()).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("删除没有子部门和用户的部门时删除其闭包关系")
+    void deleteRemovesClosureRows() {
+        deptService.deleteDept(20L);
+
+        verify(deptClosureMapper).deleteByDescendant(20L);
+    }
+
+    private static SysDept dept(Long deptId, Long parentId, String ancestors) {
+        SysDept dept = new SysDept();
+        dept.setDeptId(deptId);
+        dept.setParentId(parentId);
+        dept.setAncestors(ancestors);
+        return dept;
+    }
+
+    private static DeptCreateReq createReq(Long parentId) {
+        DeptCreateReq request = new DeptCreateReq();
+        request.setDeptName("研发部");
+        request.setParentId(parentId);
+        return request;
+    }
+
+    private static DeptUpdateReq updateReq(Long deptId, Long parentId) {
+        DeptUpdateReq request = new DeptUpdateReq();
+        request.setDeptId(deptId);
+        request.setDeptName("研发部");
+        request.setParentId(parentId);
+        return request;
+    }
+}
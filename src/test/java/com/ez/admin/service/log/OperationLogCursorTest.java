@@ -0,0 +1,74 @@
+package com.ez.admin.service.log;
+
+import com.ez.admin.common.core.exception.ErrorCode;
+import com.ez.admin.common.core.exception.EzBusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 操作日志游标测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志游标测试")
+class OperationLogCursorTest {
+
+    @Test
+    @DisplayName("编码后解码得到相同游标（含纳秒和极值ID）")
+    void roundTrip() {
+        OperationLogCursor cursor = new OperationLogCursor(
+                LocalDateTime.of(2026, 10, 17, 23, 59, 59, 123_456_789), Long.MAX_VALUE);
+
+        assertEquals(cursor, OperationLogCursor.decode(cursor.encode()));
+
+        OperationLogCursor wholeMinute = new OperationLogCursor(LocalDateTime.of(2026, 1, 1, 0, 0), 1L);
+        assertEquals(wholeMinute, OperationLogCursor.decode(wholeMinute.encode()));
+    }
+
+    @Test
+    @DisplayName("游标为 URL 安全字符，不带填充")
+    void encodedIsUrlSafe() {
+        String encoded = new OperationLogCursor(LocalDateTime.of(2026, 10, 17, 8, 0, 1), 1_234_567_890_123L).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"not-base64!", "djE", "%%%"})
+    @DisplayName("格式错误的游标抛出参数格式错误")
+    void rejectsMalformedInput(String cursor) {
+        assertInvalid(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "v2|2026-10-17T08:00|1",
+            "v1|2026-10-17T08:00",
+            "v1|2026-10-17T08:00|1|2",
+            "v1|2026-13-40T08:00|1",
+            "v1|2026-10-17T08:00|abc",
+            "v1||1"
+    })
+    @DisplayName("版本、字段数、时间或ID不合法的游标被拒绝")
+    void rejectsInvalidContent(String raw) {
+        assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertInvalid(String cursor) {
+        EzBusinessException e = assertThrows(EzBusinessException.class, () -> OperationLogCursor.decode(cursor));
+        assertEquals(ErrorCode.INVALID_PARAMETER_FORMAT.getCode(), e.getCode());
+    }
+}
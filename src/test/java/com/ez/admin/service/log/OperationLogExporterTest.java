@@ -0,0 +1,135 @@
+package com.ez.admin.service.log;
+
+import com.ez.admin.common.core.exception.EzBusinessException;
+import com.ez.admin.common.infrastructure.web.config.JacksonConfig;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 操作日志导出写出器测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志导出写出器测试")
+class OperationLogExporterTest {
+
+    private JsonMapper jsonMapper;
+    private OperationLogExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        JsonMapper.Builder builder = JsonMapper.builder();
+        new JacksonConfig().jsonMapperBuilderCustomizer().customize(builder);
+        jsonMapper = builder.build();
+        exporter = new OperationLogExporter(jsonMapper);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+            "=SUM(A1:A2)|\"'=SUM(A1:A2)\"",
+            "+1|\"'+1\"",
+            "-1|\"'-1\"",
+            "@cmd|\"'@cmd\"",
+            "a=b|\"a=b\"",
+            "say \"hi\"|\"say \"\"hi\"\"\""
+    })
+    @DisplayName("CSV 以公式字符开头的单元格加单引号前缀，双引号转义")
+    void csvNeutralisesFormulas(String description, String expected) throws IOException {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setDescription(description);
+
+        String[] lines = csv(List.of(logEntity));
+
+        assertEquals(",,," + expected + ",,,,,,,,,,", lines[1]);
+    }
+
+    @Test
+    @DisplayName("CSV 制表符和回车开头同样视为公式，NULL 输出为空，时间按统一格式输出")
+    void csvControlPrefixesAndNulls() throws IOException {
+        SysOperationLog logEntity = sample();
+        logEntity.setModule("\tcmd");
+        logEntity.setOperation("\rcmd");
+
+        String[] lines = csv(List.of(logEntity, new SysOperationLog()));
+
+        assertEquals(3, lines.length);
+        assertEquals("1234567890123,\"'\tcmd\",\"'\rcmd\",,1,\"admin\",\"POST\",\"/login\",\"127.0.0.1\",,15,1,,"
+                + "2026-10-17 08:30:00", lines[1]);
+        assertEquals(",,,,,,,,,,,,,", lines[2]);
+    }
+
+    @Test
+    @DisplayName("NDJSON 每行一个对象，Long 转字符串，时间统一格式")
+    void ndjsonWritesOneObjectPerLine() throws IOException {
+        SysOperationLog second = sample();
+        second.setLogId(2L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exporter.write(List.of(sample(), second), OperationLogExporter.Format.NDJSON, out));
+
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertEquals('\n', text.charAt(text.length() - 1));
+        String[] lines = text.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = jsonMapper.readTree(lines[0]);
+        assertEquals("1234567890123", first.get("logId").asString());
+        assertEquals("2026-10-17 08:30:00", first.get("createTime").asString());
+        assertEquals("2", jsonMapper.readTree(lines[1]).get("logId").asString());
+    }
+
+    @Test
+    @DisplayName("没有日志时 NDJSON 输出为空，CSV 只输出表头")
+    void emptyExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exporter.write(List.of(), OperationLogExporter.Format.NDJSON, out));
+        assertEquals(0, out.size());
+        assertEquals(1, csv(List.of()).length);
+    }
+
+    @Test
+    @DisplayName("导出格式不区分大小写，不支持的格式被拒绝")
+    void parsesFormat() {
+        assertEquals(OperationLogExporter.Format.CSV, OperationLogExporter.Format.of(" CSV "));
+        assertEquals(OperationLogExporter.Format.NDJSON, OperationLogExporter.Format.of("ndjson"));
+        assertThrows(EzBusinessException.class, () -> OperationLogExporter.Format.of("xlsx"));
+        assertThrows(EzBusinessException.class, () -> OperationLogExporter.Format.of(null));
+    }
+
+    private String[] csv(List<SysOperationLog> logs) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(logs.size(), exporter.write(logs, OperationLogExporter.Format.CSV, out));
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    private static SysOperationLog sample() {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setLogId(1_234_567_890_123L);
+        logEntity.setOperation("登录");
+        logEntity.setUserId(1L);
+        logEntity.setUsername("admin");
+        logEntity.setRequestMethod("POST");
+        logEntity.setRequestUrl("/login");
+        logEntity.setRequestIp("127.0.0.1");
+        logEntity.setExecuteTime(15L);
+        logEntity.setStatus(1);
+        logEntity.setCreateTime(LocalDateTime.of(2026, 10, 17, 8, 30));
+        return logEntity;
+    }
+}
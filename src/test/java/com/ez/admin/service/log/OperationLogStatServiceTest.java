@@ -0,0 +1,144 @@
+package com.ez.admin.service.log;
+
+import com.ez.admin.common.core.exception.EzBusinessException;
+import com.ez.admin.common.framework.oplog.OperationLogStatsCollector;
+import com.ez.admin.dto.log.req.OperationLogStatQueryReq;
+import com.ez.admin.dto.log.vo.OperationLogStatVO;
+import com.ez.admin.modules.system.entity.SysOperationLog;
+import com.ez.admin.modules.system.entity.SysOperationLogStat;
+import com.ez.admin.modules.system.mapper.SysOperationLogStatMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 操作日志统计服务测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("操作日志统计服务测试")
+class OperationLogStatServiceTest {
+
+    private static final LocalDateTime MINUTE = LocalDateTime.of(2026, 10, 17, 10, 0);
+
+    private SysOperationLogStatMapper statMapper;
+    private OperationLogStatsCollector collector;
+    private OperationLogStatService statService;
+
+    @BeforeEach
+    void setUp() {
+        statMapper = mock(SysOperationLogStatMapper.class);
+        collector = new OperationLogStatsCollector(statMapper);
+        ReflectionTestUtils.setField(collector, "enabled", true);
+        statService = new OperationLogStatService(statMapper, collector);
+    }
+
+    @Test
+    @DisplayName("按时长分布计算分位数，误差在 1% 以内")
+    void percentilesFromHistogram() {
+        for (long time = 1; time <= 1000; time++) {
+            collector.record(log(time, time % 10 == 0 ? 0 : 1));
+        }
+
+        OperationLogStatVO stat = single(query(MINUTE, MINUTE.plusHours(1)));
+
+        assertEquals(1000, stat.getRequestCount());
+        assertEquals(100, stat.getErrorCount());
+        assertEquals(500, stat.getAvgTime());
+        assertEquals(1000, stat.getMaxTime());
+        assertWithinOnePercent(500, stat.getP50Time());
+        assertWithinOnePercent(900, stat.getP90Time());
+        assertWithinOnePercent(990, stat.getP99Time());
+    }
+
+    @Test
+    @DisplayName("统计表中的分布与内存中最近一分钟的分布合并")
+    @SuppressWarnings("unchecked")
+    void mergesPersistedAndRecentHistograms() {
+        for (long time = 1; time <= 100; time++) {
+            collector.record(log(time, 1));
+        }
+        collector.shutdown();
+        ArgumentCaptor<List<SysOperationLogStat>> flushed = ArgumentCaptor.forClass(List.class);
+        verify(statMapper).insertBatch(flushed.capture());
+        when(statMapper.selectAggregates(any(), any(), any(), eq("endpoint"))).thenReturn(flushed.getValue());
+        when(statMapper.selectByTimeRange(any(), any(), any())).thenReturn(flushed.getValue());
+        for (long time = 101; time <= 200; time++) {
+            collector.record(log(time, 1));
+        }
+
+        OperationLogStatVO stat = single(query(MINUTE, MINUTE.plusHours(1)));
+
+        assertEquals(200, stat.getRequestCount());
+        assertEquals(200, stat.getMaxTime());
+        assertWithinOnePercent(100, stat.getP50Time());
+        assertWithinOnePercent(198, stat.getP99Time());
+    }
+
+    @Test
+    @DisplayName("时间跨度超过 1 天时只汇总次数和时长，不计算分位数")
+    void skipsPercentilesForLongRanges() {
+        collector.record(log(10, 1));
+
+        OperationLogStatVO stat = single(query(MINUTE, MINUTE.plusDays(2)));
+
+        assertEquals(1, stat.getRequestCount());
+        assertNull(stat.getP50Time());
+        assertNull(stat.getP99Time());
+        verify(statMapper, never()).selectByTimeRange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("开始时间不早于结束时间或跨度超过 31 天时拒绝查询")
+    void rejectsInvalidRanges() {
+        assertThrows(EzBusinessException.class, () -> query(MINUTE, MINUTE));
+        assertThrows(EzBusinessException.class, () -> query(MINUTE, MINUTE.plusDays(32)));
+    }
+
+    private List<OperationLogStatVO> query(LocalDateTime startTime, LocalDateTime endTime) {
+        OperationLogStatQueryReq request = new OperationLogStatQueryReq();
+        request.setStartTime(startTime);
+        request.setEndTime(endTime);
+        return statService.getStats(request);
+    }
+
+    private static OperationLogStatVO single(List<OperationLogStatVO> stats) {
+        assertEquals(1, stats.size());
+        OperationLogStatVO stat = stats.get(0);
+        assertEquals("用户管理", stat.getModule());
+        assertEquals("查询", stat.getOperation());
+        return stat;
+    }
+
+    private static void assertWithinOnePercent(long expected, Long actual) {
+        assertEquals(expected, actual, expected * 0.01 + 1, "percentile");
+    }
+
+    private static SysOperationLog log(long executeTime, int status) {
+        SysOperationLog logEntity = new SysOperationLog();
+        logEntity.setModule("用户管理");
+        logEntity.setOperation("查询");
+        logEntity.setUserId(1L);
+        logEntity.setUsername("admin");
+        logEntity.setExecuteTime(executeTime);
+        logEntity.setStatus(status);
+        logEntity.setCreateTime(MINUTE.plusSeconds(executeTime % 60));
+        return logEntity;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ez.admin.service.permission;
+
+import com.ez.admin.common.framework.permission.PermissionCodeRegistry;
+import com.ez.admin.common.infrastructure.cache.AdminCache;
+import com.ez.admin.modules.system.entity.SysRole;
+import com.ez.admin.modules.system.mapper.SysMenuMapper;
+import com.ez.admin.modules.system.mapper.SysRoleMapper;
+import com.ez.admin.modules.system.mapper.SysRoleMenuRelationMapper;
+import com.ez.admin.modules.system.service.SysRoleMenuRelationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 权限管理服务测试
+ *
+ * @author ez-admin
+ * @since 2026-10-17
+ */
+@DisplayName("权限管理服务测试")
+class PermissionServiceTest {
+
+    private AdminCache adminCache;
+    private SysRoleMapper roleMapper;
+    private SysRoleMenuRelationMapper roleMenuRelationMapper;
+    private PermissionService permissionService;
+
+    @BeforeEach
+    void setUp() {
+        adminCache = mock(AdminCache.class);
+        roleMapper = mock(SysRoleMapper.class);
+        roleMenuRelationMapper = mock(SysRoleMenuRelationMapper.class);
+        permissionService = new PermissionService(adminCache, new PermissionCodeRegistry(), roleMapper,
+                mock(SysMenuMapper.class), roleMenuRelationMapper, mock(SysRoleMenuRelationService.class));
+    }
+
+    @Test
+    @DisplayName("查询成功且角色无权限时写入空值标记")
+    void cachesEmptyResultWhenQuerySucceeds() {
+        when(roleMapper.selectById(1L)).thenReturn(role(1L, "guest"));
+        when(roleMenuRelationMapper.selectMenuIdsByRoleIds(anyList())).thenReturn(List.of());
+
+        permissionService.refreshRoleMenuPermissions(1L);
+
+        verify(adminCache).cacheRoleMenuPermissions("guest", List.of());
+        verify(adminCache, never()).evictRoleMenuPermissions(anyString());
+    }
+
+    @Test
+    @DisplayName("刷新时查询失败只清除缓存，不写入空值标记")
+    void refreshEvictsOnQueryFailure() {
+        when(roleMapper.selectById(1L)).thenReturn(role(1L, "admin"));
+        when(roleMenuRelationMapper.selectMenuIdsByRoleIds(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        permissionService.refreshRoleMenuPermissions(1L);
+
+        verify(adminCache).evictRoleMenuPermissions("admin");
+        verify(adminCache, never()).cacheRoleMenuPermissions(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("初始化时查询失败不写入任何缓存")
+    void initKeepsCacheOnQueryFailure() {
+        when(roleMapper.selectList(null)).thenReturn(List.of(role(1L, "admin"), role(2L, "guest")));
+        when(roleMenuRelationMapper.selectMenuIdsByRoleIds(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertEquals(0, permissionService.initAllRoleMenuPermissions());
+
+        verify(adminCache, never()).cacheRoleMenuPermissions(anyString(), any());
+        verify(adminCache, never()).cacheAllRoleMenuPermissions(any());
+        verify(adminCache, never()).evictRoleMenuPermissions(anyString());
+    }
+
+    @Test
+    @DisplayName("初始化时一次性批量写入所有角色，不逐个角色失效")
+    void initCachesAllRolesInBulk() {
+        when(roleMapper.selectList(null)).thenReturn(List.of(role(1L, "admin"), role(2L, "guest")));
+        when(roleMenuRelationMapper.selectMenuIdsByRoleIds(anyList())).thenReturn(List.of());
+
+        assertEquals(0, permissionService.initAllRoleMenuPermissions());
+
+        verify(adminCache).cacheAllRoleMenuPermissions(Map.of("admin", List.of(), "guest", List.of()));
+        verify(adminCache, never()).cacheRoleMenuPermissions(anyString(), any());
+    }
+
+    private static SysRole role(Long roleId, String roleLabel) {
+        SysRole role = new SysRole();
+        role.setRoleId(roleId);
+        role.setRoleLabel(roleLabel);
+        return role;
+    }
+}